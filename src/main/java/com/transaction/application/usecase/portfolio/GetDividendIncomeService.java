@@ -0,0 +1,74 @@
+package com.transaction.application.usecase.portfolio;
+
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.exception.ServiceException;
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.DividendIncome;
+import com.transaction.domain.model.DividendLedger;
+import com.transaction.domain.model.DividendSummary;
+import com.transaction.domain.port.input.GetDividendIncomeUseCase;
+import com.transaction.domain.port.output.DividendLedgerRepository;
+import com.transaction.util.StringUtils;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Use case for dividend income: trailing twelve months, yield on cost and a forward projection per ticker.
+ * Summaries are computed from the cached ledgers as of today, so no dividend rows are read unless a ticker changed.
+ */
+@ApplicationScoped
+public class GetDividendIncomeService implements GetDividendIncomeUseCase {
+
+    @Inject
+    DividendLedgerRepository dividendLedgerRepository;
+
+    @Override
+    public Uni<Result> getAll() {
+        return dividendLedgerRepository.findAll()
+                .map(ledgers -> (Result) new Result.Success(income(ledgers)))
+                .onFailure().recoverWithItem(GetDividendIncomeService::error);
+    }
+
+    @Override
+    public Uni<Result> getByTicker(String ticker) {
+        if (StringUtils.isNullOrBlank(ticker)) {
+            return Uni.createFrom().item(new Result.Error(Errors.DividendErrors.INVALID_INPUT,
+                    new ServiceException(Errors.DividendErrors.INVALID_INPUT, "Ticker is required")));
+        }
+
+        return dividendLedgerRepository.findByTicker(ticker)
+                .map(ledgers -> ledgers.isEmpty()
+                        ? (Result) new Result.NotFound(ticker)
+                        : new Result.Success(income(ledgers)))
+                .onFailure().recoverWithItem(GetDividendIncomeService::error);
+    }
+
+    private static DividendIncome income(List<DividendLedger> ledgers) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        List<DividendSummary> summaries = ledgers.stream().map(ledger -> ledger.summarize(today)).toList();
+
+        Map<Currency, DividendIncome.Total> totals = new EnumMap<>(Currency.class);
+        for (DividendSummary summary : summaries) {
+            totals.merge(summary.currency(),
+                    new DividendIncome.Total(summary.currency(), summary.trailingTwelveMonths(), summary.forwardAnnual(), summary.totalReceived()),
+                    (left, right) -> new DividendIncome.Total(left.currency(),
+                            left.trailingTwelveMonths().add(right.trailingTwelveMonths()),
+                            left.forwardAnnual().add(right.forwardAnnual()),
+                            left.totalReceived().add(right.totalReceived())));
+        }
+        return new DividendIncome(summaries, List.copyOf(totals.values()), today);
+    }
+
+    private static Result error(Throwable throwable) {
+        return new Result.Error(throwable instanceof ServiceException serviceException
+                ? serviceException.error()
+                : Errors.DividendErrors.PERSISTENCE_ERROR, throwable);
+    }
+}
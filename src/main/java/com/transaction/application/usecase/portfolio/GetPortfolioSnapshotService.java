@@ -0,0 +1,122 @@
+package com.transaction.application.usecase.portfolio;
+
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.model.ChangeMarker;
+import com.transaction.domain.model.PortfolioSnapshot;
+import com.transaction.domain.model.PositionBook;
+import com.transaction.domain.model.PositionCheckpoint;
+import com.transaction.domain.model.Transaction;
+import com.transaction.domain.port.input.GetPortfolioSnapshotUseCase;
+import com.transaction.domain.port.output.PortfolioContext;
+import com.transaction.domain.port.output.PositionCheckpointRepository;
+import com.transaction.domain.port.output.TransactionRepository;
+import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Use case for the open positions as of any day.
+ * Positions are resumed from the latest month-end checkpoint on or before the day, and only the transactions dated
+ * after it are replayed. Every write drops the checkpoints at or after the earliest date it touches, so the ones left
+ * are trusted without reading anything else.
+ * Replays that cross a completed month end leave a checkpoint there for the next query, and the previous month end
+ * is checkpointed on a schedule, in every portfolio.
+ */
+@ApplicationScoped
+public class GetPortfolioSnapshotService implements GetPortfolioSnapshotUseCase {
+
+    @Inject
+    TransactionRepository transactionRepository;
+
+    @Inject
+    PositionCheckpointRepository checkpointRepository;
+
+    @Inject
+    PortfolioContext portfolioContext;
+
+    @Override
+    public Uni<Result> execute(LocalDate asOf) {
+        if (asOf == null) {
+            return Uni.createFrom().item(new Result.Error(Errors.PortfolioSnapshotErrors.INVALID_INPUT,
+                    new IllegalArgumentException("asOf is required")));
+        }
+
+        return checkpointRepository.findLatestOnOrBefore(asOf)
+                .flatMap(checkpoint -> replay(checkpoint, asOf))
+                .map(snapshot -> (Result) new Result.Success(snapshot))
+                .onFailure().recoverWithItem(throwable -> new Result.Error(Errors.PortfolioSnapshotErrors.PERSISTENCE_ERROR, throwable));
+    }
+
+    @Scheduled(cron = "${application.snapshots.checkpoint-cron}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    Uni<Void> checkpointLastMonth() {
+        LocalDate monthEnd = previousMonthEnd(LocalDate.now(ZoneOffset.UTC));
+        return transactionRepository.findPortfolioIds()
+                .onItem().transformToMulti(portfolioIds -> Multi.createFrom().iterable(portfolioIds))
+                .onItem().transformToUniAndConcatenate(portfolioId -> portfolioContext.within(portfolioId, () -> execute(monthEnd.plusDays(1)))
+                        .invoke(result -> {
+                            if (result instanceof Result.Error error) {
+                                Log.error("Failed to checkpoint positions of portfolio %s as of %s".formatted(portfolioId, monthEnd),
+                                        error.throwable());
+                            }
+                        }))
+                .collect().last()
+                .onFailure().invoke(throwable -> Log.error("Failed to checkpoint positions as of %s".formatted(monthEnd), throwable))
+                .onFailure().recoverWithNull()
+                .replaceWithVoid();
+    }
+
+    private Uni<PortfolioSnapshot> replay(PositionCheckpoint checkpoint, LocalDate asOf) {
+        LocalDate from = checkpoint != null ? checkpoint.asOf().plusDays(1) : null;
+        LocalDate monthEnd = previousMonthEnd(asOf);
+        boolean takeCheckpoint = (from == null || !monthEnd.isBefore(from))
+                && monthEnd.isBefore(LocalDate.now(ZoneOffset.UTC));
+
+        // The marker is read before the transactions, so a write in between makes the save skip the checkpoint
+        Uni<String> marker = takeCheckpoint
+                ? transactionRepository.findChangeMarker().map(ChangeMarker::tag)
+                : Uni.createFrom().nullItem();
+
+        return marker.flatMap(tag -> transactionRepository.searchTransactions(null, null, from, asOf)
+                .flatMap(transactions -> {
+                    PositionBook book = PositionBook.of(checkpoint != null ? checkpoint.positions() : List.of());
+                    List<Transaction> delta = transactions.stream().sorted(PositionBook.CHRONOLOGICAL).toList();
+                    PositionCheckpoint taken = null;
+                    for (Transaction transaction : delta) {
+                        if (tag != null && taken == null && transaction.getTransactionDate().isAfter(monthEnd)) {
+                            taken = new PositionCheckpoint(monthEnd, tag, book.snapshot());
+                        }
+                        book.apply(transaction);
+                    }
+                    if (tag != null && taken == null) {
+                        taken = new PositionCheckpoint(monthEnd, tag, book.snapshot());
+                    }
+
+                    PortfolioSnapshot snapshot = new PortfolioSnapshot(asOf, book.snapshot(),
+                            checkpoint != null ? checkpoint.asOf() : null, delta.size());
+                    return taken == null
+                            ? Uni.createFrom().item(snapshot)
+                            : save(taken).replaceWith(snapshot);
+                }));
+    }
+
+    /**
+     * A checkpoint that fails to save is only a missed shortcut for later queries
+     */
+    private Uni<Void> save(PositionCheckpoint checkpoint) {
+        return checkpointRepository.save(checkpoint)
+                .onFailure().invoke(throwable -> Log.warn("Failed to save position checkpoint as of %s".formatted(checkpoint.asOf()), throwable))
+                .onFailure().recoverWithNull();
+    }
+
+    private static LocalDate previousMonthEnd(LocalDate date) {
+        return date.withDayOfMonth(1).minusDays(1);
+    }
+}
@@ -0,0 +1,50 @@
+package com.transaction.application.usecase.portfolio;
+
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.exception.ServiceException;
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.FxRate;
+import com.transaction.domain.port.input.UpdateFxRateUseCase;
+import com.transaction.domain.port.output.FxRateRepository;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@ApplicationScoped
+public class UpdateFxRateService implements UpdateFxRateUseCase {
+
+    @Inject
+    FxRateRepository fxRateRepository;
+
+    @Override
+    public Uni<Result> execute(Currency base, Currency quote, LocalDate date, BigDecimal rate) {
+        if (base == null || quote == null) {
+            return invalid("Base and quote currencies are required");
+        }
+        if (base == quote) {
+            return invalid("Base and quote currencies must differ");
+        }
+        if (date == null) {
+            return invalid("Rate date is required");
+        }
+        if (rate == null || rate.signum() <= 0) {
+            return invalid("Rate must be positive");
+        }
+
+        return fxRateRepository.save(new FxRate(base, quote, date, rate))
+                .map(saved -> (Result) new Result.Success(saved))
+                .onFailure().recoverWithItem(throwable -> new Result.Error(
+                        throwable instanceof ServiceException serviceException
+                                ? serviceException.error()
+                                : Errors.MarketDataErrors.PERSISTENCE_ERROR,
+                        throwable));
+    }
+
+    private static Uni<Result> invalid(String message) {
+        return Uni.createFrom().item(new Result.Error(Errors.MarketDataErrors.INVALID_INPUT,
+                new ServiceException(Errors.MarketDataErrors.INVALID_INPUT, message)));
+    }
+}
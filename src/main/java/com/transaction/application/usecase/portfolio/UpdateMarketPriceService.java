@@ -0,0 +1,50 @@
+package com.transaction.application.usecase.portfolio;
+
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.exception.ServiceException;
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.MarketPrice;
+import com.transaction.domain.port.input.UpdateMarketPriceUseCase;
+import com.transaction.domain.port.output.MarketPriceRepository;
+import com.transaction.util.StringUtils;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Locale;
+
+@ApplicationScoped
+public class UpdateMarketPriceService implements UpdateMarketPriceUseCase {
+
+    @Inject
+    MarketPriceRepository marketPriceRepository;
+
+    @Override
+    public Uni<Result> execute(String ticker, BigDecimal price, Currency currency) {
+        if (StringUtils.isNullOrBlank(ticker)) {
+            return invalid("Ticker is required");
+        }
+        if (price == null || price.signum() <= 0) {
+            return invalid("Price must be positive");
+        }
+        if (currency == null) {
+            return invalid("Currency is required");
+        }
+
+        MarketPrice marketPrice = new MarketPrice(ticker.trim().toUpperCase(Locale.ROOT), price, currency, Instant.now());
+        return marketPriceRepository.save(marketPrice)
+                .map(saved -> (Result) new Result.Success(saved))
+                .onFailure().recoverWithItem(throwable -> new Result.Error(
+                        throwable instanceof ServiceException serviceException
+                                ? serviceException.error()
+                                : Errors.MarketDataErrors.PERSISTENCE_ERROR,
+                        throwable));
+    }
+
+    private static Uni<Result> invalid(String message) {
+        return Uni.createFrom().item(new Result.Error(Errors.MarketDataErrors.INVALID_INPUT,
+                new ServiceException(Errors.MarketDataErrors.INVALID_INPUT, message)));
+    }
+}
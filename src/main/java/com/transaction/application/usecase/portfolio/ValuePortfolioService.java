@@ -0,0 +1,172 @@
+package com.transaction.application.usecase.portfolio;
+
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.FxRateTable;
+import com.transaction.domain.model.MarketPrice;
+import com.transaction.domain.model.PortfolioValuation;
+import com.transaction.domain.model.Position;
+import com.transaction.domain.model.PositionValuation;
+import com.transaction.domain.model.Transaction;
+import com.transaction.domain.model.TransactionType;
+import com.transaction.domain.port.input.ValuePortfolioUseCase;
+import com.transaction.domain.port.output.FxRateRepository;
+import com.transaction.domain.port.output.MarketPriceRepository;
+import com.transaction.domain.port.output.TransactionRepository;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Use case for valuing the open positions at the latest market prices.
+ * Transactions are folded into positions in a single pass, then priced from the market price cache only:
+ * a ticker whose price is not in memory is reported as unpriced instead of waiting on storage.
+ * Currency conversions read the in-memory exchange rate table: fees paid in another currency are converted at the
+ * transaction date, prices quoted in another currency at the latest rate.
+ */
+@ApplicationScoped
+public class ValuePortfolioService implements ValuePortfolioUseCase {
+
+    private static final Comparator<Transaction> CHRONOLOGICAL = Comparator
+            .comparing(Transaction::getTransactionDate)
+            .thenComparing(transaction -> transaction.getTransactionType().ordinal());
+
+    @Inject
+    TransactionRepository transactionRepository;
+
+    @Inject
+    MarketPriceRepository marketPriceRepository;
+
+    @Inject
+    FxRateRepository fxRateRepository;
+
+    @Override
+    public Uni<Result> execute(Currency baseCurrency) {
+        return transactionRepository.findAll()
+                .flatMap(transactions -> fxRateRepository.table()
+                        .flatMap(rates -> {
+                            List<Position> positions = positions(transactions, rates, baseCurrency);
+                            return marketPriceRepository.findCached(tickers(positions))
+                                    .map(prices -> (Result) new Result.Success(value(positions, prices, rates, baseCurrency)));
+                        }))
+                .onFailure().recoverWithItem(throwable -> new Result.Error(Errors.MarketDataErrors.VALUATION_ERROR, throwable));
+    }
+
+    private static List<Position> positions(List<Transaction> transactions, FxRateTable rates, Currency baseCurrency) {
+        Map<String, Position> positions = new LinkedHashMap<>();
+        transactions.stream()
+                .sorted(CHRONOLOGICAL)
+                .forEach(transaction -> {
+                    String ticker = normalize(transaction.getTicker());
+                    if (transaction.getTransactionType() == TransactionType.SPLIT) {
+                        // A split applies to the ticker whatever the currency it was bought in
+                        positions.values().stream()
+                                .filter(position -> position.getTicker().equals(ticker))
+                                .forEach(position -> position.apply(transaction));
+                        return;
+                    }
+                    BigDecimal cost = cost(transaction, rates);
+                    BigDecimal baseCost = baseCurrency != null
+                            ? rates.convert(cost, transaction.getCurrency(), baseCurrency, transaction.getTransactionDate())
+                            : null;
+                    positions.computeIfAbsent(ticker + "|" + transaction.getCurrency(),
+                                    ignored -> new Position(ticker, transaction.getCurrency()))
+                            .apply(transaction, cost, baseCost);
+                });
+        return positions.values().stream().filter(Position::isOpen).toList();
+    }
+
+    /**
+     * Total cost in the transaction currency. Fees without a rate to convert them are added as they are.
+     */
+    private static BigDecimal cost(Transaction transaction, FxRateTable rates) {
+        BigDecimal fees = transaction.getFees() != null ? transaction.getFees() : BigDecimal.ZERO;
+        Currency feeCurrency = transaction.getCommissionCurrency();
+        if (fees.signum() != 0 && feeCurrency != null && feeCurrency != transaction.getCurrency()) {
+            BigDecimal converted = rates.convert(fees, feeCurrency, transaction.getCurrency(), transaction.getTransactionDate());
+            if (converted != null) {
+                fees = converted;
+            }
+        }
+        return transaction.getTotalValue().add(fees);
+    }
+
+    private static Set<String> tickers(List<Position> positions) {
+        Set<String> tickers = new LinkedHashSet<>();
+        positions.forEach(position -> tickers.add(position.getTicker()));
+        return tickers;
+    }
+
+    private static PortfolioValuation value(List<Position> positions, Map<String, MarketPrice> prices,
+                                            FxRateTable rates, Currency baseCurrency) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        List<PositionValuation> valuations = new ArrayList<>(positions.size());
+        Map<Currency, PortfolioValuation.Total> totals = new EnumMap<>(Currency.class);
+        PortfolioValuation.Total baseTotal = baseCurrency != null
+                ? new PortfolioValuation.Total(baseCurrency, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO)
+                : null;
+        Set<String> unpriced = new LinkedHashSet<>();
+        Set<String> unconverted = new LinkedHashSet<>();
+
+        for (Position position : positions) {
+            PositionValuation valuation = position.value(inCurrency(prices.get(position.getTicker()), position.getCurrency(), rates, today));
+            valuations.add(valuation);
+            if (!valuation.isPriced()) {
+                unpriced.add(valuation.ticker());
+                continue;
+            }
+            totals.merge(valuation.currency(),
+                    new PortfolioValuation.Total(valuation.currency(), valuation.costBasis(), valuation.marketValue(), valuation.unrealizedGain()),
+                    ValuePortfolioService::add);
+
+            if (baseCurrency != null) {
+                BigDecimal baseCost = position.getBaseCostBasis();
+                BigDecimal baseValue = rates.convert(valuation.marketValue(), valuation.currency(), baseCurrency, today);
+                if (baseCost == null || baseValue == null) {
+                    unconverted.add(valuation.ticker());
+                } else {
+                    baseTotal = add(baseTotal, new PortfolioValuation.Total(baseCurrency, baseCost, baseValue, baseValue.subtract(baseCost)));
+                }
+            }
+        }
+
+        return new PortfolioValuation(valuations, List.copyOf(totals.values()), baseTotal,
+                List.copyOf(unpriced), List.copyOf(unconverted), Instant.now());
+    }
+
+    /**
+     * Quotes the price in the position currency at the latest rate, emits null when there is no such rate
+     */
+    private static MarketPrice inCurrency(MarketPrice price, Currency currency, FxRateTable rates, LocalDate date) {
+        if (price == null || price.currency() == currency) {
+            return price;
+        }
+        BigDecimal converted = rates.convert(price.price(), price.currency(), currency, date);
+        return converted != null ? new MarketPrice(price.ticker(), converted, currency, price.updatedAt()) : null;
+    }
+
+    private static PortfolioValuation.Total add(PortfolioValuation.Total left, PortfolioValuation.Total right) {
+        return new PortfolioValuation.Total(left.currency(),
+                left.costBasis().add(right.costBasis()),
+                left.marketValue().add(right.marketValue()),
+                left.unrealizedGain().add(right.unrealizedGain()));
+    }
+
+    private static String normalize(String ticker) {
+        return ticker.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,55 @@
+package com.transaction.application.usecase.transaction;
+
+import com.transaction.domain.model.SplitFactors;
+import com.transaction.domain.model.Transaction;
+import com.transaction.domain.port.input.AdjustForSplitsUseCase;
+import com.transaction.domain.port.output.SplitFactorRepository;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Use case for reading transactions split-adjusted.
+ * Splits are stored once as transactions of their own; quantities and prices are restated on read from the ticker's
+ * cumulative split factors, so a split never rewrites the rows before it.
+ */
+@ApplicationScoped
+public class AdjustForSplitsService implements AdjustForSplitsUseCase {
+
+    @Inject
+    SplitFactorRepository splitFactorRepository;
+
+    @Override
+    public Uni<Transaction> adjust(Transaction transaction) {
+        if (transaction == null) {
+            return Uni.createFrom().nullItem();
+        }
+        return splitFactorRepository.findByTicker(transaction.getTicker())
+                .map(factors -> factors.adjust(transaction));
+    }
+
+    @Override
+    public Uni<List<Transaction>> adjust(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return Uni.createFrom().item(transactions);
+        }
+
+        Set<String> tickers = new LinkedHashSet<>();
+        transactions.forEach(transaction -> tickers.add(transaction.getTicker()));
+        Map<String, SplitFactors> factorsByTicker = new HashMap<>();
+        return Multi.createFrom().iterable(tickers)
+                .onItem().transformToUniAndConcatenate(ticker -> splitFactorRepository.findByTicker(ticker)
+                        .invoke(factors -> factorsByTicker.put(ticker, factors)))
+                .collect().last()
+                .map(ignored -> transactions.stream()
+                        .map(transaction -> factorsByTicker.get(transaction.getTicker()).adjust(transaction))
+                        .toList());
+    }
+}
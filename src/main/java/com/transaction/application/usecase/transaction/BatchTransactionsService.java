@@ -0,0 +1,99 @@
+package com.transaction.application.usecase.transaction;
+
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.exception.ServiceException;
+import com.transaction.domain.port.input.BatchTransactionsUseCase;
+import com.transaction.domain.port.input.CreateTransactionUseCase;
+import com.transaction.domain.port.input.DeleteTransactionUseCase;
+import com.transaction.domain.port.input.UpdateTransactionUseCase;
+import com.transaction.domain.port.output.UnitOfWork;
+import io.quarkus.logging.Log;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Use case for applying many create, update and delete operations in one call.
+ * Operations are split into chunks and each chunk runs in one database transaction, which the single-item use cases
+ * join instead of opening their own. Within a chunk operations run one after another in the order given, and each
+ * one reports its own result. Every operation runs behind its own savepoint, so a rejected or failed operation,
+ * database errors included, does not undo the others. Their events are published once the chunk has committed.
+ */
+@ApplicationScoped
+public class BatchTransactionsService implements BatchTransactionsUseCase {
+
+    @Inject
+    CreateTransactionUseCase createTransactionUseCase;
+
+    @Inject
+    UpdateTransactionUseCase updateTransactionUseCase;
+
+    @Inject
+    DeleteTransactionUseCase deleteTransactionUseCase;
+
+    @Inject
+    UnitOfWork unitOfWork;
+
+    @ConfigProperty(name = "application.batch.max-operations", defaultValue = "500")
+    int maxOperations;
+
+    @ConfigProperty(name = "application.batch.chunk-size", defaultValue = "100")
+    int chunkSize;
+
+    @Override
+    public Uni<Result> execute(List<Operation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            return Uni.createFrom().item(invalidInput("A batch needs at least one operation"));
+        }
+        if (operations.size() > maxOperations) {
+            return Uni.createFrom().item(invalidInput("A batch accepts at most %d operations, got %d"
+                    .formatted(maxOperations, operations.size())));
+        }
+
+        return Multi.createFrom().iterable(chunks(operations))
+                .onItem().transformToUniAndConcatenate(chunk -> applyChunk(chunk)
+                        .onFailure().invoke(throwable -> Log.error("Batch chunk of %d operations was rolled back".formatted(chunk.size()), throwable))
+                        .onFailure().recoverWithItem(throwable -> chunk.stream()
+                                .map(operation -> (Outcome) new Outcome.Failed(operation, throwable))
+                                .toList()))
+                .collect().in(ArrayList<Outcome>::new, List::addAll)
+                .map(outcomes -> (Result) new Result.Success(Collections.unmodifiableList(outcomes)))
+                .onFailure().recoverWithItem(throwable -> new Result.Error(Errors.BatchTransactionsErrors.BATCH_ERROR, throwable));
+    }
+
+    Uni<List<Outcome>> applyChunk(List<Operation> chunk) {
+        return unitOfWork.transactional(() -> Multi.createFrom().iterable(chunk)
+                .onItem().transformToUniAndConcatenate(this::apply)
+                .collect().asList());
+    }
+
+    private Uni<Outcome> apply(Operation operation) {
+        return switch (operation) {
+            case Operation.Create create -> createTransactionUseCase.execute(create.command(), create.idempotencyKey())
+                    .map(Outcome.Created::new);
+            case Operation.Update update -> updateTransactionUseCase.execute(update.command(), update.expectedVersion())
+                    .map(Outcome.Updated::new);
+            case Operation.Delete delete -> deleteTransactionUseCase.execute(delete.id())
+                    .map(Outcome.Deleted::new);
+        };
+    }
+
+    private List<List<Operation>> chunks(List<Operation> operations) {
+        int size = Math.max(1, chunkSize);
+        return IntStream.range(0, (operations.size() + size - 1) / size)
+                .mapToObj(index -> operations.subList(index * size, Math.min(operations.size(), (index + 1) * size)))
+                .toList();
+    }
+
+    private static Result invalidInput(String message) {
+        return new Result.Error(Errors.BatchTransactionsErrors.INVALID_INPUT,
+                new ServiceException(Errors.BatchTransactionsErrors.INVALID_INPUT, message));
+    }
+}
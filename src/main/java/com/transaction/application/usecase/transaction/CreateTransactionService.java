@@ -5,18 +5,30 @@ import com.transaction.domain.event.DomainEvent;
 import com.transaction.domain.event.TransactionCreationErrorEvent;
 import com.transaction.domain.exception.Errors;
 import com.transaction.domain.exception.ServiceException;
+import com.transaction.domain.model.IdempotencyRecord;
 import com.transaction.domain.model.Transaction;
 import com.transaction.domain.model.TransactionError;
 import com.transaction.domain.port.input.CreateTransactionUseCase;
 import com.transaction.domain.port.output.DomainEventPublisher;
+import com.transaction.domain.port.output.IdempotencyRepository;
 import com.transaction.domain.port.output.TransactionRepository;
-import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
+import com.transaction.domain.port.output.UnitOfWork;
+import com.transaction.util.StringUtils;
 import io.quarkus.logging.Log;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
 
 @ApplicationScoped
 public class CreateTransactionService implements CreateTransactionUseCase {
@@ -25,19 +37,97 @@ public class CreateTransactionService implements CreateTransactionUseCase {
     TransactionRepository transactionRepository;
 
     @Inject
-    @Named("redisPublisher")
+    @Named("eventPublisher")
     DomainEventPublisher eventPublisher;
 
-    @WithTransaction
+    @Inject
+    IdempotencyRepository idempotencyRepository;
+
+    @Inject
+    UnitOfWork unitOfWork;
+
+    @ConfigProperty(name = "application.idempotency.ttl", defaultValue = "PT24H")
+    Duration idempotencyTtl;
+
     public Uni<Result> execute(CreateTransactionCommand command) {
-        return Uni.createFrom().item(command::toTransaction)
-                .flatMap(transaction -> transactionRepository.save(transaction))
-                .onItem().invoke(saved -> Log.info("Transaction saved for ticker %s".formatted(saved.getTicker())))
-                .map(CreateTransactionService::success)
+        return execute(command, null);
+    }
+
+    /**
+     * Runs in one database transaction, so a claimed idempotency key is released again when the create fails.
+     * Events are published once it has committed, or once the enclosing unit of work has, when it runs in a batch.
+     */
+    @Override
+    public Uni<Result> execute(CreateTransactionCommand command, String idempotencyKey) {
+        return unitOfWork.transactional(() -> StringUtils.hasMeaningfulContent(idempotencyKey)
+                        ? createOnce(command, idempotencyKey)
+                        : Uni.createFrom().item(command::toTransaction).flatMap(transaction -> create(transaction, null, null, null)))
                 .onFailure().recoverWithItem(throwable -> transformToError(throwable, command))
                 .flatMap(this::publishDomainEvents);
     }
 
+    /**
+     * Answers a known key from its stored outcome, otherwise claims it before creating the transaction. Two requests
+     * racing on a new key both miss the lookup, but the second claim waits for the first transaction and then sees
+     * its committed outcome.
+     */
+    private Uni<Result> createOnce(CreateTransactionCommand command, String idempotencyKey) {
+        String fingerprint = fingerprint(command);
+
+        return idempotencyRepository.find(idempotencyKey)
+                .flatMap(stored -> {
+                    if (stored != null) {
+                        return Uni.createFrom().item(answer(stored, command, fingerprint));
+                    }
+
+                    Transaction transaction = command.toTransaction();
+                    Instant expiresAt = Instant.now().plus(idempotencyTtl);
+                    return idempotencyRepository.claim(idempotencyKey, fingerprint, expiresAt)
+                            .flatMap(claimed -> claimed
+                                    ? create(transaction, idempotencyKey, fingerprint, expiresAt)
+                                    : idempotencyRepository.find(idempotencyKey)
+                                    .map(current -> current != null
+                                            ? answer(current, command, fingerprint)
+                                            : keyInUse(command, idempotencyKey)));
+                });
+    }
+
+    private Uni<Result> create(Transaction transaction, String idempotencyKey, String fingerprint, Instant expiresAt) {
+        return transactionRepository.save(transaction)
+                .onItem().invoke(saved -> Log.info("Transaction saved for ticker %s".formatted(saved.getTicker())))
+                .call(saved -> rememberOutcome(idempotencyKey, fingerprint, expiresAt, saved))
+                .map(CreateTransactionService::success);
+    }
+
+    /**
+     * Completes the key claimed by this request in the same database transaction as the new row.
+     */
+    private Uni<Void> rememberOutcome(String idempotencyKey, String fingerprint, Instant expiresAt, Transaction saved) {
+        if (idempotencyKey == null) {
+            return Uni.createFrom().voidItem();
+        }
+
+        return idempotencyRepository.save(new IdempotencyRecord(idempotencyKey, fingerprint, saved, expiresAt));
+    }
+
+    private static Result answer(IdempotencyRecord stored, CreateTransactionCommand command, String fingerprint) {
+        if (!stored.matches(fingerprint)) {
+            Log.warn("Idempotency key %s reused with a different request for ticker %s".formatted(stored.key(), command.ticker()));
+            return new Result.Error(Errors.CreateTransactionsErrors.IDEMPOTENCY_KEY_REUSED, command,
+                    new ServiceException(Errors.CreateTransactionsErrors.IDEMPOTENCY_KEY_REUSED,
+                            "Idempotency key was already used with a different request"));
+        }
+        Log.info("Replaying stored response for idempotency key %s".formatted(stored.key()));
+        return new Result.Replayed(stored.transaction());
+    }
+
+    private static Result keyInUse(CreateTransactionCommand command, String idempotencyKey) {
+        Log.warn("Idempotency key %s is held by a request that has not completed".formatted(idempotencyKey));
+        return new Result.Error(Errors.CreateTransactionsErrors.IDEMPOTENCY_KEY_IN_USE, command,
+                new ServiceException(Errors.CreateTransactionsErrors.IDEMPOTENCY_KEY_IN_USE,
+                        "Idempotency key is held by a request that has not completed"));
+    }
+
     private Uni<Result> publishDomainEvents(Result result) {
         if (result instanceof Result.Success(Transaction transaction)) {
             var events = transaction.popEvents(); // Get and clear domain events
@@ -46,14 +136,15 @@ public class CreateTransactionService implements CreateTransactionUseCase {
                 return Uni.createFrom().item(() -> result);
             }
 
-            return Multi.createFrom().iterable(events)
-                    .onItem().transformToUniAndMerge(event -> eventPublisher.publish(event))
-                    .collect().asList()
+            return unitOfWork.afterCommit(() -> Multi.createFrom().iterable(events)
+                            .onItem().transformToUniAndMerge(event -> eventPublisher.publish(event))
+                            .collect().asList()
+                            .replaceWithVoid())
                     .replaceWith(() -> result)
                     .onFailure().recoverWithItem(throwable -> new Result.PublishError(transaction, throwable));
         }
 
-        if (result instanceof Result.Error error) {
+        if (result instanceof Result.Error error && !isIdempotencyConflict(error)) {
             CreateTransactionCommand command = error.command();
             TransactionError transactionError =
                     new TransactionError(command.ticker(), command.transactionType(), command.quantity(), command.price(), command.transactionDate());
@@ -70,6 +161,44 @@ public class CreateTransactionService implements CreateTransactionUseCase {
         return new Result.Success(transaction);
     }
 
+    /**
+     * Digest of the request with amounts in their plain, normalized form, so {@code 10} and {@code 10.0} are the same
+     * request.
+     */
+    private static String fingerprint(CreateTransactionCommand command) {
+        String canonical = String.join("|",
+                String.valueOf(command.ticker()),
+                String.valueOf(command.transactionType()),
+                normalized(command.quantity()),
+                normalized(command.price()),
+                normalized(command.fees()),
+                String.valueOf(command.currency()),
+                String.valueOf(command.transactionDate()),
+                String.valueOf(command.notes()),
+                String.valueOf(command.isFractional()),
+                normalized(command.fractionalMultiplier()),
+                String.valueOf(command.commissionCurrency()),
+                String.valueOf(command.exchange()),
+                String.valueOf(command.country()),
+                String.valueOf(command.companyName()));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String normalized(BigDecimal amount) {
+        return amount != null ? amount.stripTrailingZeros().toPlainString() : "null";
+    }
+
+    private static boolean isIdempotencyConflict(Result.Error error) {
+        return error.error() == Errors.CreateTransactionsErrors.IDEMPOTENCY_KEY_REUSED
+                || error.error() == Errors.CreateTransactionsErrors.IDEMPOTENCY_KEY_IN_USE;
+    }
+
     private static Result transformToError(Throwable throwable, CreateTransactionCommand command) {
         if (throwable instanceof ServiceException serviceException) {
             return new Result.Error(serviceException.error(), command, throwable);
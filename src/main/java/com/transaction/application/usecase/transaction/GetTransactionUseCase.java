@@ -1,6 +1,10 @@
 package com.transaction.application.usecase.transaction;
 
+import com.transaction.domain.model.ChangeMarker;
 import com.transaction.domain.model.Transaction;
+import com.transaction.domain.model.TransactionPage;
+import com.transaction.domain.model.TransactionPageCursor;
+import com.transaction.domain.model.TransactionSummary;
 import com.transaction.domain.model.TransactionType;
 import com.transaction.domain.port.output.TransactionRepository;
 import io.quarkus.hibernate.reactive.panache.common.WithSession;
@@ -10,6 +14,7 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -57,6 +62,25 @@ public class GetTransactionUseCase {
                 .transformToMulti(list -> Multi.createFrom().iterable(list));
     }
 
+    /**
+     * Searches transactions by criteria, one page of at most {@code limit} transactions after {@code cursor}
+     */
+    public Uni<TransactionPage> searchTransactions(String ticker, TransactionType type,
+                                                   LocalDate fromDate, LocalDate toDate,
+                                                   String cursor, int limit) {
+        return Uni.createFrom().item(() -> TransactionPageCursor.decode(cursor))
+                .flatMap(after -> transactionRepository.searchTransactions(ticker, type, fromDate, toDate, after, limit + 1))
+                .map(fetched -> TransactionPage.of(fetched, limit));
+    }
+
+    /**
+     * Summarizes the transactions matching the criteria per ticker, type and currency
+     */
+    public Uni<List<TransactionSummary>> summarizeTransactions(String ticker, TransactionType type,
+                                                               LocalDate fromDate, LocalDate toDate) {
+        return transactionRepository.summarizeTransactions(ticker, type, fromDate, toDate);
+    }
+
     /**
      * Checks if a transaction exists
      */
@@ -80,4 +104,25 @@ public class GetTransactionUseCase {
     public Uni<Long> countByTicker(String ticker) {
         return transactionRepository.countByTicker(ticker);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Gets the change marker of a transaction, {@code null} if it does not exist
+     */
+    public Uni<ChangeMarker> getChangeMarker(UUID id) {
+        return transactionRepository.findChangeMarkerById(id);
+    }
+
+    /**
+     * Gets the change marker of the transactions of a ticker
+     */
+    public Uni<ChangeMarker> getChangeMarkerByTicker(String ticker) {
+        return transactionRepository.findChangeMarkerByTicker(ticker);
+    }
+
+    /**
+     * Gets the change marker of all transactions
+     */
+    public Uni<ChangeMarker> getChangeMarker() {
+        return transactionRepository.findChangeMarker();
+    }
+}
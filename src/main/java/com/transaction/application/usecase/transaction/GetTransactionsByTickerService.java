@@ -1,5 +1,7 @@
 package com.transaction.application.usecase.transaction;
 
+import com.transaction.domain.model.TransactionPage;
+import com.transaction.domain.model.TransactionPageCursor;
 import com.transaction.domain.port.input.GetTransactionByTickerUseCase;
 import com.transaction.domain.port.output.TransactionRepository;
 import io.smallrye.mutiny.Uni;
@@ -28,4 +30,18 @@ public class GetTransactionsByTickerService implements GetTransactionByTickerUse
                 })
                 .onFailure().recoverWithItem(Result.Error::new);
     }
-} 
\ No newline at end of file
+
+    @Override
+    public Uni<Result> getByTicker(String ticker, String cursor, int limit) {
+        return Uni.createFrom().item(() -> TransactionPageCursor.decode(cursor))
+                .flatMap(after -> transactionRepository.searchTransactions(ticker, null, null, null, after, limit + 1))
+                .onItem().transform(fetched -> {
+                    if (fetched.isEmpty() && (cursor == null || cursor.isBlank())) {
+                        return (Result) new Result.NotFound();
+                    }
+                    TransactionPage page = TransactionPage.of(fetched, limit);
+                    return new Result.Success(page.transactions(), page.nextCursor());
+                })
+                .onFailure().recoverWithItem(Result.Error::new);
+    }
+}
@@ -0,0 +1,211 @@
+package com.transaction.application.usecase.transaction;
+
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.model.ProjectionReplay;
+import com.transaction.domain.model.TransactionChange;
+import com.transaction.domain.port.input.ReplayTransactionChangesUseCase;
+import com.transaction.domain.port.output.ProjectionCheckpointRepository;
+import com.transaction.domain.port.output.TransactionChangeStream;
+import com.transaction.domain.port.output.TransactionProjection;
+import io.quarkus.arc.All;
+import io.quarkus.logging.Log;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Use case for rebuilding projections from the published transaction changes.
+ * Changes are applied in batches: within a batch they are partitioned by ticker, partitions run in parallel and
+ * each one applies its changes in order. The checkpoint is saved once a whole batch has been applied, so a replay
+ * that stops midway resumes from the last complete batch and at worst applies part of one batch again.
+ * The progress of the latest replay is stored along with the checkpoint after every batch.
+ */
+@ApplicationScoped
+public class ReplayTransactionChangesService implements ReplayTransactionChangesUseCase {
+
+    @Inject
+    TransactionChangeStream transactionChangeStream;
+
+    @Inject
+    ProjectionCheckpointRepository checkpointRepository;
+
+    @Inject
+    @All
+    List<TransactionProjection> projections;
+
+    @ConfigProperty(name = "application.replay.batch-size", defaultValue = "500")
+    int batchSize;
+
+    @ConfigProperty(name = "application.replay.parallelism", defaultValue = "8")
+    int parallelism;
+
+    private final Map<String, ProjectionReplay> replays = new ConcurrentHashMap<>();
+
+    @Override
+    public Uni<Result> replay(String projectionName, String fromCursor, Instant since, boolean reset) {
+        TransactionProjection projection = find(projectionName);
+        if (projection == null) {
+            return Uni.createFrom().item(new Result.NotFound(projectionName));
+        }
+
+        return startCursor(projection, fromCursor, since, reset)
+                .map(start -> start(projection, start, reset))
+                .onFailure().recoverWithItem(throwable ->
+                        new Result.Error(Errors.ReplayTransactionsErrors.REPLAY_ERROR, projectionName, throwable));
+    }
+
+    @Override
+    public Uni<List<ProjectionReplay>> status() {
+        return Multi.createFrom().iterable(projections)
+                .onItem().transformToUniAndConcatenate(projection -> {
+                    ProjectionReplay last = replays.get(projection.name());
+                    if (last != null && last.isRunning()) {
+                        return Uni.createFrom().item(last);
+                    }
+                    Uni<ProjectionReplay> replay = last != null
+                            ? Uni.createFrom().item(last)
+                            : checkpointRepository.findReplay(projection.name());
+                    return Uni.combine().all()
+                            .unis(checkpointRepository.find(projection.name()), replay)
+                            .with((checkpoint, latest) -> latest != null
+                                    ? latest.withCheckpoint(checkpoint)
+                                    : new ProjectionReplay(projection.name(), null, checkpoint, 0, null, null, null));
+                })
+                .collect().asList();
+    }
+
+    private Result start(TransactionProjection projection, String start, boolean reset) {
+        Multi<TransactionChange> changes;
+        try {
+            changes = transactionChangeStream.replay(start);
+        } catch (IllegalArgumentException e) {
+            return new Result.Error(Errors.ReplayTransactionsErrors.INVALID_INPUT, projection.name(), e);
+        }
+
+        ProjectionReplay replay = new ProjectionReplay(projection.name(), start, start, 0, Instant.now(), null, null);
+        ProjectionReplay current = replays.compute(projection.name(),
+                (name, existing) -> existing != null && existing.isRunning() ? existing : replay);
+        if (current != replay) {
+            return new Result.AlreadyRunning(current);
+        }
+
+        Log.infof("Replaying transaction changes through projection %s from %s%s",
+                projection.name(), start != null ? start : "the beginning", reset ? " after a reset" : "");
+        checkpointRepository.saveReplay(replay)
+                .call(() -> reset ? projection.reset() : Uni.createFrom().voidItem())
+                .onItem().transformToMulti(ignored -> changes)
+                .group().intoLists().of(batchSize)
+                .onItem().transformToUniAndConcatenate(batch -> applyBatch(projection, batch)
+                        .call(() -> checkpointRepository.save(projection.name(), batch.getLast().cursor()))
+                        .map(ignored -> replays.computeIfPresent(projection.name(),
+                                (name, running) -> running.progressed(batch.size(), batch.getLast().cursor())))
+                        .call(checkpointRepository::saveReplay))
+                .collect().last()
+                .subscribe().with(
+                        ignored -> finish(projection.name(), null),
+                        throwable -> finish(projection.name(), throwable));
+        return new Result.Started(replay);
+    }
+
+    /**
+     * A reset discards what the checkpoint points past, so without an explicit start it rebuilds from the beginning.
+     */
+    private Uni<String> startCursor(TransactionProjection projection, String fromCursor, Instant since, boolean reset) {
+        if (fromCursor != null && !fromCursor.isBlank()) {
+            return Uni.createFrom().item(fromCursor.trim());
+        }
+        if (since != null) {
+            return Uni.createFrom().item(transactionChangeStream.cursorAt(since));
+        }
+        if (reset) {
+            return Uni.createFrom().nullItem();
+        }
+        return checkpointRepository.find(projection.name());
+    }
+
+    /**
+     * An update that moves a transaction to another ticker concerns two partitions, so it splits the batch:
+     * it is applied alone once the changes before it are done, and the changes after it wait for it.
+     */
+    private Uni<Void> applyBatch(TransactionProjection projection, List<TransactionChange> batch) {
+        List<List<TransactionChange>> segments = new ArrayList<>();
+        List<TransactionChange> segment = new ArrayList<>();
+        for (TransactionChange change : batch) {
+            if (movesTicker(change)) {
+                if (!segment.isEmpty()) {
+                    segments.add(segment);
+                    segment = new ArrayList<>();
+                }
+                segments.add(List.of(change));
+            } else {
+                segment.add(change);
+            }
+        }
+        if (!segment.isEmpty()) {
+            segments.add(segment);
+        }
+
+        return Multi.createFrom().iterable(segments)
+                .onItem().transformToUniAndConcatenate(changes -> applyPartitioned(projection, changes))
+                .collect().last()
+                .replaceWithVoid();
+    }
+
+    /**
+     * Changes of one ticker always land in the same partition, so their order is kept while tickers run in parallel.
+     */
+    private Uni<Void> applyPartitioned(TransactionProjection projection, List<TransactionChange> segment) {
+        Map<Integer, List<TransactionChange>> partitions = new LinkedHashMap<>();
+        for (TransactionChange change : segment) {
+            partitions.computeIfAbsent(partition(change), ignored -> new ArrayList<>()).add(change);
+        }
+
+        return Multi.createFrom().iterable(partitions.values())
+                .onItem().transformToUni(changes -> Multi.createFrom().iterable(changes)
+                        .onItem().transformToUniAndConcatenate(projection::apply)
+                        .collect().last())
+                .merge(parallelism)
+                .collect().last()
+                .replaceWithVoid();
+    }
+
+    private static boolean movesTicker(TransactionChange change) {
+        return change.previousTicker() != null && !change.previousTicker().equalsIgnoreCase(change.ticker());
+    }
+
+    private int partition(TransactionChange change) {
+        String ticker = change.ticker() != null ? change.ticker().toUpperCase(Locale.ROOT) : "";
+        return Math.floorMod(ticker.hashCode(), parallelism);
+    }
+
+    private void finish(String projectionName, Throwable failure) {
+        ProjectionReplay finished = replays.computeIfPresent(projectionName,
+                (name, running) -> running.finished(Instant.now(), failure != null ? failure.getMessage() : null));
+        checkpointRepository.saveReplay(finished).subscribe().with(
+                ignored -> { },
+                throwable -> Log.warn("Failed to store the replay status of projection %s".formatted(projectionName), throwable));
+        if (failure != null) {
+            Log.error("Replay of projection %s stopped at %s".formatted(projectionName, finished.checkpoint()), failure);
+        } else {
+            Log.infof("Replay of projection %s applied %d changes up to %s",
+                    projectionName, finished.applied(), finished.checkpoint());
+        }
+    }
+
+    private TransactionProjection find(String projectionName) {
+        return projections.stream()
+                .filter(projection -> projection.name().equals(projectionName))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -3,7 +3,6 @@ package com.transaction.application.usecase.transaction;
 import com.transaction.application.command.UpdateTransactionCommand;
 import com.transaction.domain.event.DomainEvent;
 import com.transaction.domain.event.TransactionCreationErrorEvent;
-import com.transaction.domain.event.TransactionDeletedEvent;
 import com.transaction.domain.exception.Error;
 import com.transaction.domain.exception.Errors;
 import com.transaction.domain.exception.ServiceException;
@@ -12,8 +11,8 @@ import com.transaction.domain.model.TransactionError;
 import com.transaction.domain.port.input.UpdateTransactionUseCase;
 import com.transaction.domain.port.output.DomainEventPublisher;
 import com.transaction.domain.port.output.TransactionRepository;
+import com.transaction.domain.port.output.UnitOfWork;
 import com.transaction.util.StringUtils;
-import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
 import io.quarkus.logging.Log;
 import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
@@ -21,7 +20,7 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
 
-import java.util.ArrayList;
+import java.util.Objects;
 
 @ApplicationScoped
 public class UpdateTransactionService implements UpdateTransactionUseCase {
@@ -30,48 +29,65 @@ public class UpdateTransactionService implements UpdateTransactionUseCase {
     TransactionRepository transactionRepository;
 
     @Inject
-    @Named("redisPublisher")
+    @Named("eventPublisher")
     DomainEventPublisher eventPublisher;
 
+    @Inject
+    UnitOfWork unitOfWork;
+
     @Override
-    @WithTransaction
     public Uni<Result> execute(UpdateTransactionCommand command) {
-        return transactionRepository.findById(command.transactionId())
+        return execute(command, null);
+    }
+
+    @Override
+    public Uni<Result> execute(UpdateTransactionCommand command, Long expectedVersion) {
+        return unitOfWork.transactional(() -> transactionRepository.findById(command.transactionId())
                 .flatMap(found -> {
                     if (found == null) {
                         return Uni.createFrom().item(new Result.NotFound());
                     }
-                    return deleteAndCreateNew(found, command);
-                })
-                .onFailure().recoverWithItem(throwable -> transformToError(throwable, command));
+                    if (expectedVersion != null && !Objects.equals(expectedVersion, found.getVersion())) {
+                        Log.info("Version conflict updating transaction %s: expected %s, current %s"
+                                .formatted(found.getId(), expectedVersion, found.getVersion()));
+                        return Uni.createFrom().item(new Result.VersionConflict());
+                    }
+                    return updateInPlace(found, command);
+                }))
+                .onFailure().recoverWithItem(throwable -> transformToError(throwable, command))
+                .flatMap(result -> result instanceof Result.Success
+                        ? publishDomainEvents(result, command)
+                        : Uni.createFrom().item(result));
     }
 
-    private Uni<Result> deleteAndCreateNew(Transaction current, UpdateTransactionCommand command) {
-        Transaction oldTransaction = createTransactionSnapshot(current);
-
-        Transaction newTransaction = new Transaction(
-                StringUtils.hasMeaningfulContent(command.ticker()) ? command.ticker() : current.getTicker(),
-                command.transactionType() != null ? command.transactionType() : current.getTransactionType(),
-                command.quantity() != null ? command.quantity() : current.getQuantity(),
-                command.price() != null ? command.price() : current.getPrice(),
-                command.fees() != null ? command.fees() : current.getFees(),
-                command.currency() != null ? command.currency() : current.getCurrency(),
-                command.transactionDate() != null ? command.transactionDate() : current.getTransactionDate(),
-                StringUtils.hasMeaningfulContent(command.notes()) ? command.notes() : current.getNotes(),
-                current.getIsActive(),
-                command.isFractional() != null ? command.isFractional() : current.getIsFractional(),
-                command.fractionalMultiplier() != null ? command.fractionalMultiplier() : current.getFractionalMultiplier(),
-                command.commissionCurrency() != null ? command.commissionCurrency() : current.getCommissionCurrency(),
-                StringUtils.hasMeaningfulContent(command.exchange()) ? command.exchange() : current.getExchange(),
-                StringUtils.hasMeaningfulContent(command.country()) ? command.country() : current.getCountry(),
-                StringUtils.hasMeaningfulContent(command.companyName()) ? command.companyName() : current.getCompanyName()
+    private Uni<Result> updateInPlace(Transaction current, UpdateTransactionCommand command) {
+        Long readVersion = current.getVersion();
+
+        current.update(
+                StringUtils.hasMeaningfulContent(command.ticker()) ? command.ticker() : null,
+                command.transactionType(),
+                command.quantity(),
+                command.price(),
+                command.fees(),
+                command.currency(),
+                command.transactionDate(),
+                StringUtils.hasMeaningfulContent(command.notes()) ? command.notes() : null,
+                command.isFractional(),
+                command.fractionalMultiplier(),
+                command.commissionCurrency(),
+                StringUtils.hasMeaningfulContent(command.exchange()) ? command.exchange() : null,
+                StringUtils.hasMeaningfulContent(command.country()) ? command.country() : null,
+                StringUtils.hasMeaningfulContent(command.companyName()) ? command.companyName() : null
         );
 
-        return transactionRepository.deleteById(current.getId())
-                .call(ignored -> eventPublisher.publish(new TransactionDeletedEvent(oldTransaction)))
-                .flatMap(deleted -> transactionRepository.save(newTransaction))
-                .map(Result.Success::new)
-                .flatMap(result -> publishDomainEvents(result, command));
+        return transactionRepository.update(current, readVersion)
+                .map(updated -> {
+                    if (updated == null) {
+                        Log.info("Transaction %s changed concurrently since version %s".formatted(current.getId(), readVersion));
+                        return new Result.VersionConflict();
+                    }
+                    return new Result.Success(updated);
+                });
     }
 
     private Uni<UpdateTransactionUseCase.Result> publishDomainEvents(UpdateTransactionUseCase.Result result, UpdateTransactionCommand command) {
@@ -82,9 +98,10 @@ public class UpdateTransactionService implements UpdateTransactionUseCase {
                 return Uni.createFrom().item(() -> result);
             }
 
-            return Multi.createFrom().iterable(events)
-                    .onItem().transformToUniAndMerge(event -> eventPublisher.publish(event))
-                    .collect().asList()
+            return unitOfWork.afterCommit(() -> Multi.createFrom().iterable(events)
+                            .onItem().transformToUniAndMerge(event -> eventPublisher.publish(event))
+                            .collect().asList()
+                            .replaceWithVoid())
                     .replaceWith(() -> result)
                     .onFailure().recoverWithItem(throwable -> new UpdateTransactionUseCase.Result.PublishError(transaction, throwable));
         }
@@ -100,28 +117,6 @@ public class UpdateTransactionService implements UpdateTransactionUseCase {
         return Uni.createFrom().item(() -> result);
     }
 
-    private Transaction createTransactionSnapshot(Transaction transaction) {
-        return new Transaction(
-                transaction.getId(),
-                transaction.getTicker(),
-                transaction.getTransactionType(),
-                transaction.getQuantity(),
-                transaction.getPrice(),
-                transaction.getFees(),
-                transaction.getCurrency(),
-                transaction.getTransactionDate(),
-                transaction.getNotes(),
-                transaction.getIsActive(),
-                transaction.getIsFractional(),
-                transaction.getFractionalMultiplier(),
-                transaction.getCommissionCurrency(),
-                transaction.getExchange(),
-                transaction.getCountry(),
-                transaction.getCompanyName(),
-                new ArrayList<>()
-        );
-    }
-
     private static Result transformToError(Throwable throwable, UpdateTransactionCommand command) {
         Log.error("UpdateTransactionService error", throwable);
         if (throwable instanceof ServiceException serviceException) {
@@ -131,5 +126,3 @@ public class UpdateTransactionService implements UpdateTransactionUseCase {
         return new Result.Error(Errors.UpdateTransactionsErrors.PERSISTENCE_ERROR, command, throwable);
     }
 }
-
-
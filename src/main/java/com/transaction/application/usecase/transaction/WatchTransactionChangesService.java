@@ -0,0 +1,38 @@
+package com.transaction.application.usecase.transaction;
+
+import com.transaction.domain.model.TransactionChange;
+import com.transaction.domain.port.input.WatchTransactionChangesUseCase;
+import com.transaction.domain.port.output.PortfolioContext;
+import com.transaction.domain.port.output.TransactionChangeStream;
+import io.smallrye.mutiny.Multi;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Use case for following transaction changes
+ */
+@ApplicationScoped
+public class WatchTransactionChangesService implements WatchTransactionChangesUseCase {
+
+    @Inject
+    TransactionChangeStream transactionChangeStream;
+
+    @Inject
+    PortfolioContext portfolioContext;
+
+    /**
+     * Only changes of the caller's portfolio are emitted. Resync markers are never filtered out, a client watching
+     * one ticker has to reload it as well
+     */
+    @Override
+    public Multi<TransactionChange> watch(String ticker, String lastEventId) {
+        String portfolioId = portfolioContext.current();
+        Multi<TransactionChange> changes = transactionChangeStream.follow(lastEventId)
+                .select().where(change -> change.isResyncRequired() || change.belongsTo(portfolioId));
+        if (ticker == null || ticker.isBlank()) {
+            return changes;
+        }
+        String wanted = ticker.trim();
+        return changes.select().where(change -> change.isResyncRequired() || change.concerns(wanted));
+    }
+}
@@ -2,8 +2,24 @@ package com.transaction.domain.event;
 
 import com.transaction.domain.model.TransactionUpdateData;
 
+import java.util.Objects;
+
 public class TransactionUpdatedEvent extends DomainEvent<TransactionUpdateData> {
     public TransactionUpdatedEvent(TransactionUpdateData data) {
         super(data);
     }
+
+    /**
+     * Whether both events update the same transaction.
+     */
+    public boolean sameTransactionAs(TransactionUpdatedEvent other) {
+        return Objects.equals(getData().newTransaction().getId(), other.getData().newTransaction().getId());
+    }
+
+    /**
+     * A single event standing for this update followed by {@code later}.
+     */
+    public TransactionUpdatedEvent coalesce(TransactionUpdatedEvent later) {
+        return new TransactionUpdatedEvent(getData().followedBy(later.getData()));
+    }
 }
@@ -10,6 +10,8 @@ public interface Errors {
         Error PERSISTENCE_ERROR = new Error(ERROR_PREFIX.formatted("003"));
         Error NOT_FOUND = new Error(ERROR_PREFIX.formatted("004"));
         Error INVALID_INPUT = new Error(ERROR_PREFIX.formatted("005"));
+        Error IDEMPOTENCY_KEY_REUSED = new Error(ERROR_PREFIX.formatted("006"));
+        Error IDEMPOTENCY_KEY_IN_USE = new Error(ERROR_PREFIX.formatted("007"));
     }
 
     interface DeleteTransactionsErrors {
@@ -41,4 +43,47 @@ public interface Errors {
 
         Error PUBLISH_ERROR = new Error(ERROR_PREFIX.formatted("01"));
     }
+
+    interface ReplayTransactionsErrors {
+        String ERROR_PREFIX = "10%s";
+
+        Error INVALID_INPUT = new Error(ERROR_PREFIX.formatted("01"));
+        Error REPLAY_ERROR = new Error(ERROR_PREFIX.formatted("02"));
+    }
+
+    interface BatchTransactionsErrors {
+        String ERROR_PREFIX = "11%s";
+
+        Error INVALID_INPUT = new Error(ERROR_PREFIX.formatted("01"));
+        Error BATCH_ERROR = new Error(ERROR_PREFIX.formatted("02"));
+    }
+
+    interface MarketDataErrors {
+        String ERROR_PREFIX = "12%s";
+
+        Error INVALID_INPUT = new Error(ERROR_PREFIX.formatted("01"));
+        Error PERSISTENCE_ERROR = new Error(ERROR_PREFIX.formatted("02"));
+        Error VALUATION_ERROR = new Error(ERROR_PREFIX.formatted("03"));
+    }
+
+    interface DividendErrors {
+        String ERROR_PREFIX = "13%s";
+
+        Error INVALID_INPUT = new Error(ERROR_PREFIX.formatted("01"));
+        Error PERSISTENCE_ERROR = new Error(ERROR_PREFIX.formatted("02"));
+    }
+
+    interface PortfolioSnapshotErrors {
+        String ERROR_PREFIX = "14%s";
+
+        Error INVALID_INPUT = new Error(ERROR_PREFIX.formatted("01"));
+        Error PERSISTENCE_ERROR = new Error(ERROR_PREFIX.formatted("02"));
+    }
+
+    interface PortfolioErrors {
+        String ERROR_PREFIX = "15%s";
+
+        Error INVALID_PORTFOLIO = new Error(ERROR_PREFIX.formatted("01"));
+        Error PORTFOLIO_BUSY = new Error(ERROR_PREFIX.formatted("02"));
+    }
 }
@@ -0,0 +1,35 @@
+package com.transaction.domain.model;
+
+import java.time.Instant;
+
+/**
+ * Cheap fingerprint of what a read would return, computed without loading the rows.
+ * It changes whenever a transaction in scope is created, updated or deleted.
+ */
+public record ChangeMarker(
+        String tag,
+        Instant lastModified
+) {
+
+    /**
+     * A single transaction is identified by its row version, the same value accepted in If-Match on updates.
+     */
+    public static ChangeMarker ofTransaction(long version, Instant updatedAt) {
+        return new ChangeMarker(Long.toString(version), updatedAt);
+    }
+
+    /**
+     * A set of transactions is identified by the counter every create, update and delete in it bumps.
+     */
+    public static ChangeMarker ofChanges(long changeCount, Instant lastModified) {
+        long lastModifiedMillis = lastModified != null ? lastModified.toEpochMilli() : 0L;
+        return new ChangeMarker("%d-%d".formatted(changeCount, lastModifiedMillis), lastModified);
+    }
+
+    /**
+     * Marker of another representation of the same transactions, such as their split-adjusted view
+     */
+    public ChangeMarker withVariant(String variant) {
+        return new ChangeMarker(tag + "-" + variant, lastModified);
+    }
+}
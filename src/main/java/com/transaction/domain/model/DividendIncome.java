@@ -0,0 +1,14 @@
+package com.transaction.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Dividend income per ticker with totals per currency, as of a day
+ */
+public record DividendIncome(List<DividendSummary> dividends, List<Total> totals, LocalDate asOf) {
+
+    public record Total(Currency currency, BigDecimal trailingTwelveMonths, BigDecimal forwardAnnual, BigDecimal totalReceived) {
+    }
+}
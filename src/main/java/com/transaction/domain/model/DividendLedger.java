@@ -0,0 +1,143 @@
+package com.transaction.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dividend payments of a ticker in one currency, together with the position that earns them.
+ * A ledger is built once from the ticker's transactions and summarized as of any day without reading them again.
+ */
+public final class DividendLedger {
+
+    private static final int AMOUNT_SCALE = 4;
+    private static final int PER_SHARE_SCALE = 8;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final Comparator<Transaction> CHRONOLOGICAL = Comparator
+            .comparing(Transaction::getTransactionDate)
+            .thenComparing(transaction -> transaction.getTransactionType().ordinal());
+
+    private final Position position;
+    private final List<Payment> payments;
+
+    private DividendLedger(Position position, List<Payment> payments) {
+        this.position = position;
+        this.payments = payments;
+    }
+
+    /**
+     * One ledger per currency the ticker paid dividends in. Tickers without dividends have no ledger.
+     */
+    public static List<DividendLedger> of(String ticker, List<Transaction> transactions) {
+        Map<Currency, Position> positions = new EnumMap<>(Currency.class);
+        Map<Currency, List<Payment>> payments = new EnumMap<>(Currency.class);
+        transactions.stream()
+                .sorted(CHRONOLOGICAL)
+                .forEach(transaction -> {
+                    if (transaction.getTransactionType() == TransactionType.SPLIT) {
+                        split(transaction, positions, payments);
+                        return;
+                    }
+                    Currency currency = transaction.getCurrency();
+                    positions.computeIfAbsent(currency, ignored -> new Position(ticker, currency)).apply(transaction);
+                    if (transaction.getTransactionType() == TransactionType.DIVIDEND) {
+                        payments.computeIfAbsent(currency, ignored -> new ArrayList<>()).add(Payment.of(transaction));
+                    }
+                });
+
+        List<DividendLedger> ledgers = new ArrayList<>(payments.size());
+        payments.forEach((currency, paid) -> ledgers.add(new DividendLedger(positions.get(currency), List.copyOf(paid))));
+        return ledgers;
+    }
+
+    /**
+     * A split changes the shares of the ticker in every currency, and restates earlier payments per new share
+     */
+    private static void split(Transaction split, Map<Currency, Position> positions, Map<Currency, List<Payment>> payments) {
+        BigDecimal ratio = split.getSplitRatio();
+        if (ratio == null) {
+            return;
+        }
+        positions.values().forEach(position -> position.apply(split));
+        payments.values().forEach(paid -> paid.replaceAll(payment -> payment.splitAdjusted(ratio)));
+    }
+
+    public String getTicker() {
+        return position.getTicker();
+    }
+
+    public Currency getCurrency() {
+        return position.getCurrency();
+    }
+
+    public List<Payment> getPayments() {
+        return payments;
+    }
+
+    public DividendSummary summarize(LocalDate asOf) {
+        LocalDate yearAgo = asOf.minusYears(1);
+        BigDecimal trailing = BigDecimal.ZERO;
+        BigDecimal total = BigDecimal.ZERO;
+        int paymentsInYear = 0;
+        Payment last = null;
+        for (Payment payment : payments) {
+            if (payment.date().isAfter(asOf)) {
+                break;
+            }
+            total = total.add(payment.amount());
+            if (payment.date().isAfter(yearAgo)) {
+                trailing = trailing.add(payment.amount());
+                paymentsInYear++;
+            }
+            last = payment;
+        }
+
+        BigDecimal shares = position.getShares();
+        BigDecimal costBasis = position.getCostBasis().setScale(AMOUNT_SCALE, RoundingMode.HALF_UP);
+        int paymentsPerYear = Math.min(paymentsInYear, 12);
+        BigDecimal yieldOnCost = costBasis.signum() > 0
+                ? trailing.multiply(HUNDRED).divide(costBasis, 2, RoundingMode.HALF_UP)
+                : null;
+        BigDecimal forward = last != null && paymentsPerYear > 0
+                ? last.perShare().multiply(shares).multiply(BigDecimal.valueOf(paymentsPerYear))
+                : BigDecimal.ZERO;
+        LocalDate nextPayment = last != null && paymentsPerYear > 0 && position.isOpen()
+                ? last.date().plusMonths(12 / paymentsPerYear)
+                : null;
+
+        return new DividendSummary(getTicker(), getCurrency(), shares, costBasis,
+                trailing.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP),
+                yieldOnCost,
+                paymentsPerYear,
+                forward.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP),
+                last != null ? last.date() : null,
+                nextPayment,
+                total.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * A dividend received: {@code amount} is the gross amount, {@code perShare} the amount per real share
+     */
+    public record Payment(LocalDate date, BigDecimal amount, BigDecimal perShare) {
+
+        static Payment of(Transaction transaction) {
+            BigDecimal amount = transaction.getTotalValue();
+            BigDecimal shares = Boolean.TRUE.equals(transaction.getIsFractional()) && transaction.getFractionalMultiplier() != null
+                    ? transaction.getQuantity().multiply(transaction.getFractionalMultiplier())
+                    : transaction.getQuantity();
+            BigDecimal perShare = shares.signum() != 0
+                    ? amount.divide(shares, PER_SHARE_SCALE, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO;
+            return new Payment(transaction.getTransactionDate(), amount, perShare);
+        }
+
+        Payment splitAdjusted(BigDecimal ratio) {
+            return new Payment(date, amount, perShare.divide(ratio, PER_SHARE_SCALE, RoundingMode.HALF_UP));
+        }
+    }
+}
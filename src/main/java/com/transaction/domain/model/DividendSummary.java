@@ -0,0 +1,24 @@
+package com.transaction.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Dividend income of a ticker in one currency as of a day.
+ * {@code yieldOnCost} is the trailing twelve months income as a percentage of the cost basis of the shares held, and
+ * {@code forwardAnnual} projects the last payment per share over the shares held at the observed payment frequency.
+ */
+public record DividendSummary(
+        String ticker,
+        Currency currency,
+        BigDecimal shares,
+        BigDecimal costBasis,
+        BigDecimal trailingTwelveMonths,
+        BigDecimal yieldOnCost,
+        int paymentsPerYear,
+        BigDecimal forwardAnnual,
+        LocalDate lastPaymentDate,
+        LocalDate nextPaymentDate,
+        BigDecimal totalReceived
+) {
+}
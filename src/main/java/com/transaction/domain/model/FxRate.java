@@ -0,0 +1,10 @@
+package com.transaction.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Exchange rate of a currency pair on a day: one unit of {@code base} buys {@code rate} units of {@code quote}
+ */
+public record FxRate(Currency base, Currency quote, LocalDate date, BigDecimal rate) {
+}
@@ -0,0 +1,205 @@
+package com.transaction.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable in-memory table of exchange rates, indexed by currency pair and epoch day.
+ * Each stored pair keeps one {@code double} per day from its first known rate to its last; days without a rate
+ * (weekends, holidays) carry the previous rate forward and days after the last rate use the last one, but never for
+ * more than {@code maxCarryDays} after the day the rate was given: past that the rate is unknown rather than stale.
+ * A lookup is a couple of array reads: pairs that are not stored are answered through their inverse or through one
+ * intermediate currency. Updates copy only the series of the affected pair.
+ */
+public final class FxRateTable {
+
+    private static final Currency[] CURRENCIES = Currency.values();
+    private static final int AMOUNT_SCALE = 4;
+    private static final FxRateTable EMPTY = new FxRateTable(new Series[CURRENCIES.length][CURRENCIES.length], 0);
+
+    private final Series[][] series;
+    private final int maxCarryDays;
+
+    private FxRateTable(Series[][] series, int maxCarryDays) {
+        this.series = series;
+        this.maxCarryDays = maxCarryDays;
+    }
+
+    /**
+     * A table without rates; rates added to it with {@link #with(FxRate)} are not carried forward
+     */
+    public static FxRateTable empty() {
+        return EMPTY;
+    }
+
+    public static FxRateTable of(Collection<FxRate> rates, int maxCarryDays) {
+        List<List<FxRate>> pairs = new ArrayList<>();
+        for (int i = 0; i < CURRENCIES.length * CURRENCIES.length; i++) {
+            pairs.add(new ArrayList<>());
+        }
+        for (FxRate rate : rates) {
+            pairs.get(rate.base().ordinal() * CURRENCIES.length + rate.quote().ordinal()).add(rate);
+        }
+
+        Series[][] series = new Series[CURRENCIES.length][CURRENCIES.length];
+        for (int i = 0; i < pairs.size(); i++) {
+            if (!pairs.get(i).isEmpty()) {
+                series[i / CURRENCIES.length][i % CURRENCIES.length] = Series.of(pairs.get(i));
+            }
+        }
+        return new FxRateTable(series, maxCarryDays);
+    }
+
+    /**
+     * Returns a table with {@code rate} added, replacing any rate of the same pair and day
+     */
+    public FxRateTable with(FxRate rate) {
+        Series[][] copy = new Series[CURRENCIES.length][];
+        for (int i = 0; i < series.length; i++) {
+            copy[i] = series[i].clone();
+        }
+        int base = rate.base().ordinal();
+        int quote = rate.quote().ordinal();
+        Series current = copy[base][quote];
+        double value = rate.rate().doubleValue();
+        long epochDay = rate.date().toEpochDay();
+        copy[base][quote] = current == null ? Series.of(epochDay, value) : current.with(epochDay, value);
+        return new FxRateTable(copy, maxCarryDays);
+    }
+
+    /**
+     * Units of {@code to} bought by one unit of {@code from} on {@code date}, or {@code NaN} when it cannot be derived
+     */
+    public double rate(Currency from, Currency to, LocalDate date) {
+        return rate(from.ordinal(), to.ordinal(), date.toEpochDay());
+    }
+
+    /**
+     * Converts {@code amount} at the rate of {@code date}, emits null when there is no rate
+     */
+    public BigDecimal convert(BigDecimal amount, Currency from, Currency to, LocalDate date) {
+        if (from == to) {
+            return amount;
+        }
+        double rate = rate(from, to, date);
+        if (Double.isNaN(rate)) {
+            return null;
+        }
+        return amount.multiply(BigDecimal.valueOf(rate)).setScale(AMOUNT_SCALE, RoundingMode.HALF_UP);
+    }
+
+    public boolean isEmpty() {
+        for (Series[] row : series) {
+            for (Series pair : row) {
+                if (pair != null) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private double rate(int from, int to, long epochDay) {
+        if (from == to) {
+            return 1.0;
+        }
+        double direct = stored(from, to, epochDay);
+        if (!Double.isNaN(direct)) {
+            return direct;
+        }
+        for (int via = 0; via < CURRENCIES.length; via++) {
+            if (via == from || via == to) {
+                continue;
+            }
+            double first = stored(from, via, epochDay);
+            if (Double.isNaN(first)) {
+                continue;
+            }
+            double second = stored(via, to, epochDay);
+            if (!Double.isNaN(second)) {
+                return first * second;
+            }
+        }
+        return Double.NaN;
+    }
+
+    private double stored(int from, int to, long epochDay) {
+        Series direct = series[from][to];
+        if (direct != null) {
+            double rate = direct.at(epochDay, maxCarryDays);
+            if (!Double.isNaN(rate)) {
+                return rate;
+            }
+        }
+        Series inverse = series[to][from];
+        return inverse != null ? 1.0 / inverse.at(epochDay, maxCarryDays) : Double.NaN;
+    }
+
+    /**
+     * Daily rates of one pair from {@code firstEpochDay}, with the days that were actually given marked in {@code known}
+     */
+    private record Series(long firstEpochDay, double[] rates, BitSet known) {
+
+        static Series of(long epochDay, double rate) {
+            BitSet known = new BitSet(1);
+            known.set(0);
+            return new Series(epochDay, new double[]{rate}, known);
+        }
+
+        static Series of(List<FxRate> rates) {
+            List<FxRate> sorted = new ArrayList<>(rates);
+            sorted.sort(Comparator.comparing(FxRate::date));
+            long first = sorted.getFirst().date().toEpochDay();
+            double[] values = new double[(int) (sorted.getLast().date().toEpochDay() - first + 1)];
+            BitSet known = new BitSet(values.length);
+            for (FxRate rate : sorted) {
+                int index = (int) (rate.date().toEpochDay() - first);
+                values[index] = rate.rate().doubleValue();
+                known.set(index);
+            }
+            for (int day = 1; day < values.length; day++) {
+                if (!known.get(day)) {
+                    values[day] = values[day - 1];
+                }
+            }
+            return new Series(first, values, known);
+        }
+
+        double at(long epochDay, int maxCarryDays) {
+            if (epochDay < firstEpochDay) {
+                return Double.NaN;
+            }
+            long offset = epochDay - firstEpochDay;
+            int index = (int) Math.min(offset, rates.length - 1);
+            return offset - known.previousSetBit(index) > maxCarryDays ? Double.NaN : rates[index];
+        }
+
+        Series with(long epochDay, double rate) {
+            long first = Math.min(firstEpochDay, epochDay);
+            long last = Math.max(firstEpochDay + rates.length - 1, epochDay);
+            int shift = (int) (firstEpochDay - first);
+            double[] copy = new double[(int) (last - first + 1)];
+            System.arraycopy(rates, 0, copy, shift, rates.length);
+            Arrays.fill(copy, shift + rates.length, copy.length, rates[rates.length - 1]);
+            BitSet knownCopy = new BitSet(copy.length);
+            for (int day = known.nextSetBit(0); day >= 0; day = known.nextSetBit(day + 1)) {
+                knownCopy.set(day + shift);
+            }
+
+            int index = (int) (epochDay - first);
+            copy[index] = rate;
+            knownCopy.set(index);
+            for (int day = index + 1; day < copy.length && !knownCopy.get(day); day++) {
+                copy[day] = rate;
+            }
+            return new Series(first, copy, knownCopy);
+        }
+    }
+}
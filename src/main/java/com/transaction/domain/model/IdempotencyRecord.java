@@ -0,0 +1,23 @@
+package com.transaction.domain.model;
+
+import java.time.Instant;
+
+/**
+ * Outcome of a create request stored under a client supplied idempotency key.
+ * Retries carrying the same key get the stored transaction back instead of creating a new one.
+ */
+public record IdempotencyRecord(
+        String key,
+        String requestFingerprint,
+        Transaction transaction,
+        Instant expiresAt
+) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    public boolean matches(String fingerprint) {
+        return requestFingerprint.equals(fingerprint);
+    }
+}
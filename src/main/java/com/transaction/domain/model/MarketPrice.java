@@ -0,0 +1,10 @@
+package com.transaction.domain.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Last known market price of one share of a ticker
+ */
+public record MarketPrice(String ticker, BigDecimal price, Currency currency, Instant updatedAt) {
+}
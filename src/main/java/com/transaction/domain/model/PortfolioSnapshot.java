@@ -0,0 +1,16 @@
+package com.transaction.domain.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Open positions as of a day. {@code checkpointDate} is the checkpoint the positions were resumed from, null when
+ * they were built from the first transaction, and {@code replayedTransactions} the transactions applied after it.
+ */
+public record PortfolioSnapshot(
+        LocalDate asOf,
+        List<PositionSnapshot> positions,
+        LocalDate checkpointDate,
+        int replayedTransactions
+) {
+}
@@ -0,0 +1,25 @@
+package com.transaction.domain.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Valuation of every open position, with totals per currency over the positions that have a price.
+ * {@code unpricedTickers} lists positions left out of the totals because no price was cached yet.
+ * When a base currency is requested, {@code baseTotal} adds up the priced positions in it: cost at the rates of the
+ * purchase dates and market value at the latest rates. Positions without the rates needed are listed in
+ * {@code unconvertedTickers} and left out of it.
+ */
+public record PortfolioValuation(
+        List<PositionValuation> positions,
+        List<Total> totals,
+        Total baseTotal,
+        List<String> unpricedTickers,
+        List<String> unconvertedTickers,
+        Instant valuedAt
+) {
+
+    public record Total(Currency currency, BigDecimal costBasis, BigDecimal marketValue, BigDecimal unrealizedGain) {
+    }
+}
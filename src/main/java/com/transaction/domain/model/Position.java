@@ -0,0 +1,174 @@
+package com.transaction.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Running position of a ticker in one currency, built by applying its transactions in date order.
+ * The cost basis follows the average cost method: a sale removes cost at the average cost of the shares held.
+ * Fractional transactions count {@code quantity × fractionalMultiplier} real shares.
+ * The cost basis can also be tracked in a base currency, from each purchase's cost converted at its own date.
+ * A split multiplies the shares held by its ratio and leaves the cost basis as it is.
+ */
+public class Position {
+
+    private static final int AMOUNT_SCALE = 4;
+    private static final int AVERAGE_COST_SCALE = 8;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final String ticker;
+    private final Currency currency;
+    private BigDecimal shares = BigDecimal.ZERO;
+    private BigDecimal costBasis = BigDecimal.ZERO;
+    private BigDecimal baseCostBasis = BigDecimal.ZERO;
+    private boolean baseCostKnown = true;
+
+    public Position(String ticker, Currency currency) {
+        this.ticker = ticker;
+        this.currency = currency;
+    }
+
+    /**
+     * Resumes a position from a snapshot. Its base cost basis is unknown.
+     */
+    public static Position of(PositionSnapshot snapshot) {
+        Position position = new Position(snapshot.ticker(), snapshot.currency());
+        position.shares = snapshot.shares();
+        position.costBasis = snapshot.costBasis();
+        position.baseCostKnown = false;
+        return position;
+    }
+
+    public PositionSnapshot snapshot() {
+        return new PositionSnapshot(ticker, currency, shares, costBasis);
+    }
+
+    public void apply(Transaction transaction) {
+        apply(transaction, transaction.getTotalCost(), null);
+    }
+
+    /**
+     * Applies a transaction whose total cost is {@code cost} in the position currency and {@code baseCost} in the
+     * base currency. A null {@code baseCost} leaves the base cost basis unknown until the position is closed.
+     */
+    public void apply(Transaction transaction, BigDecimal cost, BigDecimal baseCost) {
+        BigDecimal tradedShares = sharesOf(transaction);
+        switch (transaction.getTransactionType()) {
+            case BUY -> {
+                shares = shares.add(tradedShares);
+                costBasis = costBasis.add(cost);
+                if (baseCost != null) {
+                    baseCostBasis = baseCostBasis.add(baseCost);
+                } else {
+                    baseCostKnown = false;
+                }
+            }
+            case SELL -> {
+                if (shares.signum() <= 0) {
+                    return;
+                }
+                BigDecimal sold = tradedShares.min(shares);
+                costBasis = costBasis.subtract(averageCost().multiply(sold));
+                baseCostBasis = baseCostBasis.subtract(
+                        baseCostBasis.multiply(sold).divide(shares, AVERAGE_COST_SCALE, RoundingMode.HALF_UP));
+                shares = shares.subtract(sold);
+                if (shares.signum() == 0) {
+                    costBasis = BigDecimal.ZERO;
+                    baseCostBasis = BigDecimal.ZERO;
+                    baseCostKnown = true;
+                }
+            }
+            case DIVIDEND -> {
+                // Dividends are income and do not change the shares held or their cost
+            }
+            case SPLIT -> {
+                BigDecimal ratio = transaction.getSplitRatio();
+                if (ratio != null) {
+                    shares = shares.multiply(ratio);
+                }
+            }
+        }
+    }
+
+    public boolean isOpen() {
+        return shares.signum() > 0;
+    }
+
+    public String getTicker() {
+        return ticker;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public BigDecimal getShares() {
+        return shares;
+    }
+
+    public BigDecimal getCostBasis() {
+        return costBasis;
+    }
+
+    /**
+     * Cost basis in the base currency, null when the cost of a purchase could not be converted
+     */
+    public BigDecimal getBaseCostBasis() {
+        return baseCostKnown ? baseCostBasis.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP) : null;
+    }
+
+    public BigDecimal averageCost() {
+        return shares.signum() == 0
+                ? BigDecimal.ZERO
+                : costBasis.divide(shares, AVERAGE_COST_SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Values the position at {@code price}. A missing price, or one quoted in another currency, leaves the market
+     * figures empty.
+     */
+    public PositionValuation value(MarketPrice price) {
+        BigDecimal roundedCost = costBasis.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP);
+        if (price == null || price.currency() != currency) {
+            return new PositionValuation(ticker, currency, shares, roundedCost, averageCost(),
+                    null, null, null, null, price != null ? price.updatedAt() : null);
+        }
+
+        BigDecimal marketValue = shares.multiply(price.price()).setScale(AMOUNT_SCALE, RoundingMode.HALF_UP);
+        BigDecimal unrealizedGain = marketValue.subtract(roundedCost);
+        BigDecimal unrealizedGainPercent = roundedCost.signum() == 0
+                ? null
+                : unrealizedGain.multiply(HUNDRED).divide(roundedCost, 2, RoundingMode.HALF_UP);
+
+        return new PositionValuation(ticker, currency, shares, roundedCost, averageCost(),
+                price.price(), marketValue, unrealizedGain, unrealizedGainPercent, price.updatedAt());
+    }
+
+    private static BigDecimal sharesOf(Transaction transaction) {
+        BigDecimal quantity = transaction.getQuantity();
+        if (Boolean.TRUE.equals(transaction.getIsFractional()) && transaction.getFractionalMultiplier() != null) {
+            return quantity.multiply(transaction.getFractionalMultiplier());
+        }
+        return quantity;
+    }
+
+    @Override
+    public String toString() {
+        return "Position[" + ticker + ", " + currency + ", " + shares + " @ " + averageCost() + "]";
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Position position
+                && ticker.equals(position.ticker)
+                && currency == position.currency
+                && shares.compareTo(position.shares) == 0
+                && costBasis.compareTo(position.costBasis) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ticker, currency);
+    }
+}
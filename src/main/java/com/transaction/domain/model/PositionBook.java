@@ -0,0 +1,56 @@
+package com.transaction.domain.model;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Running positions of every ticker and currency. Transactions must be applied in {@link #CHRONOLOGICAL} order.
+ */
+public final class PositionBook {
+
+    public static final Comparator<Transaction> CHRONOLOGICAL = Comparator
+            .comparing(Transaction::getTransactionDate)
+            .thenComparing(transaction -> transaction.getTransactionType().ordinal());
+
+    private final Map<String, Position> positions = new LinkedHashMap<>();
+
+    public static PositionBook of(List<PositionSnapshot> snapshots) {
+        PositionBook book = new PositionBook();
+        snapshots.forEach(snapshot -> book.positions.put(key(snapshot.ticker(), snapshot.currency()), Position.of(snapshot)));
+        return book;
+    }
+
+    public void apply(Transaction transaction) {
+        String ticker = normalize(transaction.getTicker());
+        if (transaction.getTransactionType() == TransactionType.SPLIT) {
+            // A split applies to the ticker whatever the currency it was bought in
+            positions.values().stream()
+                    .filter(position -> position.getTicker().equals(ticker))
+                    .forEach(position -> position.apply(transaction));
+            return;
+        }
+        positions.computeIfAbsent(key(ticker, transaction.getCurrency()), ignored -> new Position(ticker, transaction.getCurrency()))
+                .apply(transaction);
+    }
+
+    /**
+     * Open positions only
+     */
+    public List<PositionSnapshot> snapshot() {
+        return positions.values().stream()
+                .filter(Position::isOpen)
+                .map(Position::snapshot)
+                .toList();
+    }
+
+    private static String key(String ticker, Currency currency) {
+        return ticker + "|" + currency;
+    }
+
+    private static String normalize(String ticker) {
+        return ticker.trim().toUpperCase(Locale.ROOT);
+    }
+}
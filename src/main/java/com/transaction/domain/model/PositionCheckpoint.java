@@ -0,0 +1,15 @@
+package com.transaction.domain.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Open positions after every transaction dated up to {@code asOf}. {@code changeMarker} is the tag of the change
+ * marker of those transactions when the checkpoint was taken; the checkpoint is only valid while it still matches.
+ */
+public record PositionCheckpoint(
+        LocalDate asOf,
+        String changeMarker,
+        List<PositionSnapshot> positions
+) {
+}
@@ -0,0 +1,19 @@
+package com.transaction.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Shares held of a ticker in one currency and their cost basis, at some point in time
+ */
+public record PositionSnapshot(
+        String ticker,
+        Currency currency,
+        BigDecimal shares,
+        BigDecimal costBasis
+) {
+
+    public BigDecimal averageCost() {
+        return shares.signum() == 0 ? BigDecimal.ZERO : costBasis.divide(shares, 8, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,25 @@
+package com.transaction.domain.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Open position of a ticker valued at its market price. Market figures are {@code null} while no usable price is known.
+ */
+public record PositionValuation(
+        String ticker,
+        Currency currency,
+        BigDecimal shares,
+        BigDecimal costBasis,
+        BigDecimal averageCost,
+        BigDecimal marketPrice,
+        BigDecimal marketValue,
+        BigDecimal unrealizedGain,
+        BigDecimal unrealizedGainPercent,
+        Instant priceUpdatedAt
+) {
+
+    public boolean isPriced() {
+        return marketValue != null;
+    }
+}
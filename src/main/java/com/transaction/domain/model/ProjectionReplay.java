@@ -0,0 +1,34 @@
+package com.transaction.domain.model;
+
+import java.time.Instant;
+
+/**
+ * Progress of the latest replay of a projection, or just its checkpoint when it has not been replayed since start-up.
+ * {@code finishedAt} is null while a replay runs, and {@code failure} describes why it stopped early, if it did.
+ */
+public record ProjectionReplay(
+        String projection,
+        String fromCursor,
+        String checkpoint,
+        long applied,
+        Instant startedAt,
+        Instant finishedAt,
+        String failure
+) {
+
+    public boolean isRunning() {
+        return startedAt != null && finishedAt == null;
+    }
+
+    public ProjectionReplay withCheckpoint(String checkpoint) {
+        return new ProjectionReplay(projection, fromCursor, checkpoint, applied, startedAt, finishedAt, failure);
+    }
+
+    public ProjectionReplay progressed(long changes, String cursor) {
+        return new ProjectionReplay(projection, fromCursor, cursor, applied + changes, startedAt, null, null);
+    }
+
+    public ProjectionReplay finished(Instant at, String failure) {
+        return new ProjectionReplay(projection, fromCursor, checkpoint, applied, startedAt, at, failure);
+    }
+}
@@ -0,0 +1,119 @@
+package com.transaction.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Cumulative split factors of a ticker, used to restate its transactions in today's shares when they are read.
+ * Splits are kept in date order together with the product of the ratios of each split and every later one, so the
+ * factor of a transaction is one binary search away. A split takes effect at the end of its date: transactions on
+ * the same day are restated by it.
+ */
+public final class SplitFactors {
+
+    private static final int SPLIT_SCALE = 12;
+    private static final SplitFactors NONE = new SplitFactors(new long[0], new BigDecimal[]{BigDecimal.ONE});
+
+    private final long[] epochDays;
+    private final BigDecimal[] cumulative;
+
+    private SplitFactors(long[] epochDays, BigDecimal[] cumulative) {
+        this.epochDays = epochDays;
+        this.cumulative = cumulative;
+    }
+
+    public static SplitFactors none() {
+        return NONE;
+    }
+
+    /**
+     * Builds the factors from the ticker's splits. Other transactions, and splits without a ratio, are ignored.
+     */
+    public static SplitFactors of(List<Transaction> transactions) {
+        List<Transaction> splits = transactions.stream()
+                .filter(transaction -> transaction.getSplitRatio() != null)
+                .sorted(Comparator.comparing(Transaction::getTransactionDate))
+                .toList();
+        if (splits.isEmpty()) {
+            return NONE;
+        }
+
+        int count = splits.size();
+        long[] epochDays = new long[count];
+        BigDecimal[] cumulative = new BigDecimal[count + 1];
+        cumulative[count] = BigDecimal.ONE;
+        for (int i = count - 1; i >= 0; i--) {
+            Transaction split = splits.get(i);
+            epochDays[i] = split.getTransactionDate().toEpochDay();
+            cumulative[i] = cumulative[i + 1].multiply(split.getSplitRatio()).stripTrailingZeros();
+        }
+        return new SplitFactors(epochDays, cumulative);
+    }
+
+    public boolean isEmpty() {
+        return epochDays.length == 0;
+    }
+
+    /**
+     * Today's shares for each share held on {@code date}
+     */
+    public BigDecimal factorAt(LocalDate date) {
+        if (isEmpty() || date == null) {
+            return BigDecimal.ONE;
+        }
+        return cumulative[firstSplitOnOrAfter(date.toEpochDay())];
+    }
+
+    /**
+     * Read-only copy with quantity and price restated in today's shares. Totals are unchanged. Splits themselves are
+     * never restated.
+     */
+    public Transaction adjust(Transaction transaction) {
+        BigDecimal factor = factorAt(transaction.getTransactionDate());
+        if (factor.compareTo(BigDecimal.ONE) == 0 || transaction.getTransactionType() == TransactionType.SPLIT) {
+            return transaction;
+        }
+        Transaction adjusted = new Transaction(transaction.getId(), transaction.getTicker(), transaction.getTransactionType(),
+                transaction.getQuantity().multiply(factor),
+                transaction.getPrice().divide(factor, SPLIT_SCALE, RoundingMode.HALF_UP),
+                transaction.getFees(), transaction.getCurrency(), transaction.getTransactionDate(), transaction.getNotes(),
+                transaction.getIsActive(), transaction.getIsFractional(), transaction.getFractionalMultiplier(),
+                transaction.getCommissionCurrency(), transaction.getExchange(), transaction.getCountry(),
+                transaction.getCompanyName(), transaction.getVersion(), List.of());
+        adjusted.setPortfolioId(transaction.getPortfolioId());
+        return adjusted;
+    }
+
+    public List<Transaction> adjust(List<Transaction> transactions) {
+        return isEmpty() ? transactions : transactions.stream().map(this::adjust).toList();
+    }
+
+    private int firstSplitOnOrAfter(long epochDay) {
+        int index = Arrays.binarySearch(epochDays, epochDay);
+        if (index < 0) {
+            return -index - 1;
+        }
+        // Several splits on one day: step back to the first of them
+        while (index > 0 && epochDays[index - 1] == epochDay) {
+            index--;
+        }
+        return index;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof SplitFactors factors
+                && Arrays.equals(epochDays, factors.epochDays)
+                && Arrays.equals(cumulative, factors.cumulative);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(Arrays.hashCode(epochDays), Arrays.hashCode(cumulative));
+    }
+}
@@ -6,6 +6,7 @@ import com.transaction.domain.event.TransactionUpdatedEvent;
 import lombok.Getter;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -14,6 +15,8 @@ import java.util.UUID;
 
 @Getter
 public class Transaction {
+    private static final int SPLIT_SCALE = 12;
+
     private final UUID id;
     private String ticker;
     private TransactionType transactionType;
@@ -30,6 +33,14 @@ public class Transaction {
     private String exchange;
     private String country;
     private String companyName;
+    /**
+     * Revision of the persisted row; {@code null} until the transaction has been saved.
+     */
+    private Long version;
+    /**
+     * Portfolio the transaction belongs to; {@code null} until the transaction has been saved.
+     */
+    private String portfolioId;
     private final List<DomainEvent<?>> domainEvents;
 
     private Transaction(UUID id,
@@ -47,7 +58,8 @@ public class Transaction {
                         Currency commissionCurrency,
                         String exchange,
                         String country,
-                        String companyName) {
+                        String companyName,
+                        Long version) {
         this.id = id;
         this.ticker = ticker;
         this.transactionType = transactionType;
@@ -64,10 +76,32 @@ public class Transaction {
         this.exchange = exchange;
         this.country = country;
         this.companyName = companyName;
+        this.version = version;
         this.domainEvents = new ArrayList<>();
         this.domainEvents.add(new TransactionCreatedEvent(this));
     }
 
+    public Transaction(UUID id,
+                       String ticker,
+                       TransactionType transactionType,
+                       BigDecimal quantity,
+                       BigDecimal price,
+                       BigDecimal fees,
+                       Currency currency,
+                       LocalDate transactionDate,
+                       String notes,
+                       Boolean isActive,
+                       Boolean isFractional,
+                       BigDecimal fractionalMultiplier,
+                       Currency commissionCurrency,
+                       String exchange,
+                       String country,
+                       String companyName,
+                       List<DomainEvent<?>> domainEvents) {
+        this(id, ticker, transactionType, quantity, price, fees, currency, transactionDate, notes, isActive, isFractional,
+                fractionalMultiplier, commissionCurrency, exchange, country, companyName, null, domainEvents);
+    }
+
     @Default
     public Transaction(UUID id,
                        String ticker,
@@ -85,6 +119,7 @@ public class Transaction {
                        String exchange,
                        String country,
                        String companyName,
+                       Long version,
                        List<DomainEvent<?>> domainEvents) {
         this.id = id;
         this.ticker = ticker;
@@ -102,6 +137,7 @@ public class Transaction {
         this.exchange = exchange;
         this.country = country;
         this.companyName = companyName;
+        this.version = version;
         this.domainEvents = new ArrayList<>();
     }
 
@@ -147,6 +183,25 @@ public class Transaction {
         return getTotalValue().add(fees != null ? fees : BigDecimal.ZERO);
     }
 
+    /**
+     * Shares held after a split for each share held before it: a 4-for-1 split is recorded with quantity 4 and
+     * price 1, a 1-for-10 reverse split with quantity 1 and price 10. Null for other transaction types.
+     */
+    public BigDecimal getSplitRatio() {
+        if (transactionType != TransactionType.SPLIT || price == null || price.signum() == 0) {
+            return null;
+        }
+        return quantity.divide(price, SPLIT_SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Assigns the transaction to a portfolio. A transaction never moves between portfolios, so this is only done when
+     * it is first saved or read back.
+     */
+    public void setPortfolioId(String portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+
     /**
      * Method to create a new transaction. Use it only we the transaction is created for the first time.
      * Use the default all args constructor to create a copy.
@@ -167,6 +222,32 @@ public class Transaction {
                                      String exchange,
                                      String country,
                                      String companyName) {
+        return create(id, ticker, transactionType, quantity, price, fees, currency, transactionDate, notes, isActive,
+                isFractional, fractionalMultiplier, commissionCurrency, exchange, country, companyName, null);
+    }
+
+    /**
+     * Same as {@link #create(UUID, String, TransactionType, BigDecimal, BigDecimal, BigDecimal, Currency, LocalDate, String,
+     * Boolean, Boolean, BigDecimal, Currency, String, String, String)} for a transaction that has just been persisted
+     * with the given row version.
+     */
+    public static Transaction create(UUID id,
+                                     String ticker,
+                                     TransactionType transactionType,
+                                     BigDecimal quantity,
+                                     BigDecimal price,
+                                     BigDecimal fees,
+                                     Currency currency,
+                                     LocalDate transactionDate,
+                                     String notes,
+                                     Boolean isActive,
+                                     Boolean isFractional,
+                                     BigDecimal fractionalMultiplier,
+                                     Currency commissionCurrency,
+                                     String exchange,
+                                     String country,
+                                     String companyName,
+                                     Long version) {
         return new Transaction(
                 id,
                 ticker,
@@ -183,12 +264,14 @@ public class Transaction {
                 commissionCurrency,
                 exchange,
                 country,
-                companyName
+                companyName,
+                version
         );
     }
 
     /**
      * Method to update an existing transaction. Use it only we the transaction is created for the first time.
+     * A persisted transaction moves to the next version, which is the one the conditional update must produce.
      */
     public void update(String ticker,
                        TransactionType transactionType,
@@ -222,6 +305,7 @@ public class Transaction {
         if (exchange != null) this.exchange = exchange;
         if (country != null) this.country = country;
         if (companyName != null) this.companyName = companyName;
+        if (this.version != null) this.version = this.version + 1;
 
         // Create snapshot of current state after updates
         Transaction newState = createSnapshot();
@@ -233,7 +317,7 @@ public class Transaction {
      * Creates a snapshot of the current transaction state without domain events.
      */
     private Transaction createSnapshot() {
-        return new Transaction(
+        Transaction snapshot = new Transaction(
                 this.id,
                 this.ticker,
                 this.transactionType,
@@ -250,8 +334,11 @@ public class Transaction {
                 this.exchange,
                 this.country,
                 this.companyName,
+                this.version,
                 new ArrayList<>() // Empty events list for snapshot
         );
+        snapshot.portfolioId = this.portfolioId;
+        return snapshot;
     }
 
     public List<DomainEvent<?>> getDomainEvents() {
@@ -0,0 +1,40 @@
+package com.transaction.domain.model;
+
+/**
+ * A created/updated/deleted transaction as seen on the change feed.
+ * The cursor identifies the position right after this change and is what a client sends back to resume.
+ */
+public record TransactionChange(
+        String cursor,
+        String eventType,
+        String portfolioId,
+        String ticker,
+        String previousTicker,
+        String payload
+) {
+
+    public static final String RESYNC_REQUIRED = "ResyncRequired";
+
+    /**
+     * Tells a resuming client that the changes since its cursor are no longer replayable
+     * and it has to reload its state before continuing from the given cursor.
+     */
+    public static TransactionChange resyncRequired(String cursor) {
+        return new TransactionChange(cursor, RESYNC_REQUIRED, null, null, null, null);
+    }
+
+    public boolean isResyncRequired() {
+        return RESYNC_REQUIRED.equals(eventType);
+    }
+
+    public boolean belongsTo(String portfolioId) {
+        return portfolioId.equals(this.portfolioId);
+    }
+
+    /**
+     * An update that moved a transaction to another ticker concerns both tickers.
+     */
+    public boolean concerns(String ticker) {
+        return ticker.equalsIgnoreCase(this.ticker) || ticker.equalsIgnoreCase(previousTicker);
+    }
+}
@@ -0,0 +1,25 @@
+package com.transaction.domain.model;
+
+import java.util.List;
+
+/**
+ * One page of a transaction listing. {@code nextCursor} is {@code null} on the last page.
+ */
+public record TransactionPage(List<Transaction> transactions, String nextCursor) {
+
+    /**
+     * Builds a page from up to {@code limit + 1} fetched transactions; the extra one only tells that more follow.
+     */
+    public static TransactionPage of(List<Transaction> fetched, int limit) {
+        if (fetched.size() <= limit) {
+            return new TransactionPage(fetched, null);
+        }
+
+        List<Transaction> transactions = fetched.subList(0, limit);
+        return new TransactionPage(transactions, TransactionPageCursor.after(transactions.getLast()).encode());
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
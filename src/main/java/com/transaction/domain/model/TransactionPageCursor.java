@@ -0,0 +1,42 @@
+package com.transaction.domain.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a listing ordered by transaction date and id, both descending. Clients only see the opaque
+ * {@link #encode() encoded} form and pass it back to continue after the last transaction they received.
+ */
+public record TransactionPageCursor(LocalDate transactionDate, UUID id) {
+
+    public static TransactionPageCursor after(Transaction transaction) {
+        return new TransactionPageCursor(transaction.getTransactionDate(), transaction.getId());
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((transactionDate + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns {@code null} for a blank cursor, which means the first page.
+     *
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode()}
+     */
+    public static TransactionPageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf('|');
+            return new TransactionPageCursor(LocalDate.parse(decoded.substring(0, separator)),
+                    UUID.fromString(decoded.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed page cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.transaction.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Aggregate of the transactions of one ticker, type and currency
+ */
+public record TransactionSummary(
+        String ticker,
+        TransactionType transactionType,
+        Currency currency,
+        long count,
+        BigDecimal totalQuantity,
+        BigDecimal totalAmount,
+        BigDecimal totalFees,
+        LocalDate firstDate,
+        LocalDate lastDate
+) {
+}
@@ -6,7 +6,11 @@ package com.transaction.domain.model;
 public enum TransactionType {
     BUY("Buy"),
     SELL("Sell"),
-    DIVIDEND("Dividend");
+    DIVIDEND("Dividend"),
+    /**
+     * Stock split, stored once on its effective date: {@code quantity} new shares for every {@code price} shares held
+     */
+    SPLIT("Split");
 
     private final String displayName;
 
@@ -1,7 +1,82 @@
 package com.transaction.domain.model;
 
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * State of a transaction before and after an update, plus the fields that actually changed.
+ * Most edits touch one or two fields, so consumers that only need the delta can ignore the snapshots.
+ */
 public record TransactionUpdateData(
         Transaction previousTransaction,
-        Transaction newTransaction) {
-}
+        Transaction newTransaction,
+        Map<String, FieldChange> changes) {
+
+    private static final Map<String, Function<Transaction, Object>> UPDATABLE_FIELDS = updatableFields();
+
+    public TransactionUpdateData {
+        changes = changes != null ? Collections.unmodifiableMap(new LinkedHashMap<>(changes)) : Map.of();
+    }
+
+    public TransactionUpdateData(Transaction previousTransaction, Transaction newTransaction) {
+        this(previousTransaction, newTransaction, diff(previousTransaction, newTransaction));
+    }
 
+    public record FieldChange(Object previous, Object current) {
+    }
+
+    /**
+     * The net effect of this update followed by {@code later}: the state before this one and the state after the later one.
+     */
+    public TransactionUpdateData followedBy(TransactionUpdateData later) {
+        return new TransactionUpdateData(previousTransaction, later.newTransaction());
+    }
+
+    /**
+     * Compares every updatable field; amounts are compared by value so 10 and 10.00 are not reported as a change.
+     */
+    private static Map<String, FieldChange> diff(Transaction previous, Transaction current) {
+        Map<String, FieldChange> changes = new LinkedHashMap<>();
+        if (previous == null || current == null) {
+            return changes;
+        }
+        UPDATABLE_FIELDS.forEach((field, accessor) -> {
+            Object before = accessor.apply(previous);
+            Object after = accessor.apply(current);
+            if (!sameValue(before, after)) {
+                changes.put(field, new FieldChange(before, after));
+            }
+        });
+        return changes;
+    }
+
+    private static boolean sameValue(Object before, Object after) {
+        if (before instanceof BigDecimal left && after instanceof BigDecimal right) {
+            return left.compareTo(right) == 0;
+        }
+        return Objects.equals(before, after);
+    }
+
+    private static Map<String, Function<Transaction, Object>> updatableFields() {
+        Map<String, Function<Transaction, Object>> fields = new LinkedHashMap<>();
+        fields.put("ticker", Transaction::getTicker);
+        fields.put("transactionType", Transaction::getTransactionType);
+        fields.put("quantity", Transaction::getQuantity);
+        fields.put("price", Transaction::getPrice);
+        fields.put("fees", Transaction::getFees);
+        fields.put("currency", Transaction::getCurrency);
+        fields.put("transactionDate", Transaction::getTransactionDate);
+        fields.put("notes", Transaction::getNotes);
+        fields.put("isFractional", Transaction::getIsFractional);
+        fields.put("fractionalMultiplier", Transaction::getFractionalMultiplier);
+        fields.put("commissionCurrency", Transaction::getCommissionCurrency);
+        fields.put("exchange", Transaction::getExchange);
+        fields.put("country", Transaction::getCountry);
+        fields.put("companyName", Transaction::getCompanyName);
+        return Collections.unmodifiableMap(fields);
+    }
+}
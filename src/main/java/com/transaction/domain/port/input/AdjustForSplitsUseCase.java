@@ -0,0 +1,19 @@
+package com.transaction.domain.port.input;
+
+import com.transaction.domain.model.Transaction;
+import io.smallrye.mutiny.Uni;
+
+import java.util.List;
+
+/**
+ * Restates transactions in today's shares of their tickers. The stored transactions are never changed.
+ */
+public interface AdjustForSplitsUseCase {
+
+    Uni<Transaction> adjust(Transaction transaction);
+
+    /**
+     * Adjusts the transactions keeping their order. The split factors of each ticker are looked up once.
+     */
+    Uni<List<Transaction>> adjust(List<Transaction> transactions);
+}
@@ -0,0 +1,52 @@
+package com.transaction.domain.port.input;
+
+import com.transaction.application.command.CreateTransactionCommand;
+import com.transaction.application.command.UpdateTransactionCommand;
+import io.smallrye.mutiny.Uni;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface BatchTransactionsUseCase {
+
+    /**
+     * Runs the operations in order and reports one outcome per operation, in the same order.
+     */
+    Uni<Result> execute(List<Operation> operations);
+
+    sealed interface Operation permits Operation.Create, Operation.Update, Operation.Delete {
+        record Create(CreateTransactionCommand command, String idempotencyKey) implements Operation {
+        }
+
+        record Update(UpdateTransactionCommand command, Long expectedVersion) implements Operation {
+        }
+
+        record Delete(UUID id) implements Operation {
+        }
+    }
+
+    sealed interface Outcome permits Outcome.Created, Outcome.Updated, Outcome.Deleted, Outcome.Failed {
+        record Created(CreateTransactionUseCase.Result result) implements Outcome {
+        }
+
+        record Updated(UpdateTransactionUseCase.Result result) implements Outcome {
+        }
+
+        record Deleted(DeleteTransactionUseCase.Result result) implements Outcome {
+        }
+
+        /**
+         * The operation ran but the database transaction holding it could not be committed.
+         */
+        record Failed(Operation operation, Throwable throwable) implements Outcome {
+        }
+    }
+
+    sealed interface Result permits Result.Success, Result.Error {
+        record Success(List<Outcome> outcomes) implements Result {
+        }
+
+        record Error(com.transaction.domain.exception.Error error, Throwable throwable) implements Result {
+        }
+    }
+}
@@ -8,6 +8,11 @@ public interface CreateTransactionUseCase {
 
     Uni<Result> execute(CreateTransactionCommand command);
 
+    /**
+     * Creates the transaction at most once per idempotency key. A blank key behaves like {@link #execute(CreateTransactionCommand)}.
+     */
+    Uni<Result> execute(CreateTransactionCommand command, String idempotencyKey);
+
     sealed interface Result {
         record Success(Transaction transaction) implements Result {
         }
@@ -15,6 +20,9 @@ public interface CreateTransactionUseCase {
         record PublishError(Transaction transaction, Throwable throwable) implements Result {
         }
 
+        record Replayed(Transaction transaction) implements Result {
+        }
+
         record Error(com.transaction.domain.exception.Error error, CreateTransactionCommand command,
                      Throwable throwable) implements Result {
         }
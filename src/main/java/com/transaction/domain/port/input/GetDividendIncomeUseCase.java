@@ -0,0 +1,22 @@
+package com.transaction.domain.port.input;
+
+import com.transaction.domain.model.DividendIncome;
+import io.smallrye.mutiny.Uni;
+
+public interface GetDividendIncomeUseCase {
+
+    Uni<Result> getAll();
+
+    Uni<Result> getByTicker(String ticker);
+
+    sealed interface Result permits Result.Success, Result.NotFound, Result.Error {
+        record Success(DividendIncome income) implements Result {
+        }
+
+        record NotFound(String ticker) implements Result {
+        }
+
+        record Error(com.transaction.domain.exception.Error error, Throwable throwable) implements Result {
+        }
+    }
+}
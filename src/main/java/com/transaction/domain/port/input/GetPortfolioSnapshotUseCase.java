@@ -0,0 +1,22 @@
+package com.transaction.domain.port.input;
+
+import com.transaction.domain.model.PortfolioSnapshot;
+import io.smallrye.mutiny.Uni;
+
+import java.time.LocalDate;
+
+public interface GetPortfolioSnapshotUseCase {
+
+    /**
+     * Gets the open positions after every transaction dated up to {@code asOf}
+     */
+    Uni<Result> execute(LocalDate asOf);
+
+    sealed interface Result permits Result.Success, Result.Error {
+        record Success(PortfolioSnapshot snapshot) implements Result {
+        }
+
+        record Error(com.transaction.domain.exception.Error error, Throwable throwable) implements Result {
+        }
+    }
+}
@@ -9,8 +9,16 @@ public interface GetTransactionByTickerUseCase {
 
     Uni<Result> getByTicker(String ticker);
 
+    /**
+     * Gets one page of at most {@code limit} transactions of the ticker after {@code cursor}, newest first
+     */
+    Uni<Result> getByTicker(String ticker, String cursor, int limit);
+
     sealed interface Result {
-        record Success(List<Transaction> transactions) implements Result {
+        record Success(List<Transaction> transactions, String nextCursor) implements Result {
+            public Success(List<Transaction> transactions) {
+                this(transactions, null);
+            }
         }
 
         record Error(Throwable throwable) implements Result {
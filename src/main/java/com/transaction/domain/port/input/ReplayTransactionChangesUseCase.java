@@ -0,0 +1,32 @@
+package com.transaction.domain.port.input;
+
+import com.transaction.domain.model.ProjectionReplay;
+import io.smallrye.mutiny.Uni;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ReplayTransactionChangesUseCase {
+
+    /**
+     * Starts replaying the published changes through a projection in the background. The replay starts after
+     * {@code fromCursor}, else at {@code since}, else at the projection's checkpoint, else at the beginning;
+     * with {@code reset} the projection discards its state first and the checkpoint is not used.
+     */
+    Uni<Result> replay(String projection, String fromCursor, Instant since, boolean reset);
+
+    /**
+     * Latest replay of every known projection, with its stored checkpoint.
+     */
+    Uni<List<ProjectionReplay>> status();
+
+    sealed interface Result permits Result.Started, Result.NotFound, Result.AlreadyRunning, Result.Error {
+        record Started(ProjectionReplay replay) implements Result { }
+
+        record NotFound(String projection) implements Result { }
+
+        record AlreadyRunning(ProjectionReplay replay) implements Result { }
+
+        record Error(com.transaction.domain.exception.Error error, String projection, Throwable throwable) implements Result { }
+    }
+}
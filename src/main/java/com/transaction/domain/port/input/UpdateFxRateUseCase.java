@@ -0,0 +1,21 @@
+package com.transaction.domain.port.input;
+
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.FxRate;
+import io.smallrye.mutiny.Uni;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface UpdateFxRateUseCase {
+
+    Uni<Result> execute(Currency base, Currency quote, LocalDate date, BigDecimal rate);
+
+    sealed interface Result permits Result.Success, Result.Error {
+        record Success(FxRate fxRate) implements Result {
+        }
+
+        record Error(com.transaction.domain.exception.Error error, Throwable throwable) implements Result {
+        }
+    }
+}
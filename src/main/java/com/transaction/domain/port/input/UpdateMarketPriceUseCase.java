@@ -0,0 +1,20 @@
+package com.transaction.domain.port.input;
+
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.MarketPrice;
+import io.smallrye.mutiny.Uni;
+
+import java.math.BigDecimal;
+
+public interface UpdateMarketPriceUseCase {
+
+    Uni<Result> execute(String ticker, BigDecimal price, Currency currency);
+
+    sealed interface Result permits Result.Success, Result.Error {
+        record Success(MarketPrice marketPrice) implements Result {
+        }
+
+        record Error(com.transaction.domain.exception.Error error, Throwable throwable) implements Result {
+        }
+    }
+}
@@ -8,13 +8,22 @@ public interface UpdateTransactionUseCase {
 
     Uni<Result> execute(UpdateTransactionCommand command);
 
-    sealed interface Result permits Result.Success, Result.NotFound, Result.PublishError, Result.Error {
+    /**
+     * Updates the transaction only if it is still at {@code expectedVersion}. A {@code null} version behaves like
+     * {@link #execute(UpdateTransactionCommand)}, which still rejects writes that race with another update.
+     */
+    Uni<Result> execute(UpdateTransactionCommand command, Long expectedVersion);
+
+    sealed interface Result permits Result.Success, Result.NotFound, Result.VersionConflict, Result.PublishError, Result.Error {
         record Success(Transaction transaction) implements Result {
         }
 
         record NotFound() implements Result {
         }
 
+        record VersionConflict() implements Result {
+        }
+
         record PublishError(Transaction transaction, Throwable throwable) implements Result {
         }
 
@@ -24,5 +33,3 @@ public interface UpdateTransactionUseCase {
         }
     }
 }
-
-
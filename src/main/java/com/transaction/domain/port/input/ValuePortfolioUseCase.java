@@ -0,0 +1,25 @@
+package com.transaction.domain.port.input;
+
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.PortfolioValuation;
+import io.smallrye.mutiny.Uni;
+
+public interface ValuePortfolioUseCase {
+
+    default Uni<Result> execute() {
+        return execute(null);
+    }
+
+    /**
+     * Values the portfolio, with totals converted into {@code baseCurrency} unless it is null
+     */
+    Uni<Result> execute(Currency baseCurrency);
+
+    sealed interface Result permits Result.Success, Result.Error {
+        record Success(PortfolioValuation valuation) implements Result {
+        }
+
+        record Error(com.transaction.domain.exception.Error error, Throwable throwable) implements Result {
+        }
+    }
+}
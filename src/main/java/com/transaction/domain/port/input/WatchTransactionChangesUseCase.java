@@ -0,0 +1,12 @@
+package com.transaction.domain.port.input;
+
+import com.transaction.domain.model.TransactionChange;
+import io.smallrye.mutiny.Multi;
+
+public interface WatchTransactionChangesUseCase {
+
+    /**
+     * Follows transaction changes, optionally restricted to one ticker and resumed after {@code lastEventId}.
+     */
+    Multi<TransactionChange> watch(String ticker, String lastEventId);
+}
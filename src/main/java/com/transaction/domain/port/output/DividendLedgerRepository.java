@@ -0,0 +1,22 @@
+package com.transaction.domain.port.output;
+
+import com.transaction.domain.model.DividendLedger;
+import io.smallrye.mutiny.Uni;
+
+import java.util.List;
+
+/**
+ * Port interface for the dividend ledgers derived from the transactions
+ */
+public interface DividendLedgerRepository {
+
+    /**
+     * Ledgers of a ticker, one per currency it paid dividends in; empty when it paid none
+     */
+    Uni<List<DividendLedger>> findByTicker(String ticker);
+
+    /**
+     * Ledgers of every ticker that paid dividends
+     */
+    Uni<List<DividendLedger>> findAll();
+}
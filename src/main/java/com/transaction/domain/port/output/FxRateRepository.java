@@ -0,0 +1,21 @@
+package com.transaction.domain.port.output;
+
+import com.transaction.domain.model.FxRate;
+import com.transaction.domain.model.FxRateTable;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Port interface for exchange rate storage
+ */
+public interface FxRateRepository {
+
+    /**
+     * Stores the rate of its currency pair and day, replacing any previous one
+     */
+    Uni<FxRate> save(FxRate fxRate);
+
+    /**
+     * Returns the in-memory table of every stored rate
+     */
+    Uni<FxRateTable> table();
+}
@@ -0,0 +1,29 @@
+package com.transaction.domain.port.output;
+
+import com.transaction.domain.model.IdempotencyRecord;
+import io.smallrye.mutiny.Uni;
+
+import java.time.Instant;
+
+/**
+ * Port interface for idempotency key storage
+ */
+public interface IdempotencyRepository {
+
+    /**
+     * Finds a non-expired record by its idempotency key, emits null when there is none or its request has not
+     * completed yet
+     */
+    Uni<IdempotencyRecord> find(String key);
+
+    /**
+     * Claims the key for a request in the current database transaction. Emits false when a non-expired record
+     * already holds it; a concurrent claim waits for the other transaction to commit or roll back first.
+     */
+    Uni<Boolean> claim(String key, String requestFingerprint, Instant expiresAt);
+
+    /**
+     * Stores the outcome of a request under the idempotency key it claimed
+     */
+    Uni<Void> save(IdempotencyRecord idempotencyRecord);
+}
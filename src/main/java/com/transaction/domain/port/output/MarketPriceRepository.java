@@ -0,0 +1,29 @@
+package com.transaction.domain.port.output;
+
+import com.transaction.domain.model.MarketPrice;
+import io.smallrye.mutiny.Uni;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Port interface for market price storage
+ */
+public interface MarketPriceRepository {
+
+    /**
+     * Stores the price as the latest one of its ticker
+     */
+    Uni<MarketPrice> save(MarketPrice marketPrice);
+
+    /**
+     * Finds the latest price of a ticker, emits null when there is none
+     */
+    Uni<MarketPrice> find(String ticker);
+
+    /**
+     * Returns the prices of the tickers that are already in memory, keyed by ticker, without waiting on storage.
+     * Tickers that are not are loaded in the background and left out of the result.
+     */
+    Uni<Map<String, MarketPrice>> findCached(Collection<String> tickers);
+}
@@ -0,0 +1,51 @@
+package com.transaction.domain.port.output;
+
+import io.smallrye.mutiny.Uni;
+
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Output port for the portfolio the current operation works on.
+ * Every transaction belongs to one portfolio and reads only ever see the transactions of the current one. Work that
+ * does not run on behalf of a caller, such as scheduled jobs, uses the default portfolio unless it enters one.
+ */
+public interface PortfolioContext {
+
+    String DEFAULT_PORTFOLIO = "default";
+
+    Pattern PORTFOLIO_ID = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_-]{0,63}");
+
+    /**
+     * The current portfolio, {@link #DEFAULT_PORTFOLIO} when none was entered
+     */
+    String current();
+
+    /**
+     * Runs the work with {@code portfolioId} as the current portfolio
+     */
+    <T> Uni<T> within(String portfolioId, Supplier<Uni<T>> work);
+
+    /**
+     * A cache key or external key of the current portfolio
+     */
+    default String scoped(String key) {
+        return current() + "/" + key;
+    }
+
+    /**
+     * The portfolio id given by a caller; blank means the default portfolio
+     *
+     * @throws IllegalArgumentException when it is not 1 to 64 letters, digits, '-' or '_'
+     */
+    static String portfolioId(String requested) {
+        if (requested == null || requested.isBlank()) {
+            return DEFAULT_PORTFOLIO;
+        }
+        String portfolioId = requested.trim();
+        if (!PORTFOLIO_ID.matcher(portfolioId).matches()) {
+            throw new IllegalArgumentException("Invalid portfolio id: " + requested);
+        }
+        return portfolioId;
+    }
+}
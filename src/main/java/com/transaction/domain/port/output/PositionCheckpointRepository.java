@@ -0,0 +1,29 @@
+package com.transaction.domain.port.output;
+
+import com.transaction.domain.model.PositionCheckpoint;
+import io.smallrye.mutiny.Uni;
+
+import java.time.LocalDate;
+
+/**
+ * Port interface for the periodic checkpoints of the open positions
+ */
+public interface PositionCheckpointRepository {
+
+    /**
+     * The latest checkpoint taken as of {@code date} or earlier, null when there is none
+     */
+    Uni<PositionCheckpoint> findLatestOnOrBefore(LocalDate date);
+
+    /**
+     * Saves the checkpoint, replacing any checkpoint of the same day.
+     * Nothing is saved when the portfolio was written since its change marker was read, as the write may not have
+     * been replayed into it.
+     */
+    Uni<Void> save(PositionCheckpoint checkpoint);
+
+    /**
+     * Deletes every checkpoint as of {@code date} or later
+     */
+    Uni<Void> deleteFrom(LocalDate date);
+}
@@ -0,0 +1,24 @@
+package com.transaction.domain.port.output;
+
+import com.transaction.domain.model.ProjectionReplay;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Port interface for the change feed cursor each projection has been replayed up to, and the progress of its latest replay
+ */
+public interface ProjectionCheckpointRepository {
+
+    /**
+     * Emits null when the projection has never been replayed.
+     */
+    Uni<String> find(String projection);
+
+    Uni<Void> save(String projection, String cursor);
+
+    /**
+     * Emits null when the projection has never been replayed.
+     */
+    Uni<ProjectionReplay> findReplay(String projection);
+
+    Uni<Void> saveReplay(ProjectionReplay replay);
+}
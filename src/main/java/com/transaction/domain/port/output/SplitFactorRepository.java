@@ -0,0 +1,15 @@
+package com.transaction.domain.port.output;
+
+import com.transaction.domain.model.SplitFactors;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Port interface for the split factors derived from the transactions
+ */
+public interface SplitFactorRepository {
+
+    /**
+     * Split factors of a ticker; none when it never split
+     */
+    Uni<SplitFactors> findByTicker(String ticker);
+}
@@ -0,0 +1,31 @@
+package com.transaction.domain.port.output;
+
+import com.transaction.domain.model.TransactionChange;
+import io.smallrye.mutiny.Multi;
+
+import java.time.Instant;
+
+/**
+ * Port interface for following the published transaction changes
+ */
+public interface TransactionChangeStream {
+
+    /**
+     * Emits every change published from now on, or from right after {@code cursor} when one is given.
+     * A cursor that can no longer be replayed yields a {@link TransactionChange#resyncRequired(String)} first.
+     */
+    Multi<TransactionChange> follow(String cursor);
+
+    /**
+     * Emits the changes after {@code cursor}, or from the beginning when none is given, in publication order and
+     * completes once it reaches the end of the changes published before the call.
+     *
+     * @throws IllegalArgumentException when the cursor is not one produced by this stream
+     */
+    Multi<TransactionChange> replay(String cursor);
+
+    /**
+     * Cursor right before the first change published at or after {@code instant}.
+     */
+    String cursorAt(Instant instant);
+}
@@ -0,0 +1,27 @@
+package com.transaction.domain.port.output;
+
+import com.transaction.domain.model.TransactionChange;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Port interface for state derived from the transaction changes, such as positions, rollups or caches.
+ * Implementations are discovered as beans and can be rebuilt by replaying the published changes.
+ * Changes of the same ticker are applied one at a time and in order; different tickers may be applied concurrently.
+ * An update that moves a transaction to another ticker is applied after every earlier change and before every later one.
+ */
+public interface TransactionProjection {
+
+    /**
+     * Unique name, used to select the projection and to store its checkpoint.
+     */
+    String name();
+
+    /**
+     * Discards the derived state before a rebuild from scratch.
+     */
+    default Uni<Void> reset() {
+        return Uni.createFrom().voidItem();
+    }
+
+    Uni<Void> apply(TransactionChange change);
+}
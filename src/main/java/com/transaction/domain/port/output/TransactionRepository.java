@@ -1,11 +1,16 @@
 package com.transaction.domain.port.output;
 
+import com.transaction.domain.model.ChangeMarker;
 import com.transaction.domain.model.Transaction;
+import com.transaction.domain.model.TransactionPageCursor;
+import com.transaction.domain.model.TransactionSummary;
 import com.transaction.domain.model.TransactionType;
 import io.smallrye.mutiny.Uni;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -28,6 +33,11 @@ public interface TransactionRepository {
      */
     Uni<List<Transaction>> findByTicker(String ticker);
 
+    /**
+     * Finds all transactions for several tickers in one read
+     */
+    Uni<List<Transaction>> findByTickers(Collection<String> tickers);
+
     /**
      * Finds all transactions (active and inactive)
      */
@@ -40,9 +50,24 @@ public interface TransactionRepository {
                                               LocalDate fromDate, LocalDate toDate);
 
     /**
-     * Updates an existing transaction
+     * Searches transactions by criteria, newest first, returning at most {@code limit} transactions that come after
+     * {@code after} (from the start when {@code null})
+     */
+    Uni<List<Transaction>> searchTransactions(String ticker, TransactionType type,
+                                              LocalDate fromDate, LocalDate toDate,
+                                              TransactionPageCursor after, int limit);
+
+    /**
+     * Aggregates the transactions matching the criteria per ticker, type and currency
      */
-    Uni<Transaction> update(Transaction transaction);
+    Uni<List<TransactionSummary>> summarizeTransactions(String ticker, TransactionType type,
+                                                        LocalDate fromDate, LocalDate toDate);
+
+    /**
+     * Updates an existing transaction only if its stored version still equals {@code expectedVersion}.
+     * Emits {@code null} when the row was changed or removed concurrently.
+     */
+    Uni<Transaction> update(Transaction transaction, Long expectedVersion);
 
     /**
      * Deletes a transaction by ID
@@ -63,4 +88,29 @@ public interface TransactionRepository {
      * Counts transactions for a ticker
      */
     Uni<Long> countByTicker(String ticker);
-} 
\ No newline at end of file
+
+    /**
+     * Returns the portfolios that hold at least one transaction, whatever the current portfolio
+     */
+    Uni<List<String>> findPortfolioIds();
+
+    /**
+     * Returns the change marker of a transaction, or {@code null} if it does not exist
+     */
+    Uni<ChangeMarker> findChangeMarkerById(UUID id);
+
+    /**
+     * Returns the change marker of all transactions for a ticker
+     */
+    Uni<ChangeMarker> findChangeMarkerByTicker(String ticker);
+
+    /**
+     * Returns the change marker of every ticker with at least one dividend, keyed by ticker
+     */
+    Uni<Map<String, ChangeMarker>> findDividendTickerMarkers();
+
+    /**
+     * Returns the change marker of all transactions
+     */
+    Uni<ChangeMarker> findChangeMarker();
+}
@@ -0,0 +1,24 @@
+package com.transaction.domain.port.output;
+
+import io.smallrye.mutiny.Uni;
+
+import java.util.function.Supplier;
+
+/**
+ * Output port for the database transaction a use case runs its writes in.
+ * Work started while a unit of work is already open joins it, so a use case called by another one commits together
+ * with its caller. When the joined work fails only its own writes are rolled back, and the caller can carry on.
+ */
+public interface UnitOfWork {
+
+    /**
+     * Runs the work in a database transaction, committed when it emits an item and rolled back when it fails
+     */
+    <T> Uni<T> transactional(Supplier<Uni<T>> work);
+
+    /**
+     * Runs the action once the current unit of work has committed, or right away when none is open.
+     * Actions of a unit of work that rolls back are dropped, and an action failing after commit is only logged.
+     */
+    Uni<Void> afterCommit(Supplier<Uni<Void>> action);
+}
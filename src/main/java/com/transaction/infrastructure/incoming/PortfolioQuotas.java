@@ -0,0 +1,270 @@
+package com.transaction.infrastructure.incoming;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.exception.ServiceException;
+import com.transaction.domain.port.output.PortfolioContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Per-portfolio limit on the requests running at once. This is a quota on requests, not a partition of the
+ * connection pool: the pool stays shared, and the quota bounds a portfolio's share of it only because a request holds
+ * at most one database connection at a time, so a portfolio never holds more than {@code max-concurrent-requests}
+ * connections. A bulk import in one portfolio thus queues behind its own quota while requests of every other
+ * portfolio keep getting connections. Queued requests are admitted in arrival order and resume on their own Vert.x
+ * context; beyond {@code max-queued-requests} waiting in a portfolio, further requests are turned away.
+ * A portfolio's quota is dropped once it has run nothing for {@code quota-idle-timeout}, and with
+ * {@code allowed-ids} set only the listed portfolios are admitted at all, so callers cannot grow the quotas kept
+ * by naming new portfolios.
+ */
+@ApplicationScoped
+public class PortfolioQuotas {
+
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long idleTimeoutNanos;
+    private final Set<String> allowedIds;
+    private final Cache<String, Pinned> quotas;
+
+    @Inject
+    public PortfolioQuotas(@ConfigProperty(name = "application.portfolios.max-concurrent-requests", defaultValue = "10") int maxConcurrent,
+                           @ConfigProperty(name = "application.portfolios.max-queued-requests", defaultValue = "100") int maxQueued,
+                           @ConfigProperty(name = "application.portfolios.quota-idle-timeout", defaultValue = "PT10M") Duration idleTimeout,
+                           @ConfigProperty(name = "application.portfolios.allowed-ids") Optional<List<String>> allowedIds,
+                           MeterRegistry meterRegistry) {
+        this(maxConcurrent, maxQueued, idleTimeout, allowedIds.map(Set::copyOf).orElse(Set.of()));
+        Gauge.builder("portfolios.requests.queued", this, PortfolioQuotas::queued)
+                .description("Requests waiting for their portfolio's quota")
+                .register(meterRegistry);
+    }
+
+    /**
+     * An empty {@code allowedIds} admits every well-formed portfolio id
+     */
+    public PortfolioQuotas(int maxConcurrent, int maxQueued, Duration idleTimeout, Set<String> allowedIds) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.allowedIds = allowedIds;
+        this.quotas = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, Pinned>() {
+                    @Override
+                    public long expireAfterCreate(String portfolioId, Pinned pinned, long currentTime) {
+                        return pinned.expiresAfter(idleTimeoutNanos);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String portfolioId, Pinned pinned, long currentTime, long currentDuration) {
+                        return pinned.expiresAfter(idleTimeoutNanos);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String portfolioId, Pinned pinned, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * The portfolio id given by a caller, blank meaning the default portfolio, if it may be admitted
+     *
+     * @throws IllegalArgumentException when it is malformed or not one of the allowed portfolios
+     */
+    public String portfolioId(String requested) {
+        String portfolioId = PortfolioContext.portfolioId(requested);
+        if (!allowedIds.isEmpty() && !allowedIds.contains(portfolioId)) {
+            throw new IllegalArgumentException("Unknown portfolio id: " + requested);
+        }
+        return portfolioId;
+    }
+
+    /**
+     * Completes with a permit once the portfolio runs fewer than the allowed requests; the permit must be released.
+     * Fails with {@link Errors.PortfolioErrors#PORTFOLIO_BUSY} when the portfolio already has the most requests
+     * allowed waiting.
+     */
+    public Uni<Permit> acquire(String portfolioId) {
+        return Uni.createFrom().deferred(() -> pin(portfolioId).acquire());
+    }
+
+    /**
+     * Runs the work under the portfolio's quota, releasing the permit however the work ends
+     */
+    public <T> Uni<T> limit(String portfolioId, Supplier<Uni<T>> work) {
+        return acquire(portfolioId)
+                .flatMap(permit -> Uni.createFrom().<T>deferred(work::get)
+                        .onTermination().invoke(permit::release));
+    }
+
+    /**
+     * Whether the failure is an acquisition turned away because the portfolio's queue was full
+     */
+    public static boolean isBusy(Throwable throwable) {
+        return throwable instanceof ServiceException exception && exception.error() == Errors.PortfolioErrors.PORTFOLIO_BUSY;
+    }
+
+    /**
+     * The portfolio's quota, kept from expiring until {@link Quota#unpin()}. Both replace the entry, so the expiry
+     * follows the pins atomically and a quota in use is never swapped for a fresh one.
+     */
+    private Quota pin(String portfolioId) {
+        return quotas.asMap().compute(portfolioId, (id, pinned) -> pinned == null
+                        ? new Pinned(new Quota(id), 1)
+                        : new Pinned(pinned.quota(), pinned.pins() + 1))
+                .quota();
+    }
+
+    private double queued() {
+        return quotas.asMap().values().stream().map(Pinned::quota).mapToInt(Quota::queued).sum();
+    }
+
+    public static final class Permit {
+        private final Quota quota;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Quota quota) {
+            this.quota = quota;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                quota.release();
+                quota.unpin();
+            }
+        }
+    }
+
+    /**
+     * A quota and the acquisitions pinning it. Every acquisition pins its quota until it ends: its permit is released,
+     * it is turned away or it is cancelled while waiting. A pinned quota never expires, so one still running or
+     * queueing requests is never dropped.
+     */
+    private record Pinned(Quota quota, int pins) {
+        long expiresAfter(long idleTimeoutNanos) {
+            return pins > 0 ? Long.MAX_VALUE : idleTimeoutNanos;
+        }
+    }
+
+    private final class Quota {
+        private final String portfolioId;
+        private final Deque<Waiter> waiting = new ArrayDeque<>();
+        private int running;
+
+        private Quota(String portfolioId) {
+            this.portfolioId = portfolioId;
+        }
+
+        void unpin() {
+            quotas.asMap().computeIfPresent(portfolioId, (id, pinned) -> new Pinned(pinned.quota(), pinned.pins() - 1));
+        }
+
+        Uni<Permit> acquire() {
+            return Uni.createFrom().emitter(emitter -> {
+                Waiter waiter = new Waiter(this, emitter, Vertx.currentContext());
+                emitter.onTermination(() -> {
+                    if (waiter.settle()) {
+                        withdraw(waiter);
+                        unpin();
+                    }
+                });
+                boolean granted;
+                boolean rejected = false;
+                synchronized (this) {
+                    granted = running < maxConcurrent;
+                    if (granted) {
+                        running++;
+                    } else if (waiting.size() < maxQueued) {
+                        waiting.add(waiter);
+                    } else {
+                        rejected = true;
+                    }
+                }
+                if (granted) {
+                    waiter.grant();
+                } else if (rejected && waiter.settle()) {
+                    unpin();
+                    emitter.fail(new ServiceException(Errors.PortfolioErrors.PORTFOLIO_BUSY,
+                            "Too many requests queued for portfolio " + portfolioId));
+                }
+            });
+        }
+
+        /**
+         * Hands the permit straight to the next waiter, if any, so the count never drops below what is running
+         */
+        void release() {
+            Waiter next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (next == null) {
+                    running--;
+                }
+            }
+            if (next != null) {
+                next.grant();
+            }
+        }
+
+        synchronized void withdraw(Waiter waiter) {
+            waiting.remove(waiter);
+        }
+
+        synchronized int queued() {
+            return waiting.size();
+        }
+    }
+
+    /**
+     * A queued acquisition. It settles once, either granted a permit or cancelled by its subscriber; a slot
+     * granted to a waiter that was cancelled meanwhile goes back to the quota, whose pin the cancellation released.
+     */
+    private final class Waiter {
+        private final Quota quota;
+        private final UniEmitter<? super Permit> emitter;
+        private final Context context;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        private Waiter(Quota quota, UniEmitter<? super Permit> emitter, Context context) {
+            this.quota = quota;
+            this.emitter = emitter;
+            this.context = context;
+        }
+
+        boolean settle() {
+            return settled.compareAndSet(false, true);
+        }
+
+        void grant() {
+            if (!settle()) {
+                quota.release();
+                return;
+            }
+            Permit permit = new Permit(quota);
+            if (context != null && context != Vertx.currentContext()) {
+                context.runOnContext(ignored -> emitter.complete(permit));
+            } else {
+                emitter.complete(permit);
+            }
+        }
+    }
+}
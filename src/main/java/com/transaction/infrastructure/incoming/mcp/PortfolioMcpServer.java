@@ -1,15 +1,26 @@
 package com.transaction.infrastructure.incoming.mcp;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.transaction.application.command.CreateTransactionCommand;
 import com.transaction.application.command.UpdateTransactionCommand;
 import com.transaction.application.usecase.transaction.GetTransactionUseCase;
 import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.Transaction;
+import com.transaction.domain.model.TransactionPage;
+import com.transaction.domain.model.TransactionPageCursor;
 import com.transaction.domain.model.TransactionType;
+import com.transaction.domain.port.input.AdjustForSplitsUseCase;
+import com.transaction.domain.port.input.BatchTransactionsUseCase;
 import com.transaction.domain.port.input.CreateTransactionUseCase;
 import com.transaction.domain.port.input.DeleteTransactionUseCase;
+import com.transaction.domain.port.input.GetDividendIncomeUseCase;
+import com.transaction.domain.port.input.GetPortfolioSnapshotUseCase;
 import com.transaction.domain.port.input.GetTransactionByTickerUseCase;
+import com.transaction.domain.port.input.UpdateFxRateUseCase;
+import com.transaction.domain.port.input.UpdateMarketPriceUseCase;
 import com.transaction.domain.port.input.UpdateTransactionUseCase;
+import com.transaction.domain.port.input.ValuePortfolioUseCase;
+import com.transaction.domain.port.output.PortfolioContext;
+import com.transaction.infrastructure.incoming.PortfolioQuotas;
 import com.transaction.infrastructure.incoming.mcp.converter.ParameterConversionService;
 import com.transaction.infrastructure.incoming.mcp.dto.*;
 import com.transaction.infrastructure.incoming.mcp.mapper.*;
@@ -20,16 +31,22 @@ import io.quarkus.logging.Log;
 import io.smallrye.mutiny.Uni;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 @Singleton
 public class PortfolioMcpServer {
 
     @Inject
-    ObjectMapper objectMapper;
+    McpJsonWriter jsonWriter;
 
     @Inject
     CreateTransactionUseCase createTransactionUseCase;
@@ -46,9 +63,36 @@ public class PortfolioMcpServer {
     @Inject
     GetTransactionByTickerUseCase getTransactionByTickerUseCase;
 
+    @Inject
+    BatchTransactionsUseCase batchTransactionsUseCase;
+
+    @Inject
+    UpdateMarketPriceUseCase updateMarketPriceUseCase;
+
+    @Inject
+    ValuePortfolioUseCase valuePortfolioUseCase;
+
+    @Inject
+    UpdateFxRateUseCase updateFxRateUseCase;
+
+    @Inject
+    GetDividendIncomeUseCase getDividendIncomeUseCase;
+
+    @Inject
+    AdjustForSplitsUseCase adjustForSplitsUseCase;
+
+    @Inject
+    GetPortfolioSnapshotUseCase getPortfolioSnapshotUseCase;
+
     @Inject
     ParameterConversionService parameterConversionService;
 
+    @Inject
+    PortfolioContext portfolioContext;
+
+    @Inject
+    PortfolioQuotas portfolioQuotas;
+
     @Inject
     CreateTransactionResponseMapper createTransactionResponseMapper;
 
@@ -67,12 +111,39 @@ public class PortfolioMcpServer {
     @Inject
     SearchTransactionsResponseMapper searchTransactionsResponseMapper;
 
+    @Inject
+    BatchTransactionsResponseMapper batchTransactionsResponseMapper;
+
+    @Inject
+    UpdateMarketPriceResponseMapper updateMarketPriceResponseMapper;
+
+    @Inject
+    PortfolioValuationResponseMapper portfolioValuationResponseMapper;
+
+    @Inject
+    UpdateFxRateResponseMapper updateFxRateResponseMapper;
+
+    @Inject
+    GetDividendIncomeResponseMapper getDividendIncomeResponseMapper;
+
+    @Inject
+    PortfolioSnapshotResponseMapper portfolioSnapshotResponseMapper;
+
+    @ConfigProperty(name = "application.mcp.results.default-page-size", defaultValue = "50")
+    int defaultPageSize;
+
+    @ConfigProperty(name = "application.mcp.results.max-page-size", defaultValue = "500")
+    int maxPageSize;
+
+    @ConfigProperty(name = "application.mcp.results.max-bytes", defaultValue = "262144")
+    long maxResponseBytes;
+
     // ============ MCP TOOL METHODS ============
 
     @Tool(description = "Create a new transaction in the portfolio.")
     public Uni<String> createTransaction(
             @ToolArg(description = "Stock ticker symbol") String ticker,
-            @ToolArg(description = "Transaction type (BUY, SELL, DIVIDEND)") Object type,
+            @ToolArg(description = "Transaction type (BUY, SELL, DIVIDEND, SPLIT)") Object type,
             @ToolArg(description = "Quantity of shares") Object quantity,
             @ToolArg(description = "Price per share") Object price,
             @ToolArg(description = "Fees paid per transaction", required = false, defaultValue = "0.00") Object fees,
@@ -84,79 +155,65 @@ public class PortfolioMcpServer {
             @ToolArg(description = "Transaction notes", required = false) String notes,
             @ToolArg(description = "Stock exchange") String exchange,
             @ToolArg(description = "Country of the stock") String country,
-            @ToolArg(description = "Company legal name") String companyName) {
+            @ToolArg(description = "Company legal name") String companyName,
+            @ToolArg(description = "Unique key for this request; repeating a call with the same key returns the originally created transaction instead of creating a duplicate", required = false) String idempotencyKey,
+            @ToolArg(description = "Portfolio the call works on, the default portfolio when omitted", required = false) String portfolio) {
+        return inPortfolio(portfolio, () -> {
+            try {
+                CreateTransactionCommand command = toCreateCommand(ticker, type, quantity, price, fees, isFractional,
+                        fractionalMultiplier, commissionCurrency, currency, date, notes, exchange, country, companyName);
 
-        try {
-            TransactionType convertedType = (TransactionType) parameterConversionService.convert(type, "type");
-            BigDecimal convertedQuantity = (BigDecimal) parameterConversionService.convert(quantity, "quantity");
-            BigDecimal convertedPrice = (BigDecimal) parameterConversionService.convert(price, "price");
-            BigDecimal convertedFees = (BigDecimal) parameterConversionService.convert(fees, "fees");
-            BigDecimal convertedFractionalMultiplier = (BigDecimal) parameterConversionService.convert(fractionalMultiplier, "fractionalMultiplier");
-            Currency convertedCommissionCurrency = (Currency) parameterConversionService.convert(commissionCurrency, "commissionCurrency");
-            Currency convertedCurrency = (Currency) parameterConversionService.convert(currency, "currency");
-            LocalDate convertedDate = (LocalDate) parameterConversionService.convert(date, "date");
-
-            CreateTransactionCommand command = new CreateTransactionCommand(
-                    ticker,
-                    convertedType,
-                    convertedQuantity,
-                    convertedPrice,
-                    convertedFees,
-                    convertedCurrency,
-                    convertedDate,
-                    notes,
-                    isFractional,
-                    convertedFractionalMultiplier,
-                    convertedCommissionCurrency,
-                    exchange,
-                    country,
-                    companyName
-            );
-
-            return createTransactionUseCase.execute(command)
-                    .map(result -> {
+                return createTransactionUseCase.execute(command, idempotencyKey)
+                        .map(result -> {
+                            try {
+                                CreateTransactionResponseDto responseDto = switch (result) {
+                                    case CreateTransactionUseCase.Result.Success success ->
+                                            createTransactionResponseMapper.toSuccessDto(success);
+                                    case CreateTransactionUseCase.Result.Replayed replayed ->
+                                            createTransactionResponseMapper.toReplayedDto(replayed);
+                                    case CreateTransactionUseCase.Result.PublishError publishError ->
+                                            createTransactionResponseMapper.toPublishErrorDto(publishError);
+                                    case CreateTransactionUseCase.Result.Error error ->
+                                            createTransactionResponseMapper.toErrorDto(error);
+                                };
+                                return jsonWriter.write(responseDto);
+                            } catch (Exception e) {
+                                throw new RuntimeException("Error serializing result", e);
+                            }
+                        }).onFailure()
+                        .invoke(e -> Log.error("Error creating transaction with ticker %s".formatted(ticker), e))
+                        .onFailure().transform(throwable -> new ToolCallException("Error creating transaction with ticker %s".formatted(ticker)));
+            } catch (IllegalArgumentException e) {
+                throw new ToolCallException("Validation error", e);
+            }
+        });
+    }
+
+    @Tool(description = "Get a transaction by its ID.")
+    public Uni<String> getTransaction(
+            @ToolArg(description = "The ID of the transaction to retrieve (UUID format)") String transactionId,
+            @ToolArg(description = "Portfolio the call works on, the default portfolio when omitted", required = false) String portfolio) {
+        return inPortfolio(portfolio, () -> {
+            return Uni.createFrom().item(() -> UUID.fromString(transactionId))
+                    .flatMap(trxId -> getTransactionUseCase.getById(trxId))
+                    .map(transaction -> {
                         try {
-                            CreateTransactionResponseDto responseDto = switch (result) {
-                                case CreateTransactionUseCase.Result.Success success ->
-                                        createTransactionResponseMapper.toSuccessDto(success);
-                                case CreateTransactionUseCase.Result.PublishError publishError ->
-                                        createTransactionResponseMapper.toPublishErrorDto(publishError);
-                                case CreateTransactionUseCase.Result.Error error ->
-                                        createTransactionResponseMapper.toErrorDto(error);
-                            };
-                            return objectMapper.writeValueAsString(responseDto);
+                            GetTransactionResponseDto.Success responseDto = getTransactionResponseMapper.toSuccessDto(transaction);
+                            return jsonWriter.write(responseDto);
                         } catch (Exception e) {
                             throw new RuntimeException("Error serializing result", e);
                         }
-                    }).onFailure()
-                    .invoke(e -> Log.error("Error creating transaction with ticker %s".formatted(ticker), e))
-                    .onFailure().transform(throwable -> new ToolCallException("Error creating transaction with ticker %s".formatted(ticker)));
-        } catch (IllegalArgumentException e) {
-            throw new ToolCallException("Validation error", e);
-        }
-    }
-
-    @Tool(description = "Get a transaction by its ID.")
-    public Uni<String> getTransaction(@ToolArg(description = "The ID of the transaction to retrieve (UUID format)") String transactionId) {
-        return Uni.createFrom().item(() -> UUID.fromString(transactionId))
-                .flatMap(trxId -> getTransactionUseCase.getById(trxId))
-                .map(transaction -> {
-                    try {
-                        GetTransactionResponseDto.Success responseDto = getTransactionResponseMapper.toSuccessDto(transaction);
-                        return objectMapper.writeValueAsString(responseDto);
-                    } catch (Exception e) {
-                        throw new RuntimeException("Error serializing result", e);
-                    }
-                })
-                .onFailure().invoke(e -> Log.error("Error getting transaction with ID %s".formatted(transactionId), e))
-                .onFailure().transform(throwable -> new ToolCallException("Error getting transaction with ID %s".formatted(transactionId)));
+                    })
+                    .onFailure().invoke(e -> Log.error("Error getting transaction with ID %s".formatted(transactionId), e))
+                    .onFailure().transform(throwable -> new ToolCallException("Error getting transaction with ID %s".formatted(transactionId)));
+        });
     }
 
     @Tool(description = "Update an existing transaction given its transaciton ID.")
     public Uni<String> updateTransaction(
             @ToolArg(description = "Transaction ID to update (UUID format)") String transactionId,
             @ToolArg(description = "Stock ticker symbol", required = false) String ticker,
-            @ToolArg(description = "Transaction type (BUY, SELL, DIVIDEND)", required = false) Object type,
+            @ToolArg(description = "Transaction type (BUY, SELL, DIVIDEND, SPLIT)", required = false) Object type,
             @ToolArg(description = "Quantity of shares", required = false) Object quantity,
             @ToolArg(description = "Price per share", required = false) Object price,
             @ToolArg(description = "Fees paid per transaction", required = false, defaultValue = "0.00") Object fees,
@@ -168,135 +225,478 @@ public class PortfolioMcpServer {
             @ToolArg(description = "Transaction notes", required = false) String notes,
             @ToolArg(description = "Stock exchange", required = false) String exchange,
             @ToolArg(description = "Country of the stock", required = false) String country,
-            @ToolArg(description = "Company legal name", required = false) String companyName) {
-
-        try {
-            return Uni.createFrom().item(() -> {
-                                TransactionType convertedType = (TransactionType) parameterConversionService.convert(type, "type");
-                                BigDecimal convertedQuantity = (BigDecimal) parameterConversionService.convert(quantity, "quantity");
-                                BigDecimal convertedPrice = (BigDecimal) parameterConversionService.convert(price, "price");
-                                BigDecimal convertedFees = (BigDecimal) parameterConversionService.convert(fees, "fees");
-                                BigDecimal convertedFractionalMultiplier = (BigDecimal) parameterConversionService.convert(fractionalMultiplier, "fractionalMultiplier");
-                                Currency convertedCommissionCurrency = (Currency) parameterConversionService.convert(commissionCurrency, "commissionCurrency");
-                                Currency convertedCurrency = (Currency) parameterConversionService.convert(currency, "currency");
-                                LocalDate convertedDate = (LocalDate) parameterConversionService.convert(date, "date");
-
-                                return new UpdateTransactionCommand(
-                                        UUID.fromString(transactionId),
-                                        ticker,
-                                        convertedType,
-                                        convertedQuantity,
-                                        convertedPrice,
-                                        convertedFees,
-                                        convertedCurrency,
-                                        convertedDate,
-                                        notes,
-                                        isFractional,
-                                        convertedFractionalMultiplier,
-                                        convertedCommissionCurrency,
-                                        exchange,
-                                        country,
-                                        companyName);
+            @ToolArg(description = "Company legal name", required = false) String companyName,
+            @ToolArg(description = "Version of the transaction being edited, as returned by getTransaction; the update is rejected if it changed since", required = false) Long expectedVersion,
+            @ToolArg(description = "Portfolio the call works on, the default portfolio when omitted", required = false) String portfolio) {
+        return inPortfolio(portfolio, () -> {
+            try {
+                return Uni.createFrom().item(() -> toUpdateCommand(transactionId, ticker, type, quantity, price, fees, isFractional,
+                                fractionalMultiplier, commissionCurrency, currency, date, notes, exchange, country, companyName))
+                        .flatMap(updateTransactionCommand -> updateTransactionUseCase.execute(updateTransactionCommand, expectedVersion))
+                        .map(result -> {
+                            try {
+                                UpdateTransactionResponseDto responseDto = switch (result) {
+                                    case UpdateTransactionUseCase.Result.Success success ->
+                                            updateTransactionResponseMapper.toSuccessDto(success);
+                                    case UpdateTransactionUseCase.Result.PublishError publishError ->
+                                            updateTransactionResponseMapper.toPublishErrorDto(publishError);
+                                    case UpdateTransactionUseCase.Result.NotFound notFound ->
+                                            updateTransactionResponseMapper.toNotFoundDto(notFound);
+                                    case UpdateTransactionUseCase.Result.VersionConflict versionConflict ->
+                                            updateTransactionResponseMapper.toVersionConflictDto(versionConflict);
+                                    case UpdateTransactionUseCase.Result.Error error ->
+                                            updateTransactionResponseMapper.toErrorDto(error);
+                                };
+                                return jsonWriter.write(responseDto);
+                            } catch (Exception e) {
+                                throw new RuntimeException("Error serializing result", e);
                             }
-                    )
-                    .flatMap(updateTransactionCommand -> updateTransactionUseCase.execute(updateTransactionCommand))
+                        })
+                        .onFailure().invoke(e -> Log.error("Error updating transaction with ID %s".formatted(transactionId), e))
+                        .onFailure().transform(throwable -> new ToolCallException("Error updating transaction with ID %s".formatted(transactionId)));
+            } catch (Exception e) {
+                throw new ToolCallException("Validation error", e);
+            }
+        });
+    }
+
+    @Tool(description = "Delete a transaction by ID.")
+    public Uni<String> deleteTransaction(
+            @ToolArg(description = "The ID of the transaction to delete (UUID format)") String transactionId,
+            @ToolArg(description = "Portfolio the call works on, the default portfolio when omitted", required = false) String portfolio) {
+        return inPortfolio(portfolio, () -> {
+            return Uni.createFrom().item(() -> UUID.fromString(transactionId))
+                    .flatMap(trxId -> deleteTransactionUseCase.execute(trxId))
                     .map(result -> {
                         try {
-                            UpdateTransactionResponseDto responseDto = switch (result) {
-                                case UpdateTransactionUseCase.Result.Success success ->
-                                        updateTransactionResponseMapper.toSuccessDto(success);
-                                case UpdateTransactionUseCase.Result.PublishError publishError ->
-                                        updateTransactionResponseMapper.toPublishErrorDto(publishError);
-                                case UpdateTransactionUseCase.Result.NotFound notFound ->
-                                        updateTransactionResponseMapper.toNotFoundDto(notFound);
-                                case UpdateTransactionUseCase.Result.Error error ->
-                                        updateTransactionResponseMapper.toErrorDto(error);
+                            DeleteTransactionResponseDto responseDto = switch (result) {
+                                case DeleteTransactionUseCase.Result.Success success ->
+                                        deleteTransactionResponseMapper.toSuccessDto(success);
+                                case DeleteTransactionUseCase.Result.NotFound notFound ->
+                                        deleteTransactionResponseMapper.toNotFoundDto(notFound);
+                                case DeleteTransactionUseCase.Result.PublishError publishError ->
+                                        deleteTransactionResponseMapper.toPublishErrorDto(publishError);
+                                case DeleteTransactionUseCase.Result.Error error ->
+                                        deleteTransactionResponseMapper.toErrorDto(error);
                             };
-                            return objectMapper.writeValueAsString(responseDto);
+                            return jsonWriter.write(responseDto);
                         } catch (Exception e) {
                             throw new RuntimeException("Error serializing result", e);
                         }
                     })
-                    .onFailure().invoke(e -> Log.error("Error updating transaction with ID %s".formatted(transactionId), e))
-                    .onFailure().transform(throwable -> new ToolCallException("Error updating transaction with ID %s".formatted(transactionId)));
-        } catch (Exception e) {
-            throw new ToolCallException("Validation error", e);
-        }
+                    .onFailure().invoke(e -> Log.error("Error deleting transaction with ID %s".formatted(transactionId), e))
+                    .onFailure().transform(throwable -> new ToolCallException("Error deleting transaction with ID %s".formatted(transactionId)));
+        });
     }
 
-    @Tool(description = "Delete a transaction by ID.")
-    public Uni<String> deleteTransaction(@ToolArg(description = "The ID of the transaction to delete (UUID format)") String transactionId) {
-        return Uni.createFrom().item(() -> UUID.fromString(transactionId))
-                .flatMap(trxId -> deleteTransactionUseCase.execute(trxId))
-                .map(result -> {
-                    try {
-                        DeleteTransactionResponseDto responseDto = switch (result) {
-                            case DeleteTransactionUseCase.Result.Success success ->
-                                    deleteTransactionResponseMapper.toSuccessDto(success);
-                            case DeleteTransactionUseCase.Result.NotFound notFound ->
-                                    deleteTransactionResponseMapper.toNotFoundDto(notFound);
-                            case DeleteTransactionUseCase.Result.PublishError publishError ->
-                                    deleteTransactionResponseMapper.toPublishErrorDto(publishError);
-                            case DeleteTransactionUseCase.Result.Error error ->
-                                    deleteTransactionResponseMapper.toErrorDto(error);
-                        };
-                        return objectMapper.writeValueAsString(responseDto);
-                    } catch (Exception e) {
-                        throw new RuntimeException("Error serializing result", e);
-                    }
-                })
-                .onFailure().invoke(e -> Log.error("Error deleting transaction with ID %s".formatted(transactionId), e))
-                .onFailure().transform(throwable -> new ToolCallException("Error deleting transaction with ID %s".formatted(transactionId)));
+    @Tool(description = "Create, update and delete several transactions in one call, e.g. to record a whole broker statement. "
+            + "Operations run in the given order and the response holds one result per operation, in the same order.")
+    public Uni<String> batchTransactions(
+            @ToolArg(description = "Operations to run. Each one sets 'operation' to CREATE, UPDATE or DELETE and takes the same "
+                    + "fields as the createTransaction, updateTransaction or deleteTransaction tool") List<BatchOperationDto> operations,
+            @ToolArg(description = "Portfolio the call works on, the default portfolio when omitted", required = false) String portfolio) {
+        return inPortfolio(portfolio, () -> {
+            List<BatchTransactionsUseCase.Operation> batch;
+            try {
+                batch = operations == null ? List.of() : IntStream.range(0, operations.size())
+                        .mapToObj(index -> toBatchOperation(index, operations.get(index)))
+                        .toList();
+            } catch (IllegalArgumentException | ToolCallException e) {
+                throw new ToolCallException("Validation error: " + e.getMessage(), e);
+            }
+
+            return batchTransactionsUseCase.execute(batch)
+                    .map(result -> {
+                        try {
+                            BatchTransactionsResponseDto responseDto = switch (result) {
+                                case BatchTransactionsUseCase.Result.Success success ->
+                                        batchTransactionsResponseMapper.toSuccessDto(success);
+                                case BatchTransactionsUseCase.Result.Error error ->
+                                        batchTransactionsResponseMapper.toErrorDto(error);
+                            };
+                            return jsonWriter.write(responseDto);
+                        } catch (Exception e) {
+                            throw new RuntimeException("Error serializing result", e);
+                        }
+                    })
+                    .onFailure().invoke(e -> Log.error("Error running batch of %d operations".formatted(batch.size()), e))
+                    .onFailure().transform(throwable -> new ToolCallException("Error running batch of %d operations".formatted(batch.size())));
+        });
     }
 
-    @Tool(description = "Get all transactions for a specific ticker.")
-    public Uni<String> getTransactionsByTicker(@ToolArg(description = "Stock ticker symbol") String ticker) {
-        return getTransactionByTickerUseCase.getByTicker(ticker)
-                .map(result -> {
-                    try {
-                        GetTransactionsByTickerResponseDto responseDto = switch (result) {
-                            case GetTransactionByTickerUseCase.Result.Success success ->
-                                    getTransactionsByTickerResponseMapper.toSuccessDto(success);
-                            case GetTransactionByTickerUseCase.Result.NotFound notFound ->
-                                    getTransactionsByTickerResponseMapper.toNotFoundDto(notFound);
-                            case GetTransactionByTickerUseCase.Result.Error error ->
-                                    getTransactionsByTickerResponseMapper.toErrorDto(error);
-                        };
-                        return objectMapper.writeValueAsString(responseDto);
-                    } catch (Exception e) {
-                        throw new RuntimeException("Error serializing result", e);
-                    }
-                })
-                .onFailure().invoke(e -> Log.error("Error getting transactions for ticker %s".formatted(ticker), e))
-                .onFailure().transform(throwable -> new ToolCallException("Error getting transactions for ticker %s".formatted(ticker)));
+    @Tool(description = "Get the transactions of a specific ticker, newest first, one page at a time. "
+            + "When the response has a nextCursor, call again with it to get the next page.")
+    public Uni<String> getTransactionsByTicker(
+            @ToolArg(description = "Stock ticker symbol") String ticker,
+            @ToolArg(description = "nextCursor returned by the previous call, to continue after it", required = false) String cursor,
+            @ToolArg(description = "Maximum number of transactions to return", required = false) Integer limit,
+            @ToolArg(description = "Return counts and totals per type and currency instead of transactions", required = false, defaultValue = "false") boolean summary,
+            @ToolArg(description = "Restate quantities and prices in today's shares, after every later split", required = false, defaultValue = "false") boolean splitAdjusted,
+            @ToolArg(description = "Portfolio the call works on, the default portfolio when omitted", required = false) String portfolio) {
+        return inPortfolio(portfolio, () -> {
+            if (summary) {
+                return getTransactionUseCase.summarizeTransactions(ticker, null, null, null)
+                        .map(summaries -> {
+                            try {
+                                GetTransactionsByTickerResponseDto responseDto = summaries.isEmpty()
+                                        ? new GetTransactionsByTickerResponseDto.NotFound()
+                                        : getTransactionsByTickerResponseMapper.toSummaryDto(summaries);
+                                return jsonWriter.write(responseDto);
+                            } catch (Exception e) {
+                                throw new RuntimeException("Error serializing result", e);
+                            }
+                        })
+                        .onFailure().invoke(e -> Log.error("Error summarizing transactions for ticker %s".formatted(ticker), e))
+                        .onFailure().transform(throwable -> new ToolCallException("Error summarizing transactions for ticker %s".formatted(ticker)));
+            }
+
+            return getTransactionByTickerUseCase.getByTicker(ticker, cursor, pageSize(limit))
+                    .flatMap(result -> splitAdjusted && result instanceof GetTransactionByTickerUseCase.Result.Success success
+                            ? adjustForSplitsUseCase.adjust(success.transactions())
+                                    .map(adjusted -> (GetTransactionByTickerUseCase.Result) new GetTransactionByTickerUseCase.Result.Success(adjusted, success.nextCursor()))
+                            : Uni.createFrom().item(result))
+                    .map(result -> {
+                        try {
+                            return switch (result) {
+                                case GetTransactionByTickerUseCase.Result.Success success -> writePage(success.transactions(),
+                                        getTransactionsByTickerResponseMapper.toDtoList(success.transactions()), success.nextCursor());
+                                case GetTransactionByTickerUseCase.Result.NotFound notFound ->
+                                        jsonWriter.write(getTransactionsByTickerResponseMapper.toNotFoundDto(notFound));
+                                case GetTransactionByTickerUseCase.Result.Error error ->
+                                        jsonWriter.write(getTransactionsByTickerResponseMapper.toErrorDto(error));
+                            };
+                        } catch (Exception e) {
+                            throw new RuntimeException("Error serializing result", e);
+                        }
+                    })
+                    .onFailure().invoke(e -> Log.error("Error getting transactions for ticker %s".formatted(ticker), e))
+                    .onFailure().transform(throwable -> new ToolCallException("Error getting transactions for ticker %s".formatted(ticker)));
+        });
     }
 
-    @Tool(description = "Search transactions with multiple filters.")
+    @Tool(description = "Search transactions with multiple filters, newest first, one page at a time. "
+            + "When the response has a nextCursor, call again with the same filters and that cursor to get the next page.")
     public Uni<String> searchTransactions(
             @ToolArg(description = "Stock ticker symbol", required = false) String ticker,
             @ToolArg(description = "Start date (YYYY-MM-DD)", required = false) Object startDate,
             @ToolArg(description = "End date (YYYY-MM-DD)", required = false) Object endDate,
-            @ToolArg(description = "Transaction type", required = false) Object type) {
+            @ToolArg(description = "Transaction type", required = false) Object type,
+            @ToolArg(description = "nextCursor returned by the previous call, to continue after it", required = false) String cursor,
+            @ToolArg(description = "Maximum number of transactions to return", required = false) Integer limit,
+            @ToolArg(description = "Return counts and totals per ticker, type and currency instead of transactions", required = false, defaultValue = "false") boolean summary,
+            @ToolArg(description = "Restate quantities and prices in today's shares, after every later split", required = false, defaultValue = "false") boolean splitAdjusted,
+            @ToolArg(description = "Portfolio the call works on, the default portfolio when omitted", required = false) String portfolio) {
+        return inPortfolio(portfolio, () -> {
+            try {
+                LocalDate convertedStartDate = parameterConversionService.convert(startDate, "startDate", LocalDate.class);
+                LocalDate convertedEndDate = parameterConversionService.convert(endDate, "endDate", LocalDate.class);
+                TransactionType convertedType = parameterConversionService.convert(type, "type", TransactionType.class);
+
+                if (summary) {
+                    return getTransactionUseCase.summarizeTransactions(ticker, convertedType, convertedStartDate, convertedEndDate)
+                            .map(summaries -> {
+                                try {
+                                    return jsonWriter.write(searchTransactionsResponseMapper.toSummaryDto(summaries));
+                                } catch (Exception e) {
+                                    throw new RuntimeException("Error serializing result", e);
+                                }
+                            })
+                            .onFailure().invoke(e -> Log.error("Error summarizing transactions", e))
+                            .onFailure().transform(throwable -> new ToolCallException("Error summarizing transactions"));
+                }
+
+                return getTransactionUseCase.searchTransactions(ticker, convertedType, convertedStartDate, convertedEndDate, cursor, pageSize(limit))
+                        .flatMap(transactionPage -> splitAdjusted
+                                ? adjustForSplitsUseCase.adjust(transactionPage.transactions())
+                                        .map(adjusted -> new TransactionPage(adjusted, transactionPage.nextCursor()))
+                                : Uni.createFrom().item(transactionPage))
+                        .map(transactionPage -> {
+                            try {
+                                return writePage(transactionPage.transactions(),
+                                        searchTransactionsResponseMapper.toDtoList(transactionPage.transactions()), transactionPage.nextCursor());
+                            } catch (Exception e) {
+                                throw new RuntimeException("Error serializing result", e);
+                            }
+                        })
+                        .onFailure().invoke(e -> Log.error("Error searching transactions", e))
+                        .onFailure().transform(throwable -> throwable instanceof IllegalArgumentException
+                                ? new ToolCallException("Validation error: " + throwable.getMessage())
+                                : new ToolCallException("Error searching transactions"));
+            } catch (IllegalArgumentException e) {
+                throw new ToolCallException("Validation error", e);
+            }
+        });
+    }
+
+    @Tool(description = "Update the latest market price of a ticker, used to value the portfolio.")
+    public Uni<String> updateMarketPrice(
+            @ToolArg(description = "Stock ticker symbol") String ticker,
+            @ToolArg(description = "Market price per share") Object price,
+            @ToolArg(description = "Currency the price is quoted in", required = false, defaultValue = "USD") Object currency) {
 
         try {
-            LocalDate convertedStartDate = (LocalDate) parameterConversionService.convert(startDate, "startDate");
-            LocalDate convertedEndDate = (LocalDate) parameterConversionService.convert(endDate, "endDate");
-            TransactionType convertedType = (TransactionType) parameterConversionService.convert(type, "type");
+            BigDecimal convertedPrice = parameterConversionService.convert(price, "price", BigDecimal.class);
+            Currency convertedCurrency = parameterConversionService.convert(orDefault(currency, "USD"), "currency", Currency.class);
 
-            return getTransactionUseCase.searchTransactions(ticker, convertedType, convertedStartDate, convertedEndDate)
-                    .collect().asList()
-                    .map(transactions -> {
+            return updateMarketPriceUseCase.execute(ticker, convertedPrice, convertedCurrency)
+                    .map(result -> {
                         try {
-                            SearchTransactionsResponseDto.Success responseDto = searchTransactionsResponseMapper.toSuccessDto(transactions);
-                            return objectMapper.writeValueAsString(responseDto);
+                            UpdateMarketPriceResponseDto responseDto = switch (result) {
+                                case UpdateMarketPriceUseCase.Result.Success success ->
+                                        updateMarketPriceResponseMapper.toSuccessDto(success);
+                                case UpdateMarketPriceUseCase.Result.Error error ->
+                                        updateMarketPriceResponseMapper.toErrorDto(error);
+                            };
+                            return jsonWriter.write(responseDto);
                         } catch (Exception e) {
                             throw new RuntimeException("Error serializing result", e);
                         }
                     })
-                    .onFailure().invoke(e -> Log.error("Error searching transactions", e))
-                    .onFailure().transform(throwable -> new ToolCallException("Error searching transactions"));
+                    .onFailure().invoke(e -> Log.error("Error updating market price of ticker %s".formatted(ticker), e))
+                    .onFailure().transform(throwable -> new ToolCallException("Error updating market price of ticker %s".formatted(ticker)));
         } catch (IllegalArgumentException e) {
             throw new ToolCallException("Validation error", e);
         }
     }
-} 
\ No newline at end of file
+
+    @Tool(description = "Update the exchange rate of a currency pair on a day, used to convert portfolio totals.")
+    public Uni<String> updateFxRate(
+            @ToolArg(description = "Currency being priced") Object baseCurrency,
+            @ToolArg(description = "Currency the rate is expressed in") Object quoteCurrency,
+            @ToolArg(description = "Units of the quote currency bought by one unit of the base currency") Object rate,
+            @ToolArg(description = "Day of the rate (YYYY-MM-DD)", required = false, defaultValue = "TODAY") Object date) {
+
+        try {
+            Currency convertedBase = parameterConversionService.convert(baseCurrency, "baseCurrency", Currency.class);
+            Currency convertedQuote = parameterConversionService.convert(quoteCurrency, "quoteCurrency", Currency.class);
+            BigDecimal convertedRate = parameterConversionService.convert(rate, "rate", BigDecimal.class);
+            LocalDate convertedDate = parameterConversionService.convert(orDefault(date, "TODAY"), "date", LocalDate.class);
+
+            return updateFxRateUseCase.execute(convertedBase, convertedQuote, convertedDate, convertedRate)
+                    .map(result -> {
+                        try {
+                            UpdateFxRateResponseDto responseDto = switch (result) {
+                                case UpdateFxRateUseCase.Result.Success success ->
+                                        updateFxRateResponseMapper.toSuccessDto(success);
+                                case UpdateFxRateUseCase.Result.Error error ->
+                                        updateFxRateResponseMapper.toErrorDto(error);
+                            };
+                            return jsonWriter.write(responseDto);
+                        } catch (Exception e) {
+                            throw new RuntimeException("Error serializing result", e);
+                        }
+                    })
+                    .onFailure().invoke(e -> Log.error("Error updating exchange rate %s/%s".formatted(baseCurrency, quoteCurrency), e))
+                    .onFailure().transform(throwable -> new ToolCallException("Error updating exchange rate %s/%s".formatted(baseCurrency, quoteCurrency)));
+        } catch (IllegalArgumentException e) {
+            throw new ToolCallException("Validation error", e);
+        }
+    }
+
+    @Tool(description = "Value the open positions at the latest market prices: market value and unrealized gain per position "
+            + "and totals per currency. Positions without a known price are listed in unpricedTickers. "
+            + "With a base currency the totals are also converted into it in baseTotal.")
+    public Uni<String> getPortfolioValuation(
+            @ToolArg(description = "Currency to convert the totals into", required = false) Object baseCurrency,
+            @ToolArg(description = "Portfolio the call works on, the default portfolio when omitted", required = false) String portfolio) {
+        return inPortfolio(portfolio, () -> {
+            Currency convertedBase;
+            try {
+                convertedBase = parameterConversionService.convert(baseCurrency, "baseCurrency", Currency.class);
+            } catch (IllegalArgumentException e) {
+                throw new ToolCallException("Validation error", e);
+            }
+
+            return valuePortfolioUseCase.execute(convertedBase)
+                    .map(result -> {
+                        try {
+                            PortfolioValuationResponseDto responseDto = switch (result) {
+                                case ValuePortfolioUseCase.Result.Success success ->
+                                        portfolioValuationResponseMapper.toSuccessDto(success);
+                                case ValuePortfolioUseCase.Result.Error error ->
+                                        portfolioValuationResponseMapper.toErrorDto(error);
+                            };
+                            return jsonWriter.write(responseDto);
+                        } catch (Exception e) {
+                            throw new RuntimeException("Error serializing result", e);
+                        }
+                    })
+                    .onFailure().invoke(e -> Log.error("Error valuing portfolio", e))
+                    .onFailure().transform(throwable -> new ToolCallException("Error valuing portfolio"));
+        });
+    }
+
+    @Tool(description = "Get dividend income: trailing twelve months income, yield on cost and a forward twelve month "
+            + "projection per ticker, with totals per currency.")
+    public Uni<String> getDividendIncome(
+            @ToolArg(description = "Stock ticker symbol, every ticker that paid dividends when omitted", required = false) String ticker,
+            @ToolArg(description = "Portfolio the call works on, the default portfolio when omitted", required = false) String portfolio) {
+        return inPortfolio(portfolio, () -> {
+            Uni<GetDividendIncomeUseCase.Result> income = ticker == null || ticker.isBlank()
+                    ? getDividendIncomeUseCase.getAll()
+                    : getDividendIncomeUseCase.getByTicker(ticker);
+
+            return income
+                    .map(result -> {
+                        try {
+                            GetDividendIncomeResponseDto responseDto = switch (result) {
+                                case GetDividendIncomeUseCase.Result.Success success ->
+                                        getDividendIncomeResponseMapper.toSuccessDto(success);
+                                case GetDividendIncomeUseCase.Result.NotFound notFound ->
+                                        getDividendIncomeResponseMapper.toNotFoundDto(notFound);
+                                case GetDividendIncomeUseCase.Result.Error error ->
+                                        getDividendIncomeResponseMapper.toErrorDto(error);
+                            };
+                            return jsonWriter.write(responseDto);
+                        } catch (Exception e) {
+                            throw new RuntimeException("Error serializing result", e);
+                        }
+                    })
+                    .onFailure().invoke(e -> Log.error("Error getting dividend income", e))
+                    .onFailure().transform(throwable -> new ToolCallException("Error getting dividend income"));
+        });
+    }
+
+    @Tool(description = "Get the open positions as of a past day: shares held, cost basis and average cost per ticker "
+            + "after every transaction dated up to that day.")
+    public Uni<String> getPositionsAsOf(
+            @ToolArg(description = "Day to get the positions for (YYYY-MM-DD)") Object date,
+            @ToolArg(description = "Portfolio the call works on, the default portfolio when omitted", required = false) String portfolio) {
+        return inPortfolio(portfolio, () -> {
+            LocalDate convertedDate;
+            try {
+                convertedDate = parameterConversionService.convert(date, "date", LocalDate.class);
+            } catch (IllegalArgumentException e) {
+                throw new ToolCallException("Validation error", e);
+            }
+
+            return getPortfolioSnapshotUseCase.execute(convertedDate)
+                    .map(result -> {
+                        try {
+                            PortfolioSnapshotResponseDto responseDto = switch (result) {
+                                case GetPortfolioSnapshotUseCase.Result.Success success ->
+                                        portfolioSnapshotResponseMapper.toSuccessDto(success);
+                                case GetPortfolioSnapshotUseCase.Result.Error error ->
+                                        portfolioSnapshotResponseMapper.toErrorDto(error);
+                            };
+                            return jsonWriter.write(responseDto);
+                        } catch (Exception e) {
+                            throw new RuntimeException("Error serializing result", e);
+                        }
+                    })
+                    .onFailure().invoke(e -> Log.error("Error getting positions as of %s".formatted(convertedDate), e))
+                    .onFailure().transform(throwable -> new ToolCallException("Error getting positions as of %s".formatted(convertedDate)));
+        });
+    }
+
+    // ============ PORTFOLIO SCOPE ============
+
+    /**
+     * Runs a tool call in the requested portfolio, under that portfolio's quota, so a bulk import through the batch
+     * tool only queues behind its own portfolio's calls
+     */
+    private Uni<String> inPortfolio(String portfolio, Supplier<Uni<String>> work) {
+        String portfolioId;
+        try {
+            portfolioId = portfolioQuotas.portfolioId(portfolio);
+        } catch (IllegalArgumentException e) {
+            return Uni.createFrom().failure(new ToolCallException("Validation error", e));
+        }
+        return portfolioContext.within(portfolioId, () -> portfolioQuotas.limit(portfolioId, work))
+                .onFailure(PortfolioQuotas::isBusy).transform(throwable ->
+                        new ToolCallException("Portfolio %s is busy, retry later".formatted(portfolioId)));
+    }
+
+    // ============ RESULT BOUNDING ============
+
+    private int pageSize(Integer limit) {
+        if (limit == null || limit < 1) {
+            return defaultPageSize;
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    /**
+     * Writes the page keeping the leading transactions whose JSON fits in {@code maxResponseBytes}, always at least one.
+     * When rows are cut, the next cursor points right after the last row kept so the agent resumes from there.
+     */
+    private String writePage(List<Transaction> transactions, List<TransactionDto> dtos, String nextCursor) throws IOException {
+        return jsonWriter.writePage(dtos, maxResponseBytes,
+                kept -> TransactionPageCursor.after(transactions.get(kept - 1)).encode(), nextCursor);
+    }
+
+    // ============ COMMAND BUILDING ============
+
+    private BatchTransactionsUseCase.Operation toBatchOperation(int index, BatchOperationDto dto) {
+        if (dto == null || dto.operation() == null) {
+            throw new IllegalArgumentException("operation %d has no 'operation' field".formatted(index));
+        }
+
+        return switch (dto.operation().trim().toUpperCase(Locale.ROOT)) {
+            case "CREATE" -> new BatchTransactionsUseCase.Operation.Create(
+                    toCreateCommand(dto.ticker(), dto.type(), dto.quantity(), dto.price(),
+                            orDefault(dto.fees(), "0.00"), Boolean.TRUE.equals(dto.isFractional()),
+                            orDefault(dto.fractionalMultiplier(), "1.0"), orDefault(dto.commissionCurrency(), "USD"),
+                            dto.currency(), orDefault(dto.date(), "TODAY"), dto.notes(), dto.exchange(), dto.country(),
+                            dto.companyName()),
+                    dto.idempotencyKey());
+            case "UPDATE" -> new BatchTransactionsUseCase.Operation.Update(
+                    toUpdateCommand(dto.transactionId(), dto.ticker(), dto.type(), dto.quantity(), dto.price(),
+                            orDefault(dto.fees(), "0.00"), Boolean.TRUE.equals(dto.isFractional()),
+                            orDefault(dto.fractionalMultiplier(), "1.0"), orDefault(dto.commissionCurrency(), "USD"),
+                            orDefault(dto.currency(), "USD"), orDefault(dto.date(), "TODAY"), dto.notes(), dto.exchange(),
+                            dto.country(), dto.companyName()),
+                    dto.expectedVersion());
+            case "DELETE" -> new BatchTransactionsUseCase.Operation.Delete(UUID.fromString(dto.transactionId()));
+            default -> throw new IllegalArgumentException("operation %d has unknown operation '%s'".formatted(index, dto.operation()));
+        };
+    }
+
+    private CreateTransactionCommand toCreateCommand(String ticker, Object type, Object quantity, Object price, Object fees,
+                                                     boolean isFractional, Object fractionalMultiplier, Object commissionCurrency,
+                                                     Object currency, Object date, String notes, String exchange,
+                                                     String country, String companyName) {
+        return new CreateTransactionCommand(
+                ticker,
+                parameterConversionService.convert(type, "type", TransactionType.class),
+                parameterConversionService.convert(quantity, "quantity", BigDecimal.class),
+                parameterConversionService.convert(price, "price", BigDecimal.class),
+                parameterConversionService.convert(fees, "fees", BigDecimal.class),
+                parameterConversionService.convert(currency, "currency", Currency.class),
+                parameterConversionService.convert(date, "date", LocalDate.class),
+                notes,
+                isFractional,
+                parameterConversionService.convert(fractionalMultiplier, "fractionalMultiplier", BigDecimal.class),
+                parameterConversionService.convert(commissionCurrency, "commissionCurrency", Currency.class),
+                exchange,
+                country,
+                companyName
+        );
+    }
+
+    private UpdateTransactionCommand toUpdateCommand(String transactionId, String ticker, Object type, Object quantity, Object price,
+                                                     Object fees, boolean isFractional, Object fractionalMultiplier,
+                                                     Object commissionCurrency, Object currency, Object date, String notes,
+                                                     String exchange, String country, String companyName) {
+        return new UpdateTransactionCommand(
+                UUID.fromString(transactionId),
+                ticker,
+                parameterConversionService.convert(type, "type", TransactionType.class),
+                parameterConversionService.convert(quantity, "quantity", BigDecimal.class),
+                parameterConversionService.convert(price, "price", BigDecimal.class),
+                parameterConversionService.convert(fees, "fees", BigDecimal.class),
+                parameterConversionService.convert(currency, "currency", Currency.class),
+                parameterConversionService.convert(date, "date", LocalDate.class),
+                notes,
+                isFractional,
+                parameterConversionService.convert(fractionalMultiplier, "fractionalMultiplier", BigDecimal.class),
+                parameterConversionService.convert(commissionCurrency, "commissionCurrency", Currency.class),
+                exchange,
+                country,
+                companyName);
+    }
+
+    private static Object orDefault(Object value, Object defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+}
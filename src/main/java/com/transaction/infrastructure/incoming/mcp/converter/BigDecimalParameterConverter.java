@@ -11,16 +11,16 @@ import java.util.Set;
  * Handles conversion of monetary amounts, quantities, prices, and fees.
  */
 @Singleton
-public class BigDecimalParameterConverter implements ParameterConverter {
+public class BigDecimalParameterConverter implements ParameterConverter<BigDecimal> {
 
     // TODO: we could do it more extensible reading the parameters from application.properties
     private static final Set<String> SUPPORTED_PARAMETERS = Set.of(
             "quantity", "price", "fees", "fractionalMultiplier",
-            "currentPrice", "amount", "value", "cost"
+            "currentPrice", "amount", "value", "cost", "rate"
     );
 
     @Override
-    public Object convert(Object value, String parameterName) {
+    public BigDecimal convert(Object value, String parameterName) {
         switch (value) {
             case null -> {
                 return null;
@@ -50,12 +50,12 @@ public class BigDecimalParameterConverter implements ParameterConverter {
     }
 
     @Override
-    public boolean matches(String parameterName) {
-        return SUPPORTED_PARAMETERS.contains(parameterName);
+    public Set<String> supportedParameters() {
+        return SUPPORTED_PARAMETERS;
     }
 
     @Override
-    public Class<?> getTargetType() {
+    public Class<BigDecimal> getTargetType() {
         return BigDecimal.class;
     }
 }
@@ -11,16 +11,16 @@ import java.util.Set;
  * Handles conversion of currency parameters including transaction and commission currencies.
  */
 @Singleton
-public class CurrencyParameterConverter implements ParameterConverter {
+public class CurrencyParameterConverter implements ParameterConverter<Currency> {
 
     // TODO: we could do it more extensible reading the parameters from application.properties
     private static final Set<String> SUPPORTED_PARAMETERS = Set.of(
             "currency", "commissionCurrency", "baseCurrency",
-            "targetCurrency", "fromCurrency", "toCurrency"
+            "targetCurrency", "fromCurrency", "toCurrency", "quoteCurrency"
     );
 
     @Override
-    public Object convert(Object value, String parameterName) {
+    public Currency convert(Object value, String parameterName) {
         switch (value) {
             case null -> {
                 return null;
@@ -48,12 +48,12 @@ public class CurrencyParameterConverter implements ParameterConverter {
     }
 
     @Override
-    public boolean matches(String parameterName) {
-        return SUPPORTED_PARAMETERS.contains(parameterName);
+    public Set<String> supportedParameters() {
+        return SUPPORTED_PARAMETERS;
     }
 
     @Override
-    public Class<?> getTargetType() {
+    public Class<Currency> getTargetType() {
         return Currency.class;
     }
 }
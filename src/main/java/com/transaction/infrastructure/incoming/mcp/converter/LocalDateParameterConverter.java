@@ -13,7 +13,7 @@ import java.util.Set;
  * Handles conversion of date parameters including transaction dates, start/end dates.
  */
 @Singleton
-public class LocalDateParameterConverter implements ParameterConverter {
+public class LocalDateParameterConverter implements ParameterConverter<LocalDate> {
 
     // TODO: we could do it more extensible reading the parameters from application.properties
     private static final Set<String> SUPPORTED_PARAMETERS = Set.of(
@@ -25,7 +25,7 @@ public class LocalDateParameterConverter implements ParameterConverter {
     private static final String TODAY_KEYWORD = "TODAY";
 
     @Override
-    public Object convert(Object value, String parameterName) {
+    public LocalDate convert(Object value, String parameterName) {
         switch (value) {
             case null -> {
                 return null;
@@ -59,12 +59,12 @@ public class LocalDateParameterConverter implements ParameterConverter {
     }
 
     @Override
-    public boolean matches(String parameterName) {
-        return SUPPORTED_PARAMETERS.contains(parameterName);
+    public Set<String> supportedParameters() {
+        return SUPPORTED_PARAMETERS;
     }
 
     @Override
-    public Class<?> getTargetType() {
+    public Class<LocalDate> getTargetType() {
         return LocalDate.class;
     }
 }
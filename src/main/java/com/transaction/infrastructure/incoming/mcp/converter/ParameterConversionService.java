@@ -7,26 +7,41 @@ import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 /**
  * Service that converts Object parameters to their appropriate types using the Strategy pattern.
- * Automatically selects the appropriate converter based on parameter names.
+ * The converter of each parameter name is looked up in a table built once from the names the converters declare;
+ * when several converters declare the same name, the first registered one wins.
  */
 @Slf4j
 @ApplicationScoped
 public class ParameterConversionService {
 
-    private final List<ParameterConverter> converters;
+    private final Map<String, ParameterConverter<?>> convertersByParameter;
 
     @Inject
-    public ParameterConversionService(Instance<ParameterConverter> converterInstances) {
-        this.converters = converterInstances.stream().toList();
+    public ParameterConversionService(Instance<ParameterConverter<?>> converterInstances) {
+        List<ParameterConverter<?>> converters = converterInstances.stream().toList();
+
+        Map<String, ParameterConverter<?>> table = new HashMap<>();
+        for (ParameterConverter<?> converter : converters) {
+            for (String parameterName : converter.supportedParameters()) {
+                ParameterConverter<?> existing = table.putIfAbsent(parameterName, converter);
+                if (existing != null) {
+                    Log.warnf("Parameter %s is declared by %s and %s, using the first one",
+                            parameterName, existing.getClass().getSimpleName(), converter.getClass().getSimpleName());
+                }
+            }
+        }
+        this.convertersByParameter = Map.copyOf(table);
 
         // Log registered converters for debugging
-        Log.infof("Registered %d parameter converters: %s",
+        Log.infof("Registered %d parameter converters for %d parameters: %s",
                 converters.size(),
+                convertersByParameter.size(),
                 converters.stream()
                         .map(c -> c.getClass().getSimpleName() + "(" + c.getTargetType().getSimpleName() + ")")
                         .toList());
@@ -45,11 +60,9 @@ public class ParameterConversionService {
             return null;
         }
 
-        Optional<ParameterConverter> matchingConverter = findFirstMatchingConverter(parameterName);
-
-        if (matchingConverter.isPresent()) {
-            ParameterConverter converter = matchingConverter.get();
+        ParameterConverter<?> converter = convertersByParameter.get(parameterName);
 
+        if (converter != null) {
             log.debug("Converting parameter {} using {} (target type: {})",
                     parameterName,
                     converter.getClass().getSimpleName(),
@@ -64,9 +77,32 @@ public class ParameterConversionService {
         return value;
     }
 
-    private Optional<ParameterConverter> findFirstMatchingConverter(String parameterName) {
-        return converters.stream()
-                .filter(converter -> converter.matches(parameterName))
-                .findFirst();
+    /**
+     * Converts the input value to {@code targetType} using the converter registered for the parameter name.
+     *
+     * @param value         The input value to convert
+     * @param parameterName The name of the parameter being converted
+     * @param targetType    The type the caller expects
+     * @return The converted value
+     * @throws ToolCallException     if conversion fails or no converter handles the parameter
+     * @throws IllegalStateException if the converter of the parameter produces a different type
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T convert(Object value, String parameterName, Class<T> targetType) {
+        if (value == null) {
+            return null;
+        }
+
+        ParameterConverter<?> converter = convertersByParameter.get(parameterName);
+
+        if (converter == null) {
+            throw new ToolCallException("No converter found for parameter '" + parameterName + "'");
+        }
+        if (converter.getTargetType() != targetType) {
+            throw new IllegalStateException("Parameter " + parameterName + " converts to "
+                    + converter.getTargetType().getSimpleName() + ", not " + targetType.getSimpleName());
+        }
+
+        return ((ParameterConverter<T>) converter).convert(value, parameterName);
     }
 }
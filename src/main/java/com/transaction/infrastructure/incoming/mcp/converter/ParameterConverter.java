@@ -1,10 +1,14 @@
 package com.transaction.infrastructure.incoming.mcp.converter;
 
+import java.util.Set;
+
 /**
  * Strategy interface for converting Object parameters to specific types based on parameter names.
  * Each implementation handles conversion for specific parameter names and target types.
+ *
+ * @param <T> The type this converter produces
  */
-public interface ParameterConverter {
+public interface ParameterConverter<T> {
 
     /**
      * Converts the input value to the appropriate target type.
@@ -14,7 +18,15 @@ public interface ParameterConverter {
      * @return The converted value
      * @throws io.quarkiverse.mcp.server.ToolCallException if conversion fails
      */
-    Object convert(Object value, String parameterName);
+    T convert(Object value, String parameterName);
+
+    /**
+     * Returns the parameter names this converter handles.
+     * Read once at startup to build the lookup table of {@link ParameterConversionService}.
+     *
+     * @return The supported parameter names
+     */
+    Set<String> supportedParameters();
 
     /**
      * Determines if this converter can handle the given parameter name.
@@ -22,13 +34,15 @@ public interface ParameterConverter {
      * @param parameterName The name of the parameter to check
      * @return true if this converter can handle the parameter, false otherwise
      */
-    boolean matches(String parameterName);
+    default boolean matches(String parameterName) {
+        return supportedParameters().contains(parameterName);
+    }
 
     /**
      * Returns the target type that this converter produces.
-     * Used for documentation and debugging purposes.
+     * Used to check typed conversions and for debugging purposes.
      *
      * @return The target class this converter produces
      */
-    Class<?> getTargetType();
+    Class<T> getTargetType();
 }
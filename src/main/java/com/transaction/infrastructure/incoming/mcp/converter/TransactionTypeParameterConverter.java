@@ -11,7 +11,7 @@ import java.util.Set;
  * Handles conversion of transaction type parameters.
  */
 @Singleton
-public class TransactionTypeParameterConverter implements ParameterConverter {
+public class TransactionTypeParameterConverter implements ParameterConverter<TransactionType> {
 
     // TODO: we could do it more extensible reading the parameters from application.properties
     private static final Set<String> SUPPORTED_PARAMETERS = Set.of(
@@ -19,7 +19,7 @@ public class TransactionTypeParameterConverter implements ParameterConverter {
     );
 
     @Override
-    public Object convert(Object value, String parameterName) {
+    public TransactionType convert(Object value, String parameterName) {
         switch (value) {
             case null -> {
                 return null;
@@ -47,12 +47,12 @@ public class TransactionTypeParameterConverter implements ParameterConverter {
     }
 
     @Override
-    public boolean matches(String parameterName) {
-        return SUPPORTED_PARAMETERS.contains(parameterName);
+    public Set<String> supportedParameters() {
+        return SUPPORTED_PARAMETERS;
     }
 
     @Override
-    public Class<?> getTargetType() {
+    public Class<TransactionType> getTargetType() {
         return TransactionType.class;
     }
 }
@@ -0,0 +1,29 @@
+package com.transaction.infrastructure.incoming.mcp.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * One operation of a batchTransactions call. Fields follow the arguments of the matching single-item tool.
+ */
+@RegisterForReflection
+public record BatchOperationDto(
+        String operation,
+        String transactionId,
+        String ticker,
+        Object type,
+        Object quantity,
+        Object price,
+        Object fees,
+        Boolean isFractional,
+        Object fractionalMultiplier,
+        Object commissionCurrency,
+        Object currency,
+        Object date,
+        String notes,
+        String exchange,
+        String country,
+        String companyName,
+        String idempotencyKey,
+        Long expectedVersion
+) {
+}
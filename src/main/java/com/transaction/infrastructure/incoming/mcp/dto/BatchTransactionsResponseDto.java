@@ -0,0 +1,24 @@
+package com.transaction.infrastructure.incoming.mcp.dto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.util.List;
+
+@RegisterForReflection
+public sealed interface BatchTransactionsResponseDto {
+
+    @RegisterForReflection
+    record Success(List<OperationResult> results) implements BatchTransactionsResponseDto {
+    }
+
+    @RegisterForReflection
+    record Error(String error) implements BatchTransactionsResponseDto {
+    }
+
+    /**
+     * Result of the operation at {@code index}, shaped like the response of the matching single-item tool.
+     */
+    @RegisterForReflection
+    record OperationResult(int index, String operation, Object result) {
+    }
+}
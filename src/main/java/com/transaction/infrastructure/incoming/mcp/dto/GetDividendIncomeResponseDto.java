@@ -0,0 +1,35 @@
+package com.transaction.infrastructure.incoming.mcp.dto;
+
+import com.transaction.domain.model.Currency;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@RegisterForReflection
+public sealed interface GetDividendIncomeResponseDto {
+
+    @RegisterForReflection
+    record Success(List<Dividend> dividends, List<Total> totals, LocalDate asOf) implements GetDividendIncomeResponseDto {
+    }
+
+    @RegisterForReflection
+    record NotFound(String ticker) implements GetDividendIncomeResponseDto {
+    }
+
+    @RegisterForReflection
+    record Error(String error) implements GetDividendIncomeResponseDto {
+    }
+
+    @RegisterForReflection
+    record Dividend(String ticker, Currency currency, BigDecimal shares, BigDecimal costBasis,
+                    BigDecimal trailingTwelveMonths, BigDecimal yieldOnCost, int paymentsPerYear,
+                    BigDecimal forwardAnnual, LocalDate lastPaymentDate, LocalDate nextPaymentDate,
+                    BigDecimal totalReceived) {
+    }
+
+    @RegisterForReflection
+    record Total(Currency currency, BigDecimal trailingTwelveMonths, BigDecimal forwardAnnual, BigDecimal totalReceived) {
+    }
+}
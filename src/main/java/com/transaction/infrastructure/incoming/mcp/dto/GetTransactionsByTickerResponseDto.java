@@ -8,7 +8,14 @@ import java.util.List;
 public sealed interface GetTransactionsByTickerResponseDto {
     
     @RegisterForReflection
-    record Success(List<TransactionDto> transactions) implements GetTransactionsByTickerResponseDto {
+    record Success(List<TransactionDto> transactions, String nextCursor) implements GetTransactionsByTickerResponseDto {
+        public Success(List<TransactionDto> transactions) {
+            this(transactions, null);
+        }
+    }
+
+    @RegisterForReflection
+    record Summary(List<TransactionSummaryDto> summaries) implements GetTransactionsByTickerResponseDto {
     }
     
     @RegisterForReflection
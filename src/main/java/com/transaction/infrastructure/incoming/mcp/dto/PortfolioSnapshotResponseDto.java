@@ -0,0 +1,25 @@
+package com.transaction.infrastructure.incoming.mcp.dto;
+
+import com.transaction.domain.model.Currency;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@RegisterForReflection
+public sealed interface PortfolioSnapshotResponseDto {
+
+    @RegisterForReflection
+    record Success(LocalDate asOf, List<Position> positions, LocalDate checkpointDate,
+                   int replayedTransactions) implements PortfolioSnapshotResponseDto {
+    }
+
+    @RegisterForReflection
+    record Error(String error) implements PortfolioSnapshotResponseDto {
+    }
+
+    @RegisterForReflection
+    record Position(String ticker, Currency currency, BigDecimal shares, BigDecimal costBasis, BigDecimal averageCost) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.transaction.infrastructure.incoming.mcp.dto;
+
+import com.transaction.domain.model.Currency;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+@RegisterForReflection
+public sealed interface PortfolioValuationResponseDto {
+
+    @RegisterForReflection
+    record Success(List<Position> positions, List<Total> totals, Total baseTotal, List<String> unpricedTickers,
+                   List<String> unconvertedTickers, Instant valuedAt) implements PortfolioValuationResponseDto {
+    }
+
+    @RegisterForReflection
+    record Error(String error) implements PortfolioValuationResponseDto {
+    }
+
+    @RegisterForReflection
+    record Position(String ticker, Currency currency, BigDecimal shares, BigDecimal costBasis, BigDecimal averageCost,
+                    BigDecimal marketPrice, BigDecimal marketValue, BigDecimal unrealizedGain,
+                    BigDecimal unrealizedGainPercent, Instant priceUpdatedAt) {
+    }
+
+    @RegisterForReflection
+    record Total(Currency currency, BigDecimal costBasis, BigDecimal marketValue, BigDecimal unrealizedGain) {
+    }
+}
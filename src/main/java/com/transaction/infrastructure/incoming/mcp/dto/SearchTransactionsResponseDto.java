@@ -8,7 +8,14 @@ import java.util.List;
 public sealed interface SearchTransactionsResponseDto {
     
     @RegisterForReflection
-    record Success(List<TransactionDto> transactions) implements SearchTransactionsResponseDto {
+    record Success(List<TransactionDto> transactions, String nextCursor) implements SearchTransactionsResponseDto {
+        public Success(List<TransactionDto> transactions) {
+            this(transactions, null);
+        }
+    }
+
+    @RegisterForReflection
+    record Summary(List<TransactionSummaryDto> summaries) implements SearchTransactionsResponseDto {
     }
     
     @RegisterForReflection
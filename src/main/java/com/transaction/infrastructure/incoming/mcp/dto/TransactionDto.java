@@ -25,6 +25,7 @@ public record TransactionDto(
         Currency commissionCurrency,
         String exchange,
         String country,
-        String companyName
+        String companyName,
+        Long version
 ) {
 }
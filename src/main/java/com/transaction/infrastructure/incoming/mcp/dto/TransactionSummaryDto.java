@@ -0,0 +1,22 @@
+package com.transaction.infrastructure.incoming.mcp.dto;
+
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.TransactionType;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@RegisterForReflection
+public record TransactionSummaryDto(
+        String ticker,
+        TransactionType transactionType,
+        Currency currency,
+        long count,
+        BigDecimal totalQuantity,
+        BigDecimal totalAmount,
+        BigDecimal totalFees,
+        LocalDate firstDate,
+        LocalDate lastDate
+) {
+}
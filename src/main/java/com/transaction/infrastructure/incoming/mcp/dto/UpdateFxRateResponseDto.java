@@ -0,0 +1,19 @@
+package com.transaction.infrastructure.incoming.mcp.dto;
+
+import com.transaction.domain.model.Currency;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@RegisterForReflection
+public sealed interface UpdateFxRateResponseDto {
+
+    @RegisterForReflection
+    record Success(Currency baseCurrency, Currency quoteCurrency, LocalDate date, BigDecimal rate) implements UpdateFxRateResponseDto {
+    }
+
+    @RegisterForReflection
+    record Error(String error) implements UpdateFxRateResponseDto {
+    }
+}
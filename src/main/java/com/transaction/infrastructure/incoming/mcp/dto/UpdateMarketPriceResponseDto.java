@@ -0,0 +1,19 @@
+package com.transaction.infrastructure.incoming.mcp.dto;
+
+import com.transaction.domain.model.Currency;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@RegisterForReflection
+public sealed interface UpdateMarketPriceResponseDto {
+
+    @RegisterForReflection
+    record Success(String ticker, BigDecimal price, Currency currency, Instant updatedAt) implements UpdateMarketPriceResponseDto {
+    }
+
+    @RegisterForReflection
+    record Error(String error) implements UpdateMarketPriceResponseDto {
+    }
+}
@@ -13,6 +13,10 @@ public sealed interface UpdateTransactionResponseDto {
     record NotFound() implements UpdateTransactionResponseDto {
     }
     
+    @RegisterForReflection
+    record VersionConflict(String message) implements UpdateTransactionResponseDto {
+    }
+    
     @RegisterForReflection
     record PublishError(TransactionDto transaction, String errorMessage) implements UpdateTransactionResponseDto {
     }
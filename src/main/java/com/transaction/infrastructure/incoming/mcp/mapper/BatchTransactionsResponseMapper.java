@@ -0,0 +1,101 @@
+package com.transaction.infrastructure.incoming.mcp.mapper;
+
+import com.transaction.domain.port.input.BatchTransactionsUseCase;
+import com.transaction.domain.port.input.CreateTransactionUseCase;
+import com.transaction.domain.port.input.DeleteTransactionUseCase;
+import com.transaction.domain.port.input.UpdateTransactionUseCase;
+import com.transaction.infrastructure.incoming.mcp.dto.BatchTransactionsResponseDto;
+import jakarta.inject.Inject;
+import org.mapstruct.Mapper;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+@Mapper(componentModel = "cdi")
+public abstract class BatchTransactionsResponseMapper {
+
+    @Inject
+    CreateTransactionResponseMapper createTransactionResponseMapper;
+
+    @Inject
+    UpdateTransactionResponseMapper updateTransactionResponseMapper;
+
+    @Inject
+    DeleteTransactionResponseMapper deleteTransactionResponseMapper;
+
+    public BatchTransactionsResponseDto.Success toSuccessDto(BatchTransactionsUseCase.Result.Success success) {
+        List<BatchTransactionsUseCase.Outcome> outcomes = success.outcomes();
+        return new BatchTransactionsResponseDto.Success(IntStream.range(0, outcomes.size())
+                .mapToObj(index -> toOperationResult(index, outcomes.get(index)))
+                .toList());
+    }
+
+    public BatchTransactionsResponseDto.Error toErrorDto(BatchTransactionsUseCase.Result.Error error) {
+        String errorMessage = formatErrorMessage(error.error().code(), error.throwable());
+        return new BatchTransactionsResponseDto.Error(errorMessage);
+    }
+
+    private BatchTransactionsResponseDto.OperationResult toOperationResult(int index, BatchTransactionsUseCase.Outcome outcome) {
+        return switch (outcome) {
+            case BatchTransactionsUseCase.Outcome.Created created ->
+                    new BatchTransactionsResponseDto.OperationResult(index, "CREATE", toDto(created.result()));
+            case BatchTransactionsUseCase.Outcome.Updated updated ->
+                    new BatchTransactionsResponseDto.OperationResult(index, "UPDATE", toDto(updated.result()));
+            case BatchTransactionsUseCase.Outcome.Deleted deleted ->
+                    new BatchTransactionsResponseDto.OperationResult(index, "DELETE", toDto(deleted.result()));
+            case BatchTransactionsUseCase.Outcome.Failed failed ->
+                    new BatchTransactionsResponseDto.OperationResult(index, operationName(failed.operation()),
+                            new BatchTransactionsResponseDto.Error(formatErrorMessage(null, failed.throwable())));
+        };
+    }
+
+    private Object toDto(CreateTransactionUseCase.Result result) {
+        return switch (result) {
+            case CreateTransactionUseCase.Result.Success success -> createTransactionResponseMapper.toSuccessDto(success);
+            case CreateTransactionUseCase.Result.Replayed replayed -> createTransactionResponseMapper.toReplayedDto(replayed);
+            case CreateTransactionUseCase.Result.PublishError publishError -> createTransactionResponseMapper.toPublishErrorDto(publishError);
+            case CreateTransactionUseCase.Result.Error error -> createTransactionResponseMapper.toErrorDto(error);
+        };
+    }
+
+    private Object toDto(UpdateTransactionUseCase.Result result) {
+        return switch (result) {
+            case UpdateTransactionUseCase.Result.Success success -> updateTransactionResponseMapper.toSuccessDto(success);
+            case UpdateTransactionUseCase.Result.NotFound notFound -> updateTransactionResponseMapper.toNotFoundDto(notFound);
+            case UpdateTransactionUseCase.Result.VersionConflict versionConflict -> updateTransactionResponseMapper.toVersionConflictDto(versionConflict);
+            case UpdateTransactionUseCase.Result.PublishError publishError -> updateTransactionResponseMapper.toPublishErrorDto(publishError);
+            case UpdateTransactionUseCase.Result.Error error -> updateTransactionResponseMapper.toErrorDto(error);
+        };
+    }
+
+    private Object toDto(DeleteTransactionUseCase.Result result) {
+        return switch (result) {
+            case DeleteTransactionUseCase.Result.Success success -> deleteTransactionResponseMapper.toSuccessDto(success);
+            case DeleteTransactionUseCase.Result.NotFound notFound -> deleteTransactionResponseMapper.toNotFoundDto(notFound);
+            case DeleteTransactionUseCase.Result.PublishError publishError -> deleteTransactionResponseMapper.toPublishErrorDto(publishError);
+            case DeleteTransactionUseCase.Result.Error error -> deleteTransactionResponseMapper.toErrorDto(error);
+        };
+    }
+
+    private static String operationName(BatchTransactionsUseCase.Operation operation) {
+        return switch (operation) {
+            case BatchTransactionsUseCase.Operation.Create ignored -> "CREATE";
+            case BatchTransactionsUseCase.Operation.Update ignored -> "UPDATE";
+            case BatchTransactionsUseCase.Operation.Delete ignored -> "DELETE";
+        };
+    }
+
+    private String formatErrorMessage(String errorCode, Throwable throwable) {
+        StringBuilder message = new StringBuilder();
+        if (errorCode != null && !errorCode.isEmpty()) {
+            message.append("Error code: ").append(errorCode);
+        }
+        if (throwable != null && throwable.getMessage() != null) {
+            if (!message.isEmpty()) {
+                message.append(" - ");
+            }
+            message.append(throwable.getMessage());
+        }
+        return !message.isEmpty() ? message.toString() : "An error occurred";
+    }
+}
@@ -11,6 +11,10 @@ public interface CreateTransactionResponseMapper {
     @Mapping(target = "transaction", source = "transaction")
     CreateTransactionResponseDto.Success toSuccessDto(CreateTransactionUseCase.Result.Success success);
 
+    default CreateTransactionResponseDto.Success toReplayedDto(CreateTransactionUseCase.Result.Replayed replayed) {
+        return toSuccessDto(new CreateTransactionUseCase.Result.Success(replayed.transaction()));
+    }
+
     default CreateTransactionResponseDto.PublishError toPublishErrorDto(CreateTransactionUseCase.Result.PublishError publishError) {
         String errorMessage = publishError.throwable() != null 
                 ? publishError.throwable().getMessage() 
@@ -0,0 +1,41 @@
+package com.transaction.infrastructure.incoming.mcp.mapper;
+
+import com.transaction.domain.model.DividendIncome;
+import com.transaction.domain.model.DividendSummary;
+import com.transaction.domain.port.input.GetDividendIncomeUseCase;
+import com.transaction.infrastructure.incoming.mcp.dto.GetDividendIncomeResponseDto;
+import org.mapstruct.Mapper;
+
+import java.util.List;
+
+@Mapper(componentModel = "cdi")
+public abstract class GetDividendIncomeResponseMapper {
+
+    public GetDividendIncomeResponseDto.Success toSuccessDto(GetDividendIncomeUseCase.Result.Success success) {
+        DividendIncome income = success.income();
+        return new GetDividendIncomeResponseDto.Success(
+                toDividendDtos(income.dividends()),
+                toTotalDtos(income.totals()),
+                income.asOf()
+        );
+    }
+
+    public GetDividendIncomeResponseDto.NotFound toNotFoundDto(GetDividendIncomeUseCase.Result.NotFound notFound) {
+        return new GetDividendIncomeResponseDto.NotFound(notFound.ticker());
+    }
+
+    public GetDividendIncomeResponseDto.Error toErrorDto(GetDividendIncomeUseCase.Result.Error error) {
+        String errorMessage = error.throwable() != null && error.throwable().getMessage() != null
+                ? "Error code: %s - %s".formatted(error.error().code(), error.throwable().getMessage())
+                : "Error code: %s".formatted(error.error().code());
+        return new GetDividendIncomeResponseDto.Error(errorMessage);
+    }
+
+    public abstract GetDividendIncomeResponseDto.Dividend toDividendDto(DividendSummary summary);
+
+    public abstract List<GetDividendIncomeResponseDto.Dividend> toDividendDtos(List<DividendSummary> summaries);
+
+    public abstract GetDividendIncomeResponseDto.Total toTotalDto(DividendIncome.Total total);
+
+    public abstract List<GetDividendIncomeResponseDto.Total> toTotalDtos(List<DividendIncome.Total> totals);
+}
@@ -1,9 +1,11 @@
 package com.transaction.infrastructure.incoming.mcp.mapper;
 
 import com.transaction.domain.model.Transaction;
+import com.transaction.domain.model.TransactionSummary;
 import com.transaction.domain.port.input.GetTransactionByTickerUseCase;
 import com.transaction.infrastructure.incoming.mcp.dto.GetTransactionsByTickerResponseDto;
 import com.transaction.infrastructure.incoming.mcp.dto.TransactionDto;
+import com.transaction.infrastructure.incoming.mcp.dto.TransactionSummaryDto;
 import org.mapstruct.Mapper;
 
 import java.util.List;
@@ -13,8 +15,14 @@ public interface GetTransactionsByTickerResponseMapper {
 
     List<TransactionDto> toDtoList(List<Transaction> transactions);
 
+    List<TransactionSummaryDto> toSummaryDtoList(List<TransactionSummary> summaries);
+
     default GetTransactionsByTickerResponseDto.Success toSuccessDto(GetTransactionByTickerUseCase.Result.Success success) {
-        return new GetTransactionsByTickerResponseDto.Success(toDtoList(success.transactions()));
+        return new GetTransactionsByTickerResponseDto.Success(toDtoList(success.transactions()), success.nextCursor());
+    }
+
+    default GetTransactionsByTickerResponseDto.Summary toSummaryDto(List<TransactionSummary> summaries) {
+        return new GetTransactionsByTickerResponseDto.Summary(toSummaryDtoList(summaries));
     }
 
     default GetTransactionsByTickerResponseDto.NotFound toNotFoundDto(GetTransactionByTickerUseCase.Result.NotFound notFound) {
@@ -0,0 +1,38 @@
+package com.transaction.infrastructure.incoming.mcp.mapper;
+
+import com.transaction.domain.model.PortfolioSnapshot;
+import com.transaction.domain.model.PositionSnapshot;
+import com.transaction.domain.port.input.GetPortfolioSnapshotUseCase;
+import com.transaction.infrastructure.incoming.mcp.dto.PortfolioSnapshotResponseDto;
+import org.mapstruct.Mapper;
+
+import java.math.RoundingMode;
+import java.util.List;
+
+@Mapper(componentModel = "cdi")
+public abstract class PortfolioSnapshotResponseMapper {
+
+    public PortfolioSnapshotResponseDto.Success toSuccessDto(GetPortfolioSnapshotUseCase.Result.Success success) {
+        PortfolioSnapshot snapshot = success.snapshot();
+        return new PortfolioSnapshotResponseDto.Success(
+                snapshot.asOf(),
+                toPositionDtos(snapshot.positions()),
+                snapshot.checkpointDate(),
+                snapshot.replayedTransactions()
+        );
+    }
+
+    public PortfolioSnapshotResponseDto.Error toErrorDto(GetPortfolioSnapshotUseCase.Result.Error error) {
+        String errorMessage = error.throwable() != null && error.throwable().getMessage() != null
+                ? "Error code: %s - %s".formatted(error.error().code(), error.throwable().getMessage())
+                : "Error code: %s".formatted(error.error().code());
+        return new PortfolioSnapshotResponseDto.Error(errorMessage);
+    }
+
+    public PortfolioSnapshotResponseDto.Position toPositionDto(PositionSnapshot position) {
+        return new PortfolioSnapshotResponseDto.Position(position.ticker(), position.currency(), position.shares(),
+                position.costBasis().setScale(4, RoundingMode.HALF_UP), position.averageCost());
+    }
+
+    public abstract List<PortfolioSnapshotResponseDto.Position> toPositionDtos(List<PositionSnapshot> positions);
+}
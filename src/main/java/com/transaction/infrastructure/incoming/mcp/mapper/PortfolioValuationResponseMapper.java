@@ -0,0 +1,40 @@
+package com.transaction.infrastructure.incoming.mcp.mapper;
+
+import com.transaction.domain.model.PortfolioValuation;
+import com.transaction.domain.model.PositionValuation;
+import com.transaction.domain.port.input.ValuePortfolioUseCase;
+import com.transaction.infrastructure.incoming.mcp.dto.PortfolioValuationResponseDto;
+import org.mapstruct.Mapper;
+
+import java.util.List;
+
+@Mapper(componentModel = "cdi")
+public abstract class PortfolioValuationResponseMapper {
+
+    public PortfolioValuationResponseDto.Success toSuccessDto(ValuePortfolioUseCase.Result.Success success) {
+        PortfolioValuation valuation = success.valuation();
+        return new PortfolioValuationResponseDto.Success(
+                toPositionDtos(valuation.positions()),
+                toTotalDtos(valuation.totals()),
+                toTotalDto(valuation.baseTotal()),
+                valuation.unpricedTickers(),
+                valuation.unconvertedTickers(),
+                valuation.valuedAt()
+        );
+    }
+
+    public PortfolioValuationResponseDto.Error toErrorDto(ValuePortfolioUseCase.Result.Error error) {
+        String errorMessage = error.throwable() != null && error.throwable().getMessage() != null
+                ? "Error code: %s - %s".formatted(error.error().code(), error.throwable().getMessage())
+                : "Error code: %s".formatted(error.error().code());
+        return new PortfolioValuationResponseDto.Error(errorMessage);
+    }
+
+    public abstract PortfolioValuationResponseDto.Position toPositionDto(PositionValuation position);
+
+    public abstract List<PortfolioValuationResponseDto.Position> toPositionDtos(List<PositionValuation> positions);
+
+    public abstract PortfolioValuationResponseDto.Total toTotalDto(PortfolioValuation.Total total);
+
+    public abstract List<PortfolioValuationResponseDto.Total> toTotalDtos(List<PortfolioValuation.Total> totals);
+}
@@ -1,8 +1,10 @@
 package com.transaction.infrastructure.incoming.mcp.mapper;
 
 import com.transaction.domain.model.Transaction;
+import com.transaction.domain.model.TransactionSummary;
 import com.transaction.infrastructure.incoming.mcp.dto.SearchTransactionsResponseDto;
 import com.transaction.infrastructure.incoming.mcp.dto.TransactionDto;
+import com.transaction.infrastructure.incoming.mcp.dto.TransactionSummaryDto;
 import org.mapstruct.Mapper;
 
 import java.util.List;
@@ -12,10 +14,16 @@ public interface SearchTransactionsResponseMapper {
 
     List<TransactionDto> toDtoList(List<Transaction> transactions);
 
+    List<TransactionSummaryDto> toSummaryDtoList(List<TransactionSummary> summaries);
+
     default SearchTransactionsResponseDto.Success toSuccessDto(List<Transaction> transactions) {
         return new SearchTransactionsResponseDto.Success(toDtoList(transactions));
     }
 
+    default SearchTransactionsResponseDto.Summary toSummaryDto(List<TransactionSummary> summaries) {
+        return new SearchTransactionsResponseDto.Summary(toSummaryDtoList(summaries));
+    }
+
     default SearchTransactionsResponseDto.Error toErrorDto(String error) {
         return new SearchTransactionsResponseDto.Error(error);
     }
@@ -0,0 +1,22 @@
+package com.transaction.infrastructure.incoming.mcp.mapper;
+
+import com.transaction.domain.model.FxRate;
+import com.transaction.domain.port.input.UpdateFxRateUseCase;
+import com.transaction.infrastructure.incoming.mcp.dto.UpdateFxRateResponseDto;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "cdi")
+public abstract class UpdateFxRateResponseMapper {
+
+    public UpdateFxRateResponseDto.Success toSuccessDto(UpdateFxRateUseCase.Result.Success success) {
+        FxRate fxRate = success.fxRate();
+        return new UpdateFxRateResponseDto.Success(fxRate.base(), fxRate.quote(), fxRate.date(), fxRate.rate());
+    }
+
+    public UpdateFxRateResponseDto.Error toErrorDto(UpdateFxRateUseCase.Result.Error error) {
+        String errorMessage = error.throwable() != null && error.throwable().getMessage() != null
+                ? "Error code: %s - %s".formatted(error.error().code(), error.throwable().getMessage())
+                : "Error code: %s".formatted(error.error().code());
+        return new UpdateFxRateResponseDto.Error(errorMessage);
+    }
+}
@@ -0,0 +1,39 @@
+package com.transaction.infrastructure.incoming.mcp.mapper;
+
+import com.transaction.domain.model.MarketPrice;
+import com.transaction.domain.port.input.UpdateMarketPriceUseCase;
+import com.transaction.infrastructure.incoming.mcp.dto.UpdateMarketPriceResponseDto;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "cdi")
+public abstract class UpdateMarketPriceResponseMapper {
+
+    public UpdateMarketPriceResponseDto.Success toSuccessDto(UpdateMarketPriceUseCase.Result.Success success) {
+        MarketPrice marketPrice = success.marketPrice();
+        return new UpdateMarketPriceResponseDto.Success(
+                marketPrice.ticker(),
+                marketPrice.price(),
+                marketPrice.currency(),
+                marketPrice.updatedAt()
+        );
+    }
+
+    public UpdateMarketPriceResponseDto.Error toErrorDto(UpdateMarketPriceUseCase.Result.Error error) {
+        String errorMessage = formatErrorMessage(error.error().code(), error.throwable());
+        return new UpdateMarketPriceResponseDto.Error(errorMessage);
+    }
+
+    private String formatErrorMessage(String errorCode, Throwable throwable) {
+        StringBuilder message = new StringBuilder();
+        if (errorCode != null && !errorCode.isEmpty()) {
+            message.append("Error code: ").append(errorCode);
+        }
+        if (throwable != null && throwable.getMessage() != null) {
+            if (!message.isEmpty()) {
+                message.append(" - ");
+            }
+            message.append(throwable.getMessage());
+        }
+        return !message.isEmpty() ? message.toString() : "An error occurred";
+    }
+}
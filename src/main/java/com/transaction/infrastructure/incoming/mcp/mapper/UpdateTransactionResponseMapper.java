@@ -15,6 +15,11 @@ public interface UpdateTransactionResponseMapper {
         return new UpdateTransactionResponseDto.NotFound();
     }
 
+    default UpdateTransactionResponseDto.VersionConflict toVersionConflictDto(UpdateTransactionUseCase.Result.VersionConflict versionConflict) {
+        return new UpdateTransactionResponseDto.VersionConflict(
+                "Transaction was modified by another update; fetch it again and retry with its current version");
+    }
+
     default UpdateTransactionResponseDto.PublishError toPublishErrorDto(UpdateTransactionUseCase.Result.PublishError publishError) {
         String errorMessage = publishError.throwable() != null 
                 ? publishError.throwable().getMessage() 
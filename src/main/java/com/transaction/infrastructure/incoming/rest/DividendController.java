@@ -0,0 +1,72 @@
+package com.transaction.infrastructure.incoming.rest;
+
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.port.input.GetDividendIncomeUseCase;
+import com.transaction.infrastructure.incoming.rest.dto.DividendIncomeResponse;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+/**
+ * REST controller for dividend income analytics
+ */
+@Path("/api/dividends")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Dividends", description = "Dividend income operations")
+public class DividendController {
+
+    @Inject
+    GetDividendIncomeUseCase getDividendIncomeUseCase;
+
+    /**
+     * Dividend income of every ticker that paid dividends
+     */
+    @GET
+    @Operation(summary = "Get dividend income",
+            description = "Returns trailing twelve months income, yield on cost and a forward projection per ticker")
+    @APIResponse(responseCode = "200", description = "Dividend income retrieved successfully",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = DividendIncomeResponse.class)))
+    public Uni<Response> getDividendIncome() {
+        return getDividendIncomeUseCase.getAll().map(DividendController::toResponse);
+    }
+
+    /**
+     * Dividend income of a ticker
+     */
+    @GET
+    @Path("/{ticker}")
+    @Operation(summary = "Get dividend income of a ticker",
+            description = "Returns trailing twelve months income, yield on cost and a forward projection of a ticker")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Dividend income retrieved successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = DividendIncomeResponse.class))),
+            @APIResponse(responseCode = "404", description = "The ticker paid no dividends")
+    })
+    public Uni<Response> getDividendIncomeByTicker(
+            @Parameter(description = "Stock ticker symbol", required = true, example = "KO")
+            @PathParam("ticker") String ticker) {
+        return getDividendIncomeUseCase.getByTicker(ticker).map(DividendController::toResponse);
+    }
+
+    private static Response toResponse(GetDividendIncomeUseCase.Result result) {
+        return switch (result) {
+            case GetDividendIncomeUseCase.Result.Success success -> Response.ok(DividendIncomeResponse.from(success.income())).build();
+            case GetDividendIncomeUseCase.Result.NotFound ignored -> Response.status(Response.Status.NOT_FOUND).build();
+            case GetDividendIncomeUseCase.Result.Error error -> error.error() == Errors.DividendErrors.INVALID_INPUT
+                    ? Response.status(Response.Status.BAD_REQUEST).build()
+                    : Response.serverError().build();
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package com.transaction.infrastructure.incoming.rest;
+
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.port.input.UpdateFxRateUseCase;
+import com.transaction.domain.port.input.UpdateMarketPriceUseCase;
+import com.transaction.infrastructure.incoming.rest.dto.FxRateResponse;
+import com.transaction.infrastructure.incoming.rest.dto.MarketPriceResponse;
+import com.transaction.infrastructure.incoming.rest.dto.UpdateFxRateRequest;
+import com.transaction.infrastructure.incoming.rest.dto.UpdateMarketDataRequest;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * REST controller for feeding market prices and exchange rates
+ */
+@Path("/api/market-data")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@Tag(name = "Market Data", description = "Market price and exchange rate operations")
+public class MarketDataController {
+
+    @Inject
+    UpdateMarketPriceUseCase updateMarketPriceUseCase;
+
+    @Inject
+    UpdateFxRateUseCase updateFxRateUseCase;
+
+    /**
+     * Update the latest market price of a ticker
+     */
+    @PUT
+    @Path("/{ticker}")
+    @Operation(summary = "Update market price", description = "Stores the latest market price of a ticker")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Price updated successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = MarketPriceResponse.class))),
+            @APIResponse(responseCode = "400", description = "Invalid request data")
+    })
+    public Uni<Response> updateMarketPrice(
+            @Parameter(description = "Stock ticker symbol", required = true, example = "AAPL")
+            @PathParam("ticker") String ticker,
+            @Valid UpdateMarketDataRequest request) {
+        Currency currency = request.currency() != null ? request.currency() : Currency.USD;
+
+        return updateMarketPriceUseCase.execute(ticker, request.price(), currency)
+                .map(result -> switch (result) {
+                    case UpdateMarketPriceUseCase.Result.Success success -> Response.ok(MarketPriceResponse.from(success.marketPrice())).build();
+                    case UpdateMarketPriceUseCase.Result.Error error -> error.error() == Errors.MarketDataErrors.INVALID_INPUT
+                            ? Response.status(Response.Status.BAD_REQUEST).build()
+                            : Response.serverError().build();
+                });
+    }
+
+    /**
+     * Update the exchange rate of a currency pair on a day
+     */
+    @PUT
+    @Path("/fx-rates")
+    @Operation(summary = "Update exchange rate", description = "Stores the exchange rate of a currency pair on a day, replacing any previous one")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Rate updated successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = FxRateResponse.class))),
+            @APIResponse(responseCode = "400", description = "Invalid request data")
+    })
+    public Uni<Response> updateFxRate(@Valid UpdateFxRateRequest request) {
+        LocalDate date = request.date() != null ? request.date() : LocalDate.now(ZoneOffset.UTC);
+
+        return updateFxRateUseCase.execute(request.baseCurrency(), request.quoteCurrency(), date, request.rate())
+                .map(result -> switch (result) {
+                    case UpdateFxRateUseCase.Result.Success success -> Response.ok(FxRateResponse.from(success.fxRate())).build();
+                    case UpdateFxRateUseCase.Result.Error error -> error.error() == Errors.MarketDataErrors.INVALID_INPUT
+                            ? Response.status(Response.Status.BAD_REQUEST).build()
+                            : Response.serverError().build();
+                });
+    }
+}
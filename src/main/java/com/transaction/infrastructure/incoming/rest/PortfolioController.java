@@ -0,0 +1,90 @@
+package com.transaction.infrastructure.incoming.rest;
+
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.port.input.GetPortfolioSnapshotUseCase;
+import com.transaction.domain.port.input.ValuePortfolioUseCase;
+import com.transaction.infrastructure.incoming.rest.dto.PortfolioSnapshotResponse;
+import com.transaction.infrastructure.incoming.rest.dto.PortfolioValuationResponse;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.time.LocalDate;
+
+/**
+ * REST controller for portfolio valuation
+ */
+@Path("/api/portfolio")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Portfolio", description = "Portfolio valuation operations")
+public class PortfolioController {
+
+    @Inject
+    ValuePortfolioUseCase valuePortfolioUseCase;
+
+    @Inject
+    GetPortfolioSnapshotUseCase getPortfolioSnapshotUseCase;
+
+    /**
+     * Value the open positions at the latest market prices
+     */
+    @GET
+    @Path("/valuation")
+    @Operation(summary = "Value portfolio",
+            description = "Returns market value and unrealized gain of every open position at the latest cached prices. "
+                    + "Positions without a cached price are listed as unpriced. With a base currency the totals are also "
+                    + "converted into it.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Portfolio valued successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = PortfolioValuationResponse.class))),
+            @APIResponse(responseCode = "500", description = "Valuation failed")
+    })
+    public Uni<Response> getValuation(
+            @Parameter(description = "Currency to convert the totals into", example = "EUR")
+            @QueryParam("baseCurrency") Currency baseCurrency) {
+        return valuePortfolioUseCase.execute(baseCurrency)
+                .map(result -> switch (result) {
+                    case ValuePortfolioUseCase.Result.Success success -> Response.ok(PortfolioValuationResponse.from(success.valuation())).build();
+                    case ValuePortfolioUseCase.Result.Error ignored -> Response.serverError().build();
+                });
+    }
+
+    /**
+     * Open positions as of a past day
+     */
+    @GET
+    @Path("/positions")
+    @Operation(summary = "Get positions as of a day",
+            description = "Returns the shares held and their cost basis after every transaction dated up to the given day. "
+                    + "Positions are resumed from the nearest month-end checkpoint, so only the transactions after it are read.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Positions retrieved successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = PortfolioSnapshotResponse.class))),
+            @APIResponse(responseCode = "400", description = "Missing day"),
+            @APIResponse(responseCode = "500", description = "Positions could not be built")
+    })
+    public Uni<Response> getPositions(
+            @Parameter(description = "Day to get the positions for (inclusive)", required = true, example = "2024-03-15")
+            @QueryParam("asOf") LocalDate asOf) {
+        return getPortfolioSnapshotUseCase.execute(asOf)
+                .map(result -> switch (result) {
+                    case GetPortfolioSnapshotUseCase.Result.Success success -> Response.ok(PortfolioSnapshotResponse.from(success.snapshot())).build();
+                    case GetPortfolioSnapshotUseCase.Result.Error error -> error.error() == Errors.PortfolioSnapshotErrors.INVALID_INPUT
+                            ? Response.status(Response.Status.BAD_REQUEST).build()
+                            : Response.serverError().build();
+                });
+    }
+}
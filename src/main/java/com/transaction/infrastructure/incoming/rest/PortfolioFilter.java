@@ -0,0 +1,70 @@
+package com.transaction.infrastructure.incoming.rest;
+
+import com.transaction.infrastructure.incoming.PortfolioQuotas;
+import com.transaction.infrastructure.outgoing.portfolio.VertxPortfolioContext;
+import io.smallrye.mutiny.Uni;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.json.Json;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+
+import java.util.Arrays;
+
+/**
+ * Enters the portfolio named by the {@code X-Portfolio-Id} header, the default portfolio when it is absent, and
+ * admits the request under that portfolio's quota. A malformed or unknown portfolio is rejected before any quota is
+ * kept for it, and a request finding its portfolio's queue full is answered 429. Change streams stay open
+ * indefinitely without holding a connection, so they are not counted against the quota.
+ */
+public class PortfolioFilter {
+
+    public static final String PORTFOLIO_ID_HEADER = "X-Portfolio-Id";
+
+    private final VertxPortfolioContext portfolioContext;
+    private final PortfolioQuotas portfolioQuotas;
+
+    public PortfolioFilter(VertxPortfolioContext portfolioContext, PortfolioQuotas portfolioQuotas) {
+        this.portfolioContext = portfolioContext;
+        this.portfolioQuotas = portfolioQuotas;
+    }
+
+    @ServerRequestFilter
+    public Uni<Response> enterPortfolio(ContainerRequestContext requestContext, ResourceInfo resourceInfo,
+                                        RoutingContext routingContext) {
+        String portfolioId;
+        try {
+            portfolioId = portfolioQuotas.portfolioId(requestContext.getHeaderString(PORTFOLIO_ID_HEADER));
+        } catch (IllegalArgumentException e) {
+            return Uni.createFrom().item(error(Response.Status.BAD_REQUEST, "INVALID_PORTFOLIO"));
+        }
+
+        portfolioContext.enter(portfolioId);
+        if (isStream(resourceInfo)) {
+            return Uni.createFrom().nullItem();
+        }
+        return portfolioQuotas.acquire(portfolioId)
+                .map(permit -> {
+                    routingContext.addEndHandler(ignored -> permit.release());
+                    return (Response) null;
+                })
+                .onFailure(PortfolioQuotas::isBusy).recoverWithItem(() -> error(Response.Status.TOO_MANY_REQUESTS, "PORTFOLIO_BUSY"));
+    }
+
+    private static Response error(Response.Status status, String errorCode) {
+        return Response.status(status)
+                .entity(Json.createObjectBuilder().add("errorCode", errorCode).build())
+                .type(MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    private static boolean isStream(ResourceInfo resourceInfo) {
+        Produces produces = resourceInfo.getResourceMethod() != null
+                ? resourceInfo.getResourceMethod().getAnnotation(Produces.class)
+                : null;
+        return produces != null && Arrays.asList(produces.value()).contains(MediaType.SERVER_SENT_EVENTS);
+    }
+}
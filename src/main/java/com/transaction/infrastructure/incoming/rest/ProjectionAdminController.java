@@ -0,0 +1,90 @@
+package com.transaction.infrastructure.incoming.rest;
+
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.port.input.ReplayTransactionChangesUseCase;
+import com.transaction.infrastructure.incoming.rest.dto.ProjectionReplayResponse;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * REST controller for rebuilding projections from the transaction change streams
+ */
+@Path("/api/admin/projections")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Projections", description = "Projection replay operations")
+public class ProjectionAdminController {
+
+    @Inject
+    ReplayTransactionChangesUseCase replayTransactionChangesUseCase;
+
+    /**
+     * List projections and their replay status
+     */
+    @GET
+    @Operation(summary = "List projections", description = "Returns every projection with its checkpoint and latest replay")
+    @APIResponse(responseCode = "200", description = "Projections retrieved successfully",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(type = SchemaType.ARRAY, implementation = ProjectionReplayResponse.class)))
+    public Uni<List<ProjectionReplayResponse>> listProjections() {
+        return replayTransactionChangesUseCase.status()
+                .map(replays -> replays.stream().map(ProjectionReplayResponse::from).toList());
+    }
+
+    /**
+     * Replay transaction changes through a projection
+     */
+    @POST
+    @Path("/{projection}/replay")
+    @Operation(summary = "Replay changes through a projection",
+            description = "Starts replaying the transaction change streams through the projection in the background. "
+                    + "Without a starting point the replay resumes from the projection's checkpoint, or rebuilds from the beginning with reset.")
+    @APIResponses(value = {
+            @APIResponse(responseCode = "202", description = "Replay started",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ProjectionReplayResponse.class))),
+            @APIResponse(responseCode = "400", description = "Invalid cursor or timestamp"),
+            @APIResponse(responseCode = "404", description = "Projection not found"),
+            @APIResponse(responseCode = "409", description = "A replay of this projection is already running")
+    })
+    public Uni<Response> replay(
+            @Parameter(description = "Projection name", required = true, example = "ticker-transactions")
+            @PathParam("projection") String projection,
+            @Parameter(description = "Change feed cursor to replay after", example = "1700000000000-0,0-0,0-0")
+            @QueryParam("from") String from,
+            @Parameter(description = "Replay changes published at or after this instant", example = "2024-01-01T00:00:00Z")
+            @QueryParam("since") String since,
+            @Parameter(description = "Discard the projection's state before replaying")
+            @QueryParam("reset") @DefaultValue("false") boolean reset) {
+        Instant sinceInstant;
+        try {
+            sinceInstant = since != null && !since.isBlank() ? Instant.parse(since.trim()) : null;
+        } catch (DateTimeParseException e) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST).build());
+        }
+
+        return replayTransactionChangesUseCase.replay(projection, from, sinceInstant, reset)
+                .map(result -> switch (result) {
+                    case ReplayTransactionChangesUseCase.Result.Started started -> Response.accepted(ProjectionReplayResponse.from(started.replay())).build();
+                    case ReplayTransactionChangesUseCase.Result.NotFound ignored -> Response.status(Response.Status.NOT_FOUND).build();
+                    case ReplayTransactionChangesUseCase.Result.AlreadyRunning running -> Response.status(Response.Status.CONFLICT)
+                            .entity(ProjectionReplayResponse.from(running.replay())).build();
+                    case ReplayTransactionChangesUseCase.Result.Error error -> error.error() == Errors.ReplayTransactionsErrors.INVALID_INPUT
+                            ? Response.status(Response.Status.BAD_REQUEST).build()
+                            : Response.serverError().build();
+                });
+    }
+}
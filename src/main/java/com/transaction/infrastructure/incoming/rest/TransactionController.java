@@ -3,9 +3,13 @@ package com.transaction.infrastructure.incoming.rest;
 import com.transaction.domain.port.input.DeleteTransactionUseCase;
 import com.transaction.application.usecase.transaction.GetTransactionUseCase;
 import com.transaction.domain.port.input.UpdateTransactionUseCase;
+import com.transaction.domain.model.ChangeMarker;
+import com.transaction.domain.model.Transaction;
 import com.transaction.domain.model.TransactionType;
+import com.transaction.domain.port.input.AdjustForSplitsUseCase;
 import com.transaction.domain.port.input.CreateTransactionUseCase;
 import com.transaction.domain.port.input.GetTransactionByTickerUseCase;
+import com.transaction.domain.port.input.WatchTransactionChangesUseCase;
 import com.transaction.infrastructure.incoming.rest.dto.CreateTransactionRequest;
 import com.transaction.infrastructure.incoming.rest.dto.TransactionResponse;
 import com.transaction.infrastructure.incoming.rest.dto.UpdateTransactionRequest;
@@ -15,9 +19,18 @@ import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
@@ -27,8 +40,12 @@ import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * REST controller for transaction management
@@ -39,6 +56,11 @@ import java.util.UUID;
 @Tag(name = "Transactions", description = "Transaction management operations")
 public class TransactionController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    static final String SPLIT_ADJUSTED_VARIANT = "split-adjusted";
+    private static final String MAX_VERSION = Long.toString(Long.MAX_VALUE);
+
     @Inject
     CreateTransactionUseCase createTransactionUseCase;
 
@@ -54,9 +76,18 @@ public class TransactionController {
     @Inject
     DeleteTransactionUseCase deleteTransactionUseCase;
 
+    @Inject
+    WatchTransactionChangesUseCase watchTransactionChangesUseCase;
+
+    @Inject
+    AdjustForSplitsUseCase adjustForSplitsUseCase;
+
     @Inject
     TransactionMapper transactionMapper;
 
+    @ConfigProperty(name = "application.change-feed.heartbeat", defaultValue = "PT15S")
+    Duration changeFeedHeartbeat;
+
     /**
      * Create a new transaction
      */
@@ -65,14 +96,24 @@ public class TransactionController {
     @APIResponses(value = {
             @APIResponse(responseCode = "201", description = "Transaction created successfully",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = TransactionResponse.class))),
-            @APIResponse(responseCode = "400", description = "Invalid request data")
+            @APIResponse(responseCode = "400", description = "Invalid request data"),
+            @APIResponse(responseCode = "409", description = "Idempotency key held by a request that has not completed"),
+            @APIResponse(responseCode = "422", description = "Idempotency key already used with a different request")
     })
-    public Uni<Response> createTransaction(@Valid CreateTransactionRequest request) {
+    public Uni<Response> createTransaction(
+            @Parameter(description = "Client generated key that makes retries of this request safe", example = "6f1c2a3e-create-aapl-1")
+            @HeaderParam(IDEMPOTENCY_KEY_HEADER) @Size(max = 255, message = "Idempotency key cannot exceed 255 characters") String idempotencyKey,
+            @Valid CreateTransactionRequest request) {
         return Uni.createFrom().item(() -> transactionMapper.toCreateTransactionCommand(request))
-                .flatMap(command -> createTransactionUseCase.execute(command))
+                .flatMap(command -> createTransactionUseCase.execute(command, idempotencyKey))
                 .map(result -> switch (result) {
                     case CreateTransactionUseCase.Result.Success success ->
                             Response.status(Response.Status.CREATED).entity(transactionMapper.toResponse(success.transaction())).build();
+                    case CreateTransactionUseCase.Result.Replayed replayed ->
+                            Response.status(Response.Status.CREATED)
+                                    .header(IDEMPOTENT_REPLAYED_HEADER, "true")
+                                    .entity(transactionMapper.toResponse(replayed.transaction()))
+                                    .build();
                     case CreateTransactionUseCase.Result.Error error -> ErrorMapper.mapToResponse(error);
                     case CreateTransactionUseCase.Result.PublishError publishError -> // TODO: we should send the event to a DLQ to retry later
                             Response.status(Response.Status.CREATED)
@@ -89,19 +130,35 @@ public class TransactionController {
     @Path("/{id}")
     @Operation(summary = "Get transaction by ID", description = "Retrieves a specific transaction by its unique identifier")
     @APIResponses(value = {
-            @APIResponse(responseCode = "200", description = "Transaction found",
+            @APIResponse(responseCode = "200", description = "Transaction found, with its version as ETag",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = TransactionResponse.class))),
+            @APIResponse(responseCode = "304", description = "Transaction unchanged since the ETag given in If-None-Match"),
             @APIResponse(responseCode = "404", description = "Transaction not found")
     })
     public Uni<Response> getTransaction(
             @Parameter(description = "Transaction ID", required = true, example = "550e8400-e29b-41d4-a716-446655440000")
-            @PathParam("id") UUID id) {
-        return getTransactionUseCase.getById(id)
-                .map(transaction -> {
-                    if (transaction == null) {
-                        return Response.status(Response.Status.NOT_FOUND).build();
+            @PathParam("id") UUID id,
+            @Context Request request) {
+        return getTransactionUseCase.getChangeMarker(id)
+                .flatMap(marker -> {
+                    Response.ResponseBuilder notModified = evaluatePreconditions(request, marker);
+                    if (notModified != null) {
+                        return Uni.createFrom().item(notModified.cacheControl(revalidate()).build());
                     }
-                    return Response.ok(transactionMapper.toResponse(transaction)).build();
+                    return getTransactionUseCase.getById(id)
+                            .map(transaction -> {
+                                if (transaction == null) {
+                                    return Response.status(Response.Status.NOT_FOUND).build();
+                                }
+                                EntityTag entityTag = entityTag(transaction);
+                                Response.ResponseBuilder ok = Response.ok(transactionMapper.toResponse(transaction))
+                                        .tag(entityTag)
+                                        .cacheControl(revalidate());
+                                if (marker != null && entityTag != null && marker.tag().equals(entityTag.getValue())) {
+                                    ok.lastModified(lastModified(marker));
+                                }
+                                return ok.build();
+                            });
                 });
     }
 
@@ -123,18 +180,34 @@ public class TransactionController {
     @GET
     @Path("/ticker/{ticker}")
     @Operation(summary = "Get transactions by ticker", description = "Retrieves all transactions for a specific stock ticker")
-    @APIResponse(responseCode = "200", description = "List of transactions for the ticker",
-            content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(type = SchemaType.ARRAY, implementation = TransactionResponse.class)))
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "List of transactions for the ticker",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(type = SchemaType.ARRAY, implementation = TransactionResponse.class))),
+            @APIResponse(responseCode = "304", description = "Transactions for the ticker unchanged since the ETag given in If-None-Match")
+    })
     public Uni<Response> getTransactionsByTicker(
             @Parameter(description = "Stock ticker symbol", required = true, example = "AAPL")
-            @PathParam("ticker") String ticker) {
-        return getTransactionByTickerUseCase.getByTicker(ticker)
-                .map(result -> switch (result) {
-                    case GetTransactionByTickerUseCase.Result.Success success ->
-                            Response.ok(transactionMapper.toResponses(success.transactions())).build();
-                    case GetTransactionByTickerUseCase.Result.NotFound ignored ->
-                            Response.status(Response.Status.NOT_FOUND).build();
-                    case GetTransactionByTickerUseCase.Result.Error ignored -> Response.serverError().build();
+            @PathParam("ticker") String ticker,
+            @Parameter(description = "Restate quantities and prices in today's shares, after every later split")
+            @QueryParam("splitAdjusted") @DefaultValue("false") boolean splitAdjusted,
+            @Context Request request) {
+        return getTransactionUseCase.getChangeMarkerByTicker(ticker)
+                .map(marker -> marker != null && splitAdjusted ? marker.withVariant(SPLIT_ADJUSTED_VARIANT) : marker)
+                .flatMap(marker -> {
+                    Response.ResponseBuilder notModified = evaluatePreconditions(request, marker);
+                    if (notModified != null) {
+                        return Uni.createFrom().item(notModified.cacheControl(revalidate()).build());
+                    }
+                    return getTransactionByTickerUseCase.getByTicker(ticker)
+                            .flatMap(result -> switch (result) {
+                                case GetTransactionByTickerUseCase.Result.Success success ->
+                                        (splitAdjusted ? adjustForSplitsUseCase.adjust(success.transactions()) : Uni.createFrom().item(success.transactions()))
+                                                .map(transactions -> withValidators(Response.ok(transactionMapper.toResponses(transactions)), marker).build());
+                                case GetTransactionByTickerUseCase.Result.NotFound ignored ->
+                                        Uni.createFrom().item(Response.status(Response.Status.NOT_FOUND).build());
+                                case GetTransactionByTickerUseCase.Result.Error ignored ->
+                                        Uni.createFrom().item(Response.serverError().build());
+                            });
                 });
     }
 
@@ -154,10 +227,47 @@ public class TransactionController {
             @Parameter(description = "Filter from date (inclusive)", example = "2023-01-01")
             @QueryParam("fromDate") LocalDate fromDate,
             @Parameter(description = "Filter to date (inclusive)", example = "2023-12-31")
-            @QueryParam("toDate") LocalDate toDate) {
+            @QueryParam("toDate") LocalDate toDate,
+            @Parameter(description = "Restate quantities and prices in today's shares, after every later split")
+            @QueryParam("splitAdjusted") @DefaultValue("false") boolean splitAdjusted) {
 
-        return getTransactionUseCase.searchTransactions(ticker, type, fromDate, toDate)
-                .map(transactionMapper::toResponse);
+        Multi<Transaction> transactions = getTransactionUseCase.searchTransactions(ticker, type, fromDate, toDate);
+        if (splitAdjusted) {
+            transactions = transactions.onItem().transformToUniAndConcatenate(adjustForSplitsUseCase::adjust);
+        }
+        return transactions.map(transactionMapper::toResponse);
+    }
+
+    /**
+     * Follow transaction changes
+     */
+    @GET
+    @Path("/changes")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @Operation(summary = "Follow transaction changes",
+            description = "Streams created, updated and deleted transactions as server-sent events. The event id is a cursor: "
+                    + "reconnecting with it in Last-Event-ID resumes right after that event. A ResyncRequired event means the "
+                    + "missed changes can no longer be replayed and the client should reload before continuing.")
+    @APIResponse(responseCode = "200", description = "Stream of transaction change events",
+            content = @Content(mediaType = MediaType.SERVER_SENT_EVENTS))
+    public Multi<OutboundSseEvent> followChanges(
+            @Parameter(description = "Only stream changes for this ticker symbol", example = "AAPL")
+            @QueryParam("ticker") String ticker,
+            @Parameter(description = "Id of the last event received, to resume after it")
+            @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String lastEventId,
+            @Context Sse sse) {
+        Multi<OutboundSseEvent> changes = watchTransactionChangesUseCase.watch(ticker, lastEventId)
+                .map(change -> {
+                    OutboundSseEvent.Builder event = sse.newEventBuilder()
+                            .id(change.cursor())
+                            .name(change.eventType());
+                    return (change.payload() != null ? event.data(change.payload()) : event.data("")).build();
+                });
+        // Comment lines keep idle connections from being closed by proxies without reaching the client's handler
+        Multi<OutboundSseEvent> heartbeats = Multi.createFrom().ticks().every(changeFeedHeartbeat)
+                .onOverflow().drop()
+                .map(tick -> sse.newEventBuilder().comment("heartbeat").build());
+        return Multi.createBy().merging().streams(changes, heartbeats);
     }
 
     /**
@@ -170,21 +280,39 @@ public class TransactionController {
             @APIResponse(responseCode = "200", description = "Transaction updated successfully",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = TransactionResponse.class))),
             @APIResponse(responseCode = "404", description = "Transaction not found"),
-            @APIResponse(responseCode = "400", description = "Invalid request data")
+            @APIResponse(responseCode = "400", description = "Invalid request data or malformed If-Match"),
+            @APIResponse(responseCode = "412", description = "Transaction was modified since the version given in If-Match")
     })
     public Uni<Response> updateTransaction(
             @Parameter(description = "Transaction ID", required = true, example = "550e8400-e29b-41d4-a716-446655440000")
             @PathParam("id") UUID id,
+            @Parameter(description = "ETag of the version being edited; the update is rejected if the transaction changed since", example = "\"3\"")
+            @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
             @Valid UpdateTransactionRequest updateTransactionRequest) {
+        String tag = ifMatch == null ? "" : ifMatch.trim();
+        boolean anyVersion = tag.isEmpty() || "*".equals(tag);
+        if (!anyVersion && !isEntityTag(tag)) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST).build());
+        }
+        if (!anyVersion && !isVersionTag(tag)) {
+            return Uni.createFrom().item(Response.status(Response.Status.PRECONDITION_FAILED).build());
+        }
+        Long expectedVersion = anyVersion ? null : Long.valueOf(tag.substring(1, tag.length() - 1));
+
         return Uni.createFrom().item(() -> transactionMapper.toUpdateTransactionCommand(id, updateTransactionRequest))
-                .flatMap(command -> updateTransactionUseCase.execute(command))
+                .flatMap(command -> updateTransactionUseCase.execute(command, expectedVersion))
                 .map(result -> switch (result) {
                     case UpdateTransactionUseCase.Result.Success success ->
-                            Response.ok(transactionMapper.toResponse(success.transaction())).build();
+                            Response.ok(transactionMapper.toResponse(success.transaction()))
+                                    .tag(entityTag(success.transaction()))
+                                    .build();
                     case UpdateTransactionUseCase.Result.NotFound ignored ->
                             Response.status(Response.Status.NOT_FOUND).build();
+                    case UpdateTransactionUseCase.Result.VersionConflict ignored ->
+                            Response.status(Response.Status.PRECONDITION_FAILED).build();
                     case UpdateTransactionUseCase.Result.PublishError publishError ->
                             Response.ok(transactionMapper.toResponse(publishError.transaction()))
+                                    .tag(entityTag(publishError.transaction()))
                                     .header("X-Event-Status", "FAILED")
                                     .build();
                     case UpdateTransactionUseCase.Result.Error error ->
@@ -221,10 +349,14 @@ public class TransactionController {
     @GET
     @Path("/count")
     @Operation(summary = "Get total transaction count", description = "Returns the total number of transactions in the portfolio")
-    @APIResponse(responseCode = "200", description = "Total transaction count",
-            content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(type = SchemaType.INTEGER, format = "int64")))
-    public Uni<Long> getTransactionCount() {
-        return getTransactionUseCase.countAll();
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Total transaction count",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(type = SchemaType.INTEGER, format = "int64"))),
+            @APIResponse(responseCode = "304", description = "Transactions unchanged since the ETag given in If-None-Match")
+    })
+    public Uni<Response> getTransactionCount(@Context Request request) {
+        return getTransactionUseCase.getChangeMarker()
+                .flatMap(marker -> conditionalCount(request, marker, getTransactionUseCase::countAll));
     }
 
     /**
@@ -233,11 +365,97 @@ public class TransactionController {
     @GET
     @Path("/count/{ticker}")
     @Operation(summary = "Get transaction count by ticker", description = "Returns the number of transactions for a specific stock ticker")
-    @APIResponse(responseCode = "200", description = "Transaction count for the ticker",
-            content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(type = SchemaType.INTEGER, format = "int64")))
-    public Uni<Long> getTransactionCountByTicker(
+    @APIResponses(value = {
+            @APIResponse(responseCode = "200", description = "Transaction count for the ticker",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(type = SchemaType.INTEGER, format = "int64"))),
+            @APIResponse(responseCode = "304", description = "Transactions for the ticker unchanged since the ETag given in If-None-Match")
+    })
+    public Uni<Response> getTransactionCountByTicker(
             @Parameter(description = "Stock ticker symbol", required = true, example = "AAPL")
-            @PathParam("ticker") String ticker) {
-        return getTransactionUseCase.countByTicker(ticker);
+            @PathParam("ticker") String ticker,
+            @Context Request request) {
+        return getTransactionUseCase.getChangeMarkerByTicker(ticker)
+                .flatMap(marker -> conditionalCount(request, marker, () -> getTransactionUseCase.countByTicker(ticker)));
+    }
+
+    private static Uni<Response> conditionalCount(Request request, ChangeMarker marker, Supplier<Uni<Long>> count) {
+        Response.ResponseBuilder notModified = evaluatePreconditions(request, marker);
+        if (notModified != null) {
+            return Uni.createFrom().item(notModified.cacheControl(revalidate()).build());
+        }
+        return count.get().map(total -> withValidators(Response.ok(total), marker).build());
+    }
+
+    /**
+     * Answers If-None-Match / If-Modified-Since from the change marker alone; {@code null} means the body must be sent.
+     */
+    private static Response.ResponseBuilder evaluatePreconditions(Request request, ChangeMarker marker) {
+        if (marker == null) {
+            return null;
+        }
+        EntityTag entityTag = new EntityTag(marker.tag());
+        return marker.lastModified() != null
+                ? request.evaluatePreconditions(lastModified(marker), entityTag)
+                : request.evaluatePreconditions(entityTag);
+    }
+
+    private static Response.ResponseBuilder withValidators(Response.ResponseBuilder builder, ChangeMarker marker) {
+        builder.cacheControl(revalidate());
+        if (marker != null) {
+            builder.tag(new EntityTag(marker.tag()));
+            if (marker.lastModified() != null) {
+                builder.lastModified(lastModified(marker));
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * HTTP dates have second precision, so the marker is truncated to compare equal to If-Modified-Since.
+     */
+    private static Date lastModified(ChangeMarker marker) {
+        return Date.from(marker.lastModified().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * Lets clients keep the body but forces them to revalidate on every poll.
+     */
+    private static CacheControl revalidate() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoCache(true);
+        cacheControl.setNoTransform(false);
+        return cacheControl;
+    }
+
+    private static EntityTag entityTag(Transaction transaction) {
+        return transaction.getVersion() == null ? null : new EntityTag(transaction.getVersion().toString());
+    }
+
+    /**
+     * Whether the header is an entity tag at all, strong or weak; anything else is a malformed If-Match
+     */
+    private static boolean isEntityTag(String tag) {
+        String opaque = tag.startsWith("W/") ? tag.substring(2) : tag;
+        return opaque.length() >= 2 && opaque.startsWith("\"") && opaque.endsWith("\"");
+    }
+
+    /**
+     * Whether the entity tag is a strong one holding a version, as {@link #entityTag(Transaction)} sends them.
+     * Weak tags, lists of tags and other values can never match a transaction.
+     */
+    private static boolean isVersionTag(String tag) {
+        if (!tag.startsWith("\"")) {
+            return false;
+        }
+        String version = tag.substring(1, tag.length() - 1);
+        if (version.isEmpty() || version.length() > MAX_VERSION.length()) {
+            return false;
+        }
+        for (int i = 0; i < version.length(); i++) {
+            if (version.charAt(i) < '0' || version.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return version.length() < MAX_VERSION.length() || version.compareTo(MAX_VERSION) <= 0;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,82 @@
+package com.transaction.infrastructure.incoming.rest.dto;
+
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.DividendIncome;
+import com.transaction.domain.model.DividendSummary;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@RegisterForReflection
+@Schema(description = "Dividend income per ticker with totals per currency")
+public record DividendIncomeResponse(
+        @Schema(description = "Dividend income per ticker and currency")
+        List<DividendResponse> dividends,
+        @Schema(description = "Totals per currency")
+        List<TotalResponse> totals,
+        @Schema(description = "Day the income is computed as of", example = "2024-06-03")
+        LocalDate asOf
+) {
+
+    public static DividendIncomeResponse from(DividendIncome income) {
+        return new DividendIncomeResponse(
+                income.dividends().stream().map(DividendResponse::from).toList(),
+                income.totals().stream().map(TotalResponse::from).toList(),
+                income.asOf());
+    }
+
+    @RegisterForReflection
+    @Schema(description = "Dividend income of a ticker in one currency")
+    public record DividendResponse(
+            @Schema(description = "Stock ticker symbol", example = "KO")
+            String ticker,
+            @Schema(description = "Dividend currency", example = "USD")
+            Currency currency,
+            @Schema(description = "Shares held", example = "100")
+            BigDecimal shares,
+            @Schema(description = "Cost of the shares held, including fees", example = "5500.00")
+            BigDecimal costBasis,
+            @Schema(description = "Dividends received over the last twelve months", example = "194.00")
+            BigDecimal trailingTwelveMonths,
+            @Schema(description = "Trailing twelve months dividends as a percentage of the cost basis", example = "3.53")
+            BigDecimal yieldOnCost,
+            @Schema(description = "Payments received over the last twelve months", example = "4")
+            int paymentsPerYear,
+            @Schema(description = "Last payment per share over the shares held, at the observed frequency", example = "194.00")
+            BigDecimal forwardAnnual,
+            @Schema(description = "Date of the last payment", example = "2024-04-01")
+            LocalDate lastPaymentDate,
+            @Schema(description = "Expected date of the next payment", example = "2024-07-01")
+            LocalDate nextPaymentDate,
+            @Schema(description = "Dividends received since the first transaction", example = "812.50")
+            BigDecimal totalReceived
+    ) {
+
+        static DividendResponse from(DividendSummary summary) {
+            return new DividendResponse(summary.ticker(), summary.currency(), summary.shares(), summary.costBasis(),
+                    summary.trailingTwelveMonths(), summary.yieldOnCost(), summary.paymentsPerYear(), summary.forwardAnnual(),
+                    summary.lastPaymentDate(), summary.nextPaymentDate(), summary.totalReceived());
+        }
+    }
+
+    @RegisterForReflection
+    @Schema(description = "Dividend income in one currency")
+    public record TotalResponse(
+            @Schema(description = "Currency", example = "USD")
+            Currency currency,
+            @Schema(description = "Dividends received over the last twelve months", example = "194.00")
+            BigDecimal trailingTwelveMonths,
+            @Schema(description = "Projected dividends over the next twelve months", example = "194.00")
+            BigDecimal forwardAnnual,
+            @Schema(description = "Dividends received since the first transaction", example = "812.50")
+            BigDecimal totalReceived
+    ) {
+
+        static TotalResponse from(DividendIncome.Total total) {
+            return new TotalResponse(total.currency(), total.trailingTwelveMonths(), total.forwardAnnual(), total.totalReceived());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.transaction.infrastructure.incoming.rest.dto;
+
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.FxRate;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@RegisterForReflection
+@Schema(description = "Exchange rate of a currency pair on a day")
+public record FxRateResponse(
+        @Schema(description = "Currency being priced", example = "EUR")
+        Currency baseCurrency,
+        @Schema(description = "Currency the rate is expressed in", example = "USD")
+        Currency quoteCurrency,
+        @Schema(description = "Day of the rate", example = "2024-06-03")
+        LocalDate date,
+        @Schema(description = "Units of the quote currency bought by one unit of the base currency", example = "1.0850")
+        BigDecimal rate
+) {
+
+    public static FxRateResponse from(FxRate fxRate) {
+        return new FxRateResponse(fxRate.base(), fxRate.quote(), fxRate.date(), fxRate.rate());
+    }
+}
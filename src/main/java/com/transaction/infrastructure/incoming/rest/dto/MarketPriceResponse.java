@@ -0,0 +1,27 @@
+package com.transaction.infrastructure.incoming.rest.dto;
+
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.MarketPrice;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@RegisterForReflection
+@Schema(description = "Latest market price of a ticker")
+public record MarketPriceResponse(
+        @Schema(description = "Stock ticker symbol", example = "AAPL")
+        String ticker,
+        @Schema(description = "Market price per share", example = "155.75")
+        BigDecimal price,
+        @Schema(description = "Currency the price is quoted in", example = "USD")
+        Currency currency,
+        @Schema(description = "When the price was received")
+        Instant updatedAt
+) {
+
+    public static MarketPriceResponse from(MarketPrice marketPrice) {
+        return new MarketPriceResponse(marketPrice.ticker(), marketPrice.price(), marketPrice.currency(), marketPrice.updatedAt());
+    }
+}
@@ -0,0 +1,55 @@
+package com.transaction.infrastructure.incoming.rest.dto;
+
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.PortfolioSnapshot;
+import com.transaction.domain.model.PositionSnapshot;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+
+@RegisterForReflection
+@Schema(description = "Open positions after every transaction dated up to a day")
+public record PortfolioSnapshotResponse(
+        @Schema(description = "Day the positions are given for", example = "2024-03-15")
+        LocalDate asOf,
+        @Schema(description = "Open positions")
+        List<PositionResponse> positions,
+        @Schema(description = "Month-end checkpoint the positions were resumed from, empty when built from the first transaction", example = "2024-02-29")
+        LocalDate checkpointDate,
+        @Schema(description = "Transactions replayed after the checkpoint", example = "12")
+        int replayedTransactions
+) {
+
+    public static PortfolioSnapshotResponse from(PortfolioSnapshot snapshot) {
+        return new PortfolioSnapshotResponse(
+                snapshot.asOf(),
+                snapshot.positions().stream().map(PositionResponse::from).toList(),
+                snapshot.checkpointDate(),
+                snapshot.replayedTransactions());
+    }
+
+    @RegisterForReflection
+    @Schema(description = "Open position at the end of the day")
+    public record PositionResponse(
+            @Schema(description = "Stock ticker symbol", example = "AAPL")
+            String ticker,
+            @Schema(description = "Position currency", example = "USD")
+            Currency currency,
+            @Schema(description = "Shares held", example = "10")
+            BigDecimal shares,
+            @Schema(description = "Cost of the shares held, including fees", example = "1500.00")
+            BigDecimal costBasis,
+            @Schema(description = "Average cost per share", example = "150.00")
+            BigDecimal averageCost
+    ) {
+
+        static PositionResponse from(PositionSnapshot position) {
+            return new PositionResponse(position.ticker(), position.currency(), position.shares(),
+                    position.costBasis().setScale(4, RoundingMode.HALF_UP), position.averageCost());
+        }
+    }
+}
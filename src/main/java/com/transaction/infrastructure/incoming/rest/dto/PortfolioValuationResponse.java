@@ -0,0 +1,89 @@
+package com.transaction.infrastructure.incoming.rest.dto;
+
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.PortfolioValuation;
+import com.transaction.domain.model.PositionValuation;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+@RegisterForReflection
+@Schema(description = "Open positions valued at the latest cached market prices")
+public record PortfolioValuationResponse(
+        @Schema(description = "Open positions")
+        List<PositionResponse> positions,
+        @Schema(description = "Totals per currency over the priced positions")
+        List<TotalResponse> totals,
+        @Schema(description = "Totals in the requested base currency: cost at the rates of the purchase dates, market value at the latest rates")
+        TotalResponse baseTotal,
+        @Schema(description = "Tickers without a cached price, left out of the totals")
+        List<String> unpricedTickers,
+        @Schema(description = "Tickers without the exchange rates needed, left out of the base currency totals")
+        List<String> unconvertedTickers,
+        @Schema(description = "When the valuation was computed")
+        Instant valuedAt
+) {
+
+    public static PortfolioValuationResponse from(PortfolioValuation valuation) {
+        return new PortfolioValuationResponse(
+                valuation.positions().stream().map(PositionResponse::from).toList(),
+                valuation.totals().stream().map(TotalResponse::from).toList(),
+                valuation.baseTotal() != null ? TotalResponse.from(valuation.baseTotal()) : null,
+                valuation.unpricedTickers(),
+                valuation.unconvertedTickers(),
+                valuation.valuedAt());
+    }
+
+    @RegisterForReflection
+    @Schema(description = "Open position valued at its market price, market figures are empty while it has no price")
+    public record PositionResponse(
+            @Schema(description = "Stock ticker symbol", example = "AAPL")
+            String ticker,
+            @Schema(description = "Position currency", example = "USD")
+            Currency currency,
+            @Schema(description = "Shares held", example = "10")
+            BigDecimal shares,
+            @Schema(description = "Cost of the shares held, including fees", example = "1500.00")
+            BigDecimal costBasis,
+            @Schema(description = "Average cost per share", example = "150.00")
+            BigDecimal averageCost,
+            @Schema(description = "Market price per share", example = "155.75")
+            BigDecimal marketPrice,
+            @Schema(description = "Market value of the shares held", example = "1557.50")
+            BigDecimal marketValue,
+            @Schema(description = "Market value minus cost basis", example = "57.50")
+            BigDecimal unrealizedGain,
+            @Schema(description = "Unrealized gain as a percentage of the cost basis", example = "3.83")
+            BigDecimal unrealizedGainPercent,
+            @Schema(description = "When the market price was received")
+            Instant priceUpdatedAt
+    ) {
+
+        static PositionResponse from(PositionValuation position) {
+            return new PositionResponse(position.ticker(), position.currency(), position.shares(), position.costBasis(),
+                    position.averageCost(), position.marketPrice(), position.marketValue(), position.unrealizedGain(),
+                    position.unrealizedGainPercent(), position.priceUpdatedAt());
+        }
+    }
+
+    @RegisterForReflection
+    @Schema(description = "Portfolio totals in one currency")
+    public record TotalResponse(
+            @Schema(description = "Currency", example = "USD")
+            Currency currency,
+            @Schema(description = "Cost basis of the priced positions", example = "1500.00")
+            BigDecimal costBasis,
+            @Schema(description = "Market value of the priced positions", example = "1557.50")
+            BigDecimal marketValue,
+            @Schema(description = "Unrealized gain of the priced positions", example = "57.50")
+            BigDecimal unrealizedGain
+    ) {
+
+        static TotalResponse from(PortfolioValuation.Total total) {
+            return new TotalResponse(total.currency(), total.costBasis(), total.marketValue(), total.unrealizedGain());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.transaction.infrastructure.incoming.rest.dto;
+
+import com.transaction.domain.model.ProjectionReplay;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.time.Instant;
+
+@RegisterForReflection
+@Schema(description = "Latest replay of a projection and the position it has been rebuilt up to")
+public record ProjectionReplayResponse(
+        @Schema(description = "Projection name", example = "ticker-transactions")
+        String projection,
+        @Schema(description = "Whether a replay is running")
+        boolean running,
+        @Schema(description = "Change feed cursor the latest replay started after, empty when it started from the beginning")
+        String fromCursor,
+        @Schema(description = "Change feed cursor the projection has been applied up to", example = "1700000000000-0,0-0,0-0")
+        String checkpoint,
+        @Schema(description = "Changes applied by the latest replay", example = "1250")
+        long applied,
+        @Schema(description = "When the latest replay started")
+        Instant startedAt,
+        @Schema(description = "When the latest replay finished")
+        Instant finishedAt,
+        @Schema(description = "Why the latest replay stopped early, if it did")
+        String failure
+) {
+
+    public static ProjectionReplayResponse from(ProjectionReplay replay) {
+        return new ProjectionReplayResponse(replay.projection(), replay.isRunning(), replay.fromCursor(), replay.checkpoint(),
+                replay.applied(), replay.startedAt(), replay.finishedAt(), replay.failure());
+    }
+}
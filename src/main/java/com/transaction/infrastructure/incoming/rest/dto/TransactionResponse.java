@@ -47,7 +47,9 @@ public record TransactionResponse(
         @Schema(description = "Country of the stock", example = "USA")
         String country,
         @Schema(description = "Company legal name", example = "Apple Inc.")
-        String companyName
+        String companyName,
+        @Schema(description = "Version of the transaction, also returned as ETag and expected in If-Match on updates", example = "3")
+        Long version
 ) {
 
     public TransactionResponse {
@@ -0,0 +1,28 @@
+package com.transaction.infrastructure.incoming.rest.dto;
+
+import com.transaction.domain.model.Currency;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@RegisterForReflection
+@Schema(description = "Request to update the exchange rate of a currency pair on a day")
+public record UpdateFxRateRequest(
+        @NotNull(message = "Base currency is required")
+        @Schema(description = "Currency being priced", example = "EUR", required = true)
+        Currency baseCurrency,
+        @NotNull(message = "Quote currency is required")
+        @Schema(description = "Currency the rate is expressed in", example = "USD", required = true)
+        Currency quoteCurrency,
+        @Schema(description = "Day of the rate, today when omitted", example = "2024-06-03")
+        LocalDate date,
+        @NotNull(message = "Rate is required")
+        @DecimalMin(value = "0", inclusive = false, message = "Rate must be positive")
+        @Schema(description = "Units of the quote currency bought by one unit of the base currency", example = "1.0850", required = true)
+        BigDecimal rate
+) {
+}
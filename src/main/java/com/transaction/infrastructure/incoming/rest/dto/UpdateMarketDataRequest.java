@@ -1,5 +1,6 @@
 package com.transaction.infrastructure.incoming.rest.dto;
 
+import com.transaction.domain.model.Currency;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
@@ -13,6 +14,8 @@ public record UpdateMarketDataRequest(
         @NotNull(message = "Price is required")
         @DecimalMin(value = "0.01", inclusive = true, message = "Price must be positive")
         @Schema(description = "New market price per share", example = "155.75", required = true)
-        BigDecimal price
+        BigDecimal price,
+        @Schema(description = "Currency the price is quoted in, USD when omitted", example = "USD")
+        Currency currency
 ) {
-}
\ No newline at end of file
+}
@@ -8,6 +8,8 @@ import jakarta.ws.rs.core.Response;
 
 public class ErrorMapper {
 
+    private static final int UNPROCESSABLE_ENTITY = 422;
+
     public static Response mapToResponse(CreateTransactionUseCase.Result.Error errorResult) {
         Error createTransactionError = errorResult.error();
 
@@ -15,6 +17,10 @@ public class ErrorMapper {
             return Response.status(Response.Status.BAD_REQUEST).build();
         } else if (createTransactionError == Errors.CreateTransactionsErrors.NOT_FOUND) {
             return Response.status(Response.Status.NOT_FOUND).build();
+        } else if (createTransactionError == Errors.CreateTransactionsErrors.IDEMPOTENCY_KEY_REUSED) {
+            return Response.status(UNPROCESSABLE_ENTITY).build();
+        } else if (createTransactionError == Errors.CreateTransactionsErrors.IDEMPOTENCY_KEY_IN_USE) {
+            return Response.status(Response.Status.CONFLICT).build();
         } else {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
         }
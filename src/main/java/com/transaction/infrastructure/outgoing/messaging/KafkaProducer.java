@@ -1,74 +1,118 @@
 package com.transaction.infrastructure.outgoing.messaging;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.transaction.domain.event.DomainEvent;
+import com.transaction.domain.event.TransactionCreatedEvent;
+import com.transaction.domain.event.TransactionDeletedEvent;
+import com.transaction.domain.event.TransactionUpdatedEvent;
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.exception.ServiceException;
 import com.transaction.domain.port.output.DomainEventPublisher;
+import com.transaction.infrastructure.outgoing.messaging.codec.EventCodec;
+import com.transaction.infrastructure.outgoing.messaging.codec.EventCodecs;
+import com.transaction.infrastructure.outgoing.messaging.mapper.TransactionMessageMapper;
+import com.transaction.infrastructure.outgoing.messaging.message.Message;
+import io.quarkus.logging.Log;
 import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.MutinyEmitter;
+import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Named;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+
+import java.nio.charset.StandardCharsets;
 
 /**
  * Kafka implementation of EventPublisher output port.
- * This adapter publishes domain events to Kafka topics following hexagonal architecture principles.
+ * All transaction events go to one topic keyed by ticker, so every event of a ticker lands on the same
+ * partition in order. The event type and content type travel as record headers. Batching, compression
+ * and idempotent delivery are producer settings of the {@code transaction-events} channel.
  */
 @ApplicationScoped
 @Named("kafkaProducer")
 public class KafkaProducer implements DomainEventPublisher {
 
-    //    private final MutinyEmitter<Message<TransactionCreatedData>> transactionEmitter;
-//    private final TransactionMessageMapper mapper;
-//
-//    public KafkaProducer(
-//            @Channel("transaction-create") MutinyEmitter<Message<TransactionCreatedData>> transactionEmitter,
-//            TransactionMessageMapper mapper) {
-//        this.transactionEmitter = transactionEmitter;
-//        this.mapper = mapper;
-//    }
-//
+    static final String EVENT_TYPE_HEADER = "eventType";
+    static final String CONTENT_TYPE_HEADER = "contentType";
+
+    private final MutinyEmitter<byte[]> emitter;
+    private final TransactionMessageMapper mapper;
+    private final EventCodecs codecs;
+    private final boolean fullUpdateSnapshots;
+
+    public KafkaProducer(@Channel("transaction-events") MutinyEmitter<byte[]> emitter,
+                         TransactionMessageMapper mapper,
+                         EventCodecs codecs,
+                         @ConfigProperty(name = "application.events.updated.full-snapshots", defaultValue = "false") boolean fullUpdateSnapshots) {
+        this.emitter = emitter;
+        this.mapper = mapper;
+        this.codecs = codecs;
+        this.fullUpdateSnapshots = fullUpdateSnapshots;
+    }
+
     @Override
     public Uni<Void> publish(DomainEvent<?> domainEvent) {
-//        return switch (domainEvent) {
-//            case TransactionCreatedEvent event -> publishTransactionCreated(event);
-//            case TransactionUpdatedEvent event -> publishTransactionUpdated(event);
-//            default -> Uni.createFrom().failure(
-//                    new ServiceException(
-//                        Errors.PublishTransactionsErrors.PUBLISH_ERROR,
-//                        new IllegalArgumentException("Unsupported event type: " + domainEvent.getClass().getSimpleName())
-//                    )
-//            );
-//        };
-        return Uni.createFrom().voidItem();
+        return switch (domainEvent) {
+            case TransactionCreatedEvent event -> {
+                Message<?> message = mapper.toTransactionCreated(event);
+                yield send(RedisPublisher.TRANSACTION_CREATED_STREAM, event.getData().getTicker(), message);
+            }
+            case TransactionUpdatedEvent event -> {
+                Message<?> message = fullUpdateSnapshots
+                        ? mapper.toTransactionUpdated(event)
+                        : mapper.toTransactionUpdatedDelta(event);
+                yield send(RedisPublisher.TRANSACTION_UPDATED_STREAM, event.getData().newTransaction().getTicker(), message);
+            }
+            case TransactionDeletedEvent event -> {
+                Message<?> message = mapper.toTransactionDeleted(event);
+                yield send(RedisPublisher.TRANSACTION_DELETED_STREAM, event.getData().getTicker(), message);
+            }
+            default -> Uni.createFrom().failure(
+                    new ServiceException(
+                            Errors.PublishTransactionsErrors.PUBLISH_ERROR,
+                            new IllegalArgumentException("Unsupported event type: " + domainEvent.getClass().getSimpleName())
+                    )
+            );
+        };
+    }
+
+    /**
+     * Completes once the broker has acknowledged the record.
+     */
+    private Uni<Void> send(String stream, String ticker, Message<?> message) {
+        EventCodec codec = codecs.forStream(stream);
+
+        return Uni.createFrom().item(() -> encode(codec, message))
+                .flatMap(payload -> {
+                    RecordHeaders headers = new RecordHeaders();
+                    headers.add(EVENT_TYPE_HEADER, message.eventType().getBytes(StandardCharsets.UTF_8));
+                    headers.add(CONTENT_TYPE_HEADER, codec.contentType().getBytes(StandardCharsets.UTF_8));
+                    OutgoingKafkaRecordMetadata<String> metadata = OutgoingKafkaRecordMetadata.<String>builder()
+                            .withKey(ticker)
+                            .withHeaders(headers)
+                            .build();
+
+                    return emitter.sendMessage(org.eclipse.microprofile.reactive.messaging.Message.of(payload)
+                            .addMetadata(metadata));
+                })
+                .onItem().invoke(() -> Log.debugf("Published %s event %s for ticker %s to Kafka",
+                        message.eventType(), message.eventId(), ticker))
+                .onFailure().transform(throwable -> {
+                    Log.error("Failed to publish %s event %s to Kafka".formatted(message.eventType(), message.eventId()), throwable);
+                    return throwable instanceof ServiceException
+                            ? throwable
+                            : new ServiceException(Errors.PublishTransactionsErrors.PUBLISH_ERROR, throwable);
+                });
+    }
+
+    private static byte[] encode(EventCodec codec, Message<?> message) {
+        try {
+            return codec.encode(message);
+        } catch (JsonProcessingException e) {
+            throw new ServiceException(Errors.PublishTransactionsErrors.PUBLISH_ERROR,
+                    new RuntimeException("Failed to serialize message as " + codec.contentType(), e));
+        }
     }
-//
-//    /**
-//     * Publishes a TransactionCreatedEvent to the transaction-create channel.
-//     */
-//    private Uni<Void> publishTransactionCreated(TransactionCreatedEvent transactionCreatedEvent) {
-//        Message<TransactionCreatedData> message = mapper.toTransactionCreated(transactionCreatedEvent);
-//
-//        return transactionEmitter.send(message)
-//                .onFailure().transform(throwable -> {
-//                    Log.error("Failed to publish transaction created event with ID %s and eventId %s"
-//                            .formatted(message.payload().id(), message.eventId()));
-//                    return new ServiceException(Errors.PublishTransactionsErrors.PUBLISH_ERROR, throwable);
-//                });
-//    }
-//
-//    /**
-//     * Publishes a TransactionUpdatedEvent to the transaction-create channel.
-//     * Note: Using same channel for now, but could be routed to different topic if needed.
-//     */
-//    private Uni<Void> publishTransactionUpdated(TransactionUpdatedEvent transactionUpdatedEvent) {
-//        // For now, reuse the same mapper and channel for updated events
-//        // In the future, this could be mapped to a different message type or topic
-//        Message<TransactionCreatedData> message = mapper.toTransactionCreated(
-//            new TransactionCreatedEvent(transactionUpdatedEvent.getData())
-//        );
-//
-//        return transactionEmitter.send(message)
-//                .onFailure().transform(throwable -> {
-//                    Log.error("Failed to publish transaction updated event with ID %s and eventId %s"
-//                            .formatted(message.payload().id(), message.eventId()));
-//                    return new ServiceException(Errors.PublishTransactionsErrors.PUBLISH_ERROR, throwable);
-//                });
-//    }
 }
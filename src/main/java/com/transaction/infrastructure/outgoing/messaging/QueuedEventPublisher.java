@@ -0,0 +1,388 @@
+package com.transaction.infrastructure.outgoing.messaging;
+
+import com.transaction.domain.event.DomainEvent;
+import com.transaction.domain.event.TransactionCreatedEvent;
+import com.transaction.domain.event.TransactionDeletedEvent;
+import com.transaction.domain.event.TransactionUpdatedEvent;
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.exception.ServiceException;
+import com.transaction.domain.port.output.DomainEventPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.ShutdownEvent;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.literal.NamedLiteral;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publisher used by the use cases, delegating to the configured broker. In {@code sync} mode it publishes
+ * inline, as before. In {@code async} mode events are queued and the request completes without waiting for the broker:
+ * each ticker is pinned to one of a fixed set of lanes, and every lane is a bounded queue drained by its own publisher
+ * thread, so the events of a ticker are published in the order they were queued, as brokers keyed by ticker expect.
+ * An update that changes the ticker is published on the lane of the old one, behind a barrier on the lane of the new
+ * one that holds the later events of the new ticker until it has been published; events of a transaction thus stay in
+ * order too. Both are queued under one lock, so barriers never wait on each other in a cycle.
+ * Use cases publish once their database transaction has committed, so only committed changes are queued.
+ * With a coalescing window, an update is held for up to that long and consecutive updates of the same
+ * transaction arriving meanwhile are merged into it; any other event releases it first, so order is kept.
+ * Queued events are drained on shutdown but are lost if the process dies.
+ */
+@ApplicationScoped
+@Named("eventPublisher")
+public class QueuedEventPublisher implements DomainEventPublisher {
+
+    public enum Mode { SYNC, ASYNC }
+
+    /**
+     * Broker the events are published to.
+     */
+    public enum Broker {
+        REDIS("redisPublisher"),
+        KAFKA("kafkaProducer");
+
+        private final String beanName;
+
+        Broker(String beanName) {
+            this.beanName = beanName;
+        }
+    }
+
+    public enum OverflowPolicy {
+        /**
+         * The caller waits, without blocking its event loop, until the lane has room or the block timeout expires.
+         */
+        BLOCK,
+        /**
+         * The event is discarded and counted.
+         */
+        DROP
+    }
+
+    /**
+     * What a lane holds: an event, or a barrier released once an event queued on another lane has been published
+     */
+    private sealed interface Item permits Queued, Barrier {
+    }
+
+    /**
+     * {@code published}, when set, releases the barrier queued for the event on the lane of its new ticker
+     */
+    private record Queued(DomainEvent<?> event, CountDownLatch published) implements Item {
+    }
+
+    private record Barrier(CountDownLatch published) implements Item {
+    }
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+    private static final Duration OFFER_RETRY_INTERVAL = Duration.ofMillis(5);
+    private static final Duration RETRY_MIN_BACKOFF = Duration.ofMillis(100);
+    private static final Duration RETRY_MAX_BACKOFF = Duration.ofSeconds(2);
+
+    private final DomainEventPublisher delegate;
+    private final OverflowPolicy overflowPolicy;
+    private final Duration blockTimeout;
+    private final Duration publishTimeout;
+    private final Duration drainTimeout;
+    private final int maxAttempts;
+    private final long coalesceWindowNanos;
+    private final List<Lane> lanes;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Counter coalesced;
+    private final Object barriers = new Object();
+    private volatile boolean accepting;
+
+    @Inject
+    public QueuedEventPublisher(@Any Instance<DomainEventPublisher> publishers,
+                                @ConfigProperty(name = "application.events.broker", defaultValue = "redis") Broker broker,
+                                @ConfigProperty(name = "mp.messaging.outgoing.transaction-events.enabled", defaultValue = "true") boolean kafkaChannelEnabled,
+                                MeterRegistry meterRegistry,
+                                @ConfigProperty(name = "application.events.publisher.mode", defaultValue = "sync") Mode mode,
+                                @ConfigProperty(name = "application.events.publisher.lanes", defaultValue = "4") int laneCount,
+                                @ConfigProperty(name = "application.events.publisher.lane-capacity", defaultValue = "1024") int laneCapacity,
+                                @ConfigProperty(name = "application.events.publisher.overflow", defaultValue = "block") OverflowPolicy overflowPolicy,
+                                @ConfigProperty(name = "application.events.publisher.block-timeout", defaultValue = "PT1S") Duration blockTimeout,
+                                @ConfigProperty(name = "application.events.publisher.publish-timeout", defaultValue = "PT10S") Duration publishTimeout,
+                                @ConfigProperty(name = "application.events.publisher.max-attempts", defaultValue = "3") int maxAttempts,
+                                @ConfigProperty(name = "application.events.publisher.drain-timeout", defaultValue = "PT10S") Duration drainTimeout,
+                                @ConfigProperty(name = "application.events.publisher.coalesce-window", defaultValue = "PT0S") Duration coalesceWindow) {
+        this(delegate(publishers, broker, kafkaChannelEnabled), meterRegistry, mode, laneCount, laneCapacity,
+                overflowPolicy, blockTimeout, publishTimeout, maxAttempts, drainTimeout, coalesceWindow);
+        Log.infof("Publishing domain events to %s in %s mode", broker, mode);
+    }
+
+    QueuedEventPublisher(DomainEventPublisher delegate,
+                         MeterRegistry meterRegistry,
+                         Mode mode,
+                         int laneCount,
+                         int laneCapacity,
+                         OverflowPolicy overflowPolicy,
+                         Duration blockTimeout,
+                         Duration publishTimeout,
+                         int maxAttempts,
+                         Duration drainTimeout,
+                         Duration coalesceWindow) {
+        this.delegate = delegate;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeout = blockTimeout;
+        this.publishTimeout = publishTimeout;
+        this.drainTimeout = drainTimeout;
+        this.maxAttempts = maxAttempts;
+        this.coalesceWindowNanos = coalesceWindow.toNanos();
+        this.dropped = Counter.builder("events.publisher.dropped")
+                .description("Events discarded because their publisher lane was full")
+                .register(meterRegistry);
+        this.failed = Counter.builder("events.publisher.failed")
+                .description("Queued events that could not be published after all attempts")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("events.publisher.coalesced")
+                .description("Update events merged into an earlier update of the same transaction")
+                .register(meterRegistry);
+
+        this.lanes = new ArrayList<>();
+        if (mode == Mode.ASYNC) {
+            for (int index = 0; index < laneCount; index++) {
+                Lane lane = new Lane(index, laneCapacity);
+                Gauge.builder("events.publisher.queue.depth", lane.queue, BlockingQueue::size)
+                        .description("Events waiting in the publisher lane")
+                        .tag("lane", Integer.toString(index))
+                        .register(meterRegistry);
+                lanes.add(lane);
+            }
+            lanes.forEach(Lane::start);
+            this.accepting = true;
+        }
+    }
+
+    /**
+     * The Kafka channel is only connected in the kafka profile, so choosing Kafka without it fails at startup
+     * instead of on the first event.
+     */
+    private static DomainEventPublisher delegate(Instance<DomainEventPublisher> publishers, Broker broker, boolean kafkaChannelEnabled) {
+        if (broker == Broker.KAFKA && !kafkaChannelEnabled) {
+            throw new IllegalStateException("Kafka is the configured event broker but the transaction-events channel is disabled, "
+                    + "start with the kafka profile");
+        }
+        return publishers.select(NamedLiteral.of(broker.beanName)).get();
+    }
+
+    @Override
+    public Uni<Void> publish(DomainEvent<?> domainEvent) {
+        if (!accepting) {
+            return delegate.publish(domainEvent);
+        }
+        Lane lane = enqueue(domainEvent);
+        if (lane == null) {
+            return Uni.createFrom().voidItem();
+        }
+        return switch (overflowPolicy) {
+            case DROP -> {
+                dropped.increment();
+                Log.warnf("Publisher lane %d is full, dropping event %s", lane.index, domainEvent.getEventId());
+                yield Uni.createFrom().voidItem();
+            }
+            case BLOCK -> enqueueUntil(domainEvent, System.nanoTime() + blockTimeout.toNanos(), Vertx.currentContext());
+        };
+    }
+
+    /**
+     * Queues the event on the lane of its ticker, and a barrier on the lane of the new ticker when an update moves the
+     * transaction to another lane. Returns the lane that had no room, or null once queued.
+     */
+    private Lane enqueue(DomainEvent<?> domainEvent) {
+        Lane lane = laneFor(ticker(domainEvent));
+        Lane next = domainEvent instanceof TransactionUpdatedEvent update ? laneFor(update.getData().newTransaction().getTicker()) : lane;
+        if (next == lane) {
+            return lane.queue.offer(new Queued(domainEvent, null)) ? null : lane;
+        }
+        synchronized (barriers) {
+            CountDownLatch published = new CountDownLatch(1);
+            if (!next.queue.offer(new Barrier(published))) {
+                return next;
+            }
+            if (!lane.queue.offer(new Queued(domainEvent, published))) {
+                published.countDown();
+                return lane;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Retries on a timer instead of blocking, and resumes on the caller's Vert.x context so the
+     * surrounding reactive transaction keeps running on its own thread.
+     */
+    private Uni<Void> enqueueUntil(DomainEvent<?> domainEvent, long deadline, Context context) {
+        Lane lane = enqueue(domainEvent);
+        if (lane == null) {
+            return Uni.createFrom().voidItem();
+        }
+        if (System.nanoTime() >= deadline) {
+            return Uni.createFrom().failure(new ServiceException(Errors.PublishTransactionsErrors.PUBLISH_ERROR,
+                    new RejectedExecutionException("Publisher lane %d stayed full for %s".formatted(lane.index, blockTimeout))));
+        }
+        Uni<Void> retry = Uni.createFrom().voidItem().onItem().delayIt().by(OFFER_RETRY_INTERVAL);
+        if (context != null) {
+            retry = retry.emitOn(task -> context.runOnContext(ignored -> task.run()));
+        }
+        return retry.flatMap(ignored -> enqueueUntil(domainEvent, deadline, context));
+    }
+
+    /**
+     * Stops accepting events and lets every lane publish what it holds, up to the drain timeout.
+     */
+    void onStop(@Observes ShutdownEvent shutdownEvent) {
+        if (lanes.isEmpty()) {
+            return;
+        }
+        accepting = false;
+        lanes.forEach(Lane::stop);
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        for (Lane lane : lanes) {
+            lane.awaitTermination(deadline);
+        }
+    }
+
+    private Lane laneFor(String ticker) {
+        int hash = ticker != null ? ticker.trim().toUpperCase(Locale.ROOT).hashCode() : 0;
+        return lanes.get(Math.floorMod(hash, lanes.size()));
+    }
+
+    /**
+     * Ticker whose lane the event is published on; for an update, the ticker before it
+     */
+    private static String ticker(DomainEvent<?> domainEvent) {
+        return switch (domainEvent) {
+            case TransactionCreatedEvent event -> event.getData().getTicker();
+            case TransactionUpdatedEvent event -> event.getData().previousTransaction() != null
+                    ? event.getData().previousTransaction().getTicker()
+                    : event.getData().newTransaction().getTicker();
+            case TransactionDeletedEvent event -> event.getData().getTicker();
+            default -> null;
+        };
+    }
+
+    private final class Lane implements Runnable {
+
+        private final int index;
+        private final BlockingQueue<Item> queue;
+        private volatile boolean running = true;
+        private Thread thread;
+
+        private Lane(int index, int capacity) {
+            this.index = index;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void start() {
+            thread = Thread.ofVirtual().name("event-publisher-" + index).start(this);
+        }
+
+        void stop() {
+            running = false;
+        }
+
+        void awaitTermination(long deadline) {
+            try {
+                long remaining = deadline - System.nanoTime();
+                if (remaining > 0) {
+                    thread.join(Duration.ofNanos(remaining));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (thread.isAlive()) {
+                Log.warnf("Publisher lane %d did not drain in time, %d events were not published", index, queue.size());
+                thread.interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            TransactionUpdatedEvent held = null;
+            long heldUntil = 0;
+            while (running || !queue.isEmpty() || held != null) {
+                long timeout = held == null ? POLL_INTERVAL.toNanos() : running ? heldUntil - System.nanoTime() : 0;
+                Item item;
+                try {
+                    item = queue.poll(Math.max(0, timeout), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                TransactionUpdatedEvent update = coalescable(item);
+                if (held != null) {
+                    if (update != null && held.sameTransactionAs(update)) {
+                        held = held.coalesce(update);
+                        coalesced.increment();
+                        continue;
+                    }
+                    if (item == null && running && System.nanoTime() < heldUntil) {
+                        continue;
+                    }
+                    deliver(held);
+                    held = null;
+                }
+                if (update != null && coalesceWindowNanos > 0) {
+                    held = update;
+                    heldUntil = System.nanoTime() + coalesceWindowNanos;
+                } else if (item instanceof Barrier barrier) {
+                    try {
+                        barrier.published().await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                } else if (item instanceof Queued queued) {
+                    try {
+                        deliver(queued.event());
+                    } finally {
+                        if (queued.published() != null) {
+                            queued.published().countDown();
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * An update another lane waits on is published as soon as it comes up, so it is never held or merged
+         */
+        private static TransactionUpdatedEvent coalescable(Item item) {
+            return item instanceof Queued(TransactionUpdatedEvent update, CountDownLatch published) && published == null
+                    ? update
+                    : null;
+        }
+
+        private void deliver(DomainEvent<?> event) {
+            try {
+                delegate.publish(event)
+                        .onFailure().retry().withBackOff(RETRY_MIN_BACKOFF, RETRY_MAX_BACKOFF).atMost(Math.max(0, maxAttempts - 1))
+                        .await().atMost(publishTimeout);
+            } catch (RuntimeException e) {
+                failed.increment();
+                Log.errorf(e, "Failed to publish queued event %s from lane %d", event.getEventId(), index);
+            }
+        }
+    }
+}
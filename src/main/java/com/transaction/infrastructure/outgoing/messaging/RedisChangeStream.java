@@ -0,0 +1,403 @@
+package com.transaction.infrastructure.outgoing.messaging;
+
+import com.transaction.domain.model.TransactionChange;
+import com.transaction.domain.port.output.PortfolioContext;
+import com.transaction.domain.port.output.TransactionChangeStream;
+import com.transaction.infrastructure.outgoing.messaging.codec.EventCodecs;
+import com.transaction.infrastructure.outgoing.messaging.codec.JsonEventCodec;
+import io.quarkus.logging.Log;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.datasource.stream.ReactiveStreamCommands;
+import io.quarkus.redis.datasource.stream.StreamMessage;
+import io.quarkus.redis.datasource.stream.StreamRange;
+import io.quarkus.redis.datasource.stream.XReadArgs;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.BackPressureFailure;
+import io.smallrye.mutiny.subscription.BackPressureStrategy;
+import io.smallrye.mutiny.subscription.Cancellable;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Change feed read from the Redis streams written by {@link RedisPublisher}.
+ * A single XREAD loop is shared by every subscriber: it starts with the first subscriber, stops after the last
+ * one leaves, and each subscriber gets its own bounded buffer so a slow client is dropped instead of stalling
+ * the others. Resuming subscribers replay the gap with XRANGE while the live entries are held back, then
+ * switch to the shared loop without duplicates.
+ */
+@ApplicationScoped
+public class RedisChangeStream implements TransactionChangeStream {
+
+    private static final Duration RETRY_MIN_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration RETRY_MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final ReactiveStreamCommands<String, String, byte[]> streamCommands;
+    private final EventCodecs codecs;
+    private final Duration block;
+    private final int readCount;
+    private final int subscriberBuffer;
+    private final int maxBackfill;
+    private final Multi<StreamEntry> live;
+
+    public RedisChangeStream(ReactiveRedisDataSource redisDataSource,
+                             EventCodecs codecs,
+                             @ConfigProperty(name = "application.change-feed.block", defaultValue = "PT5S") Duration block,
+                             @ConfigProperty(name = "application.change-feed.read-count", defaultValue = "200") int readCount,
+                             @ConfigProperty(name = "application.change-feed.subscriber-buffer", defaultValue = "1000") int subscriberBuffer,
+                             @ConfigProperty(name = "application.change-feed.max-backfill", defaultValue = "10000") int maxBackfill) {
+        this.streamCommands = redisDataSource.stream(String.class, String.class, byte[].class);
+        this.codecs = codecs;
+        this.block = block;
+        this.readCount = readCount;
+        this.subscriberBuffer = subscriberBuffer;
+        this.maxBackfill = maxBackfill;
+        this.live = Multi.createBy().repeating()
+                .uni(() -> new AtomicReference<StreamCursor>(), this::readNext)
+                .indefinitely()
+                .onItem().<StreamEntry>transformToIterable(entries -> entries)
+                .broadcast().withCancellationAfterLastSubscriberDeparture().toAllSubscribers();
+    }
+
+    @Override
+    public Multi<TransactionChange> follow(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return live.map(entry -> entry.toChange(entry.cursor()))
+                    .onOverflow().buffer(subscriberBuffer);
+        }
+
+        StreamCursor from;
+        try {
+            from = StreamCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            Log.debugf("Ignoring unreadable change feed cursor %s", cursor);
+            from = null;
+        }
+        StreamCursor resumeFrom = from;
+        return Multi.createFrom().<TransactionChange>emitter(
+                        emitter -> new Resumption(emitter, resumeFrom).start(), BackPressureStrategy.ERROR)
+                .onOverflow().buffer(subscriberBuffer);
+    }
+
+    @Override
+    public Multi<TransactionChange> replay(String cursor) {
+        StreamCursor from = cursor == null || cursor.isBlank()
+                ? new StreamCursor(StreamCursor.ORIGIN, StreamCursor.ORIGIN, StreamCursor.ORIGIN)
+                : StreamCursor.decode(cursor);
+        return tips().onItem().transformToMulti(until -> backfill(from, until))
+                .map(entry -> entry.toChange(entry.cursor()));
+    }
+
+    @Override
+    public String cursorAt(Instant instant) {
+        return StreamCursor.at(instant).encode();
+    }
+
+    /**
+     * One step of the shared loop. The first step only pins the current end of every stream,
+     * so the following blocking reads never skip entries written in between. COUNT applies to each stream,
+     * so a batch is cut at the same bound as a backfill page and the remainder is read by the next step.
+     */
+    private Uni<List<StreamEntry>> readNext(AtomicReference<StreamCursor> position) {
+        StreamCursor cursor = position.get();
+        Uni<List<StreamEntry>> read = cursor == null
+                ? tips().invoke(position::set).map(tips -> List.<StreamEntry>of())
+                : streamCommands.xread(cursor.offsets(), new XReadArgs().block(block).count(readCount))
+                .map(messages -> {
+                    List<StreamEntry> entries = toEntries(cursor, withinCommonBound(byStream(messages)));
+                    if (!entries.isEmpty()) {
+                        position.set(entries.getLast().cursor());
+                    }
+                    return entries;
+                });
+
+        return read
+                .onFailure().invoke(throwable -> Log.warn("Failed to read transaction streams for the change feed, retrying", throwable))
+                .onFailure().retry().withBackOff(RETRY_MIN_BACKOFF, RETRY_MAX_BACKOFF).indefinitely();
+    }
+
+    /**
+     * Pages through every stream after {@code from} until all of them are exhausted, or have reached
+     * their position in {@code until} when one is given.
+     */
+    private Multi<StreamEntry> backfill(StreamCursor from, StreamCursor until) {
+        return Multi.createBy().repeating()
+                .uni(() -> new AtomicReference<>(from), position -> readPage(position, until))
+                .until(List::isEmpty)
+                .onItem().transformToIterable(entries -> entries);
+    }
+
+    /**
+     * Reads the next page of every stream, cut at the bound of {@link #withinCommonBound}.
+     */
+    private Uni<List<StreamEntry>> readPage(AtomicReference<StreamCursor> position, StreamCursor until) {
+        StreamCursor from = position.get();
+        List<Uni<List<StreamMessage<String, String, byte[]>>>> reads = StreamCursor.STREAMS.stream()
+                .map(stream -> streamCommands.xrange(stream,
+                                StreamRange.of("(" + from.position(stream), until != null ? until.position(stream) : "+"), readCount)
+                        .map(messages -> withKey(stream, messages)))
+                .toList();
+
+        return Uni.join().all(reads).andFailFast()
+                .map(pages -> {
+                    List<StreamEntry> entries = toEntries(from, withinCommonBound(pages));
+                    if (!entries.isEmpty()) {
+                        position.set(entries.getLast().cursor());
+                    }
+                    return entries;
+                });
+    }
+
+    /**
+     * A full page may stop short of entries of the other streams, so only entries up to the lowest last id among full
+     * pages are kept; the rest is read again next time, which keeps the merged order exact.
+     */
+    private List<StreamMessage<String, String, byte[]>> withinCommonBound(Collection<List<StreamMessage<String, String, byte[]>>> pages) {
+        String bound = null;
+        for (List<StreamMessage<String, String, byte[]>> page : pages) {
+            if (page.size() >= readCount) {
+                String last = page.getLast().id();
+                bound = bound == null || StreamCursor.compareIds(last, bound) < 0 ? last : bound;
+            }
+        }
+        List<StreamMessage<String, String, byte[]>> messages = new ArrayList<>();
+        for (List<StreamMessage<String, String, byte[]>> page : pages) {
+            for (StreamMessage<String, String, byte[]> message : page) {
+                if (bound == null || StreamCursor.compareIds(message.id(), bound) <= 0) {
+                    messages.add(message);
+                }
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Entries of an XREAD reply grouped back into one page per stream, in stream order
+     */
+    private static Collection<List<StreamMessage<String, String, byte[]>>> byStream(List<StreamMessage<String, String, byte[]>> messages) {
+        Map<String, List<StreamMessage<String, String, byte[]>>> pages = new LinkedHashMap<>();
+        if (messages != null) {
+            for (StreamMessage<String, String, byte[]> message : messages) {
+                pages.computeIfAbsent(message.key(), ignored -> new ArrayList<>()).add(message);
+            }
+        }
+        return pages.values();
+    }
+
+    /**
+     * Last entry id of every stream, {@link StreamCursor#ORIGIN} for a stream that does not exist yet.
+     */
+    private Uni<StreamCursor> tips() {
+        List<Uni<String>> tips = StreamCursor.STREAMS.stream()
+                .map(stream -> streamCommands.xrevrange(stream, StreamRange.of("+", "-"), 1)
+                        .map(messages -> messages == null || messages.isEmpty() ? StreamCursor.ORIGIN : messages.getFirst().id()))
+                .toList();
+
+        return Uni.join().all(tips).andFailFast()
+                .map(ids -> new StreamCursor(ids.get(0), ids.get(1), ids.get(2)));
+    }
+
+    /**
+     * Orders the entries of all streams by id and stamps each one with the cursor right after it.
+     */
+    private List<StreamEntry> toEntries(StreamCursor from, List<StreamMessage<String, String, byte[]>> messages) {
+        if (messages == null || messages.isEmpty()) {
+            return List.of();
+        }
+        List<StreamMessage<String, String, byte[]>> ordered = new ArrayList<>(messages);
+        ordered.sort(Comparator.comparing(StreamMessage::id, StreamCursor::compareIds));
+
+        List<StreamEntry> entries = new ArrayList<>(ordered.size());
+        StreamCursor cursor = from;
+        for (StreamMessage<String, String, byte[]> message : ordered) {
+            cursor = cursor.advance(message.key(), message.id());
+            entries.add(toEntry(message, cursor));
+        }
+        return entries;
+    }
+
+    private static List<StreamMessage<String, String, byte[]>> withKey(String stream, List<StreamMessage<String, String, byte[]>> messages) {
+        if (messages == null) {
+            return List.of();
+        }
+        return messages.stream()
+                .map(message -> new StreamMessage<>(stream, message.id(), message.payload()))
+                .toList();
+    }
+
+    private StreamEntry toEntry(StreamMessage<String, String, byte[]> message, StreamCursor cursor) {
+        Map<String, byte[]> fields = message.payload();
+        return new StreamEntry(message.key(), message.id(), cursor,
+                portfolio(text(fields.get(RedisPublisher.PORTFOLIO_FIELD))),
+                text(fields.get(RedisPublisher.TICKER_FIELD)),
+                text(fields.get(RedisPublisher.PREVIOUS_TICKER_FIELD)),
+                payloadAsJson(message, text(fields.get(RedisPublisher.CONTENT_TYPE_FIELD))));
+    }
+
+    /**
+     * SSE carries text, so binary payloads are transcoded to JSON once here rather than per subscriber.
+     * An entry that cannot be decoded is still delivered, without payload, so it cannot stall the feed.
+     */
+    private String payloadAsJson(StreamMessage<String, String, byte[]> message, String contentType) {
+        byte[] payload = message.payload().get(RedisPublisher.PAYLOAD_FIELD);
+        if (payload == null) {
+            return null;
+        }
+        if (contentType == null || JsonEventCodec.CONTENT_TYPE.equals(contentType)) {
+            return text(payload);
+        }
+        try {
+            return codecs.forContentType(contentType).decode(payload).toString();
+        } catch (IOException | IllegalArgumentException e) {
+            Log.warnf(e, "Failed to decode %s entry %s of Redis stream %s", contentType, message.id(), message.key());
+            return null;
+        }
+    }
+
+    /**
+     * Entries published before portfolios existed carry none and belong to the default portfolio.
+     */
+    private static String portfolio(String portfolioId) {
+        return portfolioId != null ? portfolioId : PortfolioContext.DEFAULT_PORTFOLIO;
+    }
+
+    private static String text(byte[] value) {
+        return value != null ? new String(value, StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * A stream entry together with the position of the shared reader once it has been read.
+     */
+    record StreamEntry(String stream, String id, StreamCursor cursor, String portfolioId, String ticker,
+                       String previousTicker, String payload) {
+
+        TransactionChange toChange(StreamCursor cursor) {
+            return new TransactionChange(cursor.encode(), eventType(stream), portfolioId, ticker, previousTicker, payload);
+        }
+
+        private static String eventType(String stream) {
+            return switch (stream) {
+                case RedisPublisher.TRANSACTION_CREATED_STREAM -> "TransactionCreated";
+                case RedisPublisher.TRANSACTION_UPDATED_STREAM -> "TransactionUpdated";
+                case RedisPublisher.TRANSACTION_DELETED_STREAM -> "TransactionDeleted";
+                default -> throw new IllegalArgumentException("Unknown stream: " + stream);
+            };
+        }
+    }
+
+    /**
+     * Joins the shared loop first and parks its entries, replays from the client's cursor, then releases
+     * the parked entries. The watermark tracks the furthest position delivered in every stream, so entries
+     * seen by both the replay and the shared loop are sent once.
+     */
+    private final class Resumption {
+
+        private final MultiEmitter<? super TransactionChange> emitter;
+        private final Deque<StreamEntry> parked = new ArrayDeque<>();
+        private StreamCursor watermark;
+        private boolean caughtUp;
+        private boolean abandoned;
+        private int replayed;
+        private volatile Cancellable liveSubscription;
+        private volatile Cancellable backfillSubscription;
+
+        private Resumption(MultiEmitter<? super TransactionChange> emitter, StreamCursor from) {
+            this.emitter = emitter;
+            this.watermark = from;
+        }
+
+        void start() {
+            emitter.onTermination(this::cancel);
+            liveSubscription = live.subscribe().with(this::onLive, emitter::fail, emitter::complete);
+            if (watermark == null) {
+                resync();
+            } else {
+                backfillSubscription = backfill(watermark, null).subscribe().with(this::onReplayed, emitter::fail, this::onReplayDone);
+            }
+        }
+
+        private synchronized void onLive(StreamEntry entry) {
+            if (caughtUp) {
+                deliver(entry);
+            } else if (parked.size() >= subscriberBuffer) {
+                emitter.fail(new BackPressureFailure("Change feed subscriber fell behind while replaying"));
+            } else {
+                parked.add(entry);
+            }
+        }
+
+        private synchronized void onReplayed(StreamEntry entry) {
+            if (abandoned) {
+                return;
+            }
+            if (++replayed > maxBackfill) {
+                abandoned = true;
+                if (backfillSubscription != null) {
+                    backfillSubscription.cancel();
+                }
+                resync();
+                return;
+            }
+            deliver(entry);
+        }
+
+        private synchronized void onReplayDone() {
+            if (!abandoned) {
+                release();
+            }
+        }
+
+        /**
+         * The gap is too large (or the cursor unreadable): continue from the current end of the streams
+         * and let the client reload.
+         */
+        private void resync() {
+            tips().subscribe().with(tips -> {
+                synchronized (this) {
+                    watermark = tips;
+                    emitter.emit(TransactionChange.resyncRequired(tips.encode()));
+                    release();
+                }
+            }, emitter::fail);
+        }
+
+        private synchronized void release() {
+            while (!parked.isEmpty()) {
+                deliver(parked.poll());
+            }
+            caughtUp = true;
+        }
+
+        private void deliver(StreamEntry entry) {
+            if (watermark.covers(entry.stream(), entry.id())) {
+                return;
+            }
+            watermark = watermark.max(entry.cursor());
+            emitter.emit(entry.toChange(watermark));
+        }
+
+        private void cancel() {
+            if (liveSubscription != null) {
+                liveSubscription.cancel();
+            }
+            if (backfillSubscription != null) {
+                backfillSubscription.cancel();
+            }
+        }
+    }
+}
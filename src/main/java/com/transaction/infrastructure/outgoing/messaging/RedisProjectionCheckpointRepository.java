@@ -0,0 +1,86 @@
+package com.transaction.infrastructure.outgoing.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transaction.domain.model.ProjectionReplay;
+import com.transaction.domain.port.output.ProjectionCheckpointRepository;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.datasource.hash.ReactiveHashCommands;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.Instant;
+
+/**
+ * Keeps the checkpoints next to the streams they point into, in one hash keyed by projection name,
+ * and the progress of every projection's latest replay in a second hash beside it, so it survives restarts.
+ */
+@ApplicationScoped
+public class RedisProjectionCheckpointRepository implements ProjectionCheckpointRepository {
+
+    static final String CHECKPOINTS_KEY = "transaction:projection-checkpoints";
+    static final String REPLAYS_KEY = "transaction:projection-replays";
+
+    private final ReactiveHashCommands<String, String, String> hashCommands;
+    private final ObjectMapper objectMapper;
+
+    public RedisProjectionCheckpointRepository(ReactiveRedisDataSource redisDataSource, ObjectMapper objectMapper) {
+        this.hashCommands = redisDataSource.hash(String.class, String.class, String.class);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Uni<String> find(String projection) {
+        return hashCommands.hget(CHECKPOINTS_KEY, projection);
+    }
+
+    @Override
+    public Uni<Void> save(String projection, String cursor) {
+        return hashCommands.hset(CHECKPOINTS_KEY, projection, cursor).replaceWithVoid();
+    }
+
+    @Override
+    public Uni<ProjectionReplay> findReplay(String projection) {
+        return hashCommands.hget(REPLAYS_KEY, projection)
+                .map(stored -> {
+                    if (stored == null) {
+                        return null;
+                    }
+                    try {
+                        return objectMapper.readValue(stored, StoredReplay.class).toReplay(projection);
+                    } catch (JsonProcessingException e) {
+                        throw new IllegalStateException("Unreadable replay status of projection " + projection, e);
+                    }
+                });
+    }
+
+    @Override
+    public Uni<Void> saveReplay(ProjectionReplay replay) {
+        return Uni.createFrom().item(() -> {
+                    try {
+                        return objectMapper.writeValueAsString(StoredReplay.of(replay));
+                    } catch (JsonProcessingException e) {
+                        throw new IllegalStateException("Failed to write replay status of projection " + replay.projection(), e);
+                    }
+                })
+                .flatMap(stored -> hashCommands.hset(REPLAYS_KEY, replay.projection(), stored))
+                .replaceWithVoid();
+    }
+
+    /**
+     * Stored form of a replay, without the projection name, which is the hash field, and the checkpoint,
+     * which lives in the checkpoints hash.
+     */
+    @RegisterForReflection
+    record StoredReplay(String fromCursor, long applied, Instant startedAt, Instant finishedAt, String failure) {
+
+        static StoredReplay of(ProjectionReplay replay) {
+            return new StoredReplay(replay.fromCursor(), replay.applied(), replay.startedAt(), replay.finishedAt(), replay.failure());
+        }
+
+        ProjectionReplay toReplay(String projection) {
+            return new ProjectionReplay(projection, fromCursor, null, applied, startedAt, finishedAt, failure);
+        }
+    }
+}
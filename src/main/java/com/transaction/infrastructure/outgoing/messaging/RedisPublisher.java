@@ -1,7 +1,6 @@
 package com.transaction.infrastructure.outgoing.messaging;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.transaction.domain.event.DomainEvent;
 import com.transaction.domain.event.TransactionCreatedEvent;
 import com.transaction.domain.event.TransactionDeletedEvent;
@@ -9,6 +8,8 @@ import com.transaction.domain.event.TransactionUpdatedEvent;
 import com.transaction.domain.exception.Errors;
 import com.transaction.domain.exception.ServiceException;
 import com.transaction.domain.port.output.DomainEventPublisher;
+import com.transaction.infrastructure.outgoing.messaging.codec.EventCodec;
+import com.transaction.infrastructure.outgoing.messaging.codec.EventCodecs;
 import com.transaction.infrastructure.outgoing.messaging.mapper.TransactionMessageMapper;
 import com.transaction.infrastructure.outgoing.messaging.message.Message;
 import com.transaction.infrastructure.outgoing.messaging.message.TransactionCreatedData;
@@ -20,27 +21,46 @@ import io.quarkus.redis.datasource.stream.ReactiveStreamCommands;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Named;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @ApplicationScoped
 @Named("redisPublisher")
 public class RedisPublisher implements DomainEventPublisher {
 
-    private static final String TRANSACTION_CREATED_STREAM = "transaction:created";
-    private static final String TRANSACTION_UPDATED_STREAM = "transaction:updated";
-    private static final String TRANSACTION_DELETED_STREAM = "transaction:deleted";
+    public static final String TRANSACTION_CREATED_STREAM = "transaction:created";
+    public static final String TRANSACTION_UPDATED_STREAM = "transaction:updated";
+    public static final String TRANSACTION_DELETED_STREAM = "transaction:deleted";
 
-    private final ReactiveStreamCommands<String, String, String> streamCommands;
+    static final String PAYLOAD_FIELD = "payload";
+    static final String PORTFOLIO_FIELD = "portfolio";
+    static final String TICKER_FIELD = "ticker";
+    static final String PREVIOUS_TICKER_FIELD = "previousTicker";
+    static final String CONTENT_TYPE_FIELD = "contentType";
+
+    private final ReactiveStreamCommands<String, String, byte[]> streamCommands;
     private final TransactionMessageMapper mapper;
-    private final ObjectMapper objectMapper;
+    private final EventCodecs codecs;
+    private final StreamRetention retention;
+    private final SpillLog spillLog;
+    private final boolean fullUpdateSnapshots;
 
     public RedisPublisher(ReactiveRedisDataSource redisDataSource,
                           TransactionMessageMapper mapper,
-                          ObjectMapper objectMapper) {
-        this.streamCommands = redisDataSource.stream(String.class, String.class, String.class);
+                          EventCodecs codecs,
+                          StreamRetention retention,
+                          SpillLog spillLog,
+                          @ConfigProperty(name = "application.events.updated.full-snapshots", defaultValue = "false") boolean fullUpdateSnapshots) {
+        this.streamCommands = redisDataSource.stream(String.class, String.class, byte[].class);
         this.mapper = mapper;
-        this.objectMapper = objectMapper;
+        this.codecs = codecs;
+        this.retention = retention;
+        this.spillLog = spillLog;
+        this.fullUpdateSnapshots = fullUpdateSnapshots;
     }
 
     @Override
@@ -61,12 +81,14 @@ public class RedisPublisher implements DomainEventPublisher {
     private Uni<Void> publishTransactionCreated(TransactionCreatedEvent transactionCreatedEvent) {
         Message<TransactionCreatedData> message = mapper.toTransactionCreated(transactionCreatedEvent);
 
-        return serializeMessage(message)
+        EventCodec codec = codecs.forStream(TRANSACTION_CREATED_STREAM);
+
+        return serializeMessage(codec, message)
                 .flatMap(serializedMessage -> {
-                    Map<String, String> streamData = Map.of("payload", serializedMessage);
+                    Map<String, byte[]> streamData = streamData(codec, serializedMessage, message.payload().portfolioId(), message.payload().ticker(), null);
 
-                    return streamCommands.xadd(TRANSACTION_CREATED_STREAM, streamData)
-                            .onItem().invoke(messageId ->
+                    return send(TRANSACTION_CREATED_STREAM, streamData)
+                            .onItem().ifNotNull().invoke(messageId ->
                                     Log.info("Published transaction created event with ID %s and eventId %s to Redis stream %s with messageId %s"
                                             .formatted(
                                                     message.payload().id(),
@@ -84,17 +106,24 @@ public class RedisPublisher implements DomainEventPublisher {
     }
 
     private Uni<Void> publishTransactionUpdated(TransactionUpdatedEvent transactionUpdatedEvent) {
-        Message<TransactionUpdatedData> message = mapper.toTransactionUpdated(transactionUpdatedEvent);
+        Message<TransactionUpdatedData> message = fullUpdateSnapshots
+                ? mapper.toTransactionUpdated(transactionUpdatedEvent)
+                : mapper.toTransactionUpdatedDelta(transactionUpdatedEvent);
+
+        EventCodec codec = codecs.forStream(TRANSACTION_UPDATED_STREAM);
 
-        return serializeMessage(message)
+        return serializeMessage(codec, message)
                 .flatMap(serializedMessage -> {
-                    Map<String, String> streamData = Map.of("payload", serializedMessage);
+                    Map<String, byte[]> streamData = streamData(codec, serializedMessage,
+                            message.payload().portfolioId(),
+                            message.payload().ticker(),
+                            message.payload().previousTicker());
 
-                    return streamCommands.xadd(TRANSACTION_UPDATED_STREAM, streamData)
-                            .onItem().invoke(messageId ->
+                    return send(TRANSACTION_UPDATED_STREAM, streamData)
+                            .onItem().ifNotNull().invoke(messageId ->
                                     Log.info("Published transaction updated event with ID %s and eventId %s to Redis stream %s with messageId %s"
                                             .formatted(
-                                                    message.payload().newTransaction().id(),
+                                                    message.payload().id(),
                                                     message.eventId(),
                                                     TRANSACTION_UPDATED_STREAM,
                                                     messageId
@@ -103,7 +132,7 @@ public class RedisPublisher implements DomainEventPublisher {
                 })
                 .onFailure().invoke(throwable ->
                         Log.error("Failed to publish transaction updated event with ID %s and eventId %s to Redis stream"
-                                .formatted(message.payload().newTransaction().id(), message.eventId()), throwable))
+                                .formatted(message.payload().id(), message.eventId()), throwable))
                 .onFailure().transform(throwable ->
                         new ServiceException(Errors.PublishTransactionsErrors.PUBLISH_ERROR, throwable));
     }
@@ -111,12 +140,14 @@ public class RedisPublisher implements DomainEventPublisher {
     private Uni<Void> publishTransactionDeleted(TransactionDeletedEvent transactionDeletedEvent) {
         Message<TransactionDeletedData> message = mapper.toTransactionDeleted(transactionDeletedEvent);
 
-        return serializeMessage(message)
+        EventCodec codec = codecs.forStream(TRANSACTION_DELETED_STREAM);
+
+        return serializeMessage(codec, message)
                 .flatMap(serializedMessage -> {
-                    Map<String, String> streamData = Map.of("payload", serializedMessage);
+                    Map<String, byte[]> streamData = streamData(codec, serializedMessage, message.payload().portfolioId(), message.payload().ticker(), null);
 
-                    return streamCommands.xadd(TRANSACTION_DELETED_STREAM, streamData)
-                            .onItem().invoke(messageId ->
+                    return send(TRANSACTION_DELETED_STREAM, streamData)
+                            .onItem().ifNotNull().invoke(messageId ->
                                     Log.info("Published transaction deleted event with ID %s and eventId %s to Redis stream %s with messageId %s"
                                             .formatted(
                                                     message.payload().id(),
@@ -134,15 +165,62 @@ public class RedisPublisher implements DomainEventPublisher {
     }
 
     /**
-     * Serializes a message to JSON string for Redis stream publishing.
+     * Adds the entry to its stream, or to the spill log when Redis fails. While spilled entries are waiting,
+     * new ones are spilled behind them without trying Redis, which keeps stream order and avoids paying a
+     * Redis timeout per write during an outage. Emits the stream message id, or null when the entry was spilled.
+     */
+    private Uni<String> send(String stream, Map<String, byte[]> streamData) {
+        if (!spillLog.isEnabled()) {
+            return streamCommands.xadd(stream, retention.addArgs(Instant.now()), streamData);
+        }
+        if (spillLog.hasPending()) {
+            return spill(stream, streamData);
+        }
+        return streamCommands.xadd(stream, retention.addArgs(Instant.now()), streamData)
+                .onFailure().recoverWithUni(throwable -> {
+                    Log.warn("Redis stream %s unavailable, spilling event to the local log".formatted(stream), throwable);
+                    return spill(stream, streamData);
+                });
+    }
+
+    private Uni<String> spill(String stream, Map<String, byte[]> streamData) {
+        return SpillLog.offloaded(() -> {
+            spillLog.append(new SpilledEntry(stream, streamData).toBytes());
+            return null;
+        });
+    }
+
+    /**
+     * The portfolio and tickers are copied next to the payload so stream readers such as the change feed
+     * can route an entry without deserializing it; the content type tells them how to decode it.
+     */
+    private static Map<String, byte[]> streamData(EventCodec codec, byte[] serializedMessage, String portfolioId,
+                                                  String ticker, String previousTicker) {
+        Map<String, byte[]> streamData = new LinkedHashMap<>();
+        streamData.put(PAYLOAD_FIELD, serializedMessage);
+        streamData.put(CONTENT_TYPE_FIELD, codec.contentType().getBytes(StandardCharsets.UTF_8));
+        if (portfolioId != null) {
+            streamData.put(PORTFOLIO_FIELD, portfolioId.getBytes(StandardCharsets.UTF_8));
+        }
+        if (ticker != null) {
+            streamData.put(TICKER_FIELD, ticker.getBytes(StandardCharsets.UTF_8));
+        }
+        if (previousTicker != null && !previousTicker.equals(ticker)) {
+            streamData.put(PREVIOUS_TICKER_FIELD, previousTicker.getBytes(StandardCharsets.UTF_8));
+        }
+        return streamData;
+    }
+
+    /**
+     * Serializes a message with the stream's codec for Redis stream publishing.
      */
-    private Uni<String> serializeMessage(Message<?> message) {
+    private Uni<byte[]> serializeMessage(EventCodec codec, Message<?> message) {
         return Uni.createFrom().item(() -> {
             try {
-                return objectMapper.writeValueAsString(message);
+                return codec.encode(message);
             } catch (JsonProcessingException e) {
                 throw new ServiceException(Errors.PublishTransactionsErrors.PUBLISH_ERROR,
-                        new RuntimeException("Failed to serialize message to JSON", e));
+                        new RuntimeException("Failed to serialize message as " + codec.contentType(), e));
             }
         });
     }
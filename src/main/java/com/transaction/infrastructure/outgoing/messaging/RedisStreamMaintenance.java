@@ -0,0 +1,126 @@
+package com.transaction.infrastructure.outgoing.messaging;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.datasource.stream.ReactiveStreamCommands;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.redis.client.Response;
+import io.vertx.redis.client.ResponseType;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically trims the transaction streams by age and samples their length, memory usage and
+ * consumer-group lag into gauges. Gauges read the last sample, so scraping never touches Redis.
+ */
+@ApplicationScoped
+public class RedisStreamMaintenance {
+
+    static final String LENGTH_METRIC = "redis.stream.length";
+    static final String MEMORY_METRIC = "redis.stream.memory";
+    static final String LAG_METRIC = "redis.stream.consumer.lag";
+
+    private final ReactiveRedisDataSource redisDataSource;
+    private final ReactiveStreamCommands<String, String, String> streamCommands;
+    private final StreamRetention retention;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicLong> lengths = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> memoryUsages = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> lags = new ConcurrentHashMap<>();
+
+    public RedisStreamMaintenance(ReactiveRedisDataSource redisDataSource,
+                                  StreamRetention retention,
+                                  MeterRegistry meterRegistry) {
+        this.redisDataSource = redisDataSource;
+        this.streamCommands = redisDataSource.stream(String.class, String.class, String.class);
+        this.retention = retention;
+        this.meterRegistry = meterRegistry;
+        for (String stream : StreamCursor.STREAMS) {
+            lengths.put(stream, gauge(LENGTH_METRIC, "Entries in the transaction stream", null, stream, null));
+            memoryUsages.put(stream, gauge(MEMORY_METRIC, "Memory used by the transaction stream", "bytes", stream, null));
+        }
+    }
+
+    @Scheduled(every = "${application.redis.streams.maintenance-interval}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    Uni<Void> maintain() {
+        Instant now = Instant.now();
+        return Multi.createFrom().iterable(StreamCursor.STREAMS)
+                .onItem().transformToUniAndConcatenate(stream -> trim(stream, now)
+                        .chain(() -> sample(stream))
+                        .onFailure().invoke(throwable -> Log.warn("Failed to maintain Redis stream %s".formatted(stream), throwable))
+                        .onFailure().recoverWithNull())
+                .collect().last()
+                .replaceWithVoid();
+    }
+
+    private Uni<Void> trim(String stream, Instant now) {
+        return retention.trimArgs(now)
+                .map(args -> streamCommands.xtrim(stream, args)
+                        .invoke(trimmed -> {
+                            if (trimmed > 0) {
+                                Log.debugf("Trimmed %d entries from Redis stream %s", trimmed, stream);
+                            }
+                        })
+                        .replaceWithVoid())
+                .orElseGet(() -> Uni.createFrom().voidItem());
+    }
+
+    private Uni<Void> sample(String stream) {
+        return streamCommands.xlen(stream)
+                .flatMap(length -> {
+                    lengths.get(stream).set(length);
+                    if (length == 0) {
+                        memoryUsages.get(stream).set(0);
+                        return Uni.createFrom().voidItem();
+                    }
+                    return redisDataSource.execute("MEMORY", "USAGE", stream)
+                            .invoke(usage -> memoryUsages.get(stream).set(usage != null ? usage.toLong() : 0L))
+                            .chain(() -> redisDataSource.execute("XINFO", "GROUPS", stream))
+                            .invoke(groups -> recordLags(stream, groups))
+                            .replaceWithVoid();
+                });
+    }
+
+    /**
+     * Redis reports a group's lag from 7.0 on, and leaves it empty when it cannot be computed cheaply;
+     * the previous sample is kept in that case.
+     */
+    private void recordLags(String stream, Response groups) {
+        if (groups == null) {
+            return;
+        }
+        for (Response group : groups) {
+            Response name = group.get("name");
+            Response lag = group.get("lag");
+            if (name == null || lag == null || lag.type() != ResponseType.NUMBER) {
+                continue;
+            }
+            String groupName = name.toString();
+            lags.computeIfAbsent(stream + "/" + groupName,
+                            key -> gauge(LAG_METRIC, "Entries not yet delivered to the consumer group", null, stream, groupName))
+                    .set(lag.toLong());
+        }
+    }
+
+    private AtomicLong gauge(String name, String description, String baseUnit, String stream, String group) {
+        AtomicLong value = new AtomicLong();
+        Gauge.Builder<AtomicLong> builder = Gauge.builder(name, value, AtomicLong::get)
+                .description(description)
+                .baseUnit(baseUnit)
+                .tag("stream", stream);
+        if (group != null) {
+            builder.tag("group", group);
+        }
+        builder.register(meterRegistry);
+        return value;
+    }
+}
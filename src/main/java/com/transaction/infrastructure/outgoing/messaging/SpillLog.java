@@ -0,0 +1,251 @@
+package com.transaction.infrastructure.outgoing.messaging;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.ShutdownEvent;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of stream entries that could not be written to Redis, kept in memory-mapped
+ * segment files so it survives restarts. Appends are a copy into the mapping; pages are flushed
+ * by the OS, and forced when a segment fills up and on shutdown.
+ * <p>
+ * Each segment starts with the read position of its consumer, followed by records of
+ * {@code [length][crc32c][bytes]}. A zero length or a bad checksum marks the end of the written
+ * part, which also discards a record torn by a crash. Fully consumed segments are deleted.
+ * Creating, mapping and deleting segment files blocks, so callers on an event loop go through {@link #offloaded}.
+ */
+@ApplicationScoped
+public class SpillLog {
+
+    private static final String SEGMENT_SUFFIX = ".segment";
+    private static final int HEADER_SIZE = Long.BYTES;
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private volatile long pending;
+
+    public SpillLog(@ConfigProperty(name = "application.events.spill.enabled", defaultValue = "true") boolean enabled,
+                    @ConfigProperty(name = "application.events.spill.directory", defaultValue = "data/event-spill") String directory,
+                    @ConfigProperty(name = "application.events.spill.segment-size", defaultValue = "16777216") int segmentSize,
+                    MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.segmentSize = segmentSize;
+        if (enabled) {
+            recover();
+            Gauge.builder("events.spill.pending", this, SpillLog::pending)
+                    .description("Events waiting in the local spill log for Redis to come back")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Runs spill log IO on a worker thread and resumes on the caller's Vert.x context, if it has one, so the reactive
+     * flow around it keeps running where it started
+     */
+    public static <T> Uni<T> offloaded(Supplier<T> io) {
+        Context context = Vertx.currentContext();
+        Uni<T> result = Uni.createFrom().item(io).runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+        return context == null ? result : result.emitOn(task -> context.runOnContext(ignored -> task.run()));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean hasPending() {
+        return pending > 0;
+    }
+
+    public long pending() {
+        return pending;
+    }
+
+    public synchronized void append(byte[] record) {
+        int required = RECORD_HEADER_SIZE + record.length;
+        if (required > segmentSize - HEADER_SIZE) {
+            throw new IllegalArgumentException("Record of %d bytes does not fit in a spill segment of %d bytes"
+                    .formatted(record.length, segmentSize));
+        }
+        Segment tail = segments.peekLast();
+        if (tail == null || tail.writePosition + required > segmentSize) {
+            if (tail != null) {
+                tail.buffer.force();
+            }
+            tail = openSegment(tail == null ? 0 : tail.id + 1);
+            segments.addLast(tail);
+        }
+        tail.write(record);
+        pending++;
+    }
+
+    /**
+     * Returns the oldest record without consuming it; {@link #remove()} consumes it once it has been delivered.
+     */
+    public synchronized Optional<byte[]> peek() {
+        Segment head = headWithRecords();
+        return head == null ? Optional.empty() : Optional.of(head.read());
+    }
+
+    public synchronized void remove() {
+        Segment head = headWithRecords();
+        if (head == null) {
+            return;
+        }
+        head.skip();
+        pending--;
+        headWithRecords();
+    }
+
+    void onStop(@Observes ShutdownEvent shutdownEvent) {
+        synchronized (this) {
+            segments.forEach(segment -> segment.buffer.force());
+        }
+    }
+
+    private Segment headWithRecords() {
+        Segment head = segments.peekFirst();
+        while (head != null && head.readPosition >= head.writePosition && head != segments.peekLast()) {
+            segments.removeFirst();
+            delete(head);
+            head = segments.peekFirst();
+        }
+        return head != null && head.readPosition < head.writePosition ? head : null;
+    }
+
+    private void recover() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(directory)) {
+                files = listing.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+            }
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                Segment segment = openSegment(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+                segment.scan();
+                pending += segment.count();
+                segments.addLast(segment);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open event spill log in " + directory, e);
+        }
+        if (pending > 0) {
+            Log.warnf("Recovered %d unpublished events from the spill log in %s", pending, directory);
+        }
+    }
+
+    private Segment openSegment(long id) {
+        Path path = directory.resolve("%020d%s".formatted(id, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return new Segment(id, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map spill segment " + path, e);
+        }
+    }
+
+    private static void delete(Segment segment) {
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            Log.warnf(e, "Could not delete consumed spill segment %s", segment.path);
+        }
+    }
+
+    private static final class Segment {
+
+        private final long id;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private int readPosition;
+        private int writePosition;
+
+        private Segment(long id, Path path, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.buffer = buffer;
+            long storedReadPosition = buffer.getLong(0);
+            this.readPosition = storedReadPosition >= HEADER_SIZE ? (int) storedReadPosition : HEADER_SIZE;
+            this.writePosition = readPosition;
+        }
+
+        void scan() {
+            int position = readPosition;
+            while (position + RECORD_HEADER_SIZE <= buffer.capacity()) {
+                int length = buffer.getInt(position);
+                if (length <= 0 || position + RECORD_HEADER_SIZE + length > buffer.capacity()
+                        || buffer.getInt(position + Integer.BYTES) != checksum(position + RECORD_HEADER_SIZE, length)) {
+                    break;
+                }
+                position += RECORD_HEADER_SIZE + length;
+            }
+            writePosition = position;
+            if (position + Integer.BYTES <= buffer.capacity()) {
+                buffer.putInt(position, 0);
+            }
+        }
+
+        long count() {
+            long count = 0;
+            for (int position = readPosition; position < writePosition; position += RECORD_HEADER_SIZE + buffer.getInt(position)) {
+                count++;
+            }
+            return count;
+        }
+
+        void write(byte[] record) {
+            int start = writePosition + RECORD_HEADER_SIZE;
+            buffer.put(start, record);
+            buffer.putInt(writePosition + Integer.BYTES, checksum(start, record.length));
+            int end = start + record.length;
+            if (end + Integer.BYTES <= buffer.capacity()) {
+                buffer.putInt(end, 0);
+            }
+            buffer.putInt(writePosition, record.length);
+            writePosition = end;
+        }
+
+        byte[] read() {
+            byte[] record = new byte[buffer.getInt(readPosition)];
+            buffer.get(readPosition + RECORD_HEADER_SIZE, record);
+            return record;
+        }
+
+        void skip() {
+            readPosition += RECORD_HEADER_SIZE + buffer.getInt(readPosition);
+            buffer.putLong(0, readPosition);
+        }
+
+        private int checksum(int offset, int length) {
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(offset, length));
+            return (int) crc.getValue();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.transaction.infrastructure.outgoing.messaging;
+
+import io.quarkus.logging.Log;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.datasource.stream.ReactiveStreamCommands;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Drains the spill log into Redis, oldest entry first. A run stops at the first failed write and the
+ * entry stays at the head of the log, so the next run resumes from it once Redis is back. Reading and consuming
+ * entries may touch segment files, so they run on a worker thread.
+ */
+@ApplicationScoped
+public class SpillReplayer {
+
+    private final ReactiveStreamCommands<String, String, byte[]> streamCommands;
+    private final SpillLog spillLog;
+    private final StreamRetention retention;
+
+    public SpillReplayer(ReactiveRedisDataSource redisDataSource,
+                         SpillLog spillLog,
+                         StreamRetention retention) {
+        this.streamCommands = redisDataSource.stream(String.class, String.class, byte[].class);
+        this.spillLog = spillLog;
+        this.retention = retention;
+    }
+
+    @Scheduled(every = "${application.events.spill.replay-interval}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    Uni<Void> replay() {
+        if (!spillLog.hasPending()) {
+            return Uni.createFrom().voidItem();
+        }
+        return Multi.createBy().repeating().uni(this::replayNext)
+                .whilst(Boolean::booleanValue)
+                .collect().last()
+                .invoke(() -> Log.infof("Replayed spilled events to Redis, %d still pending", spillLog.pending()))
+                .onFailure().invoke(throwable -> Log.warnf("Replay of spilled events paused, %d still pending: %s",
+                        spillLog.pending(), throwable.getMessage()))
+                .onFailure().recoverWithNull()
+                .replaceWithVoid();
+    }
+
+    /**
+     * Emits whether an entry was consumed, so the loop ends when the log is empty.
+     */
+    private Uni<Boolean> replayNext() {
+        return SpillLog.offloaded(spillLog::peek).flatMap(this::replay);
+    }
+
+    private Uni<Boolean> replay(Optional<byte[]> record) {
+        if (record.isEmpty()) {
+            return Uni.createFrom().item(false);
+        }
+        SpilledEntry entry;
+        try {
+            entry = SpilledEntry.fromBytes(record.get());
+        } catch (IOException e) {
+            Log.errorf(e, "Discarding unreadable spilled event");
+            return remove();
+        }
+        return streamCommands.xadd(entry.stream(), retention.addArgs(Instant.now()), entry.fields())
+                .flatMap(ignored -> remove());
+    }
+
+    private Uni<Boolean> remove() {
+        return SpillLog.offloaded(() -> {
+            spillLog.remove();
+            return true;
+        });
+    }
+}
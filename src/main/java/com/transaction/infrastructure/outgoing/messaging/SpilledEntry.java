@@ -0,0 +1,48 @@
+package com.transaction.infrastructure.outgoing.messaging;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A stream entry exactly as it would have been added to Redis, so replaying it needs neither the
+ * mapper nor the codecs that produced it.
+ */
+record SpilledEntry(String stream, Map<String, byte[]> fields) {
+
+    byte[] toBytes() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(buffer)) {
+            output.writeUTF(stream);
+            output.writeInt(fields.size());
+            for (Map.Entry<String, byte[]> field : fields.entrySet()) {
+                output.writeUTF(field.getKey());
+                output.writeInt(field.getValue().length);
+                output.write(field.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    static SpilledEntry fromBytes(byte[] bytes) throws IOException {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            String stream = input.readUTF();
+            int count = input.readInt();
+            Map<String, byte[]> fields = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                String name = input.readUTF();
+                byte[] value = new byte[input.readInt()];
+                input.readFully(value);
+                fields.put(name, value);
+            }
+            return new SpilledEntry(stream, fields);
+        }
+    }
+}
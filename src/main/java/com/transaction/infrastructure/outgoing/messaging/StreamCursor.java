@@ -0,0 +1,112 @@
+package com.transaction.infrastructure.outgoing.messaging;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Position in each of the transaction streams, encoded as the last delivered entry id per stream.
+ * Entry ids ({@code <millis>-<sequence>}) only grow within a stream, so a cursor is both a resume
+ * point for XREAD/XRANGE and a high watermark for dropping entries already delivered.
+ */
+record StreamCursor(String created, String updated, String deleted) {
+
+    static final String ORIGIN = "0-0";
+
+    static final List<String> STREAMS = List.of(
+            RedisPublisher.TRANSACTION_CREATED_STREAM,
+            RedisPublisher.TRANSACTION_UPDATED_STREAM,
+            RedisPublisher.TRANSACTION_DELETED_STREAM
+    );
+
+    private static final String SEPARATOR = ",";
+
+    /**
+     * Reads a cursor previously produced by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException when the value is not a cursor
+     */
+    static StreamCursor decode(String value) {
+        String[] ids = value.trim().split(SEPARATOR, -1);
+        if (ids.length != STREAMS.size()) {
+            throw new IllegalArgumentException("Malformed stream cursor: " + value);
+        }
+        for (String id : ids) {
+            parse(id);
+        }
+        return new StreamCursor(ids[0], ids[1], ids[2]);
+    }
+
+    /**
+     * Position right before every entry added at or after {@code instant}: entry ids start with the
+     * millisecond they were added at, so this is the largest possible id of the millisecond before.
+     */
+    static StreamCursor at(Instant instant) {
+        long millis = instant.toEpochMilli();
+        String id = millis <= 0 ? ORIGIN : (millis - 1) + "-" + Long.MAX_VALUE;
+        return new StreamCursor(id, id, id);
+    }
+
+    String encode() {
+        return String.join(SEPARATOR, created, updated, deleted);
+    }
+
+    String position(String stream) {
+        return switch (stream) {
+            case RedisPublisher.TRANSACTION_CREATED_STREAM -> created;
+            case RedisPublisher.TRANSACTION_UPDATED_STREAM -> updated;
+            case RedisPublisher.TRANSACTION_DELETED_STREAM -> deleted;
+            default -> throw new IllegalArgumentException("Unknown stream: " + stream);
+        };
+    }
+
+    StreamCursor advance(String stream, String id) {
+        return switch (stream) {
+            case RedisPublisher.TRANSACTION_CREATED_STREAM -> new StreamCursor(id, updated, deleted);
+            case RedisPublisher.TRANSACTION_UPDATED_STREAM -> new StreamCursor(created, id, deleted);
+            case RedisPublisher.TRANSACTION_DELETED_STREAM -> new StreamCursor(created, updated, id);
+            default -> throw new IllegalArgumentException("Unknown stream: " + stream);
+        };
+    }
+
+    boolean covers(String stream, String id) {
+        return compareIds(id, position(stream)) <= 0;
+    }
+
+    /**
+     * Furthest position of the two cursors in every stream.
+     */
+    StreamCursor max(StreamCursor other) {
+        return new StreamCursor(
+                compareIds(created, other.created) >= 0 ? created : other.created,
+                compareIds(updated, other.updated) >= 0 ? updated : other.updated,
+                compareIds(deleted, other.deleted) >= 0 ? deleted : other.deleted);
+    }
+
+    Map<String, String> offsets() {
+        Map<String, String> offsets = new LinkedHashMap<>();
+        for (String stream : STREAMS) {
+            offsets.put(stream, position(stream));
+        }
+        return offsets;
+    }
+
+    static int compareIds(String left, String right) {
+        long[] l = parse(left);
+        long[] r = parse(right);
+        int byTime = Long.compare(l[0], r[0]);
+        return byTime != 0 ? byTime : Long.compare(l[1], r[1]);
+    }
+
+    private static long[] parse(String id) {
+        int dash = id.indexOf('-');
+        try {
+            return dash < 0
+                    ? new long[]{Long.parseLong(id), 0L}
+                    : new long[]{Long.parseLong(id.substring(0, dash)), Long.parseLong(id.substring(dash + 1))};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed stream entry id: " + id, e);
+        }
+    }
+}
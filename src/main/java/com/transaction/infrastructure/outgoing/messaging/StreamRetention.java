@@ -0,0 +1,52 @@
+package com.transaction.infrastructure.outgoing.messaging;
+
+import io.quarkus.redis.datasource.stream.XAddArgs;
+import io.quarkus.redis.datasource.stream.XTrimArgs;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * How much history the transaction streams keep. Trimming is always approximate ({@code ~}) so Redis only
+ * drops whole radix-tree nodes, which keeps the cost of trimming on every XADD constant.
+ */
+@ApplicationScoped
+public class StreamRetention {
+
+    private final Optional<Long> maxLength;
+    private final Optional<Duration> maxAge;
+
+    public StreamRetention(@ConfigProperty(name = "application.redis.streams.max-length") Optional<Long> maxLength,
+                           @ConfigProperty(name = "application.redis.streams.max-age") Optional<Duration> maxAge) {
+        this.maxLength = maxLength;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Trims on publish by length when a length bound is set, otherwise by age.
+     */
+    XAddArgs addArgs(Instant now) {
+        XAddArgs args = new XAddArgs();
+        if (maxLength.isPresent()) {
+            return args.maxlen(maxLength.get()).nearlyExactTrimming();
+        }
+        return maxAge.map(age -> args.minid(minId(now, age)).nearlyExactTrimming()).orElse(args);
+    }
+
+    /**
+     * Age bound for the periodic trim, so entries also expire on streams that stopped receiving writes.
+     */
+    Optional<XTrimArgs> trimArgs(Instant now) {
+        return maxAge.map(age -> new XTrimArgs().minid(minId(now, age)).nearlyExactTrimming());
+    }
+
+    /**
+     * Entry ids start with their creation time in milliseconds, so the oldest id to keep is a timestamp.
+     */
+    private static String minId(Instant now, Duration age) {
+        return Long.toString(now.minus(age).toEpochMilli());
+    }
+}
@@ -0,0 +1,112 @@
+package com.transaction.infrastructure.outgoing.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transaction.domain.model.TransactionChange;
+import com.transaction.domain.port.output.TransactionProjection;
+import io.quarkus.logging.Log;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.datasource.keys.ReactiveKeyCommands;
+import io.quarkus.redis.datasource.set.ReactiveSetCommands;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Projection of the live transaction ids of every ticker, one Redis set per portfolio and ticker.
+ * Adding and removing ids is idempotent, so applying part of a batch again after an interrupted replay is harmless.
+ * Every set key is also recorded in an index set, which a reset deletes along with the sets it lists.
+ */
+@ApplicationScoped
+public class TickerTransactionsProjection implements TransactionProjection {
+
+    public static final String NAME = "ticker-transactions";
+
+    static final String INDEX_KEY = "transaction:projection:ticker-transactions";
+    static final String KEY_PREFIX = INDEX_KEY + ":";
+
+    private final ReactiveSetCommands<String, String> setCommands;
+    private final ReactiveKeyCommands<String> keyCommands;
+    private final ObjectMapper objectMapper;
+
+    public TickerTransactionsProjection(ReactiveRedisDataSource redisDataSource, ObjectMapper objectMapper) {
+        this.setCommands = redisDataSource.set(String.class);
+        this.keyCommands = redisDataSource.key();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Uni<Void> reset() {
+        return setCommands.smembers(INDEX_KEY)
+                .flatMap(keys -> {
+                    String[] all = keys.toArray(new String[keys.size() + 1]);
+                    all[keys.size()] = INDEX_KEY;
+                    return keyCommands.del(all);
+                })
+                .replaceWithVoid();
+    }
+
+    @Override
+    public Uni<Void> apply(TransactionChange change) {
+        String transactionId = transactionId(change);
+        if (transactionId == null || change.ticker() == null) {
+            Log.warnf("Skipping %s change at %s without a transaction id or ticker", change.eventType(), change.cursor());
+            return Uni.createFrom().voidItem();
+        }
+
+        String key = key(change.portfolioId(), change.ticker());
+        return switch (change.eventType()) {
+            case "TransactionCreated" -> add(key, transactionId);
+            case "TransactionUpdated" -> change.previousTicker() != null && !change.previousTicker().equalsIgnoreCase(change.ticker())
+                    ? remove(key(change.portfolioId(), change.previousTicker()), transactionId).chain(() -> add(key, transactionId))
+                    : add(key, transactionId);
+            case "TransactionDeleted" -> remove(key, transactionId);
+            default -> Uni.createFrom().voidItem();
+        };
+    }
+
+    /**
+     * Ids of the live transactions of a ticker in a portfolio, as far as the projection has been applied.
+     */
+    public Uni<Set<String>> transactionIds(String portfolioId, String ticker) {
+        return setCommands.smembers(key(portfolioId, ticker));
+    }
+
+    private Uni<Void> add(String key, String transactionId) {
+        return setCommands.sadd(INDEX_KEY, key)
+                .chain(() -> setCommands.sadd(key, transactionId))
+                .replaceWithVoid();
+    }
+
+    private Uni<Void> remove(String key, String transactionId) {
+        return setCommands.srem(key, transactionId).replaceWithVoid();
+    }
+
+    private static String key(String portfolioId, String ticker) {
+        return KEY_PREFIX + portfolioId + ":" + ticker.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * The change payload is the published message; the transaction id is in its payload.
+     */
+    private String transactionId(TransactionChange change) {
+        if (change.payload() == null) {
+            return null;
+        }
+        try {
+            JsonNode id = objectMapper.readTree(change.payload()).path("payload").path("id");
+            return id.isTextual() ? id.asText() : null;
+        } catch (JsonProcessingException e) {
+            Log.warnf(e, "Failed to read the payload of %s change at %s", change.eventType(), change.cursor());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.transaction.infrastructure.outgoing.messaging.codec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import java.io.IOException;
+
+/**
+ * CBOR (RFC 8949) with the same modules and features as the application's JSON mapper.
+ * Numbers are written in binary, BigDecimals as decimal fractions, and nothing is quoted or escaped,
+ * which makes entries smaller and cheaper to produce than JSON.
+ */
+public class CborEventCodec implements EventCodec {
+
+    public static final String CONTENT_TYPE = "application/cbor";
+
+    private final ObjectMapper cborMapper;
+
+    public CborEventCodec(ObjectMapper objectMapper) {
+        this.cborMapper = objectMapper.copyWith(new CBORFactory());
+    }
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] encode(Object message) throws JsonProcessingException {
+        return cborMapper.writeValueAsBytes(message);
+    }
+
+    @Override
+    public JsonNode decode(byte[] payload) throws IOException {
+        return cborMapper.readTree(payload);
+    }
+}
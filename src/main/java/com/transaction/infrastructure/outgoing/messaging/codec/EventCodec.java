@@ -0,0 +1,19 @@
+package com.transaction.infrastructure.outgoing.messaging.codec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+
+/**
+ * Wire format of the event payload stored in a Redis stream entry.
+ * The content type is written next to the payload so readers can decode entries of any format.
+ */
+public interface EventCodec {
+
+    String contentType();
+
+    byte[] encode(Object message) throws JsonProcessingException;
+
+    JsonNode decode(byte[] payload) throws IOException;
+}
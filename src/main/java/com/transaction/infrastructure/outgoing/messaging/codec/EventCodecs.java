@@ -0,0 +1,61 @@
+package com.transaction.infrastructure.outgoing.messaging.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transaction.infrastructure.outgoing.messaging.RedisPublisher;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.Map;
+
+/**
+ * Codec selection per stream, configured with {@code application.redis.streams.codec.<stream>}
+ * as {@code json} or {@code cbor}. JSON stays the default so existing consumers keep working
+ * until they read the content type field.
+ */
+@ApplicationScoped
+public class EventCodecs {
+
+    private final EventCodec json;
+    private final Map<String, EventCodec> byContentType;
+    private final Map<String, EventCodec> byStream;
+
+    public EventCodecs(ObjectMapper objectMapper,
+                       @ConfigProperty(name = "application.redis.streams.codec.created", defaultValue = "json") String createdCodec,
+                       @ConfigProperty(name = "application.redis.streams.codec.updated", defaultValue = "json") String updatedCodec,
+                       @ConfigProperty(name = "application.redis.streams.codec.deleted", defaultValue = "json") String deletedCodec) {
+        this.json = new JsonEventCodec(objectMapper);
+        EventCodec cbor = new CborEventCodec(objectMapper);
+        Map<String, EventCodec> byName = Map.of("json", json, "cbor", cbor);
+        this.byContentType = Map.of(json.contentType(), json, cbor.contentType(), cbor);
+        this.byStream = Map.of(
+                RedisPublisher.TRANSACTION_CREATED_STREAM, named(byName, createdCodec),
+                RedisPublisher.TRANSACTION_UPDATED_STREAM, named(byName, updatedCodec),
+                RedisPublisher.TRANSACTION_DELETED_STREAM, named(byName, deletedCodec));
+    }
+
+    public EventCodec forStream(String stream) {
+        return byStream.getOrDefault(stream, json);
+    }
+
+    /**
+     * Entries written before codecs existed have no content type and are JSON.
+     */
+    public EventCodec forContentType(String contentType) {
+        if (contentType == null) {
+            return json;
+        }
+        EventCodec codec = byContentType.get(contentType);
+        if (codec == null) {
+            throw new IllegalArgumentException("Unsupported event content type: " + contentType);
+        }
+        return codec;
+    }
+
+    private static EventCodec named(Map<String, EventCodec> byName, String name) {
+        EventCodec codec = byName.get(name.trim().toLowerCase());
+        if (codec == null) {
+            throw new IllegalArgumentException("Unknown event codec '%s', expected one of %s".formatted(name, byName.keySet()));
+        }
+        return codec;
+    }
+}
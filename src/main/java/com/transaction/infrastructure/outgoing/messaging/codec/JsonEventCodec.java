@@ -0,0 +1,36 @@
+package com.transaction.infrastructure.outgoing.messaging.codec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * UTF-8 JSON, the format every entry had before codecs were introduced.
+ */
+public class JsonEventCodec implements EventCodec {
+
+    public static final String CONTENT_TYPE = "application/json";
+
+    private final ObjectMapper objectMapper;
+
+    public JsonEventCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] encode(Object message) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(message);
+    }
+
+    @Override
+    public JsonNode decode(byte[] payload) throws IOException {
+        return objectMapper.readTree(payload);
+    }
+}
@@ -3,6 +3,8 @@ package com.transaction.infrastructure.outgoing.messaging.mapper;
 import com.transaction.domain.event.TransactionCreatedEvent;
 import com.transaction.domain.event.TransactionDeletedEvent;
 import com.transaction.domain.event.TransactionUpdatedEvent;
+import com.transaction.domain.model.Transaction;
+import com.transaction.domain.model.TransactionUpdateData;
 import com.transaction.infrastructure.outgoing.messaging.message.Message;
 import com.transaction.infrastructure.outgoing.messaging.message.TransactionCreatedData;
 import com.transaction.infrastructure.outgoing.messaging.message.TransactionDeletedData;
@@ -11,6 +13,8 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
 import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static org.mapstruct.MappingConstants.ComponentModel.JAKARTA_CDI;
 
@@ -31,6 +35,13 @@ public interface TransactionMessageMapper {
     @Mapping(target = "payload", source = "transactionUpdatedEvent", qualifiedByName = "mapToTransactionUpdatedPayload")
     Message<TransactionUpdatedData> toTransactionUpdated(TransactionUpdatedEvent transactionUpdatedEvent);
 
+    @Mapping(target = "eventId", source = "eventId")
+    @Mapping(target = "occurredAt", source = "occurredAt")
+    @Mapping(target = "messageCreatedAt", expression = "java(generateMessageCreatedAt())")
+    @Mapping(target = "eventType", constant = "TransactionUpdated")
+    @Mapping(target = "payload", source = "transactionUpdatedEvent", qualifiedByName = "mapToTransactionUpdatedDelta")
+    Message<TransactionUpdatedData> toTransactionUpdatedDelta(TransactionUpdatedEvent transactionUpdatedEvent);
+
     @Mapping(target = "eventId", source = "eventId")
     @Mapping(target = "occurredAt", source = "occurredAt")
     @Mapping(target = "messageCreatedAt", expression = "java(generateMessageCreatedAt())")
@@ -40,6 +51,7 @@ public interface TransactionMessageMapper {
 
     @org.mapstruct.Named("mapToTransactionCreatedPayload")
     @Mapping(target = "id", source = "data.id")
+    @Mapping(target = "portfolioId", source = "data.portfolioId")
     @Mapping(target = "ticker", source = "data.ticker")
     @Mapping(target = "transactionType", source = "data.transactionType")
     @Mapping(target = "quantity", source = "data.quantity")
@@ -57,9 +69,28 @@ public interface TransactionMessageMapper {
     TransactionCreatedData mapToTransactionCreatedPayload(TransactionCreatedEvent transactionCreatedEvent);
 
     @org.mapstruct.Named("mapToTransactionUpdatedPayload")
-    @Mapping(target = "previousTransaction", source = "data.previousTransaction")
-    @Mapping(target = "newTransaction", source = "data.newTransaction")
-    TransactionUpdatedData mapToTransactionUpdatedPayload(TransactionUpdatedEvent transactionUpdatedEvent);
+    default TransactionUpdatedData mapToTransactionUpdatedPayload(TransactionUpdatedEvent transactionUpdatedEvent) {
+        TransactionUpdateData data = transactionUpdatedEvent.getData();
+        Transaction updated = data.newTransaction();
+        return new TransactionUpdatedData(updated.getId(), updated.getPortfolioId(), updated.getTicker(), updated.getVersion(),
+                toFieldChanges(data.changes()),
+                toTransactionSnapshot(data.previousTransaction()),
+                toTransactionSnapshot(updated));
+    }
+
+    @org.mapstruct.Named("mapToTransactionUpdatedDelta")
+    default TransactionUpdatedData mapToTransactionUpdatedDelta(TransactionUpdatedEvent transactionUpdatedEvent) {
+        TransactionUpdateData data = transactionUpdatedEvent.getData();
+        Transaction updated = data.newTransaction();
+        return new TransactionUpdatedData(updated.getId(), updated.getPortfolioId(), updated.getTicker(), updated.getVersion(),
+                toFieldChanges(data.changes()), null, null);
+    }
+
+    default Map<String, TransactionUpdatedData.FieldChange> toFieldChanges(Map<String, TransactionUpdateData.FieldChange> changes) {
+        Map<String, TransactionUpdatedData.FieldChange> fieldChanges = new LinkedHashMap<>();
+        changes.forEach((field, change) -> fieldChanges.put(field, new TransactionUpdatedData.FieldChange(change.previous(), change.current())));
+        return fieldChanges;
+    }
 
     @Mapping(target = "id", source = "id")
     @Mapping(target = "ticker", source = "ticker")
@@ -76,10 +107,11 @@ public interface TransactionMessageMapper {
     @Mapping(target = "exchange", source = "exchange")
     @Mapping(target = "country", source = "country")
     @Mapping(target = "companyName", source = "companyName")
-    TransactionUpdatedData.TransactionSnapshot toTransactionSnapshot(com.transaction.domain.model.Transaction transaction);
+    TransactionUpdatedData.TransactionSnapshot toTransactionSnapshot(Transaction transaction);
 
     @org.mapstruct.Named("mapToTransactionDeletedPayload")
     @Mapping(target = "id", source = "data.id")
+    @Mapping(target = "portfolioId", source = "data.portfolioId")
     @Mapping(target = "ticker", source = "data.ticker")
     @Mapping(target = "transactionType", source = "data.transactionType")
     @Mapping(target = "quantity", source = "data.quantity")
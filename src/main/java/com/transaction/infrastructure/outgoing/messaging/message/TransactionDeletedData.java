@@ -14,6 +14,7 @@ import java.util.UUID;
 @RegisterForReflection
 public record TransactionDeletedData(
         UUID id,
+        String portfolioId,
         String ticker,
         TransactionType transactionType,
         BigDecimal quantity,
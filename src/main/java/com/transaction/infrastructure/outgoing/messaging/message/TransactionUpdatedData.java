@@ -1,23 +1,47 @@
 package com.transaction.infrastructure.outgoing.messaging.message;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.transaction.domain.model.Currency;
 import com.transaction.domain.model.TransactionType;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Map;
 import java.util.UUID;
 
 /**
  * Payload data for transaction updated events.
- * Contains both the previous and new transaction states to allow consumers
- * to properly calculate deltas and apply updates to positions.
+ * Carries the changed fields only, each with its previous and new value, which is enough for consumers
+ * to calculate deltas and apply updates to positions. The full previous and new snapshots are added
+ * only when {@code application.events.updated.full-snapshots} is enabled.
  */
 @RegisterForReflection
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record TransactionUpdatedData(
+        UUID id,
+        String portfolioId,
+        String ticker,
+        Long version,
+        Map<String, FieldChange> changes,
         TransactionSnapshot previousTransaction,
         TransactionSnapshot newTransaction
 ) {
+
+    /**
+     * Ticker the transaction had before the update, when the update moved it to another one.
+     */
+    @JsonIgnore
+    public String previousTicker() {
+        FieldChange tickerChange = changes != null ? changes.get("ticker") : null;
+        return tickerChange != null && tickerChange.from() != null ? tickerChange.from().toString() : null;
+    }
+
+    @RegisterForReflection
+    public record FieldChange(Object from, Object to) {
+    }
+
     /**
      * Represents a snapshot of a transaction's state at a point in time.
      */
@@ -0,0 +1,54 @@
+package com.transaction.infrastructure.outgoing.portfolio;
+
+import com.transaction.domain.port.output.PortfolioContext;
+import io.smallrye.common.vertx.ContextLocals;
+import io.smallrye.common.vertx.VertxContext;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.function.Supplier;
+
+/**
+ * PortfolioContext kept as a local of the Vert.x duplicated context, which every request and every continuation of
+ * its reactive pipeline runs on. HTTP requests enter their portfolio in a request filter; other work gets a fresh
+ * duplicated context of its own, so it never sees or changes the portfolio of the request that started it.
+ */
+@ApplicationScoped
+public class VertxPortfolioContext implements PortfolioContext {
+
+    static final String PORTFOLIO_KEY = "portfolio";
+
+    private final Vertx vertx;
+
+    public VertxPortfolioContext(Vertx vertx) {
+        this.vertx = vertx;
+    }
+
+    @Override
+    public String current() {
+        Context context = Vertx.currentContext();
+        if (context == null || !VertxContext.isDuplicatedContext(context)) {
+            return DEFAULT_PORTFOLIO;
+        }
+        return ContextLocals.<String>get(PORTFOLIO_KEY).orElse(DEFAULT_PORTFOLIO);
+    }
+
+    @Override
+    public <T> Uni<T> within(String portfolioId, Supplier<Uni<T>> work) {
+        Context context = VertxContext.createNewDuplicatedContext(vertx.getOrCreateContext());
+        return Uni.createFrom().<T>deferred(() -> {
+                    ContextLocals.put(PORTFOLIO_KEY, portfolioId);
+                    return work.get();
+                })
+                .runSubscriptionOn(task -> context.runOnContext(ignored -> task.run()));
+    }
+
+    /**
+     * Makes {@code portfolioId} current for the rest of the request running on this duplicated context
+     */
+    public void enter(String portfolioId) {
+        ContextLocals.put(PORTFOLIO_KEY, portfolioId);
+    }
+}
@@ -0,0 +1,108 @@
+package com.transaction.infrastructure.persistence.adapter;
+
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.exception.ServiceException;
+import com.transaction.domain.model.ChangeMarker;
+import com.transaction.domain.model.DividendLedger;
+import com.transaction.domain.model.Transaction;
+import com.transaction.domain.port.output.DividendLedgerRepository;
+import com.transaction.domain.port.output.PortfolioContext;
+import com.transaction.domain.port.output.TransactionRepository;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Adapter for DividendLedgerRepository port implementation.
+ * Ledgers are kept per portfolio and ticker in the {@code dividends} cache together with the ticker's change marker.
+ * A ledger is rebuilt from the ticker's transactions only when its marker has changed, so a write to one ticker
+ * leaves the ledgers of every other ticker in place. The tickers that paid dividends and their markers are read
+ * together from the change counters, where every write keeps a ticker's dividend count.
+ */
+@ApplicationScoped
+public class DividendLedgerRepositoryAdapter implements DividendLedgerRepository {
+
+    private final TransactionRepository transactionRepository;
+    private final CaffeineCache cache;
+    private final PortfolioContext portfolioContext;
+
+    public DividendLedgerRepositoryAdapter(TransactionRepository transactionRepository,
+                                           @CacheName("dividends") Cache cache,
+                                           PortfolioContext portfolioContext) {
+        this.transactionRepository = transactionRepository;
+        this.cache = cache.as(CaffeineCache.class);
+        this.portfolioContext = portfolioContext;
+    }
+
+    @Override
+    public Uni<List<DividendLedger>> findByTicker(String ticker) {
+        return transactionRepository.findChangeMarkerByTicker(ticker)
+                .flatMap(marker -> {
+                    List<DividendLedger> cached = cached(ticker, marker);
+                    if (cached != null) {
+                        return Uni.createFrom().item(cached);
+                    }
+                    return transactionRepository.findByTicker(ticker)
+                            .map(transactions -> store(ticker, marker, transactions));
+                })
+                .onFailure().transform(throwable -> throwable instanceof ServiceException
+                        ? throwable
+                        : new ServiceException(Errors.DividendErrors.PERSISTENCE_ERROR, throwable));
+    }
+
+    /**
+     * One read of the dividend tickers and their markers, then one read of the transactions of the tickers whose
+     * marker changed; every other ledger comes from the cache
+     */
+    @Override
+    public Uni<List<DividendLedger>> findAll() {
+        return transactionRepository.findDividendTickerMarkers()
+                .flatMap(markers -> {
+                    Map<String, List<DividendLedger>> ledgers = new LinkedHashMap<>();
+                    List<String> changed = new ArrayList<>();
+                    markers.forEach((ticker, marker) -> {
+                        List<DividendLedger> cached = cached(ticker, marker);
+                        if (cached == null) {
+                            changed.add(ticker);
+                        }
+                        ledgers.put(ticker, cached);
+                    });
+                    return transactionRepository.findByTickers(changed)
+                            .map(transactions -> {
+                                Map<String, List<Transaction>> byTicker = transactions.stream()
+                                        .collect(Collectors.groupingBy(Transaction::getTicker));
+                                changed.forEach(ticker -> ledgers.put(ticker,
+                                        store(ticker, markers.get(ticker), byTicker.getOrDefault(ticker, List.of()))));
+                                return ledgers.values().stream().flatMap(Collection::stream).toList();
+                            });
+                })
+                .onFailure().transform(throwable -> throwable instanceof ServiceException
+                        ? throwable
+                        : new ServiceException(Errors.DividendErrors.PERSISTENCE_ERROR, throwable));
+    }
+
+    private List<DividendLedger> cached(String ticker, ChangeMarker marker) {
+        CompletableFuture<CachedLedgers> cached = cache.getIfPresent(portfolioContext.scoped(ticker));
+        CachedLedgers hit = cached != null ? cached.getNow(null) : null;
+        return hit != null && hit.marker().equals(marker) ? hit.ledgers() : null;
+    }
+
+    private List<DividendLedger> store(String ticker, ChangeMarker marker, List<Transaction> transactions) {
+        List<DividendLedger> ledgers = DividendLedger.of(ticker, transactions);
+        cache.put(portfolioContext.scoped(ticker), CompletableFuture.completedFuture(new CachedLedgers(marker, ledgers)));
+        return ledgers;
+    }
+
+    private record CachedLedgers(ChangeMarker marker, List<DividendLedger> ledgers) {
+    }
+}
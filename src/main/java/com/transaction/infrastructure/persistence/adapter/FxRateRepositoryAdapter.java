@@ -0,0 +1,140 @@
+package com.transaction.infrastructure.persistence.adapter;
+
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.exception.ServiceException;
+import com.transaction.domain.model.FxRate;
+import com.transaction.domain.model.FxRateTable;
+import com.transaction.domain.port.output.FxRateRepository;
+import com.transaction.infrastructure.persistence.entity.FxRateEntity;
+import com.transaction.infrastructure.persistence.repository.FxRatePanacheRepository;
+import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Adapter for FxRateRepository port implementation.
+ * The {@code fx_rates} table is loaded once into an {@link FxRateTable} that lookups read without touching the
+ * database. Saved rates are applied to the table in place, and the table is reloaded periodically to pick up rates
+ * saved by other instances.
+ * <p>
+ * A reload reads a snapshot that may miss rates saved while it runs, so every local save is numbered and kept until a
+ * reload that started after it has been installed; installing a reload re-applies the saves it may have missed, and a
+ * reload that started before the installed one is discarded.
+ */
+@ApplicationScoped
+public class FxRateRepositoryAdapter implements FxRateRepository {
+
+    private final FxRatePanacheRepository panacheRepository;
+    private final int maxCarryDays;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong saves = new AtomicLong();
+    private final Queue<Save> recentSaves = new ConcurrentLinkedQueue<>();
+
+    public FxRateRepositoryAdapter(FxRatePanacheRepository panacheRepository,
+                                   @ConfigProperty(name = "application.fx.max-carry-days") int maxCarryDays) {
+        this.panacheRepository = panacheRepository;
+        this.maxCarryDays = maxCarryDays;
+    }
+
+    @Override
+    public Uni<FxRate> save(FxRate fxRate) {
+        return Uni.createFrom().item(() -> toEntity(fxRate))
+                .flatMap(panacheRepository::upsert)
+                .map(FxRateRepositoryAdapter::toFxRate)
+                .invoke(this::apply)
+                .onFailure().transform(throwable -> new ServiceException(Errors.MarketDataErrors.PERSISTENCE_ERROR, throwable));
+    }
+
+    @Override
+    public Uni<FxRateTable> table() {
+        Snapshot loaded = snapshot.get();
+        if (loaded != null) {
+            return Uni.createFrom().item(loaded.table());
+        }
+        return load()
+                .onFailure().transform(throwable -> new ServiceException(Errors.MarketDataErrors.PERSISTENCE_ERROR, throwable));
+    }
+
+    @Scheduled(every = "${application.fx.refresh-interval}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    Uni<Void> refreshRates() {
+        return load()
+                .invoke(loaded -> Log.debug("Reloaded exchange rates"))
+                .onFailure().invoke(throwable -> Log.error("Failed to reload exchange rates", throwable))
+                .onFailure().recoverWithNull()
+                .replaceWithVoid();
+    }
+
+    /**
+     * Numbers a committed save and applies it to the installed table, if any
+     */
+    private void apply(FxRate saved) {
+        recentSaves.add(new Save(saves.incrementAndGet(), saved));
+        snapshot.updateAndGet(current -> current != null
+                ? new Snapshot(current.table().with(saved), current.startedAfter())
+                : null);
+    }
+
+    private Uni<FxRateTable> load() {
+        return Uni.createFrom().deferred(() -> {
+            long startedAfter = saves.get();
+            return panacheRepository.findAllRates()
+                    .map(entities -> install(toTable(entities), startedAfter));
+        });
+    }
+
+    /**
+     * Installs a reloaded table merged with the saves numbered after the reload started, unless a reload that
+     * started later is already installed. Saves the installed reload has certainly read are then forgotten.
+     */
+    private FxRateTable install(FxRateTable reloaded, long startedAfter) {
+        Snapshot installed = snapshot.updateAndGet(current -> {
+            if (current != null && current.startedAfter() > startedAfter) {
+                return current;
+            }
+            FxRateTable merged = reloaded;
+            for (Save save : recentSaves) {
+                if (save.number() > startedAfter) {
+                    merged = merged.with(save.rate());
+                }
+            }
+            return new Snapshot(merged, startedAfter);
+        });
+        recentSaves.removeIf(save -> save.number() <= installed.startedAfter());
+        return installed.table();
+    }
+
+    private FxRateTable toTable(List<FxRateEntity> entities) {
+        return FxRateTable.of(entities.stream().map(FxRateRepositoryAdapter::toFxRate).toList(), maxCarryDays);
+    }
+
+    private static FxRateEntity toEntity(FxRate fxRate) {
+        FxRateEntity entity = new FxRateEntity();
+        entity.setBaseCurrency(fxRate.base());
+        entity.setQuoteCurrency(fxRate.quote());
+        entity.setRateDate(fxRate.date());
+        entity.setRate(fxRate.rate());
+        return entity;
+    }
+
+    private static FxRate toFxRate(FxRateEntity entity) {
+        return new FxRate(entity.getBaseCurrency(), entity.getQuoteCurrency(), entity.getRateDate(), entity.getRate());
+    }
+
+    /**
+     * The installed table and the number of the last save committed before the reload it came from started
+     */
+    private record Snapshot(FxRateTable table, long startedAfter) {
+    }
+
+    private record Save(long number, FxRate rate) {
+    }
+}
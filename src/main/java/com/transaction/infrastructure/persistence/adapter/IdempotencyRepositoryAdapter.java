@@ -0,0 +1,145 @@
+package com.transaction.infrastructure.persistence.adapter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.exception.ServiceException;
+import com.transaction.domain.model.IdempotencyRecord;
+import com.transaction.domain.model.Transaction;
+import com.transaction.domain.port.output.IdempotencyRepository;
+import com.transaction.domain.port.output.PortfolioContext;
+import com.transaction.infrastructure.persistence.entity.IdempotencyKeyEntity;
+import com.transaction.infrastructure.persistence.entity.StoredTransactionPayload;
+import com.transaction.infrastructure.persistence.mapper.IdempotencyRecordMapper;
+import com.transaction.infrastructure.persistence.repository.TransactionShards;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Adapter for IdempotencyRepository port implementation.
+ * Keys are kept in a TTL'd table and fronted by the bounded {@code idempotency-keys} cache,
+ * so a retry storm is answered from memory after the first lookup.
+ * Keys are stored prefixed with the current portfolio, so two portfolios may use the same key independently,
+ * on the shard holding the portfolio, so a key is completed in the same database transaction as the new row.
+ */
+@ApplicationScoped
+public class IdempotencyRepositoryAdapter implements IdempotencyRepository {
+
+    private final TransactionShards shards;
+    private final IdempotencyRecordMapper idempotencyRecordMapper;
+    private final ObjectMapper objectMapper;
+    private final CaffeineCache cache;
+    private final PortfolioContext portfolioContext;
+
+    public IdempotencyRepositoryAdapter(TransactionShards shards,
+                                        IdempotencyRecordMapper idempotencyRecordMapper,
+                                        ObjectMapper objectMapper,
+                                        @CacheName("idempotency-keys") Cache cache,
+                                        PortfolioContext portfolioContext) {
+        this.shards = shards;
+        this.idempotencyRecordMapper = idempotencyRecordMapper;
+        this.objectMapper = objectMapper;
+        this.cache = cache.as(CaffeineCache.class);
+        this.portfolioContext = portfolioContext;
+    }
+
+    @Override
+    public Uni<IdempotencyRecord> find(String key) {
+        Instant now = Instant.now();
+        String scopedKey = portfolioContext.scoped(key);
+        CompletableFuture<IdempotencyRecord> cached = cache.getIfPresent(scopedKey);
+        if (cached != null) {
+            return Uni.createFrom().completionStage(cached)
+                    .map(stored -> stored.isExpired(now) ? null : stored);
+        }
+
+        return shards.currentShard()
+                .flatMap(shard -> shard.idempotencyKeys().findActive(scopedKey, now.atOffset(ZoneOffset.UTC)))
+                .map(entity -> toRecord(key, entity))
+                .onItem().ifNotNull().invoke(stored -> cache.put(scopedKey, CompletableFuture.completedFuture(stored)))
+                .onFailure().transform(throwable -> new ServiceException(Errors.CreateTransactionsErrors.PERSISTENCE_ERROR, throwable));
+    }
+
+    @Override
+    public Uni<Boolean> claim(String key, String requestFingerprint, Instant expiresAt) {
+        return shards.shardForWrite()
+                .flatMap(shard -> shard.idempotencyKeys().claim(portfolioContext.scoped(key), requestFingerprint,
+                        OffsetDateTime.now(ZoneOffset.UTC), expiresAt.atOffset(ZoneOffset.UTC)))
+                .onFailure().transform(throwable -> new ServiceException(Errors.CreateTransactionsErrors.PERSISTENCE_ERROR, throwable));
+    }
+
+    /**
+     * Only the table is written here: the surrounding database transaction may still roll back,
+     * so the cache is populated from committed rows on lookup.
+     */
+    @Override
+    public Uni<Void> save(IdempotencyRecord idempotencyRecord) {
+        return Uni.createFrom().item(() -> toPayload(idempotencyRecord))
+                .flatMap(payload -> shards.shardForWrite().flatMap(shard -> shard.idempotencyKeys().complete(
+                        portfolioContext.scoped(idempotencyRecord.key()), idempotencyRecord.transaction().getId(), payload)))
+                .invoke(updated -> {
+                    if (updated == 0) {
+                        throw new IllegalStateException("Idempotency key %s was not claimed".formatted(idempotencyRecord.key()));
+                    }
+                })
+                .replaceWithVoid()
+                .onFailure().transform(throwable -> new ServiceException(Errors.CreateTransactionsErrors.PERSISTENCE_ERROR, throwable));
+    }
+
+    @Scheduled(every = "${application.idempotency.purge-interval}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    Uni<Void> purgeExpiredKeys() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        return shards.scatter(shard -> shard.idempotencyKeys().deleteExpired(now))
+                .map(perShard -> perShard.stream().mapToLong(Long::longValue).sum())
+                .invoke(deleted -> {
+                    if (deleted > 0) {
+                        Log.info("Purged %d expired idempotency keys".formatted(deleted));
+                    }
+                })
+                .onFailure().invoke(throwable -> Log.error("Failed to purge expired idempotency keys", throwable))
+                .onFailure().recoverWithNull()
+                .replaceWithVoid();
+    }
+
+    private String toPayload(IdempotencyRecord idempotencyRecord) {
+        try {
+            return objectMapper.writeValueAsString(idempotencyRecordMapper.toPayload(idempotencyRecord.transaction()));
+        } catch (JsonProcessingException e) {
+            throw new ServiceException(Errors.CreateTransactionsErrors.PERSISTENCE_ERROR,
+                    new RuntimeException("Failed to serialize idempotent response", e));
+        }
+    }
+
+    private IdempotencyRecord toRecord(String key, IdempotencyKeyEntity entity) {
+        if (entity == null) {
+            return null;
+        }
+        try {
+            StoredTransactionPayload payload = objectMapper.readValue(entity.getResponsePayload(), StoredTransactionPayload.class);
+            Transaction transaction = idempotencyRecordMapper.toTransaction(payload);
+            if (transaction.getPortfolioId() == null) {
+                // Payloads stored before the portfolio was recorded; the key is scoped to the current portfolio
+                transaction.setPortfolioId(portfolioContext.current());
+            }
+            return new IdempotencyRecord(
+                    key,
+                    entity.getRequestFingerprint(),
+                    transaction,
+                    entity.getExpiresAt().toInstant());
+        } catch (JsonProcessingException e) {
+            throw new ServiceException(Errors.CreateTransactionsErrors.PERSISTENCE_ERROR,
+                    new RuntimeException("Failed to deserialize idempotent response", e));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.transaction.infrastructure.persistence.adapter;
+
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.exception.ServiceException;
+import com.transaction.domain.model.MarketPrice;
+import com.transaction.domain.port.output.MarketPriceRepository;
+import com.transaction.infrastructure.persistence.entity.MarketPriceEntity;
+import com.transaction.infrastructure.persistence.repository.MarketPricePanacheRepository;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adapter for MarketPriceRepository port implementation.
+ * Prices are persisted in {@code market_prices} and written through to the {@code stock-prices} cache.
+ * The prices held in the cache are reloaded on every refresh, well inside the cache expiry, so valuations
+ * read prices from memory and never wait on the database. Only the cached tickers are reloaded: loading the
+ * whole table into a cache smaller than it would evict the prices being read to make room for ones nobody asked for.
+ */
+@ApplicationScoped
+public class MarketPriceRepositoryAdapter implements MarketPriceRepository {
+
+    private final MarketPricePanacheRepository panacheRepository;
+    private final CaffeineCache cache;
+    private final Set<String> loading = ConcurrentHashMap.newKeySet();
+
+    public MarketPriceRepositoryAdapter(MarketPricePanacheRepository panacheRepository,
+                                        @CacheName("stock-prices") Cache cache) {
+        this.panacheRepository = panacheRepository;
+        this.cache = cache.as(CaffeineCache.class);
+    }
+
+    @Override
+    public Uni<MarketPrice> save(MarketPrice marketPrice) {
+        return Uni.createFrom().item(() -> toEntity(marketPrice))
+                .flatMap(panacheRepository::upsert)
+                .map(MarketPriceRepositoryAdapter::toMarketPrice)
+                .invoke(this::cache)
+                .onFailure().transform(throwable -> new ServiceException(Errors.MarketDataErrors.PERSISTENCE_ERROR, throwable));
+    }
+
+    @Override
+    public Uni<MarketPrice> find(String ticker) {
+        CompletableFuture<MarketPrice> cached = cache.getIfPresent(ticker);
+        if (cached != null) {
+            return Uni.createFrom().completionStage(cached);
+        }
+
+        return panacheRepository.findByTicker(ticker)
+                .map(MarketPriceRepositoryAdapter::toMarketPrice)
+                .onItem().ifNotNull().invoke(this::cache)
+                .onFailure().transform(throwable -> new ServiceException(Errors.MarketDataErrors.PERSISTENCE_ERROR, throwable));
+    }
+
+    @Override
+    public Uni<Map<String, MarketPrice>> findCached(Collection<String> tickers) {
+        Map<String, MarketPrice> prices = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String ticker : tickers) {
+            CompletableFuture<MarketPrice> cached = cache.getIfPresent(ticker);
+            MarketPrice price = cached != null ? cached.getNow(null) : null;
+            if (price != null) {
+                prices.put(ticker, price);
+            } else if (cached == null && loading.add(ticker)) {
+                misses.add(ticker);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            load(misses);
+        }
+        return Uni.createFrom().item(prices);
+    }
+
+    /**
+     * Refresh-ahead: reloads the cached prices so that entries are replaced before they expire
+     */
+    @Scheduled(every = "${application.market-data.refresh-interval}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    Uni<Void> refreshPrices() {
+        List<String> tickers = cache.keySet().stream().map(String.class::cast).toList();
+        if (tickers.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        return panacheRepository.findByTickers(tickers)
+                .invoke(entities -> entities.forEach(entity -> cache(toMarketPrice(entity))))
+                .invoke(entities -> Log.debugf("Refreshed %d market prices", entities.size()))
+                .onFailure().invoke(throwable -> Log.error("Failed to refresh market prices", throwable))
+                .onFailure().recoverWithNull()
+                .replaceWithVoid();
+    }
+
+    private void load(List<String> tickers) {
+        panacheRepository.findByTickers(tickers)
+                .eventually(() -> tickers.forEach(loading::remove))
+                .subscribe().with(
+                        entities -> entities.forEach(entity -> cache(toMarketPrice(entity))),
+                        throwable -> Log.error("Failed to load market prices of %s".formatted(tickers), throwable));
+    }
+
+    private void cache(MarketPrice marketPrice) {
+        cache.put(marketPrice.ticker(), CompletableFuture.completedFuture(marketPrice));
+    }
+
+    private static MarketPriceEntity toEntity(MarketPrice marketPrice) {
+        MarketPriceEntity entity = new MarketPriceEntity();
+        entity.setTicker(marketPrice.ticker());
+        entity.setPrice(marketPrice.price());
+        entity.setCurrency(marketPrice.currency());
+        entity.setUpdatedAt(marketPrice.updatedAt().atOffset(ZoneOffset.UTC));
+        return entity;
+    }
+
+    private static MarketPrice toMarketPrice(MarketPriceEntity entity) {
+        if (entity == null) {
+            return null;
+        }
+        return new MarketPrice(entity.getTicker(), entity.getPrice(), entity.getCurrency(), entity.getUpdatedAt().toInstant());
+    }
+}
@@ -0,0 +1,102 @@
+package com.transaction.infrastructure.persistence.adapter;
+
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.exception.ServiceException;
+import com.transaction.domain.model.PositionCheckpoint;
+import com.transaction.domain.model.PositionSnapshot;
+import com.transaction.domain.port.output.PortfolioContext;
+import com.transaction.domain.port.output.PositionCheckpointRepository;
+import com.transaction.infrastructure.persistence.entity.PositionCheckpointEntity;
+import com.transaction.infrastructure.persistence.entity.PositionCheckpointEntryEntity;
+import com.transaction.infrastructure.persistence.repository.PositionCheckpointStore;
+import com.transaction.infrastructure.persistence.repository.TransactionShards;
+import io.quarkus.logging.Log;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Adapter for PositionCheckpointRepository port implementation.
+ * A checkpoint is a row in {@code position_checkpoints} with one row per open position in
+ * {@code position_checkpoint_entries}, both keyed by portfolio first and kept on the shard holding the portfolio, so
+ * the writes that drop them do so in their own database transaction.
+ */
+@ApplicationScoped
+public class PositionCheckpointRepositoryAdapter implements PositionCheckpointRepository {
+
+    private final TransactionShards shards;
+    private final PortfolioContext portfolioContext;
+
+    public PositionCheckpointRepositoryAdapter(TransactionShards shards,
+                                               PortfolioContext portfolioContext) {
+        this.shards = shards;
+        this.portfolioContext = portfolioContext;
+    }
+
+    @Override
+    public Uni<PositionCheckpoint> findLatestOnOrBefore(LocalDate date) {
+        return checkpoints().flatMap(store -> store.findLatestOnOrBefore(date)
+                        .flatMap(checkpoint -> checkpoint == null
+                                ? Uni.createFrom().<PositionCheckpoint>nullItem()
+                                : store.findEntries(checkpoint.getAsOf())
+                                        .map(entries -> new PositionCheckpoint(checkpoint.getAsOf(), checkpoint.getChangeMarker(),
+                                                entries.stream().map(PositionCheckpointRepositoryAdapter::toSnapshot).toList()))))
+                .onFailure().transform(throwable -> new ServiceException(Errors.PortfolioSnapshotErrors.PERSISTENCE_ERROR, throwable));
+    }
+
+    @Override
+    public Uni<Void> save(PositionCheckpoint checkpoint) {
+        String portfolioId = portfolioContext.current();
+        return Uni.createFrom().item(() -> toEntity(portfolioId, checkpoint))
+                .flatMap(entity -> checkpoints().flatMap(store -> store.replace(entity, toEntries(portfolioId, checkpoint))))
+                .invoke(saved -> {
+                    if (!saved) {
+                        Log.debugf("Skipped position checkpoint as of %s, the portfolio changed while it was replayed", checkpoint.asOf());
+                    }
+                })
+                .replaceWithVoid()
+                .onFailure().transform(throwable -> new ServiceException(Errors.PortfolioSnapshotErrors.PERSISTENCE_ERROR, throwable));
+    }
+
+    @Override
+    public Uni<Void> deleteFrom(LocalDate date) {
+        return checkpoints().flatMap(store -> store.deleteFrom(date))
+                .onFailure().transform(throwable -> new ServiceException(Errors.PortfolioSnapshotErrors.PERSISTENCE_ERROR, throwable));
+    }
+
+    private Uni<PositionCheckpointStore> checkpoints() {
+        return shards.currentShard().map(TransactionShards.Shard::checkpoints);
+    }
+
+    private static PositionCheckpointEntity toEntity(String portfolioId, PositionCheckpoint checkpoint) {
+        PositionCheckpointEntity entity = new PositionCheckpointEntity();
+        entity.setPortfolioId(portfolioId);
+        entity.setAsOf(checkpoint.asOf());
+        entity.setChangeMarker(checkpoint.changeMarker());
+        entity.setCreatedAt(OffsetDateTime.now(ZoneOffset.UTC));
+        return entity;
+    }
+
+    private static List<PositionCheckpointEntryEntity> toEntries(String portfolioId, PositionCheckpoint checkpoint) {
+        return checkpoint.positions().stream()
+                .map(position -> {
+                    PositionCheckpointEntryEntity entry = new PositionCheckpointEntryEntity();
+                    entry.setPortfolioId(portfolioId);
+                    entry.setAsOf(checkpoint.asOf());
+                    entry.setTicker(position.ticker());
+                    entry.setCurrency(position.currency());
+                    entry.setShares(position.shares());
+                    entry.setCostBasis(position.costBasis());
+                    return entry;
+                })
+                .toList();
+    }
+
+    private static PositionSnapshot toSnapshot(PositionCheckpointEntryEntity entry) {
+        return new PositionSnapshot(entry.getTicker(), entry.getCurrency(), entry.getShares(), entry.getCostBasis());
+    }
+}
@@ -0,0 +1,60 @@
+package com.transaction.infrastructure.persistence.adapter;
+
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.exception.ServiceException;
+import com.transaction.domain.model.ChangeMarker;
+import com.transaction.domain.model.SplitFactors;
+import com.transaction.domain.model.TransactionType;
+import com.transaction.domain.port.output.PortfolioContext;
+import com.transaction.domain.port.output.SplitFactorRepository;
+import com.transaction.domain.port.output.TransactionRepository;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Adapter for SplitFactorRepository port implementation.
+ * Factors are kept per portfolio and ticker in the {@code split-factors} cache together with the ticker's change
+ * marker, and are rebuilt from the ticker's splits only when the marker has changed.
+ */
+@ApplicationScoped
+public class SplitFactorRepositoryAdapter implements SplitFactorRepository {
+
+    private final TransactionRepository transactionRepository;
+    private final CaffeineCache cache;
+    private final PortfolioContext portfolioContext;
+
+    public SplitFactorRepositoryAdapter(TransactionRepository transactionRepository,
+                                        @CacheName("split-factors") Cache cache,
+                                        PortfolioContext portfolioContext) {
+        this.transactionRepository = transactionRepository;
+        this.cache = cache.as(CaffeineCache.class);
+        this.portfolioContext = portfolioContext;
+    }
+
+    @Override
+    public Uni<SplitFactors> findByTicker(String ticker) {
+        return transactionRepository.findChangeMarkerByTicker(ticker)
+                .flatMap(marker -> {
+                    String key = portfolioContext.scoped(ticker);
+                    CompletableFuture<CachedFactors> cached = cache.getIfPresent(key);
+                    CachedFactors hit = cached != null ? cached.getNow(null) : null;
+                    if (hit != null && hit.marker().equals(marker)) {
+                        return Uni.createFrom().item(hit.factors());
+                    }
+                    return transactionRepository.searchTransactions(ticker, TransactionType.SPLIT, null, null)
+                            .map(SplitFactors::of)
+                            .invoke(factors -> cache.put(key, CompletableFuture.completedFuture(new CachedFactors(marker, factors))));
+                })
+                .onFailure().transform(throwable -> throwable instanceof ServiceException
+                        ? throwable
+                        : new ServiceException(Errors.GetTransactionsErrors.PERSISTENCE_ERROR, throwable));
+    }
+
+    private record CachedFactors(ChangeMarker marker, SplitFactors factors) {
+    }
+}
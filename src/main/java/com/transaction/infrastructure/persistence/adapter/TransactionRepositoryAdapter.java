@@ -1,52 +1,136 @@
 package com.transaction.infrastructure.persistence.adapter;
 
+import com.transaction.domain.event.TransactionUpdatedEvent;
 import com.transaction.domain.exception.Errors;
 import com.transaction.domain.exception.ServiceException;
+import com.transaction.domain.model.ChangeMarker;
+import com.transaction.domain.model.Currency;
 import com.transaction.domain.model.Transaction;
+import com.transaction.domain.model.TransactionPageCursor;
+import com.transaction.domain.model.TransactionSummary;
 import com.transaction.domain.model.TransactionType;
+import com.transaction.domain.port.output.PortfolioContext;
+import com.transaction.domain.port.output.PositionCheckpointRepository;
 import com.transaction.domain.port.output.TransactionRepository;
+import com.transaction.domain.port.output.UnitOfWork;
 import com.transaction.infrastructure.persistence.mapper.TransactionEntityMapper;
-import com.transaction.infrastructure.persistence.repository.TransactionPanacheRepository;
+import com.transaction.infrastructure.persistence.repository.ReadReplica;
+import com.transaction.infrastructure.persistence.repository.ReplicaTransactionRepository;
+import com.transaction.infrastructure.persistence.repository.TransactionCounts;
+import com.transaction.infrastructure.persistence.repository.TransactionShards;
+import com.transaction.infrastructure.persistence.repository.TransactionStore;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 /**
- * Adapter for TransactionRepository port implementation
+ * Adapter for TransactionRepository port implementation.
+ * Change markers of a transaction are its row version, and those of a ticker or a portfolio are change counters every
+ * write bumps in its own database transaction. They are kept briefly in the {@code transaction-validators} cache,
+ * dropped once a local write commits, so conditional reads from polling clients rarely touch the database.
+ * Listing, search, count and summary reads go to the read replica while it is readable; reads by id or ticker, which
+ * typically follow a write, and all writes stay on the primary.
+ * Counts are answered from {@link TransactionCounts}, which every write here keeps current once it commits.
+ * A write also drops the position checkpoints at or after the earliest date it touches, in its database transaction,
+ * so the checkpoints that remain can be trusted without revalidating them.
+ * Transactions are saved to and read from the current portfolio only, on the shard {@link TransactionShards} holds
+ * it in; cached markers are kept per portfolio. The read replica serves the primary shard only.
  */
 @ApplicationScoped
 public class TransactionRepositoryAdapter implements TransactionRepository {
 
-    private final TransactionPanacheRepository panacheRepository;
+    private static final String ALL_TRANSACTIONS_KEY = "all";
+
+    private final TransactionShards shards;
     private final TransactionEntityMapper transactionEntityMapper;
+    private final Cache validatorCache;
+    private final ReplicaTransactionRepository replicaRepository;
+    private final ReadReplica readReplica;
+    private final TransactionCounts transactionCounts;
+    private final PortfolioContext portfolioContext;
+    private final UnitOfWork unitOfWork;
+    private final PositionCheckpointRepository checkpointRepository;
 
-    public TransactionRepositoryAdapter(TransactionPanacheRepository panacheRepository, TransactionEntityMapper transactionEntityMapper) {
-        this.panacheRepository = panacheRepository;
+    public TransactionRepositoryAdapter(TransactionShards shards,
+                                        TransactionEntityMapper transactionEntityMapper,
+                                        @CacheName("transaction-validators") Cache validatorCache,
+                                        ReplicaTransactionRepository replicaRepository,
+                                        ReadReplica readReplica,
+                                        TransactionCounts transactionCounts,
+                                        PortfolioContext portfolioContext,
+                                        UnitOfWork unitOfWork,
+                                        PositionCheckpointRepository checkpointRepository) {
+        this.shards = shards;
         this.transactionEntityMapper = transactionEntityMapper;
+        this.validatorCache = validatorCache;
+        this.replicaRepository = replicaRepository;
+        this.readReplica = readReplica;
+        this.transactionCounts = transactionCounts;
+        this.portfolioContext = portfolioContext;
+        this.unitOfWork = unitOfWork;
+        this.checkpointRepository = checkpointRepository;
     }
 
     @Override
     public Uni<Transaction> save(Transaction transaction) {
-        return Uni.createFrom().item(() -> transactionEntityMapper.toEntity(transaction))
-                .flatMap(panacheRepository::persistAndFlush)
+        return Uni.createFrom().item(() -> {
+                    transaction.setPortfolioId(portfolioContext.current());
+                    return transactionEntityMapper.toEntity(transaction);
+                })
+                .flatMap(entity -> shards.forWrite().flatMap(store -> store.insert(entity)
+                        .call(inserted -> store.recordChange(List.of(inserted.getTicker())))
+                        .call(inserted -> inserted.getTransactionType() == TransactionType.DIVIDEND
+                                ? store.recordDividends(inserted.getTicker(), 1)
+                                : Uni.createFrom().voidItem())
+                        .call(inserted -> checkpointRepository.deleteFrom(inserted.getTransactionDate()))))
                 .map(transactionEntityMapper::createTransaction)
+                .invoke(() -> readReplica.wrote(portfolioContext.current()))
+                .call(saved -> countAfterCommit(() -> {
+                    if (isCounted(saved)) {
+                        transactionCounts.added(saved.getTicker());
+                    }
+                }))
+                .call(saved -> invalidateValidatorsAfterCommit(saved.getId(), saved.getTicker()))
                 .onFailure().transform(throwable -> new ServiceException(Errors.CreateTransactionsErrors.PERSISTENCE_ERROR, throwable));
     }
 
     @Override
     public Uni<Transaction> findById(UUID id) {
-        return panacheRepository.findById(id)
+        return shards.run(store -> store.findById(id))
                 .map(transactionEntityMapper::toDomain)
                 .onFailure().transform(throwable -> new ServiceException(Errors.GetTransactionsErrors.PERSISTENCE_ERROR, throwable));
     }
 
     @Override
     public Uni<List<Transaction>> findByTicker(String ticker) {
-        return panacheRepository.findByTicker(ticker)
+        return shards.run(store -> store.findByTicker(ticker))
+                .map(entities -> entities.stream()
+                        .map(transactionEntityMapper::toDomain)
+                        .toList())
+                .onFailure().transform(throwable -> new ServiceException(Errors.GetTransactionsErrors.PERSISTENCE_ERROR, throwable));
+    }
+
+    @Override
+    public Uni<List<Transaction>> findByTickers(Collection<String> tickers) {
+        if (tickers.isEmpty()) {
+            return Uni.createFrom().item(List.of());
+        }
+        return shards.run(store -> store.findByTickers(tickers))
                 .map(entities -> entities.stream()
                         .map(transactionEntityMapper::toDomain)
                         .toList())
@@ -55,7 +139,7 @@ public class TransactionRepositoryAdapter implements TransactionRepository {
 
     @Override
     public Uni<List<Transaction>> findAll() {
-        return panacheRepository.findAllOrderedByDate()
+        return shards.read(replicaRepository::findAllOrderedByDate, TransactionStore::findAllOrderedByDate)
                 .map(entities -> entities.stream()
                         .map(transactionEntityMapper::toDomain)
                         .toList())
@@ -67,7 +151,9 @@ public class TransactionRepositoryAdapter implements TransactionRepository {
                                                      TransactionType type,
                                                      LocalDate fromDate,
                                                      LocalDate toDate) {
-        return panacheRepository.searchTransactions(ticker, type, fromDate, toDate)
+        return shards.read(
+                        () -> replicaRepository.searchTransactions(ticker, type, fromDate, toDate),
+                        store -> store.searchTransactions(ticker, type, fromDate, toDate))
                 .map(entities -> entities.stream()
                         .map(transactionEntityMapper::toDomain)
                         .toList())
@@ -75,37 +161,257 @@ public class TransactionRepositoryAdapter implements TransactionRepository {
     }
 
     @Override
-    public Uni<Transaction> update(Transaction transaction) {
+    public Uni<List<Transaction>> searchTransactions(String ticker,
+                                                     TransactionType type,
+                                                     LocalDate fromDate,
+                                                     LocalDate toDate,
+                                                     TransactionPageCursor after,
+                                                     int limit) {
+        LocalDate afterDate = after != null ? after.transactionDate() : null;
+        UUID afterId = after != null ? after.id() : null;
+        return shards.read(
+                        () -> replicaRepository.searchTransactionsPage(ticker, type, fromDate, toDate, afterDate, afterId, limit),
+                        store -> store.searchTransactionsPage(ticker, type, fromDate, toDate, afterDate, afterId, limit))
+                .map(entities -> entities.stream()
+                        .map(transactionEntityMapper::toDomain)
+                        .toList())
+                .onFailure().transform(throwable -> new ServiceException(Errors.GetTransactionsErrors.PERSISTENCE_ERROR, throwable));
+    }
+
+    @Override
+    public Uni<List<TransactionSummary>> summarizeTransactions(String ticker,
+                                                              TransactionType type,
+                                                              LocalDate fromDate,
+                                                              LocalDate toDate) {
+        return shards.read(
+                        () -> replicaRepository.summarizeTransactions(ticker, type, fromDate, toDate),
+                        store -> store.summarizeTransactions(ticker, type, fromDate, toDate))
+                .map(rows -> rows.stream()
+                        .map(row -> new TransactionSummary(
+                                (String) row[0],
+                                (TransactionType) row[1],
+                                (Currency) row[2],
+                                ((Number) row[3]).longValue(),
+                                (BigDecimal) row[4],
+                                (BigDecimal) row[5],
+                                (BigDecimal) row[6],
+                                (LocalDate) row[7],
+                                (LocalDate) row[8]))
+                        .toList())
+                .onFailure().transform(throwable -> new ServiceException(Errors.GetTransactionsErrors.PERSISTENCE_ERROR, throwable));
+    }
+
+    @Override
+    public Uni<Transaction> update(Transaction transaction, Long expectedVersion) {
         return Uni.createFrom().item(() -> transactionEntityMapper.toEntity(transaction))
-                .flatMap(transactionEntity ->
-                        panacheRepository.getSession().flatMap(session -> session.merge(transactionEntity)))
-                .flatMap(panacheRepository::persistAndFlush)
-                .map(transactionEntityMapper::toDomain)
+                .flatMap(transactionEntity -> shards.run(store -> store.updateIfVersionMatches(transactionEntity, expectedVersion)
+                        .call(updatedRows -> updatedRows > 0
+                                ? store.recordChange(Arrays.asList(previousTicker(transaction), transaction.getTicker()))
+                                        .chain(() -> recordDividendMove(store, previous(transaction), transaction))
+                                        .chain(() -> checkpointRepository.deleteFrom(earliestDate(previous(transaction), transaction)))
+                                : Uni.createFrom().voidItem())))
+                .map(updatedRows -> updatedRows > 0 ? transaction : null)
+                .invoke(() -> readReplica.wrote(portfolioContext.current()))
+                .call(updated -> countAfterCommit(() -> {
+                    if (updated != null) {
+                        recordCountMove(previous(updated), updated);
+                    }
+                }))
+                .call(() -> invalidateValidatorsAfterCommit(transaction.getId(), previousTicker(transaction), transaction.getTicker()))
                 .onFailure().transform(throwable -> new ServiceException(Errors.UpdateTransactionsErrors.PERSISTENCE_ERROR, throwable));
     }
 
     @Override
     public Uni<Boolean> deleteById(UUID id) {
-        return panacheRepository.deleteById(id)
+        return shards.run(store -> store.findWriteScopeById(id)
+                        .flatMap(row -> {
+                            String ticker = row != null ? (String) row[0] : null;
+                            LocalDate date = row != null ? (LocalDate) row[2] : null;
+                            boolean dividend = row != null && row[1] == TransactionType.DIVIDEND;
+                            boolean counted = row != null && row[1] != TransactionType.SPLIT;
+                            return store.deleteById(id)
+                                    .call(deleted -> deleted ? store.recordChange(List.of(ticker)) : Uni.createFrom().voidItem())
+                                    .call(deleted -> deleted && dividend ? store.recordDividends(ticker, -1) : Uni.createFrom().voidItem())
+                                    .call(deleted -> deleted ? checkpointRepository.deleteFrom(date) : Uni.createFrom().voidItem())
+                                    .call(deleted -> countAfterCommit(() -> {
+                                        if (deleted && counted) {
+                                            transactionCounts.removed(ticker);
+                                        }
+                                    }))
+                                    .call(() -> invalidateValidatorsAfterCommit(id, ticker));
+                        }))
+                .invoke(() -> readReplica.wrote(portfolioContext.current()))
                 .onFailure().transform(throwable -> new ServiceException(Errors.DeleteTransactionsErrors.PERSISTENCE_ERROR, throwable));
     }
 
     @Override
     public Uni<Boolean> existsById(UUID id) {
-        return panacheRepository.findByIdActive(id)
+        return shards.run(store -> store.findByIdActive(id))
                 .map(Objects::nonNull)
                 .onFailure().transform(throwable -> new ServiceException(Errors.GetTransactionsErrors.PERSISTENCE_ERROR, throwable));
     }
 
     @Override
     public Uni<Long> countAll() {
-        return panacheRepository.count()
+        return transactionCounts.total()
                 .onFailure().transform(throwable -> new ServiceException(Errors.GetTransactionsErrors.PERSISTENCE_ERROR, throwable));
     }
 
     @Override
     public Uni<Long> countByTicker(String ticker) {
-        return panacheRepository.countByTicker(ticker)
+        return transactionCounts.byTicker(ticker)
+                .onFailure().transform(throwable -> new ServiceException(Errors.GetTransactionsErrors.PERSISTENCE_ERROR, throwable));
+    }
+
+    @Override
+    public Uni<List<String>> findPortfolioIds() {
+        return shards.findPortfolioIds()
+                .onFailure().transform(throwable -> new ServiceException(Errors.GetTransactionsErrors.PERSISTENCE_ERROR, throwable));
+    }
+
+    @Override
+    public Uni<ChangeMarker> findChangeMarkerById(UUID id) {
+        return validatorCache.getAsync(portfolioContext.scoped("id:" + id), ignored -> shards.run(store -> store.findVersionAndUpdatedAt(id))
+                        .map(row -> row == null ? null : ChangeMarker.ofTransaction(
+                                ((Number) row[0]).longValue(), toInstant(row[1]))))
                 .onFailure().transform(throwable -> new ServiceException(Errors.GetTransactionsErrors.PERSISTENCE_ERROR, throwable));
     }
-} 
\ No newline at end of file
+
+    @Override
+    public Uni<ChangeMarker> findChangeMarkerByTicker(String ticker) {
+        return validatorCache.getAsync(portfolioContext.scoped("ticker:" + ticker), ignored -> shards.run(store -> store.findChangeCounter(ticker))
+                        .map(TransactionRepositoryAdapter::toCounterMarker))
+                .onFailure().transform(throwable -> new ServiceException(Errors.GetTransactionsErrors.PERSISTENCE_ERROR, throwable));
+    }
+
+    /**
+     * The tickers come from the dividend counts the writes keep, so no transaction is read
+     */
+    @Override
+    public Uni<Map<String, ChangeMarker>> findDividendTickerMarkers() {
+        return shards.run(TransactionStore::findDividendTickers)
+                .map(rows -> {
+                    Map<String, ChangeMarker> markers = new LinkedHashMap<>();
+                    for (Object[] row : rows) {
+                        markers.put((String) row[0], toCounterMarker(new Object[]{row[1], row[2]}));
+                    }
+                    return markers;
+                })
+                .onFailure().transform(throwable -> new ServiceException(Errors.GetTransactionsErrors.PERSISTENCE_ERROR, throwable));
+    }
+
+    @Override
+    public Uni<ChangeMarker> findChangeMarker() {
+        return validatorCache.getAsync(portfolioContext.scoped(ALL_TRANSACTIONS_KEY), ignored -> shards.run(store -> store.findChangeCounter(null))
+                        .map(TransactionRepositoryAdapter::toCounterMarker))
+                .onFailure().transform(throwable -> new ServiceException(Errors.GetTransactionsErrors.PERSISTENCE_ERROR, throwable));
+    }
+
+    /**
+     * A write that rolls back must not be counted, so counts move only once it has committed
+     */
+    private Uni<Void> countAfterCommit(Runnable adjustment) {
+        return unitOfWork.afterCommit(() -> {
+            adjustment.run();
+            return Uni.createFrom().voidItem();
+        });
+    }
+
+    /**
+     * A read racing the write may cache the marker from before its commit, so the markers are only dropped once the write
+     * is visible. Only those of the written portfolio that the write can change go: the transaction's own, its tickers'
+     * and the portfolio-wide one.
+     */
+    private Uni<Void> invalidateValidatorsAfterCommit(UUID id, String... tickers) {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(portfolioContext.scoped(ALL_TRANSACTIONS_KEY));
+        keys.add(portfolioContext.scoped("id:" + id));
+        for (String ticker : tickers) {
+            if (ticker != null) {
+                keys.add(portfolioContext.scoped("ticker:" + ticker));
+            }
+        }
+        return unitOfWork.afterCommit(() -> Uni.join().all(keys.stream().map(validatorCache::invalidate).toList())
+                .andFailFast()
+                .replaceWithVoid());
+    }
+
+    /**
+     * Splits are not counted, so an update that turns a transaction into a split or back adds or removes it
+     */
+    private void recordCountMove(Transaction previous, Transaction updated) {
+        boolean wasCounted = isCounted(previous);
+        boolean isCounted = isCounted(updated);
+        if (wasCounted && isCounted) {
+            transactionCounts.moved(previous.getTicker(), updated.getTicker());
+        } else if (wasCounted) {
+            transactionCounts.removed(previous.getTicker());
+        } else if (isCounted) {
+            transactionCounts.added(updated.getTicker());
+        }
+    }
+
+    /**
+     * An update moves positions from the earlier of its old and new dates on
+     */
+    private static LocalDate earliestDate(Transaction previous, Transaction updated) {
+        if (previous.getTransactionDate() == null) {
+            return updated.getTransactionDate();
+        }
+        if (updated.getTransactionDate() == null) {
+            return previous.getTransactionDate();
+        }
+        return previous.getTransactionDate().isBefore(updated.getTransactionDate())
+                ? previous.getTransactionDate()
+                : updated.getTransactionDate();
+    }
+
+    private static boolean isCounted(Transaction transaction) {
+        return transaction.getTransactionType() != TransactionType.SPLIT;
+    }
+
+    /**
+     * Moves the dividend count of an updated transaction when its ticker or its type changed
+     */
+    private static Uni<Void> recordDividendMove(TransactionStore store, Transaction previous, Transaction updated) {
+        boolean wasDividend = previous.getTransactionType() == TransactionType.DIVIDEND;
+        boolean isDividend = updated.getTransactionType() == TransactionType.DIVIDEND;
+        if (wasDividend == isDividend && (!isDividend || Objects.equals(previous.getTicker(), updated.getTicker()))) {
+            return Uni.createFrom().voidItem();
+        }
+        Uni<Void> removed = wasDividend ? store.recordDividends(previous.getTicker(), -1) : Uni.createFrom().voidItem();
+        return removed.chain(() -> isDividend ? store.recordDividends(updated.getTicker(), 1) : Uni.createFrom().voidItem());
+    }
+
+    /**
+     * Ticker before the update, taken from the update event the domain recorded
+     */
+    private static String previousTicker(Transaction transaction) {
+        return previous(transaction).getTicker();
+    }
+
+    /**
+     * The transaction before the update, taken from the update event the domain recorded
+     */
+    private static Transaction previous(Transaction transaction) {
+        return transaction.getDomainEvents().stream()
+                .filter(TransactionUpdatedEvent.class::isInstance)
+                .map(event -> ((TransactionUpdatedEvent) event).getData().previousTransaction())
+                .findFirst()
+                .orElse(transaction);
+    }
+
+    private static ChangeMarker toCounterMarker(Object[] row) {
+        return row == null
+                ? ChangeMarker.ofChanges(0L, null)
+                : ChangeMarker.ofChanges(((Number) row[0]).longValue(), toInstant(row[1]));
+    }
+
+    private static Instant toInstant(Object updatedAt) {
+        return switch (updatedAt) {
+            case OffsetDateTime offsetDateTime -> offsetDateTime.toInstant();
+            case Instant instant -> instant;
+            case null, default -> null;
+        };
+    }
+}
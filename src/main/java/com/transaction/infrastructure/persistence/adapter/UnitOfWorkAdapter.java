@@ -0,0 +1,122 @@
+package com.transaction.infrastructure.persistence.adapter;
+
+import com.transaction.domain.port.output.UnitOfWork;
+import com.transaction.infrastructure.persistence.repository.ShardTransaction;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.logging.Log;
+import io.smallrye.common.vertx.ContextLocals;
+import io.smallrye.common.vertx.VertxContext;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.reactive.mutiny.Mutiny;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Adapter for UnitOfWork port implementation.
+ * The outermost unit of work opens the Panache transaction and keeps its after-commit actions as a local of the
+ * Vert.x duplicated context, where nested units of work and the adapters they call find them.
+ * A nested unit of work runs behind a savepoint, so when it fails only its own writes are undone and the
+ * enclosing one can carry on.
+ * Writes to the other shards join the unit of work through its {@link ShardTransaction}, which takes the same
+ * savepoints and is committed just before the primary.
+ */
+@ApplicationScoped
+public class UnitOfWorkAdapter implements UnitOfWork {
+
+    static final String AFTER_COMMIT_KEY = "unit-of-work.after-commit";
+
+    private final AtomicLong savepoints = new AtomicLong();
+
+    @Override
+    public <T> Uni<T> transactional(Supplier<Uni<T>> work) {
+        return Uni.createFrom().deferred(() -> {
+            List<Supplier<Uni<Void>>> enclosing = openActions();
+            if (enclosing != null) {
+                return nested(enclosing, work);
+            }
+
+            List<Supplier<Uni<Void>>> actions = new ArrayList<>();
+            ContextLocals.put(AFTER_COMMIT_KEY, actions);
+            ShardTransaction shardTransaction = ShardTransaction.begin();
+            return Panache.withTransaction(() -> work.get().call(shardTransaction::commit))
+                    .onFailure().call(shardTransaction::rollback)
+                    .eventually(() -> {
+                        ContextLocals.remove(AFTER_COMMIT_KEY);
+                        return shardTransaction.end();
+                    })
+                    .call(() -> runAll(actions));
+        });
+    }
+
+    @Override
+    public Uni<Void> afterCommit(Supplier<Uni<Void>> action) {
+        return Uni.createFrom().deferred(() -> {
+            List<Supplier<Uni<Void>>> actions = openActions();
+            if (actions == null) {
+                return action.get();
+            }
+            actions.add(action);
+            return Uni.createFrom().voidItem();
+        });
+    }
+
+    /**
+     * Pending changes are flushed before the savepoint and before it is released, so a failing write surfaces inside
+     * it and clearing the session after a rollback loses nothing of the enclosing work. The nested after-commit
+     * actions join the enclosing ones only when the nested work succeeds.
+     */
+    private <T> Uni<T> nested(List<Supplier<Uni<Void>>> enclosing, Supplier<Uni<T>> work) {
+        String savepoint = "unit_of_work_" + savepoints.incrementAndGet();
+        List<Supplier<Uni<Void>>> actions = new ArrayList<>();
+        ShardTransaction shardTransaction = ShardTransaction.current();
+
+        return Panache.getSession().flatMap(session -> session.flush()
+                .chain(() -> execute(session, "SAVEPOINT " + savepoint))
+                .chain(() -> shardTransaction.savepoint(savepoint))
+                .chain(() -> {
+                    ContextLocals.put(AFTER_COMMIT_KEY, actions);
+                    return work.get().call(session::flush);
+                })
+                .eventually(() -> ContextLocals.put(AFTER_COMMIT_KEY, enclosing))
+                .call(() -> execute(session, "RELEASE SAVEPOINT " + savepoint))
+                .call(() -> shardTransaction.release(savepoint))
+                .invoke(() -> enclosing.addAll(actions))
+                .onFailure().call(() -> execute(session, "ROLLBACK TO SAVEPOINT " + savepoint)
+                        .invoke(session::clear)
+                        .chain(() -> shardTransaction.rollbackTo(savepoint))));
+    }
+
+    private static Uni<Void> execute(Mutiny.Session session, String statement) {
+        return session.createNativeQuery(statement).executeUpdate().replaceWithVoid();
+    }
+
+    /**
+     * After-commit actions of the unit of work open on this context, {@code null} when there is none
+     */
+    private static List<Supplier<Uni<Void>>> openActions() {
+        Context context = Vertx.currentContext();
+        if (context == null || !VertxContext.isDuplicatedContext(context)) {
+            return null;
+        }
+        return ContextLocals.<List<Supplier<Uni<Void>>>>get(AFTER_COMMIT_KEY).orElse(null);
+    }
+
+    private static Uni<Void> runAll(List<Supplier<Uni<Void>>> actions) {
+        if (actions.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        return Multi.createFrom().iterable(actions)
+                .onItem().transformToUniAndConcatenate(action -> Uni.createFrom().deferred(action::get)
+                        .onFailure().invoke(throwable -> Log.error("After-commit action failed", throwable))
+                        .onFailure().recoverWithNull())
+                .collect().last()
+                .replaceWithVoid();
+    }
+}
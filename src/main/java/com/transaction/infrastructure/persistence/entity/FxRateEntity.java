@@ -0,0 +1,48 @@
+package com.transaction.infrastructure.persistence.entity;
+
+import com.transaction.domain.model.Currency;
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Setter
+@Getter
+@Entity
+@Table(name = "fx_rates")
+@IdClass(FxRateEntity.Key.class)
+@NoArgsConstructor
+public class FxRateEntity {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "base_currency", nullable = false, columnDefinition = "currency_type")
+    private Currency baseCurrency;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "quote_currency", nullable = false, columnDefinition = "currency_type")
+    private Currency quoteCurrency;
+
+    @Id
+    @Column(name = "rate_date", nullable = false)
+    private LocalDate rateDate;
+
+    @Column(name = "rate", nullable = false, precision = 18, scale = 8)
+    private BigDecimal rate;
+
+    @Setter
+    @Getter
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Currency baseCurrency;
+        private Currency quoteCurrency;
+        private LocalDate rateDate;
+    }
+}
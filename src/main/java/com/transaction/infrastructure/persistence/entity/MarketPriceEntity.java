@@ -0,0 +1,32 @@
+package com.transaction.infrastructure.persistence.entity;
+
+import com.transaction.domain.model.Currency;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+@Setter
+@Getter
+@Entity
+@Table(name = "market_prices")
+@NoArgsConstructor
+public class MarketPriceEntity {
+
+    @Id
+    @Column(name = "ticker", length = 20)
+    private String ticker;
+
+    @Column(name = "price", nullable = false, precision = 18, scale = 4)
+    private BigDecimal price;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "currency", nullable = false, columnDefinition = "currency_type")
+    private Currency currency;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+}
@@ -0,0 +1,21 @@
+package com.transaction.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@Entity
+@Table(name = "portfolio_shards")
+@NoArgsConstructor
+public class PortfolioShardEntity {
+
+    @Id
+    @Column(name = "portfolio_id", length = 64)
+    private String portfolioId;
+
+    @Column(name = "shard", nullable = false)
+    private Short shard;
+}
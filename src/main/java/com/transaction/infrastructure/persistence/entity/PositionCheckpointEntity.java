@@ -0,0 +1,43 @@
+package com.transaction.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+@Setter
+@Getter
+@Entity
+@Table(name = "position_checkpoints")
+@IdClass(PositionCheckpointEntity.Key.class)
+@NoArgsConstructor
+public class PositionCheckpointEntity {
+
+    @Id
+    @Column(name = "portfolio_id", nullable = false, length = 64)
+    private String portfolioId;
+
+    @Id
+    @Column(name = "as_of", nullable = false)
+    private LocalDate asOf;
+
+    @Column(name = "change_marker", nullable = false, length = 100)
+    private String changeMarker;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Setter
+    @Getter
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private String portfolioId;
+        private LocalDate asOf;
+    }
+}
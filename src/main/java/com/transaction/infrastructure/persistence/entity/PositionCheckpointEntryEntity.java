@@ -0,0 +1,55 @@
+package com.transaction.infrastructure.persistence.entity;
+
+import com.transaction.domain.model.Currency;
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Setter
+@Getter
+@Entity
+@Table(name = "position_checkpoint_entries")
+@IdClass(PositionCheckpointEntryEntity.Key.class)
+@NoArgsConstructor
+public class PositionCheckpointEntryEntity {
+
+    @Id
+    @Column(name = "portfolio_id", nullable = false, length = 64)
+    private String portfolioId;
+
+    @Id
+    @Column(name = "as_of", nullable = false)
+    private LocalDate asOf;
+
+    @Id
+    @Column(name = "ticker", nullable = false, length = 20)
+    private String ticker;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "currency", nullable = false, columnDefinition = "currency_type")
+    private Currency currency;
+
+    @Column(name = "shares", nullable = false, precision = 24, scale = 8)
+    private BigDecimal shares;
+
+    @Column(name = "cost_basis", nullable = false, precision = 24, scale = 8)
+    private BigDecimal costBasis;
+
+    @Setter
+    @Getter
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private String portfolioId;
+        private LocalDate asOf;
+        private String ticker;
+        private Currency currency;
+    }
+}
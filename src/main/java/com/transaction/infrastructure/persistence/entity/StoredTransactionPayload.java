@@ -0,0 +1,36 @@
+package com.transaction.infrastructure.persistence.entity;
+
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.TransactionType;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * JSON document kept in {@code idempotency_keys.response_payload} so a replayed request
+ * can be answered without reading the transactions table.
+ */
+@RegisterForReflection
+public record StoredTransactionPayload(
+        UUID id,
+        String portfolioId,
+        String ticker,
+        TransactionType transactionType,
+        BigDecimal quantity,
+        BigDecimal price,
+        BigDecimal fees,
+        Currency currency,
+        LocalDate transactionDate,
+        String notes,
+        Boolean isActive,
+        Boolean isFractional,
+        BigDecimal fractionalMultiplier,
+        Currency commissionCurrency,
+        String exchange,
+        String country,
+        String companyName,
+        Long version
+) {
+}
@@ -20,9 +20,8 @@ import java.util.UUID;
 @Table(
         name = "transactions",
         indexes = {
-                @Index(name = "idx_transactions_ticker", columnList = "ticker"),
-                @Index(name = "idx_transactions_date", columnList = "transaction_date"),
-                @Index(name = "idx_transactions_ticker_date", columnList = "ticker,transaction_date")
+                @Index(name = "idx_transactions_portfolio_ticker_date", columnList = "portfolio_id,ticker,transaction_date"),
+                @Index(name = "idx_transactions_portfolio_date_id", columnList = "portfolio_id,transaction_date DESC,id DESC")
         }
 )
 @NoArgsConstructor(force = true)
@@ -34,6 +33,9 @@ public class TransactionEntity {
     @Column(name = "id")
     private UUID id;
 
+    @Column(name = "portfolio_id", nullable = false, updatable = false, length = 64)
+    private String portfolioId;
+
     @Column(name = "ticker", nullable = false, length = 20)
     private String ticker;
 
@@ -88,6 +90,10 @@ public class TransactionEntity {
     @Column(name = "updated_at")
     private OffsetDateTime updatedAt;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = OffsetDateTime.now();
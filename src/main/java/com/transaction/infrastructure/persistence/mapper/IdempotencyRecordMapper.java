@@ -0,0 +1,17 @@
+package com.transaction.infrastructure.persistence.mapper;
+
+import com.transaction.domain.model.Transaction;
+import com.transaction.infrastructure.persistence.entity.StoredTransactionPayload;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import static org.mapstruct.MappingConstants.ComponentModel.JAKARTA_CDI;
+
+@Mapper(componentModel = JAKARTA_CDI)
+public interface IdempotencyRecordMapper {
+
+    StoredTransactionPayload toPayload(Transaction transaction);
+
+    @Mapping(target = "domainEvents", ignore = true)
+    Transaction toTransaction(StoredTransactionPayload payload);
+}
@@ -24,7 +24,7 @@ public interface TransactionEntityMapper {
     Transaction toDomain(TransactionEntity entity);
 
     default Transaction createTransaction(TransactionEntity transactionEntity) {
-        return Transaction.create(
+        Transaction transaction = Transaction.create(
                 transactionEntity.getId(),
                 transactionEntity.getTicker(),
                 transactionEntity.getTransactionType(),
@@ -40,7 +40,10 @@ public interface TransactionEntityMapper {
                 transactionEntity.getCommissionCurrency(),
                 transactionEntity.getExchange(),
                 transactionEntity.getCountry(),
-                transactionEntity.getCompanyName()
+                transactionEntity.getCompanyName(),
+                transactionEntity.getVersion()
         );
+        transaction.setPortfolioId(transactionEntity.getPortfolioId());
+        return transaction;
     }
 } 
\ No newline at end of file
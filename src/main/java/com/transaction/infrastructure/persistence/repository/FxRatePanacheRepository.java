@@ -0,0 +1,30 @@
+package com.transaction.infrastructure.persistence.repository;
+
+import com.transaction.infrastructure.persistence.entity.FxRateEntity;
+import io.quarkus.hibernate.reactive.panache.PanacheRepositoryBase;
+import io.quarkus.hibernate.reactive.panache.common.WithSession;
+import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.List;
+
+/**
+ * Panache reactive repository for FxRateEntity
+ */
+@ApplicationScoped
+public class FxRatePanacheRepository implements PanacheRepositoryBase<FxRateEntity, FxRateEntity.Key> {
+
+    /**
+     * Inserts the rate or replaces the stored one of the same pair and day
+     */
+    @WithTransaction
+    public Uni<FxRateEntity> upsert(FxRateEntity entity) {
+        return getSession().flatMap(session -> session.merge(entity));
+    }
+
+    @WithSession
+    public Uni<List<FxRateEntity>> findAllRates() {
+        return listAll();
+    }
+}
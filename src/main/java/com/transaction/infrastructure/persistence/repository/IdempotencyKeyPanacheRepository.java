@@ -0,0 +1,54 @@
+package com.transaction.infrastructure.persistence.repository;
+
+import com.transaction.infrastructure.persistence.entity.IdempotencyKeyEntity;
+import io.quarkus.hibernate.reactive.panache.PanacheRepositoryBase;
+import io.quarkus.hibernate.reactive.panache.common.WithSession;
+import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Panache reactive repository for IdempotencyKeyEntity, the idempotency keys of the portfolios on the primary shard
+ */
+@ApplicationScoped
+public class IdempotencyKeyPanacheRepository implements PanacheRepositoryBase<IdempotencyKeyEntity, String>, IdempotencyKeyStore {
+
+    @WithSession
+    public Uni<IdempotencyKeyEntity> findActive(String idempotencyKey, OffsetDateTime now) {
+        return find("idempotencyKey = ?1 AND expiresAt > ?2 AND responsePayload IS NOT NULL", idempotencyKey, now).firstResult();
+    }
+
+    /**
+     * Inserts the key without an outcome, or takes over an expired one. Emits false when a live key is in the way.
+     */
+    @WithTransaction
+    public Uni<Boolean> claim(String idempotencyKey, String requestFingerprint, OffsetDateTime now, OffsetDateTime expiresAt) {
+        return getSession()
+                .flatMap(session -> session
+                        .createNativeQuery("INSERT INTO idempotency_keys (idempotency_key, request_fingerprint, created_at, expires_at) "
+                                + "VALUES (:key, :fingerprint, :now, :expiresAt) "
+                                + "ON CONFLICT (idempotency_key) DO UPDATE SET request_fingerprint = EXCLUDED.request_fingerprint, "
+                                + "transaction_id = NULL, response_payload = NULL, created_at = EXCLUDED.created_at, "
+                                + "expires_at = EXCLUDED.expires_at WHERE idempotency_keys.expires_at <= :now")
+                        .setParameter("key", idempotencyKey)
+                        .setParameter("fingerprint", requestFingerprint)
+                        .setParameter("now", now)
+                        .setParameter("expiresAt", expiresAt)
+                        .executeUpdate())
+                .map(claimed -> claimed > 0);
+    }
+
+    @WithTransaction
+    public Uni<Integer> complete(String idempotencyKey, UUID transactionId, String responsePayload) {
+        return update("transactionId = ?1, responsePayload = ?2 WHERE idempotencyKey = ?3",
+                transactionId, responsePayload, idempotencyKey);
+    }
+
+    @WithTransaction
+    public Uni<Long> deleteExpired(OffsetDateTime now) {
+        return delete("expiresAt <= ?1", now);
+    }
+}
@@ -0,0 +1,26 @@
+package com.transaction.infrastructure.persistence.repository;
+
+import com.transaction.infrastructure.persistence.entity.IdempotencyKeyEntity;
+import io.smallrye.mutiny.Uni;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Idempotency keys on one shard, kept next to the transactions they guard so a key is completed in the same database
+ * transaction as its row. The primary shard is served by {@link IdempotencyKeyPanacheRepository}, every other one by
+ * a {@link SqlIdempotencyKeyRepository} on its pool.
+ */
+public interface IdempotencyKeyStore {
+
+    Uni<IdempotencyKeyEntity> findActive(String idempotencyKey, OffsetDateTime now);
+
+    /**
+     * Inserts the key without an outcome, or takes over an expired one. Emits false when a live key is in the way.
+     */
+    Uni<Boolean> claim(String idempotencyKey, String requestFingerprint, OffsetDateTime now, OffsetDateTime expiresAt);
+
+    Uni<Integer> complete(String idempotencyKey, UUID transactionId, String responsePayload);
+
+    Uni<Long> deleteExpired(OffsetDateTime now);
+}
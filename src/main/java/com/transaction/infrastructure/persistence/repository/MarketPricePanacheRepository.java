@@ -0,0 +1,36 @@
+package com.transaction.infrastructure.persistence.repository;
+
+import com.transaction.infrastructure.persistence.entity.MarketPriceEntity;
+import io.quarkus.hibernate.reactive.panache.PanacheRepositoryBase;
+import io.quarkus.hibernate.reactive.panache.common.WithSession;
+import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Panache reactive repository for MarketPriceEntity
+ */
+@ApplicationScoped
+public class MarketPricePanacheRepository implements PanacheRepositoryBase<MarketPriceEntity, String> {
+
+    /**
+     * Inserts the price or replaces the stored one of the same ticker
+     */
+    @WithTransaction
+    public Uni<MarketPriceEntity> upsert(MarketPriceEntity entity) {
+        return getSession().flatMap(session -> session.merge(entity));
+    }
+
+    @WithSession
+    public Uni<MarketPriceEntity> findByTicker(String ticker) {
+        return findById(ticker);
+    }
+
+    @WithSession
+    public Uni<List<MarketPriceEntity>> findByTickers(Collection<String> tickers) {
+        return list("ticker in ?1", tickers);
+    }
+}
@@ -0,0 +1,56 @@
+package com.transaction.infrastructure.persistence.repository;
+
+import com.transaction.infrastructure.persistence.entity.PortfolioShardEntity;
+import io.quarkus.hibernate.reactive.panache.PanacheRepositoryBase;
+import io.quarkus.hibernate.reactive.panache.common.WithSession;
+import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Panache reactive repository for PortfolioShardEntity, always on the primary database
+ */
+@ApplicationScoped
+public class PortfolioShardPanacheRepository implements PanacheRepositoryBase<PortfolioShardEntity, String> {
+
+    /**
+     * Shard of the portfolio, or {@code null} when it has not been assigned one
+     */
+    @WithSession
+    public Uni<Integer> findShard(String portfolioId) {
+        return findById(portfolioId)
+                .map(entity -> entity != null ? entity.getShard().intValue() : null);
+    }
+
+    /**
+     * Assigns the shard unless another writer assigned one first, and returns the shard the portfolio ends up with
+     */
+    @WithTransaction
+    public Uni<Integer> assign(String portfolioId, int shard) {
+        return getSession()
+                .flatMap(session -> session
+                        .createNativeQuery("INSERT INTO portfolio_shards (portfolio_id, shard) VALUES (:portfolioId, :shard) "
+                                + "ON CONFLICT (portfolio_id) DO NOTHING")
+                        .setParameter("portfolioId", portfolioId)
+                        .setParameter("shard", (short) shard)
+                        .executeUpdate()
+                        .flatMap(ignored -> session.createSelectionQuery(
+                                        "SELECT s.shard FROM PortfolioShardEntity s WHERE s.portfolioId = :portfolioId", Short.class)
+                                .setParameter("portfolioId", portfolioId)
+                                .getSingleResult()))
+                .map(Short::intValue);
+    }
+
+    /**
+     * Assigns the primary to every portfolio holding transactions there that has no shard yet, returning how many
+     */
+    @WithTransaction
+    public Uni<Integer> assignHeldToPrimary() {
+        return getSession()
+                .flatMap(session -> session
+                        .createNativeQuery("INSERT INTO portfolio_shards (portfolio_id, shard) "
+                                + "SELECT DISTINCT portfolio_id, 0 FROM transactions "
+                                + "ON CONFLICT (portfolio_id) DO NOTHING")
+                        .executeUpdate());
+    }
+}
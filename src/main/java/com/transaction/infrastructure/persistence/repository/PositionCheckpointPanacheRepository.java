@@ -0,0 +1,94 @@
+package com.transaction.infrastructure.persistence.repository;
+
+import com.transaction.domain.model.ChangeMarker;
+import com.transaction.domain.port.output.PortfolioContext;
+import com.transaction.infrastructure.persistence.entity.PositionCheckpointEntity;
+import com.transaction.infrastructure.persistence.entity.PositionCheckpointEntryEntity;
+import io.quarkus.hibernate.reactive.panache.PanacheRepositoryBase;
+import io.quarkus.hibernate.reactive.panache.common.WithSession;
+import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
+import io.quarkus.panache.common.Sort;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Panache reactive repository for PositionCheckpointEntity and its entries, restricted to the current portfolio,
+ * for the portfolios on the primary shard
+ */
+@ApplicationScoped
+public class PositionCheckpointPanacheRepository
+        implements PanacheRepositoryBase<PositionCheckpointEntity, PositionCheckpointEntity.Key>, PositionCheckpointStore {
+
+    @Inject
+    PortfolioContext portfolioContext;
+
+    @WithSession
+    public Uni<PositionCheckpointEntity> findLatestOnOrBefore(LocalDate date) {
+        return find("portfolioId = ?1 AND asOf <= ?2", Sort.descending("asOf"), portfolioContext.current(), date).firstResult();
+    }
+
+    @WithSession
+    public Uni<List<PositionCheckpointEntryEntity>> findEntries(LocalDate asOf) {
+        return getSession().flatMap(session -> session
+                .createSelectionQuery("FROM PositionCheckpointEntryEntity e WHERE e.portfolioId = :portfolioId AND e.asOf = :asOf",
+                        PositionCheckpointEntryEntity.class)
+                .setParameter("portfolioId", portfolioContext.current())
+                .setParameter("asOf", asOf)
+                .getResultList());
+    }
+
+    /**
+     * Replaces the checkpoint of the same day, entries included, in one transaction, unless the portfolio change
+     * counter no longer matches the checkpoint's marker. The counter row is share-locked, so a concurrent write either
+     * made the marker stale already or bumps it after this commits and then drops the checkpoint itself.
+     * Returns whether the checkpoint was saved.
+     */
+    @WithTransaction
+    public Uni<Boolean> replace(PositionCheckpointEntity checkpoint, List<PositionCheckpointEntryEntity> entries) {
+        return getSession().flatMap(session -> session
+                .createNativeQuery("SELECT change_count, last_modified FROM transaction_changes "
+                        + "WHERE portfolio_id = :portfolioId AND ticker = :ticker FOR SHARE", Object[].class)
+                .setParameter("portfolioId", portfolioContext.current())
+                .setParameter("ticker", TransactionPanacheRepository.PORTFOLIO_CHANGES)
+                .getSingleResultOrNull()
+                .flatMap(counter -> {
+                    if (!marker(counter).tag().equals(checkpoint.getChangeMarker())) {
+                        return Uni.createFrom().item(false);
+                    }
+                    return deleteEntries("e.asOf = :date", checkpoint.getAsOf())
+                            .flatMap(ignored -> session.merge(checkpoint))
+                            .flatMap(merged -> session.persistAll(entries.toArray()))
+                            .replaceWith(true);
+                }));
+    }
+
+    @WithTransaction
+    public Uni<Void> deleteFrom(LocalDate date) {
+        return deleteEntries("e.asOf >= :date", date)
+                .flatMap(ignored -> delete("portfolioId = ?1 AND asOf >= ?2", portfolioContext.current(), date))
+                .replaceWithVoid();
+    }
+
+    static ChangeMarker marker(Object[] counter) {
+        if (counter == null) {
+            return ChangeMarker.ofChanges(0L, null);
+        }
+        Instant lastModified = counter[1] instanceof OffsetDateTime offsetDateTime ? offsetDateTime.toInstant() : (Instant) counter[1];
+        return ChangeMarker.ofChanges(((Number) counter[0]).longValue(), lastModified);
+    }
+
+    private Uni<Integer> deleteEntries(String condition, LocalDate date) {
+        String portfolioId = portfolioContext.current();
+        return getSession().flatMap(session -> session
+                .createMutationQuery("DELETE FROM PositionCheckpointEntryEntity e WHERE e.portfolioId = :portfolioId AND " + condition)
+                .setParameter("portfolioId", portfolioId)
+                .setParameter("date", date)
+                .executeUpdate());
+    }
+}
@@ -0,0 +1,28 @@
+package com.transaction.infrastructure.persistence.repository;
+
+import com.transaction.infrastructure.persistence.entity.PositionCheckpointEntity;
+import com.transaction.infrastructure.persistence.entity.PositionCheckpointEntryEntity;
+import io.smallrye.mutiny.Uni;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Position checkpoints of the current portfolio on one shard, kept next to its transactions so the writes that
+ * invalidate them drop them in their own database transaction. The primary shard is served by
+ * {@link PositionCheckpointPanacheRepository}, every other one by a {@link SqlPositionCheckpointRepository}.
+ */
+public interface PositionCheckpointStore {
+
+    Uni<PositionCheckpointEntity> findLatestOnOrBefore(LocalDate date);
+
+    Uni<List<PositionCheckpointEntryEntity>> findEntries(LocalDate asOf);
+
+    /**
+     * Replaces the checkpoint of the same day, entries included, unless the portfolio change counter no longer matches
+     * its marker. Returns whether the checkpoint was saved.
+     */
+    Uni<Boolean> replace(PositionCheckpointEntity checkpoint, List<PositionCheckpointEntryEntity> entries);
+
+    Uni<Void> deleteFrom(LocalDate date);
+}
@@ -0,0 +1,129 @@
+package com.transaction.infrastructure.persistence.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.quarkus.reactive.datasource.ReactiveDataSource;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Read-only replica of the transactions database, reached through the {@code replica} reactive datasource.
+ * Reads are routed to it only while its measured replication lag is within {@code max-lag}. After a write from this
+ * instance the reads of that portfolio stay on the primary for {@code max-lag}, so a client reading right after its
+ * own write sees it; other portfolios keep reading from the replica. At most {@code pinned-portfolios} portfolios
+ * are pinned at once, the least recently written ones being released first.
+ * A failed replica read is retried on the primary and takes the replica out of rotation until the next lag check.
+ */
+@ApplicationScoped
+public class ReadReplica {
+
+    static final String LAG_QUERY = "SELECT CASE "
+            + "WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE coalesce(extract(epoch FROM now() - pg_last_xact_replay_timestamp()), 0) END::float8";
+
+    private final Pool pool;
+    private final boolean enabled;
+    private final Duration maxLag;
+    private volatile double lagSeconds = Double.NaN;
+    private final Cache<String, Boolean> pinned;
+
+    @Inject
+    public ReadReplica(@ReactiveDataSource("replica") Pool pool,
+                       @ConfigProperty(name = "application.persistence.replica.enabled", defaultValue = "false") boolean enabled,
+                       @ConfigProperty(name = "application.persistence.replica.max-lag", defaultValue = "PT5S") Duration maxLag,
+                       @ConfigProperty(name = "application.persistence.replica.pinned-portfolios", defaultValue = "10000") int pinnedPortfolios,
+                       MeterRegistry meterRegistry) {
+        this(pool, enabled, maxLag, pinnedPortfolios);
+        Gauge.builder("persistence.replica.lag", this, replica -> replica.lagSeconds)
+                .description("Replication lag of the read replica, NaN while it is unknown")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    ReadReplica(Pool pool, boolean enabled, Duration maxLag, int pinnedPortfolios) {
+        this.pool = pool;
+        this.enabled = enabled;
+        this.maxLag = maxLag;
+        this.pinned = Caffeine.newBuilder()
+                .expireAfterWrite(maxLag)
+                .maximumSize(pinnedPortfolios)
+                .build();
+    }
+
+    public Pool pool() {
+        return pool;
+    }
+
+    /**
+     * Whether reads of the portfolio can go to the replica right now
+     */
+    public boolean isReadable(String portfolioId) {
+        double lag = lagSeconds;
+        return enabled
+                && !Double.isNaN(lag)
+                && lag * 1000 <= maxLag.toMillis()
+                && pinned.getIfPresent(portfolioId) == null;
+    }
+
+    /**
+     * Keeps the reads of the portfolio on the primary until the replica has had time to apply a write just made
+     */
+    public void wrote(String portfolioId) {
+        pinned.put(portfolioId, Boolean.TRUE);
+    }
+
+    /**
+     * Runs the read of the portfolio on the replica when it is readable, on the primary otherwise or when the replica
+     * read fails
+     */
+    public <T> Uni<T> read(String portfolioId, Supplier<Uni<T>> onReplica, Supplier<Uni<T>> onPrimary) {
+        if (!isReadable(portfolioId)) {
+            return onPrimary.get();
+        }
+        return Uni.createFrom().<T>deferred(onReplica::get)
+                .onFailure().recoverWithUni(throwable -> {
+                    Log.warn("Read replica query failed, reading from the primary until the next lag check", throwable);
+                    lagSeconds = Double.NaN;
+                    return onPrimary.get();
+                });
+    }
+
+    @Scheduled(every = "${application.persistence.replica.lag-check-interval}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    Uni<Void> checkLag() {
+        if (!enabled) {
+            return Uni.createFrom().voidItem();
+        }
+        return pool.query(LAG_QUERY).execute()
+                .map(rows -> {
+                    Row row = rows.iterator().next();
+                    return row.getDouble(0);
+                })
+                .invoke(this::lagMeasured)
+                .onFailure().invoke(throwable -> {
+                    Log.warn("Failed to measure the read replica lag, reading from the primary", throwable);
+                    lagSeconds = Double.NaN;
+                })
+                .onFailure().recoverWithNull()
+                .replaceWithVoid();
+    }
+
+    void lagMeasured(double seconds) {
+        boolean wasReadable = !Double.isNaN(lagSeconds) && lagSeconds * 1000 <= maxLag.toMillis();
+        lagSeconds = seconds;
+        if (wasReadable && seconds * 1000 > maxLag.toMillis()) {
+            Log.warnf("Read replica is %.1fs behind, reading from the primary", seconds);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.transaction.infrastructure.persistence.repository;
+
+import com.transaction.domain.model.TransactionType;
+import com.transaction.domain.port.output.PortfolioContext;
+import com.transaction.infrastructure.persistence.entity.TransactionEntity;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read queries of the transactions on the read replica of the primary shard. They run the SQL of
+ * {@link SqlTransactionRepository}, since the replica is reached through the reactive client rather than Hibernate,
+ * and only the reads are exposed.
+ */
+@ApplicationScoped
+public class ReplicaTransactionRepository {
+
+    private final SqlTransactionRepository queries;
+
+    public ReplicaTransactionRepository(ReadReplica readReplica, PortfolioContext portfolioContext) {
+        this.queries = new SqlTransactionRepository(readReplica.pool(), portfolioContext, false);
+    }
+
+    public Uni<List<TransactionEntity>> findAllOrderedByDate() {
+        return queries.findAllOrderedByDate();
+    }
+
+    public Uni<List<TransactionEntity>> searchTransactions(String ticker, TransactionType type,
+                                                          LocalDate fromDate, LocalDate toDate) {
+        return queries.searchTransactions(ticker, type, fromDate, toDate);
+    }
+
+    public Uni<List<TransactionEntity>> searchTransactionsPage(String ticker, TransactionType type,
+                                                              LocalDate fromDate, LocalDate toDate,
+                                                              LocalDate afterDate, UUID afterId, int limit) {
+        return queries.searchTransactionsPage(ticker, type, fromDate, toDate, afterDate, afterId, limit);
+    }
+
+    /**
+     * Same row shape as {@link TransactionPanacheRepository#summarizeTransactions}
+     */
+    public Uni<List<Object[]>> summarizeTransactions(String ticker, TransactionType type,
+                                                     LocalDate fromDate, LocalDate toDate) {
+        return queries.summarizeTransactions(ticker, type, fromDate, toDate);
+    }
+
+    public Uni<Long> count() {
+        return queries.countInPortfolio();
+    }
+
+    public Uni<Long> countByTicker(String ticker) {
+        return queries.countByTicker(ticker);
+    }
+}
@@ -0,0 +1,71 @@
+package com.transaction.infrastructure.persistence.repository;
+
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import io.vertx.pgclient.PgConnectOptions;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import liquibase.Contexts;
+import liquibase.LabelExpression;
+import liquibase.Liquibase;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.LiquibaseException;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Migrates every shard with the changelog of the primary at startup, as Quarkus does for the primary itself, so the
+ * shards never run behind the code that queries them. The shards are configured by their reactive URLs, which are
+ * turned into JDBC ones for Liquibase. Honors {@code quarkus.liquibase.migrate-at-start}.
+ */
+@ApplicationScoped
+public class ShardMigrations {
+
+    private final List<String> urls;
+    private final boolean migrateAtStart;
+    private final String changeLog;
+
+    public ShardMigrations(@ConfigProperty(name = "application.persistence.shards.urls") Optional<List<String>> urls,
+                           @ConfigProperty(name = "quarkus.liquibase.migrate-at-start", defaultValue = "false") boolean migrateAtStart,
+                           @ConfigProperty(name = "quarkus.liquibase.change-log") String changeLog) {
+        this.urls = urls.orElse(List.of());
+        this.migrateAtStart = migrateAtStart;
+        this.changeLog = changeLog;
+    }
+
+    void onStart(@Observes StartupEvent startupEvent) {
+        if (!migrateAtStart) {
+            return;
+        }
+        for (int shard = 0; shard < urls.size(); shard++) {
+            Log.infof("Migrating shard %d", shard + 1);
+            migrate(urls.get(shard), changeLog);
+        }
+    }
+
+    /**
+     * Applies the changelog to the database at the reactive URL
+     */
+    static void migrate(String url, String changeLog) {
+        PgConnectOptions options = PgConnectOptions.fromUri(url);
+        String jdbcUrl = "jdbc:postgresql://%s:%d/%s".formatted(options.getHost(), options.getPort(), options.getDatabase());
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, options.getUser(), options.getPassword())) {
+            Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            try (Liquibase liquibase = new Liquibase(changeLog,
+                    new ClassLoaderResourceAccessor(Thread.currentThread().getContextClassLoader()), database)) {
+                liquibase.update(new Contexts(), new LabelExpression());
+            }
+        } catch (SQLException | LiquibaseException e) {
+            throw new IllegalStateException("Failed to migrate shard at %s:%d/%s"
+                    .formatted(options.getHost(), options.getPort(), options.getDatabase()), e);
+        }
+    }
+}
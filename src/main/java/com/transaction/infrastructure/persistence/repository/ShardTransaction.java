@@ -0,0 +1,139 @@
+package com.transaction.infrastructure.persistence.repository;
+
+import io.smallrye.common.vertx.ContextLocals;
+import io.smallrye.common.vertx.VertxContext;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.SqlClient;
+import io.vertx.mutiny.sqlclient.SqlConnection;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The database transactions a unit of work holds on the shards other than the primary, kept as a local of the
+ * Vert.x duplicated context like its after-commit actions. A shard's transaction is begun on the first statement the
+ * unit of work runs there, and the savepoints of the nested units of work still open are set on it right away, so
+ * rolling back to one of them undoes the same writes on every shard.
+ * The shards are committed one after the other and before the primary, so a failing shard commit still rolls back
+ * the primary, but a shard committed before a later one fails stays committed: there is no two-phase commit, which is
+ * why everything a portfolio writes goes to its own shard.
+ */
+public class ShardTransaction {
+
+    static final String KEY = "unit-of-work.shard-transaction";
+
+    private final Map<Pool, Uni<SqlConnection>> opened = new LinkedHashMap<>();
+    private final List<String> savepoints = new ArrayList<>();
+
+    /**
+     * Opens the shard transaction of a new unit of work on the current context
+     */
+    public static ShardTransaction begin() {
+        ShardTransaction shardTransaction = new ShardTransaction();
+        ContextLocals.put(KEY, shardTransaction);
+        return shardTransaction;
+    }
+
+    /**
+     * Shard transaction of the unit of work open on this context, {@code null} when there is none
+     */
+    public static ShardTransaction current() {
+        Context context = Vertx.currentContext();
+        if (context == null || !VertxContext.isDuplicatedContext(context)) {
+            return null;
+        }
+        return ContextLocals.<ShardTransaction>get(KEY).orElse(null);
+    }
+
+    /**
+     * Client running statements on the pool in the open unit of work, or autocommitted when there is none
+     */
+    static Uni<SqlClient> client(Pool pool) {
+        ShardTransaction shardTransaction = current();
+        return shardTransaction == null
+                ? Uni.createFrom().item(pool)
+                : shardTransaction.connection(pool).map(SqlClient.class::cast);
+    }
+
+    /**
+     * Runs statements that must apply together in the open unit of work, or in a transaction of their own
+     */
+    static <T> Uni<T> inTransaction(Pool pool, Function<SqlClient, Uni<T>> statements) {
+        ShardTransaction shardTransaction = current();
+        return shardTransaction == null
+                ? pool.withTransaction(statements::apply)
+                : shardTransaction.connection(pool).flatMap(statements::apply);
+    }
+
+    /**
+     * The transaction is begun and ended with plain statements rather than the client's transaction API, which rolls
+     * the whole transaction back on the first failing statement and would leave nothing for a savepoint to go back to
+     */
+    private Uni<SqlConnection> connection(Pool pool) {
+        return opened.computeIfAbsent(pool, ignored -> pool.getConnection()
+                .call(connection -> execute(connection, "BEGIN")
+                        .chain(() -> Multi.createFrom().iterable(List.copyOf(savepoints))
+                                .onItem().transformToUniAndConcatenate(savepoint -> execute(connection, "SAVEPOINT " + savepoint))
+                                .collect().last())
+                        .onFailure().call(connection::close))
+                .memoize().indefinitely());
+    }
+
+    public Uni<Void> savepoint(String savepoint) {
+        savepoints.add(savepoint);
+        return onEveryShard(connection -> execute(connection, "SAVEPOINT " + savepoint), false);
+    }
+
+    public Uni<Void> release(String savepoint) {
+        savepoints.remove(savepoint);
+        return onEveryShard(connection -> execute(connection, "RELEASE SAVEPOINT " + savepoint), false);
+    }
+
+    public Uni<Void> rollbackTo(String savepoint) {
+        savepoints.remove(savepoint);
+        return onEveryShard(connection -> execute(connection, "ROLLBACK TO SAVEPOINT " + savepoint), false);
+    }
+
+    public Uni<Void> commit() {
+        return onEveryShard(connection -> execute(connection, "COMMIT"), false);
+    }
+
+    /**
+     * Rolls back what has not been committed yet; a shard whose commit already went through keeps its writes
+     */
+    public Uni<Void> rollback() {
+        return onEveryShard(connection -> execute(connection, "ROLLBACK"), true);
+    }
+
+    /**
+     * Gives the connections back to their pools and closes the shard transaction on this context
+     */
+    public Uni<Void> end() {
+        ContextLocals.remove(KEY);
+        return onEveryShard(SqlConnection::close, true);
+    }
+
+    private Uni<Void> onEveryShard(Function<SqlConnection, Uni<Void>> statement, boolean ignoringFailures) {
+        if (opened.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        return Multi.createFrom().iterable(List.copyOf(opened.values()))
+                .onItem().transformToUniAndConcatenate(connection -> {
+                    Uni<Void> done = connection.flatMap(statement::apply);
+                    return ignoringFailures ? done.onFailure().recoverWithNull() : done;
+                })
+                .collect().last()
+                .replaceWithVoid();
+    }
+
+    private static Uni<Void> execute(SqlConnection connection, String statement) {
+        return connection.query(statement).execute().replaceWithVoid();
+    }
+}
@@ -0,0 +1,74 @@
+package com.transaction.infrastructure.persistence.repository;
+
+import com.transaction.infrastructure.persistence.entity.IdempotencyKeyEntity;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * The queries of {@link IdempotencyKeyPanacheRepository} in SQL, for the shards other than the primary. The statements
+ * join the {@link ShardTransaction} of the unit of work they run in, like the transactions they guard.
+ */
+public class SqlIdempotencyKeyRepository implements IdempotencyKeyStore {
+
+    private final Pool pool;
+
+    public SqlIdempotencyKeyRepository(Pool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public Uni<IdempotencyKeyEntity> findActive(String idempotencyKey, OffsetDateTime now) {
+        return query("SELECT idempotency_key, request_fingerprint, transaction_id, response_payload, created_at, expires_at "
+                        + "FROM idempotency_keys WHERE idempotency_key = $1 AND expires_at > $2 AND response_payload IS NOT NULL",
+                idempotencyKey, now)
+                .map(rows -> rows.size() > 0 ? toEntity(rows.iterator().next()) : null);
+    }
+
+    @Override
+    public Uni<Boolean> claim(String idempotencyKey, String requestFingerprint, OffsetDateTime now, OffsetDateTime expiresAt) {
+        return query("INSERT INTO idempotency_keys (idempotency_key, request_fingerprint, created_at, expires_at) "
+                        + "VALUES ($1, $2, $3, $4) "
+                        + "ON CONFLICT (idempotency_key) DO UPDATE SET request_fingerprint = EXCLUDED.request_fingerprint, "
+                        + "transaction_id = NULL, response_payload = NULL, created_at = EXCLUDED.created_at, "
+                        + "expires_at = EXCLUDED.expires_at WHERE idempotency_keys.expires_at <= $3",
+                idempotencyKey, requestFingerprint, now, expiresAt)
+                .map(rows -> rows.rowCount() > 0);
+    }
+
+    @Override
+    public Uni<Integer> complete(String idempotencyKey, UUID transactionId, String responsePayload) {
+        return query("UPDATE idempotency_keys SET transaction_id = $1, response_payload = $2 WHERE idempotency_key = $3",
+                transactionId, responsePayload, idempotencyKey)
+                .map(RowSet::rowCount);
+    }
+
+    @Override
+    public Uni<Long> deleteExpired(OffsetDateTime now) {
+        return query("DELETE FROM idempotency_keys WHERE expires_at <= $1", now)
+                .map(rows -> (long) rows.rowCount());
+    }
+
+    private Uni<RowSet<Row>> query(String sql, Object... params) {
+        return ShardTransaction.client(pool)
+                .flatMap(client -> client.preparedQuery(sql).execute(Tuple.from(new ArrayList<>(Arrays.asList(params)))));
+    }
+
+    private static IdempotencyKeyEntity toEntity(Row row) {
+        IdempotencyKeyEntity entity = new IdempotencyKeyEntity();
+        entity.setIdempotencyKey(row.getString(0));
+        entity.setRequestFingerprint(row.getString(1));
+        entity.setTransactionId(row.getUUID(2));
+        entity.setResponsePayload(row.getString(3));
+        entity.setCreatedAt(row.getOffsetDateTime(4));
+        entity.setExpiresAt(row.getOffsetDateTime(5));
+        return entity;
+    }
+}
@@ -0,0 +1,128 @@
+package com.transaction.infrastructure.persistence.repository;
+
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.port.output.PortfolioContext;
+import com.transaction.infrastructure.persistence.entity.PositionCheckpointEntity;
+import com.transaction.infrastructure.persistence.entity.PositionCheckpointEntryEntity;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.SqlClient;
+import io.vertx.mutiny.sqlclient.Tuple;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The queries of {@link PositionCheckpointPanacheRepository} in SQL, for the shards other than the primary, restricted
+ * to the current portfolio. The statements join the {@link ShardTransaction} of the unit of work they run in; a
+ * replace outside one runs in a database transaction of its own. Entries go with their checkpoint by cascade.
+ */
+public class SqlPositionCheckpointRepository implements PositionCheckpointStore {
+
+    private final Pool pool;
+    private final PortfolioContext portfolioContext;
+
+    public SqlPositionCheckpointRepository(Pool pool, PortfolioContext portfolioContext) {
+        this.pool = pool;
+        this.portfolioContext = portfolioContext;
+    }
+
+    @Override
+    public Uni<PositionCheckpointEntity> findLatestOnOrBefore(LocalDate date) {
+        return ShardTransaction.client(pool)
+                .flatMap(client -> query(client, "SELECT portfolio_id, as_of, change_marker, created_at FROM position_checkpoints "
+                                + "WHERE portfolio_id = $1 AND as_of <= $2 ORDER BY as_of DESC LIMIT 1",
+                        portfolioContext.current(), date))
+                .map(rows -> rows.size() > 0 ? toCheckpoint(rows.iterator().next()) : null);
+    }
+
+    @Override
+    public Uni<List<PositionCheckpointEntryEntity>> findEntries(LocalDate asOf) {
+        return ShardTransaction.client(pool)
+                .flatMap(client -> query(client, "SELECT portfolio_id, as_of, ticker, currency::text, shares, cost_basis "
+                                + "FROM position_checkpoint_entries WHERE portfolio_id = $1 AND as_of = $2",
+                        portfolioContext.current(), asOf))
+                .map(rows -> {
+                    List<PositionCheckpointEntryEntity> entries = new ArrayList<>(rows.size());
+                    for (Row row : rows) {
+                        entries.add(toEntry(row));
+                    }
+                    return entries;
+                });
+    }
+
+    /**
+     * Same check as {@link PositionCheckpointPanacheRepository#replace}, against the change counter of this shard
+     */
+    @Override
+    public Uni<Boolean> replace(PositionCheckpointEntity checkpoint, List<PositionCheckpointEntryEntity> entries) {
+        String portfolioId = portfolioContext.current();
+        return ShardTransaction.inTransaction(pool, client -> query(client, "SELECT change_count, last_modified FROM transaction_changes "
+                        + "WHERE portfolio_id = $1 AND ticker = $2 FOR SHARE", portfolioId, TransactionPanacheRepository.PORTFOLIO_CHANGES)
+                .flatMap(rows -> {
+                    if (!PositionCheckpointPanacheRepository.marker(counter(rows)).tag().equals(checkpoint.getChangeMarker())) {
+                        return Uni.createFrom().item(false);
+                    }
+                    return query(client, "DELETE FROM position_checkpoints WHERE portfolio_id = $1 AND as_of = $2",
+                            portfolioId, checkpoint.getAsOf())
+                            .chain(() -> query(client, "INSERT INTO position_checkpoints (portfolio_id, as_of, change_marker, created_at) "
+                                            + "VALUES ($1, $2, $3, $4)",
+                                    portfolioId, checkpoint.getAsOf(), checkpoint.getChangeMarker(), checkpoint.getCreatedAt()))
+                            .chain(() -> entries.isEmpty()
+                                    ? Uni.createFrom().voidItem()
+                                    : client.preparedQuery("INSERT INTO position_checkpoint_entries "
+                                                    + "(portfolio_id, as_of, ticker, currency, shares, cost_basis) "
+                                                    + "VALUES ($1, $2, $3, $4::currency_type, $5, $6)")
+                                            .executeBatch(entries.stream()
+                                                    .map(entry -> Tuple.from(new ArrayList<>(Arrays.asList(portfolioId, entry.getAsOf(),
+                                                            entry.getTicker(), entry.getCurrency().name(), entry.getShares(), entry.getCostBasis()))))
+                                                    .toList())
+                                            .replaceWithVoid())
+                            .replaceWith(true);
+                }));
+    }
+
+    @Override
+    public Uni<Void> deleteFrom(LocalDate date) {
+        return ShardTransaction.client(pool)
+                .flatMap(client -> query(client, "DELETE FROM position_checkpoints WHERE portfolio_id = $1 AND as_of >= $2",
+                        portfolioContext.current(), date))
+                .replaceWithVoid();
+    }
+
+    private static Uni<RowSet<Row>> query(SqlClient client, String sql, Object... params) {
+        return client.preparedQuery(sql).execute(Tuple.from(new ArrayList<>(Arrays.asList(params))));
+    }
+
+    private static Object[] counter(RowSet<Row> rows) {
+        if (rows.size() == 0) {
+            return null;
+        }
+        Row row = rows.iterator().next();
+        return new Object[]{row.getLong(0), row.getOffsetDateTime(1)};
+    }
+
+    private static PositionCheckpointEntity toCheckpoint(Row row) {
+        PositionCheckpointEntity checkpoint = new PositionCheckpointEntity();
+        checkpoint.setPortfolioId(row.getString(0));
+        checkpoint.setAsOf(row.getLocalDate(1));
+        checkpoint.setChangeMarker(row.getString(2));
+        checkpoint.setCreatedAt(row.getOffsetDateTime(3));
+        return checkpoint;
+    }
+
+    private static PositionCheckpointEntryEntity toEntry(Row row) {
+        PositionCheckpointEntryEntity entry = new PositionCheckpointEntryEntity();
+        entry.setPortfolioId(row.getString(0));
+        entry.setAsOf(row.getLocalDate(1));
+        entry.setTicker(row.getString(2));
+        entry.setCurrency(Currency.valueOf(row.getString(3)));
+        entry.setShares(row.getBigDecimal(4));
+        entry.setCostBasis(row.getBigDecimal(5));
+        return entry;
+    }
+}
@@ -0,0 +1,381 @@
+package com.transaction.infrastructure.persistence.repository;
+
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.TransactionType;
+import com.transaction.domain.port.output.PortfolioContext;
+import com.transaction.infrastructure.persistence.entity.TransactionEntity;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.SqlClient;
+import io.vertx.mutiny.sqlclient.Tuple;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The queries of {@link TransactionPanacheRepository} in SQL, for databases reached through the reactive client
+ * rather than Hibernate: the read replica and the shards other than the primary. On a shard the statements join the
+ * {@link ShardTransaction} of the unit of work they run in, so the row, its change counters and whatever else the
+ * unit of work writes there commit together; outside one, and always on the replica, each is autocommitted.
+ */
+public class SqlTransactionRepository implements TransactionStore {
+
+    private static final String COLUMNS = "id, portfolio_id, ticker, transaction_type::text, quantity, cost_per_share, currency::text, "
+            + "transaction_date, commission, commission_currency::text, exchange, country, company_name, drip_confirmed, "
+            + "is_fractional, fractional_multiplier, notes, created_at, updated_at, version";
+
+    private final Pool pool;
+    private final PortfolioContext portfolioContext;
+    private final boolean joinsUnitOfWork;
+
+    public SqlTransactionRepository(Pool pool, PortfolioContext portfolioContext, boolean joinsUnitOfWork) {
+        this.pool = pool;
+        this.portfolioContext = portfolioContext;
+        this.joinsUnitOfWork = joinsUnitOfWork;
+    }
+
+    @Override
+    public Uni<TransactionEntity> insert(TransactionEntity entity) {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<Object> params = new ArrayList<>();
+        params.add(entity.getId() != null ? entity.getId() : UUID.randomUUID());
+        params.add(entity.getPortfolioId());
+        params.add(entity.getTicker());
+        params.add(entity.getTransactionType().name());
+        params.add(entity.getQuantity());
+        params.add(entity.getCostPerShare());
+        params.add(entity.getCurrency().name());
+        params.add(entity.getTransactionDate());
+        params.add(entity.getCommission());
+        params.add(entity.getCommissionCurrency() != null ? entity.getCommissionCurrency().name() : null);
+        params.add(entity.getExchange());
+        params.add(entity.getCountry());
+        params.add(entity.getCompanyName());
+        params.add(entity.getDripConfirmed());
+        params.add(entity.getIsFractional());
+        params.add(entity.getFractionalMultiplier());
+        params.add(entity.getNotes());
+        params.add(now);
+        params.add(now);
+        return query("INSERT INTO transactions (id, portfolio_id, ticker, transaction_type, quantity, cost_per_share, currency, "
+                        + "transaction_date, commission, commission_currency, exchange, country, company_name, drip_confirmed, "
+                        + "is_fractional, fractional_multiplier, notes, created_at, updated_at, version) "
+                        + "VALUES ($1, $2, $3, $4::transaction_type, $5, $6, $7::currency_type, $8, $9, $10::currency_type, "
+                        + "$11, $12, $13, $14, $15, $16, $17, $18, $19, 0) RETURNING " + COLUMNS, params)
+                .map(rows -> toEntity(rows.iterator().next()));
+    }
+
+    @Override
+    public Uni<TransactionEntity> findById(UUID id) {
+        return query("SELECT " + COLUMNS + " FROM transactions WHERE portfolio_id = $1 AND id = $2",
+                new ArrayList<>(List.of(portfolioContext.current(), id)))
+                .map(rows -> rows.size() > 0 ? toEntity(rows.iterator().next()) : null);
+    }
+
+    @Override
+    public Uni<TransactionEntity> findByIdActive(UUID id) {
+        return findById(id);
+    }
+
+    @Override
+    public Uni<List<TransactionEntity>> findByTicker(String ticker) {
+        return query("SELECT " + COLUMNS + " FROM transactions WHERE portfolio_id = $1 AND ticker = $2 ORDER BY transaction_date DESC",
+                new ArrayList<>(List.of(portfolioContext.current(), ticker)))
+                .map(SqlTransactionRepository::toEntities);
+    }
+
+    @Override
+    public Uni<List<TransactionEntity>> findByTickers(Collection<String> tickers) {
+        return query("SELECT " + COLUMNS + " FROM transactions WHERE portfolio_id = $1 AND ticker = ANY($2) ORDER BY transaction_date DESC",
+                new ArrayList<>(List.of(portfolioContext.current(), tickers.toArray(String[]::new))))
+                .map(SqlTransactionRepository::toEntities);
+    }
+
+    @Override
+    public Uni<List<TransactionEntity>> findAllOrderedByDate() {
+        return query("SELECT " + COLUMNS + " FROM transactions WHERE portfolio_id = $1 ORDER BY transaction_date DESC",
+                new ArrayList<>(List.of(portfolioContext.current())))
+                .map(SqlTransactionRepository::toEntities);
+    }
+
+    @Override
+    public Uni<List<TransactionEntity>> searchTransactions(String ticker, TransactionType type,
+                                                          LocalDate fromDate, LocalDate toDate) {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT " + COLUMNS + " FROM transactions WHERE " + searchFilter(ticker, type, fromDate, toDate, params)
+                + " ORDER BY transaction_date DESC";
+        return query(sql, params).map(SqlTransactionRepository::toEntities);
+    }
+
+    @Override
+    public Uni<List<TransactionEntity>> searchTransactionsPage(String ticker, TransactionType type,
+                                                              LocalDate fromDate, LocalDate toDate,
+                                                              LocalDate afterDate, UUID afterId, int limit) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM transactions WHERE ")
+                .append(searchFilter(ticker, type, fromDate, toDate, params));
+        if (afterDate != null && afterId != null) {
+            params.add(afterDate);
+            int date = params.size();
+            params.add(afterId);
+            sql.append(" AND (transaction_date < $%d OR (transaction_date = $%d AND id < $%d))".formatted(date, date, date + 1));
+        }
+        params.add(limit);
+        sql.append(" ORDER BY transaction_date DESC, id DESC LIMIT $").append(params.size());
+        return query(sql.toString(), params).map(SqlTransactionRepository::toEntities);
+    }
+
+    /**
+     * Same row shape as {@link TransactionPanacheRepository#summarizeTransactions}
+     */
+    @Override
+    public Uni<List<Object[]>> summarizeTransactions(String ticker, TransactionType type,
+                                                     LocalDate fromDate, LocalDate toDate) {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT ticker, transaction_type::text, currency::text, count(*), sum(quantity), "
+                + "sum(quantity * cost_per_share), coalesce(sum(commission), 0), min(transaction_date), max(transaction_date) "
+                + "FROM transactions WHERE " + searchFilter(ticker, type, fromDate, toDate, params)
+                + (type == null ? " AND transaction_type <> 'SPLIT'" : "")
+                + " GROUP BY ticker, transaction_type, currency ORDER BY ticker, transaction_type, currency";
+        return query(sql, params).map(rows -> {
+            List<Object[]> summaries = new ArrayList<>(rows.size());
+            for (Row row : rows) {
+                summaries.add(new Object[]{
+                        row.getString(0),
+                        TransactionType.valueOf(row.getString(1)),
+                        Currency.valueOf(row.getString(2)),
+                        row.getLong(3),
+                        row.getBigDecimal(4),
+                        row.getBigDecimal(5),
+                        row.getBigDecimal(6),
+                        row.getLocalDate(7),
+                        row.getLocalDate(8)});
+            }
+            return summaries;
+        });
+    }
+
+    @Override
+    public Uni<Long> countInPortfolio() {
+        return query("SELECT count(*) FROM transactions WHERE portfolio_id = $1 AND transaction_type <> 'SPLIT'",
+                new ArrayList<>(List.of(portfolioContext.current())))
+                .map(rows -> rows.iterator().next().getLong(0));
+    }
+
+    @Override
+    public Uni<Long> countByTicker(String ticker) {
+        List<Object> params = new ArrayList<>(List.of(portfolioContext.current(), ticker));
+        return query("SELECT count(*) FROM transactions WHERE portfolio_id = $1 AND upper(trim(ticker)) = $2 "
+                + "AND transaction_type <> 'SPLIT'", params)
+                .map(rows -> rows.iterator().next().getLong(0));
+    }
+
+    @Override
+    public Uni<List<Object[]>> countByTickers(Collection<String> tickers) {
+        List<Object> params = new ArrayList<>(List.of(portfolioContext.current(), tickers.toArray(String[]::new)));
+        return query("SELECT upper(trim(ticker)), count(*) FROM transactions WHERE portfolio_id = $1 "
+                + "AND upper(trim(ticker)) = ANY($2) AND transaction_type <> 'SPLIT' GROUP BY upper(trim(ticker))", params)
+                .map(rows -> {
+                    List<Object[]> counts = new ArrayList<>(rows.size());
+                    for (Row row : rows) {
+                        counts.add(new Object[]{row.getString(0), row.getLong(1)});
+                    }
+                    return counts;
+                });
+    }
+
+    @Override
+    public Uni<Object[]> findWriteScopeById(UUID id) {
+        return query("SELECT ticker, transaction_type::text, transaction_date FROM transactions WHERE portfolio_id = $1 AND id = $2",
+                new ArrayList<>(List.of(portfolioContext.current(), id)))
+                .map(rows -> {
+                    if (rows.size() == 0) {
+                        return null;
+                    }
+                    Row row = rows.iterator().next();
+                    return new Object[]{row.getString(0), TransactionType.valueOf(row.getString(1)), row.getLocalDate(2)};
+                });
+    }
+
+    @Override
+    public Uni<List<String>> findPortfolioIds() {
+        return query("SELECT DISTINCT portfolio_id FROM transactions ORDER BY portfolio_id", new ArrayList<>())
+                .map(rows -> {
+                    List<String> portfolioIds = new ArrayList<>(rows.size());
+                    for (Row row : rows) {
+                        portfolioIds.add(row.getString(0));
+                    }
+                    return portfolioIds;
+                });
+    }
+
+    @Override
+    public Uni<Object[]> findVersionAndUpdatedAt(UUID id) {
+        return query("SELECT version, updated_at FROM transactions WHERE portfolio_id = $1 AND id = $2",
+                new ArrayList<>(List.of(portfolioContext.current(), id)))
+                .map(rows -> {
+                    if (rows.size() == 0) {
+                        return null;
+                    }
+                    Row row = rows.iterator().next();
+                    return new Object[]{row.getLong(0), row.getOffsetDateTime(1)};
+                });
+    }
+
+    @Override
+    public Uni<Object[]> findChangeCounter(String ticker) {
+        return query("SELECT change_count, last_modified FROM transaction_changes WHERE portfolio_id = $1 AND ticker = $2",
+                new ArrayList<>(List.of(portfolioContext.current(),
+                        ticker != null ? ticker : TransactionPanacheRepository.PORTFOLIO_CHANGES)))
+                .map(rows -> {
+                    if (rows.size() == 0) {
+                        return null;
+                    }
+                    Row row = rows.iterator().next();
+                    return new Object[]{row.getLong(0), row.getOffsetDateTime(1)};
+                });
+    }
+
+    @Override
+    public Uni<Void> recordChange(Collection<String> tickers) {
+        String portfolioId = portfolioContext.current();
+        OffsetDateTime now = OffsetDateTime.now();
+        return Multi.createFrom().iterable(TransactionPanacheRepository.changeScopes(tickers))
+                .onItem().transformToUniAndConcatenate(scope -> query(
+                        "INSERT INTO transaction_changes (portfolio_id, ticker, change_count, last_modified) VALUES ($1, $2, 1, $3) "
+                                + "ON CONFLICT (portfolio_id, ticker) DO UPDATE "
+                                + "SET change_count = transaction_changes.change_count + 1, last_modified = EXCLUDED.last_modified",
+                        new ArrayList<>(List.of(portfolioId, scope, now))))
+                .collect().last()
+                .replaceWithVoid();
+    }
+
+    @Override
+    public Uni<Void> recordDividends(String ticker, int delta) {
+        return query("UPDATE transaction_changes SET dividend_count = dividend_count + $1 WHERE portfolio_id = $2 AND ticker = $3",
+                new ArrayList<>(List.of(delta, portfolioContext.current(), ticker)))
+                .replaceWithVoid();
+    }
+
+    @Override
+    public Uni<List<Object[]>> findDividendTickers() {
+        return query("SELECT ticker, change_count, last_modified FROM transaction_changes "
+                        + "WHERE portfolio_id = $1 AND dividend_count > 0 AND ticker <> $2 ORDER BY ticker",
+                new ArrayList<>(List.of(portfolioContext.current(), TransactionPanacheRepository.PORTFOLIO_CHANGES)))
+                .map(rows -> {
+                    List<Object[]> tickers = new ArrayList<>(rows.size());
+                    for (Row row : rows) {
+                        tickers.add(new Object[]{row.getString(0), row.getLong(1), row.getOffsetDateTime(2)});
+                    }
+                    return tickers;
+                });
+    }
+
+    @Override
+    public Uni<Boolean> deleteById(UUID id) {
+        return query("DELETE FROM transactions WHERE portfolio_id = $1 AND id = $2",
+                new ArrayList<>(List.of(portfolioContext.current(), id)))
+                .map(rows -> rows.rowCount() > 0);
+    }
+
+    @Override
+    public Uni<Integer> updateIfVersionMatches(TransactionEntity entity, Long expectedVersion) {
+        List<Object> params = new ArrayList<>();
+        params.add(entity.getTicker());
+        params.add(entity.getTransactionType().name());
+        params.add(entity.getQuantity());
+        params.add(entity.getCostPerShare());
+        params.add(entity.getCommission());
+        params.add(entity.getCurrency().name());
+        params.add(entity.getTransactionDate());
+        params.add(entity.getNotes());
+        params.add(entity.getIsFractional());
+        params.add(entity.getFractionalMultiplier());
+        params.add(entity.getCommissionCurrency() != null ? entity.getCommissionCurrency().name() : null);
+        params.add(entity.getExchange());
+        params.add(entity.getCountry());
+        params.add(entity.getCompanyName());
+        params.add(portfolioContext.current());
+        params.add(entity.getId());
+        params.add(expectedVersion);
+        return query("UPDATE transactions SET ticker = $1, transaction_type = $2::transaction_type, quantity = $3, "
+                        + "cost_per_share = $4, commission = $5, currency = $6::currency_type, transaction_date = $7, notes = $8, "
+                        + "is_fractional = $9, fractional_multiplier = $10, commission_currency = $11::currency_type, "
+                        + "exchange = $12, country = $13, company_name = $14, version = version + 1 "
+                        + "WHERE portfolio_id = $15 AND id = $16 AND version = $17", params)
+                .map(RowSet::rowCount);
+    }
+
+    private Uni<RowSet<Row>> query(String sql, List<Object> params) {
+        Uni<SqlClient> client = joinsUnitOfWork ? ShardTransaction.client(pool) : Uni.createFrom().item(pool);
+        return client.flatMap(sqlClient -> sqlClient.preparedQuery(sql).execute(Tuple.from(params)));
+    }
+
+    private String searchFilter(String ticker, TransactionType type, LocalDate fromDate, LocalDate toDate,
+                                List<Object> params) {
+        params.add(portfolioContext.current());
+        StringBuilder filter = new StringBuilder("portfolio_id = $").append(params.size());
+
+        if (ticker != null && !ticker.trim().isEmpty()) {
+            params.add(ticker);
+            filter.append(" AND ticker = $").append(params.size());
+        }
+
+        if (type != null) {
+            params.add(type.name());
+            filter.append(" AND transaction_type = $").append(params.size()).append("::transaction_type");
+        }
+
+        if (fromDate != null) {
+            params.add(fromDate);
+            filter.append(" AND transaction_date >= $").append(params.size());
+        }
+
+        if (toDate != null) {
+            params.add(toDate);
+            filter.append(" AND transaction_date <= $").append(params.size());
+        }
+
+        return filter.toString();
+    }
+
+    private static List<TransactionEntity> toEntities(RowSet<Row> rows) {
+        List<TransactionEntity> entities = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            entities.add(toEntity(row));
+        }
+        return entities;
+    }
+
+    private static TransactionEntity toEntity(Row row) {
+        String commissionCurrency = row.getString(9);
+        return new TransactionEntity(
+                row.getUUID(0),
+                row.getString(1),
+                row.getString(2),
+                TransactionType.valueOf(row.getString(3)),
+                row.getBigDecimal(4),
+                row.getBigDecimal(5),
+                Currency.valueOf(row.getString(6)),
+                row.getLocalDate(7),
+                row.getBigDecimal(8),
+                commissionCurrency != null ? Currency.valueOf(commissionCurrency) : null,
+                row.getString(10),
+                row.getString(11),
+                row.getString(12),
+                row.getBoolean(13),
+                row.getBoolean(14),
+                row.getBigDecimal(15),
+                row.getString(16),
+                row.getOffsetDateTime(17),
+                row.getOffsetDateTime(18),
+                row.getLong(19));
+    }
+}
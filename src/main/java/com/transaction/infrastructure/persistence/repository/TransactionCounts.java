@@ -0,0 +1,211 @@
+package com.transaction.infrastructure.persistence.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.transaction.domain.port.output.PortfolioContext;
+import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * In-memory transaction counts, so count reads are answered without scanning the transactions table. Splits are
+ * not counted, and tickers are counted trimmed and upper-cased, so {@code " aapl"} and {@code "AAPL"} share a count.
+ * The count of a portfolio and the count of one of its tickers are loaded from the database the first time they are
+ * asked for, then kept up to date by this instance's committed writes and reconciled against the portfolio's shard
+ * every {@code reconcile-interval}, which also picks up writes made by other instances. At most {@code max-portfolios}
+ * portfolio counts and {@code max-tickers} ticker counts are kept, the least recently used being dropped and loaded
+ * again when next asked for, which also bounds the work of each reconciliation.
+ * With {@code estimate-total} the count of the default portfolio is taken from the planner statistics in
+ * {@code pg_class.reltuples} instead of a full count, falling back to a count until the table has been analyzed; the
+ * statistics cover the whole table, splits included, so this is meant for deployments that only use the default
+ * portfolio.
+ */
+@ApplicationScoped
+public class TransactionCounts {
+
+    private final TransactionPanacheRepository panacheRepository;
+    private final ReplicaTransactionRepository replicaRepository;
+    private final TransactionShards shards;
+    private final PortfolioContext portfolioContext;
+    private final boolean estimateTotal;
+    private final Cache<String, AtomicReference<Count>> totals;
+    private final Cache<TickerKey, AtomicReference<Count>> tickers;
+
+    @Inject
+    public TransactionCounts(TransactionPanacheRepository panacheRepository,
+                             ReplicaTransactionRepository replicaRepository,
+                             TransactionShards shards,
+                             PortfolioContext portfolioContext,
+                             @ConfigProperty(name = "application.persistence.counts.estimate-total", defaultValue = "false") boolean estimateTotal,
+                             @ConfigProperty(name = "application.persistence.counts.max-portfolios", defaultValue = "1000") int maxPortfolios,
+                             @ConfigProperty(name = "application.persistence.counts.max-tickers", defaultValue = "10000") int maxTickers) {
+        this.panacheRepository = panacheRepository;
+        this.replicaRepository = replicaRepository;
+        this.shards = shards;
+        this.portfolioContext = portfolioContext;
+        this.estimateTotal = estimateTotal;
+        this.totals = Caffeine.newBuilder()
+                .maximumSize(maxPortfolios)
+                .build();
+        this.tickers = Caffeine.newBuilder()
+                .maximumSize(maxTickers)
+                .build();
+    }
+
+    public Uni<Long> total() {
+        String portfolioId = portfolioContext.current();
+        AtomicReference<Count> current = totals.getIfPresent(portfolioId);
+        if (current != null) {
+            return Uni.createFrom().item(current.get().value());
+        }
+        return loadTotal(portfolioId, () -> shards.read(replicaRepository::count, TransactionStore::countInPortfolio))
+                .map(count -> totals.get(portfolioId, ignored -> new AtomicReference<>(new Count(count))).get().value());
+    }
+
+    public Uni<Long> byTicker(String ticker) {
+        String normalized = normalize(ticker);
+        TickerKey key = new TickerKey(portfolioContext.current(), normalized);
+        AtomicReference<Count> current = tickers.getIfPresent(key);
+        if (current != null) {
+            return Uni.createFrom().item(current.get().value());
+        }
+        return shards.read(() -> replicaRepository.countByTicker(normalized), store -> store.countByTicker(normalized))
+                .map(count -> tickers.get(key, ignored -> new AtomicReference<>(new Count(count))).get().value());
+    }
+
+    /**
+     * Records a transaction written by this instance
+     */
+    public void added(String ticker) {
+        adjust(ticker, 1);
+    }
+
+    /**
+     * Records a transaction deleted by this instance
+     */
+    public void removed(String ticker) {
+        adjust(ticker, -1);
+    }
+
+    /**
+     * Records a transaction moved to another ticker by this instance
+     */
+    public void moved(String fromTicker, String toTicker) {
+        String from = normalize(fromTicker);
+        String to = normalize(toTicker);
+        if (from != null && !from.equals(to)) {
+            String portfolioId = portfolioContext.current();
+            add(tickers.getIfPresent(new TickerKey(portfolioId, from)), -1);
+            add(to != null ? tickers.getIfPresent(new TickerKey(portfolioId, to)) : null, 1);
+        }
+    }
+
+    /**
+     * Replaces the loaded counts with the database's, so drift from other instances' writes lasts at most one
+     * interval. A count this instance changed while the database was being read is left for the next interval, as
+     * the database read may or may not include that change.
+     */
+    @Scheduled(every = "${application.persistence.counts.reconcile-interval}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    Uni<Void> reconcile() {
+        Set<String> portfolioIds = new HashSet<>(totals.asMap().keySet());
+        tickers.asMap().keySet().forEach(key -> portfolioIds.add(key.portfolioId()));
+
+        return Multi.createFrom().iterable(portfolioIds)
+                .onItem().transformToUniAndConcatenate(portfolioId ->
+                        portfolioContext.within(portfolioId, () -> reconcile(portfolioId)))
+                .collect().last()
+                .onFailure().invoke(throwable -> Log.warn("Failed to reconcile transaction counts", throwable))
+                .onFailure().recoverWithNull()
+                .replaceWithVoid();
+    }
+
+    private Uni<Void> reconcile(String portfolioId) {
+        Map<String, Count> seenTickers = new HashMap<>();
+        tickers.asMap().forEach((key, count) -> {
+            if (key.portfolioId().equals(portfolioId)) {
+                seenTickers.put(key.ticker(), count.get());
+            }
+        });
+
+        Uni<Void> tickerCounts = seenTickers.isEmpty()
+                ? Uni.createFrom().voidItem()
+                : shards.run(store -> store.countByTickers(seenTickers.keySet()))
+                        .invoke(rows -> reconciled(portfolioId, seenTickers, rows))
+                        .replaceWithVoid();
+
+        AtomicReference<Count> total = totals.getIfPresent(portfolioId);
+        Count seenTotal = total != null ? total.get() : null;
+        return tickerCounts.chain(() -> total == null
+                ? Uni.createFrom().voidItem()
+                : loadTotal(portfolioId, () -> shards.run(TransactionStore::countInPortfolio))
+                        .invoke(count -> total.compareAndSet(seenTotal, new Count(count)))
+                        .replaceWithVoid());
+    }
+
+    void reconciled(String portfolioId, Map<String, Count> seenTickers, List<Object[]> rows) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        seenTickers.forEach((ticker, seen) -> {
+            AtomicReference<Count> current = tickers.getIfPresent(new TickerKey(portfolioId, ticker));
+            if (current != null) {
+                current.compareAndSet(seen, new Count(counts.getOrDefault(ticker, 0L)));
+            }
+        });
+    }
+
+    private Uni<Long> loadTotal(String portfolioId, Supplier<Uni<Long>> exactCount) {
+        if (!estimateTotal || !PortfolioContext.DEFAULT_PORTFOLIO.equals(portfolioId)) {
+            return exactCount.get();
+        }
+        return panacheRepository.estimateCount()
+                .flatMap(estimate -> estimate != null && estimate >= 0
+                        ? Uni.createFrom().item(estimate)
+                        : exactCount.get());
+    }
+
+    private void adjust(String ticker, long delta) {
+        String portfolioId = portfolioContext.current();
+        add(totals.getIfPresent(portfolioId), delta);
+        String normalized = normalize(ticker);
+        add(normalized != null ? tickers.getIfPresent(new TickerKey(portfolioId, normalized)) : null, delta);
+    }
+
+    private static void add(AtomicReference<Count> count, long delta) {
+        if (count != null) {
+            count.updateAndGet(current -> new Count(current.value() + delta));
+        }
+    }
+
+    /**
+     * Tickers as the count queries match them
+     */
+    static String normalize(String ticker) {
+        return ticker != null ? ticker.trim().toUpperCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * A loaded count. Every change installs a new instance, so reconciling can tell by identity whether the count
+     * changed while the database was being read.
+     */
+    record Count(long value) {
+    }
+
+    private record TickerKey(String portfolioId, String ticker) {
+    }
+}
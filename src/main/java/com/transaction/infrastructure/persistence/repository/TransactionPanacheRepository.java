@@ -1,46 +1,124 @@
 package com.transaction.infrastructure.persistence.repository;
 
 import com.transaction.domain.model.TransactionType;
+import com.transaction.domain.port.output.PortfolioContext;
 import com.transaction.infrastructure.persistence.entity.TransactionEntity;
 import io.quarkus.hibernate.reactive.panache.PanacheRepository;
 import io.quarkus.hibernate.reactive.panache.common.WithSession;
 import io.quarkus.hibernate.reactive.panache.common.WithTransaction;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 /**
- * Panache reactive repository for TransactionEntity
+ * Panache reactive repository for TransactionEntity, the store of the primary shard.
+ * Every query is restricted to the current portfolio, which leads all the indexes of the table.
  */
 @ApplicationScoped
-public class TransactionPanacheRepository implements PanacheRepository<TransactionEntity> {
+public class TransactionPanacheRepository implements PanacheRepository<TransactionEntity>, TransactionStore {
+
+    /**
+     * Ticker of the change counter of the whole portfolio
+     */
+    static final String PORTFOLIO_CHANGES = "";
+
+    @Inject
+    PortfolioContext portfolioContext;
 
     // READ operations - use @WithSession
     @WithSession
     public Uni<TransactionEntity> findById(UUID id) {
-        return find("id = ?1", id).firstResult();
+        return find("portfolioId = ?1 AND id = ?2", portfolioContext.current(), id).firstResult();
     }
 
     @WithSession
     public Uni<List<TransactionEntity>> findByTicker(String ticker) {
-        return find("ticker = ?1 ORDER BY transactionDate DESC", ticker).list();
+        return find("portfolioId = ?1 AND ticker = ?2 ORDER BY transactionDate DESC", portfolioContext.current(), ticker).list();
+    }
+
+    @WithSession
+    public Uni<List<TransactionEntity>> findByTickers(Collection<String> tickers) {
+        return find("portfolioId = ?1 AND ticker IN ?2 ORDER BY transactionDate DESC", portfolioContext.current(), tickers).list();
     }
 
     @WithSession
     public Uni<List<TransactionEntity>> findAllOrderedByDate() {
-        return find("ORDER BY transactionDate DESC").list();
+        return find("portfolioId = ?1 ORDER BY transactionDate DESC", portfolioContext.current()).list();
     }
 
     @WithSession
     public Uni<List<TransactionEntity>> searchTransactions(String ticker, TransactionType type, 
                                                           LocalDate fromDate, LocalDate toDate) {
-        StringBuilder query = new StringBuilder("1=1");
         Map<String, Object> params = new HashMap<>();
+        String query = searchFilter(ticker, type, fromDate, toDate, params) + " ORDER BY transactionDate DESC";
+
+        return find(query, params).list();
+    }
+
+    /**
+     * Keyset page of a search, newest first. Rows after the cursor are found through the date index instead of
+     * skipping an offset, so deep pages cost the same as the first one.
+     */
+    @WithSession
+    public Uni<List<TransactionEntity>> searchTransactionsPage(String ticker, TransactionType type,
+                                                              LocalDate fromDate, LocalDate toDate,
+                                                              LocalDate afterDate, UUID afterId, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder query = new StringBuilder(searchFilter(ticker, type, fromDate, toDate, params));
+
+        if (afterDate != null && afterId != null) {
+            query.append(" AND (transactionDate < :afterDate OR (transactionDate = :afterDate AND id < :afterId))");
+            params.put("afterDate", afterDate);
+            params.put("afterId", afterId);
+        }
+
+        query.append(" ORDER BY transactionDate DESC, id DESC");
+
+        return find(query.toString(), params).page(0, limit).list();
+    }
+
+    /**
+     * Returns {@code [ticker, transactionType, currency, count, sum(quantity), sum(quantity * costPerShare),
+     * sum(commission), min(transactionDate), max(transactionDate)]} per ticker, type and currency of the matching
+     * transactions. Aggregated in the database, so no row is mapped or transferred. Splits are left out unless they
+     * are the type asked for: their quantity and price are a ratio, not shares and money.
+     */
+    @WithSession
+    public Uni<List<Object[]>> summarizeTransactions(String ticker, TransactionType type,
+                                                     LocalDate fromDate, LocalDate toDate) {
+        Map<String, Object> params = new HashMap<>();
+        String query = "SELECT t.ticker, t.transactionType, t.currency, count(t), sum(t.quantity), "
+                + "sum(t.quantity * t.costPerShare), coalesce(sum(t.commission), 0), min(t.transactionDate), max(t.transactionDate) "
+                + "FROM TransactionEntity t WHERE " + searchFilter(ticker, type, fromDate, toDate, params)
+                + (type == null ? " AND t.transactionType <> :split" : "")
+                + " GROUP BY t.ticker, t.transactionType, t.currency ORDER BY t.ticker, t.transactionType, t.currency";
+
+        if (type == null) {
+            params.put("split", TransactionType.SPLIT);
+        }
+
+        return getSession().flatMap(session -> {
+            var selectionQuery = session.createSelectionQuery(query, Object[].class);
+            params.forEach(selectionQuery::setParameter);
+            return selectionQuery.getResultList();
+        });
+    }
+
+    private String searchFilter(String ticker, TransactionType type, LocalDate fromDate, LocalDate toDate,
+                                Map<String, Object> params) {
+        StringBuilder query = new StringBuilder("portfolioId = :portfolioId");
+        params.put("portfolioId", portfolioContext.current());
 
         if (ticker != null && !ticker.trim().isEmpty()) {
             query.append(" AND ticker = :ticker");
@@ -62,38 +140,176 @@ public class TransactionPanacheRepository implements PanacheRepository<Transacti
             params.put("toDate", toDate);
         }
 
-        query.append(" ORDER BY transactionDate DESC");
-
-        return find(query.toString(), params).list();
+        return query.toString();
     }
 
     @WithSession
     public Uni<Boolean> existsByTicker(String ticker) {
-        return find("ticker = ?1", ticker)
+        return find("portfolioId = ?1 AND ticker = ?2", portfolioContext.current(), ticker)
             .count()
             .map(count -> count > 0);
     }
 
+    /**
+     * Counts the ticker's transactions, splits excluded
+     */
     @WithSession
     public Uni<Long> countByTicker(String ticker) {
-        return find("ticker = ?1", ticker).count();
+        return find("portfolioId = ?1 AND upper(trim(ticker)) = ?2 AND transactionType <> ?3",
+                portfolioContext.current(), ticker, TransactionType.SPLIT).count();
+    }
+
+    /**
+     * Counts the portfolio's transactions, splits excluded
+     */
+    @WithSession
+    public Uni<Long> countInPortfolio() {
+        return find("portfolioId = ?1 AND transactionType <> ?2", portfolioContext.current(), TransactionType.SPLIT).count();
+    }
+
+    /**
+     * Returns {@code [ticker, count]} for each of the given tickers that has transactions, splits excluded
+     */
+    @WithSession
+    public Uni<List<Object[]>> countByTickers(Collection<String> tickers) {
+        return getSession().flatMap(session -> session
+                .createSelectionQuery("SELECT upper(trim(t.ticker)), count(t) FROM TransactionEntity t "
+                        + "WHERE t.portfolioId = :portfolioId AND upper(trim(t.ticker)) IN :tickers "
+                        + "AND t.transactionType <> :split GROUP BY upper(trim(t.ticker))", Object[].class)
+                .setParameter("portfolioId", portfolioContext.current())
+                .setParameter("tickers", tickers)
+                .setParameter("split", TransactionType.SPLIT)
+                .getResultList());
+    }
+
+    /**
+     * Row count estimate of the whole table, all portfolios together, kept by the planner statistics;
+     * {@code -1} or {@code null} until the table has been analyzed
+     */
+    @WithSession
+    public Uni<Long> estimateCount() {
+        return getSession().flatMap(session -> session
+                .createNativeQuery("SELECT CAST(reltuples AS bigint) FROM pg_class WHERE oid = to_regclass('transactions')", Long.class)
+                .getSingleResultOrNull());
+    }
+
+    /**
+     * Returns {@code [ticker, transactionType, transactionDate]} of a transaction, or {@code null} if it does not exist
+     */
+    @WithSession
+    public Uni<Object[]> findWriteScopeById(UUID id) {
+        return getSession().flatMap(session -> session
+                .createSelectionQuery("SELECT t.ticker, t.transactionType, t.transactionDate FROM TransactionEntity t "
+                        + "WHERE t.portfolioId = :portfolioId AND t.id = :id", Object[].class)
+                .setParameter("portfolioId", portfolioContext.current())
+                .setParameter("id", id)
+                .getSingleResultOrNull());
     }
 
     @WithSession
     public Uni<TransactionEntity> findByIdActive(UUID id) {
-        return find("id = ?1", id).firstResult();
+        return find("portfolioId = ?1 AND id = ?2", portfolioContext.current(), id).firstResult();
+    }
+
+    /**
+     * Portfolios that hold at least one transaction
+     */
+    @WithSession
+    public Uni<List<String>> findPortfolioIds() {
+        return getSession().flatMap(session -> session
+                .createSelectionQuery("SELECT DISTINCT t.portfolioId FROM TransactionEntity t ORDER BY t.portfolioId", String.class)
+                .getResultList());
+    }
+
+    /**
+     * Returns {@code [version, updatedAt]} of a transaction, or {@code null} if it does not exist.
+     */
+    @WithSession
+    public Uni<Object[]> findVersionAndUpdatedAt(UUID id) {
+        return getSession().flatMap(session -> session
+                .createSelectionQuery("SELECT t.version, t.updatedAt FROM TransactionEntity t "
+                        + "WHERE t.portfolioId = :portfolioId AND t.id = :id", Object[].class)
+                .setParameter("portfolioId", portfolioContext.current())
+                .setParameter("id", id)
+                .getSingleResultOrNull());
+    }
+
+    /**
+     * Returns {@code [changeCount, lastModified]} of a ticker, or of the whole portfolio when {@code ticker} is
+     * {@code null}. A single primary key lookup, whatever the number of transactions.
+     */
+    @WithSession
+    public Uni<Object[]> findChangeCounter(String ticker) {
+        return getSession().flatMap(session -> session
+                .createNativeQuery("SELECT change_count, last_modified FROM transaction_changes "
+                        + "WHERE portfolio_id = :portfolioId AND ticker = :ticker", Object[].class)
+                .setParameter("portfolioId", portfolioContext.current())
+                .setParameter("ticker", ticker != null ? ticker : PORTFOLIO_CHANGES)
+                .getSingleResultOrNull());
+    }
+
+    /**
+     * Returns {@code [ticker, changeCount, lastModified]} of every ticker with a dividend, read from the change
+     * counters without touching the transactions
+     */
+    @WithSession
+    public Uni<List<Object[]>> findDividendTickers() {
+        return getSession().flatMap(session -> session
+                .createNativeQuery("SELECT ticker, change_count, last_modified FROM transaction_changes "
+                        + "WHERE portfolio_id = :portfolioId AND dividend_count > 0 AND ticker <> :portfolioChanges "
+                        + "ORDER BY ticker", Object[].class)
+                .setParameter("portfolioId", portfolioContext.current())
+                .setParameter("portfolioChanges", PORTFOLIO_CHANGES)
+                .getResultList());
     }
 
     // WRITE operations - use @WithTransaction
+    /**
+     * Rows are bumped in a fixed order, the portfolio first, so concurrent writers never wait on each other in a cycle
+     */
+    @WithTransaction
+    public Uni<Void> recordChange(Collection<String> tickers) {
+        String portfolioId = portfolioContext.current();
+        OffsetDateTime now = OffsetDateTime.now();
+        return getSession().flatMap(session -> Multi.createFrom().iterable(changeScopes(tickers))
+                .onItem().transformToUniAndConcatenate(scope -> session
+                        .createNativeQuery("INSERT INTO transaction_changes (portfolio_id, ticker, change_count, last_modified) "
+                                + "VALUES (:portfolioId, :ticker, 1, :now) ON CONFLICT (portfolio_id, ticker) DO UPDATE "
+                                + "SET change_count = transaction_changes.change_count + 1, last_modified = EXCLUDED.last_modified")
+                        .setParameter("portfolioId", portfolioId)
+                        .setParameter("ticker", scope)
+                        .setParameter("now", now)
+                        .executeUpdate())
+                .collect().last()
+                .replaceWithVoid());
+    }
+
+    @WithTransaction
+    public Uni<Void> recordDividends(String ticker, int delta) {
+        return getSession().flatMap(session -> session
+                .createNativeQuery("UPDATE transaction_changes SET dividend_count = dividend_count + :delta "
+                        + "WHERE portfolio_id = :portfolioId AND ticker = :ticker")
+                .setParameter("delta", delta)
+                .setParameter("portfolioId", portfolioContext.current())
+                .setParameter("ticker", ticker)
+                .executeUpdate()
+                .replaceWithVoid());
+    }
+
+    @WithTransaction
+    public Uni<TransactionEntity> insert(TransactionEntity entity) {
+        return persistAndFlush(entity);
+    }
+
     @WithTransaction
     public Uni<Boolean> deleteByTicker(String ticker) {
-        return delete("ticker = ?1", ticker)
+        return delete("portfolioId = ?1 AND ticker = ?2", portfolioContext.current(), ticker)
             .map(count -> count > 0);
     }
 
     @WithTransaction
     public Uni<Boolean> softDeleteById(UUID id) {
-        return delete("id = ?1", id)
+        return delete("portfolioId = ?1 AND id = ?2", portfolioContext.current(), id)
             .map(count -> count > 0);
     }
 
@@ -101,4 +317,57 @@ public class TransactionPanacheRepository implements PanacheRepository<Transacti
     public Uni<Boolean> deleteById(UUID id) {
         return softDeleteById(id);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Single-statement compare-and-set on the row version, so concurrent editors never wait on row locks:
+     * the loser simply updates zero rows. The bulk update bypasses the session, so the entity it may still hold at the
+     * old version is detached; a later read in the same unit of work, such as a second update of the same transaction
+     * in a batch, then loads the new version instead of failing its own compare-and-set.
+     */
+    @WithTransaction
+    public Uni<Integer> updateIfVersionMatches(TransactionEntity entity, Long expectedVersion) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("portfolioId", portfolioContext.current());
+        params.put("id", entity.getId());
+        params.put("expectedVersion", expectedVersion);
+        params.put("ticker", entity.getTicker());
+        params.put("transactionType", entity.getTransactionType());
+        params.put("quantity", entity.getQuantity());
+        params.put("costPerShare", entity.getCostPerShare());
+        params.put("commission", entity.getCommission());
+        params.put("currency", entity.getCurrency());
+        params.put("transactionDate", entity.getTransactionDate());
+        params.put("notes", entity.getNotes());
+        params.put("isFractional", entity.getIsFractional());
+        params.put("fractionalMultiplier", entity.getFractionalMultiplier());
+        params.put("commissionCurrency", entity.getCommissionCurrency());
+        params.put("exchange", entity.getExchange());
+        params.put("country", entity.getCountry());
+        params.put("companyName", entity.getCompanyName());
+
+        return update("ticker = :ticker, transactionType = :transactionType, quantity = :quantity, "
+                + "costPerShare = :costPerShare, commission = :commission, currency = :currency, "
+                + "transactionDate = :transactionDate, notes = :notes, isFractional = :isFractional, "
+                + "fractionalMultiplier = :fractionalMultiplier, commissionCurrency = :commissionCurrency, "
+                + "exchange = :exchange, country = :country, companyName = :companyName, version = version + 1 "
+                + "WHERE portfolioId = :portfolioId AND id = :id AND version = :expectedVersion", params)
+                .call(updated -> updated > 0
+                        ? getSession().flatMap(session -> session.find(TransactionEntity.class, entity.getId())
+                                .invoke(stale -> {
+                                    if (stale != null) {
+                                        session.detach(stale);
+                                    }
+                                }))
+                        : Uni.createFrom().voidItem());
+    }
+
+    /**
+     * The portfolio counter followed by the distinct tickers in order
+     */
+    static List<String> changeScopes(Collection<String> tickers) {
+        List<String> scopes = new ArrayList<>();
+        scopes.add(PORTFOLIO_CHANGES);
+        tickers.stream().filter(Objects::nonNull).distinct().sorted().forEach(scopes::add);
+        return scopes;
+    }
+}
@@ -0,0 +1,239 @@
+package com.transaction.infrastructure.persistence.repository;
+
+import com.transaction.domain.port.output.PortfolioContext;
+import io.quarkus.logging.Log;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.pgclient.PgBuilder;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.sqlclient.PoolOptions;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The databases the transactions are spread over, by portfolio. Shard 0 is the primary, reached through Hibernate;
+ * each of the {@code application.persistence.shards.urls} is one more shard, reached through a reactive pool of
+ * its own. Every query is restricted to one portfolio, so it runs on the single shard holding that portfolio.
+ * A portfolio's idempotency keys and position checkpoints are kept on its shard too, so a unit of work writing to a
+ * portfolio only ever writes to one database and commits its writes there together.
+ * A portfolio is given a shard by hash of its id on its first write and the assignment is kept in
+ * {@code portfolio_shards} on the primary, so adding shards only spreads new portfolios and never moves data.
+ * Until then its reads go to the shard its hash points at, which holds nothing of it yet.
+ * With the primary as the only database nothing is assigned, as everything is on it anyway. Once shards are added, the
+ * first lookup assigns the primary to every portfolio holding transactions there without a shard, before any of them
+ * could be hashed elsewhere.
+ * The read replica is a replica of the primary, so it only serves the portfolios held there.
+ */
+@ApplicationScoped
+public class TransactionShards {
+
+    /**
+     * What one shard holds of the portfolios assigned to it
+     */
+    public record Shard(TransactionStore transactions, IdempotencyKeyStore idempotencyKeys, PositionCheckpointStore checkpoints) {
+    }
+
+    private final Shard primary;
+    private final PortfolioShardPanacheRepository assignments;
+    private final PortfolioContext portfolioContext;
+    private final ReadReplica readReplica;
+    private final List<Shard> shards;
+    private final List<Pool> pools = new ArrayList<>();
+    private final Map<String, Integer> assigned = new ConcurrentHashMap<>();
+    private volatile boolean heldAssigned;
+
+    @Inject
+    public TransactionShards(TransactionPanacheRepository transactions,
+                             IdempotencyKeyPanacheRepository idempotencyKeys,
+                             PositionCheckpointPanacheRepository checkpoints,
+                             PortfolioShardPanacheRepository assignments,
+                             PortfolioContext portfolioContext,
+                             ReadReplica readReplica,
+                             Vertx vertx,
+                             @ConfigProperty(name = "application.persistence.shards.urls") Optional<List<String>> urls,
+                             @ConfigProperty(name = "application.persistence.shards.max-size", defaultValue = "20") int maxSize) {
+        this(new Shard(transactions, idempotencyKeys, checkpoints), assignments, portfolioContext, readReplica, List.of());
+        for (String url : urls.orElse(List.of())) {
+            Pool pool = PgBuilder.pool()
+                    .with(new PoolOptions().setMaxSize(maxSize))
+                    .connectingTo(url)
+                    .using(vertx)
+                    .build();
+            pools.add(pool);
+            shards.add(onPool(pool, portfolioContext));
+        }
+        if (!pools.isEmpty()) {
+            Log.infof("Transactions are sharded by portfolio over %d databases", shards.size());
+        }
+    }
+
+    TransactionShards(Shard primary,
+                      PortfolioShardPanacheRepository assignments,
+                      PortfolioContext portfolioContext,
+                      ReadReplica readReplica,
+                      List<Shard> others) {
+        this.primary = primary;
+        this.assignments = assignments;
+        this.portfolioContext = portfolioContext;
+        this.readReplica = readReplica;
+        this.shards = new ArrayList<>();
+        this.shards.add(primary);
+        this.shards.addAll(others);
+    }
+
+    /**
+     * A shard reached through the reactive pool, whose writes join the unit of work they run in
+     */
+    static Shard onPool(Pool pool, PortfolioContext portfolioContext) {
+        return new Shard(new SqlTransactionRepository(pool, portfolioContext, true),
+                new SqlIdempotencyKeyRepository(pool),
+                new SqlPositionCheckpointRepository(pool, portfolioContext));
+    }
+
+    /**
+     * Store of the shard holding the current portfolio
+     */
+    public Uni<TransactionStore> current() {
+        return currentShard().map(Shard::transactions);
+    }
+
+    /**
+     * Store of the shard holding the current portfolio, assigning it one first when it has none yet
+     */
+    public Uni<TransactionStore> forWrite() {
+        return shardForWrite().map(Shard::transactions);
+    }
+
+    /**
+     * Shard holding the current portfolio
+     */
+    public Uni<Shard> currentShard() {
+        if (shards.size() == 1) {
+            return Uni.createFrom().item(primary);
+        }
+        String portfolioId = portfolioContext.current();
+        Integer shard = assigned.get(portfolioId);
+        if (shard != null) {
+            return Uni.createFrom().item(() -> shard(shard));
+        }
+        return assignHeld()
+                .chain(() -> assignments.findShard(portfolioId))
+                .map(found -> {
+                    if (found == null) {
+                        return shards.get(hashShard(portfolioId));
+                    }
+                    assigned.put(portfolioId, found);
+                    return shard(found);
+                });
+    }
+
+    /**
+     * Shard holding the current portfolio, assigning it one first when it has none yet
+     */
+    public Uni<Shard> shardForWrite() {
+        if (shards.size() == 1) {
+            return Uni.createFrom().item(primary);
+        }
+        String portfolioId = portfolioContext.current();
+        Integer shard = assigned.get(portfolioId);
+        if (shard != null) {
+            return Uni.createFrom().item(() -> shard(shard));
+        }
+        return assignHeld()
+                .chain(() -> assignments.assign(portfolioId, hashShard(portfolioId)))
+                .map(found -> {
+                    assigned.put(portfolioId, found);
+                    return shard(found);
+                });
+    }
+
+    /**
+     * Runs the query on the shard holding the current portfolio
+     */
+    public <T> Uni<T> run(Function<TransactionStore, Uni<T>> query) {
+        return current().flatMap(store -> query.apply(store));
+    }
+
+    /**
+     * Runs the read on the replica when the current portfolio is held by the primary and the replica is readable,
+     * on the shard holding the portfolio otherwise
+     */
+    public <T> Uni<T> read(Supplier<Uni<T>> onReplica, Function<TransactionStore, Uni<T>> query) {
+        String portfolioId = portfolioContext.current();
+        return currentShard().flatMap(shard -> shard == primary
+                ? readReplica.read(portfolioId, onReplica, () -> query.apply(shard.transactions()))
+                : query.apply(shard.transactions()));
+    }
+
+    /**
+     * Runs the query on every shard at once and gathers the results in shard order
+     */
+    public <T> Uni<List<T>> scatter(Function<Shard, Uni<T>> query) {
+        return Uni.createFrom().deferred(() -> Uni.join().all(shards.stream().map(query).toList()).andFailFast());
+    }
+
+    /**
+     * Portfolios holding transactions on any shard, sorted
+     */
+    public Uni<List<String>> findPortfolioIds() {
+        return scatter(shard -> shard.transactions().findPortfolioIds())
+                .map(perShard -> {
+                    TreeSet<String> portfolioIds = new TreeSet<>();
+                    perShard.forEach(portfolioIds::addAll);
+                    return List.copyOf(portfolioIds);
+                });
+    }
+
+    /**
+     * Pins the portfolios written while the primary was the only database to it, once per process; concurrent first
+     * lookups may both run it, which the insert tolerates
+     */
+    private Uni<Void> assignHeld() {
+        if (heldAssigned) {
+            return Uni.createFrom().voidItem();
+        }
+        return assignments.assignHeldToPrimary()
+                .invoke(count -> {
+                    heldAssigned = true;
+                    if (count > 0) {
+                        Log.infof("Assigned %d portfolios held on the primary to it", count);
+                    }
+                })
+                .replaceWithVoid();
+    }
+
+    /**
+     * The default portfolio, which holds every transaction written before portfolios existed, stays on the primary
+     */
+    private int hashShard(String portfolioId) {
+        return PortfolioContext.DEFAULT_PORTFOLIO.equals(portfolioId)
+                ? 0
+                : Math.floorMod(portfolioId.hashCode(), shards.size());
+    }
+
+    /**
+     * Shards are only ever added, at the end of the list, since the assignments refer to them by position
+     */
+    private Shard shard(int shard) {
+        if (shard >= shards.size()) {
+            throw new IllegalStateException("Shard %d is assigned portfolios but only %d are configured".formatted(shard, shards.size()));
+        }
+        return shards.get(shard);
+    }
+
+    @PreDestroy
+    void close() {
+        pools.forEach(Pool::closeAndForget);
+    }
+}
@@ -0,0 +1,107 @@
+package com.transaction.infrastructure.persistence.repository;
+
+import com.transaction.domain.model.TransactionType;
+import com.transaction.infrastructure.persistence.entity.TransactionEntity;
+import io.smallrye.mutiny.Uni;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Queries of the transactions of the current portfolio on one shard.
+ * The primary shard is served by {@link TransactionPanacheRepository}, every other one by a
+ * {@link SqlTransactionRepository} on its own pool; {@link TransactionShards} picks the one holding the portfolio.
+ */
+public interface TransactionStore {
+
+    Uni<TransactionEntity> insert(TransactionEntity entity);
+
+    Uni<TransactionEntity> findById(UUID id);
+
+    Uni<TransactionEntity> findByIdActive(UUID id);
+
+    Uni<List<TransactionEntity>> findByTicker(String ticker);
+
+    Uni<List<TransactionEntity>> findByTickers(Collection<String> tickers);
+
+    Uni<List<TransactionEntity>> findAllOrderedByDate();
+
+    Uni<List<TransactionEntity>> searchTransactions(String ticker, TransactionType type,
+                                                   LocalDate fromDate, LocalDate toDate);
+
+    /**
+     * Keyset page of a search, newest first
+     */
+    Uni<List<TransactionEntity>> searchTransactionsPage(String ticker, TransactionType type,
+                                                       LocalDate fromDate, LocalDate toDate,
+                                                       LocalDate afterDate, UUID afterId, int limit);
+
+    /**
+     * Returns {@code [ticker, transactionType, currency, count, sum(quantity), sum(quantity * costPerShare),
+     * sum(commission), min(transactionDate), max(transactionDate)]} per ticker, type and currency; splits are left out
+     * unless {@code type} asks for them
+     */
+    Uni<List<Object[]>> summarizeTransactions(String ticker, TransactionType type,
+                                              LocalDate fromDate, LocalDate toDate);
+
+    /**
+     * Counts of transactions here and below leave splits out
+     */
+    Uni<Long> countInPortfolio();
+
+    /**
+     * Counts the transactions whose ticker, trimmed and upper-cased, is {@code ticker}
+     */
+    Uni<Long> countByTicker(String ticker);
+
+    /**
+     * Returns {@code [ticker, count]} for each of the given trimmed and upper-cased tickers that has transactions
+     */
+    Uni<List<Object[]>> countByTickers(Collection<String> tickers);
+
+    /**
+     * Returns {@code [ticker, transactionType, transactionDate]} of a transaction, or {@code null} if it does not exist
+     */
+    Uni<Object[]> findWriteScopeById(UUID id);
+
+    /**
+     * Portfolios that hold at least one transaction on this shard, whatever the current one
+     */
+    Uni<List<String>> findPortfolioIds();
+
+    /**
+     * Returns {@code [version, updatedAt]} of a transaction, or {@code null} if it does not exist
+     */
+    Uni<Object[]> findVersionAndUpdatedAt(UUID id);
+
+    /**
+     * Returns {@code [changeCount, lastModified]} of a ticker, or of the whole portfolio when {@code ticker} is
+     * {@code null}; {@code null} when nothing in it was ever written
+     */
+    Uni<Object[]> findChangeCounter(String ticker);
+
+    /**
+     * Bumps the change counter of the portfolio and of every given ticker, in the database transaction of the write
+     */
+    Uni<Void> recordChange(Collection<String> tickers);
+
+    /**
+     * Adds {@code delta} to the dividend count of a ticker whose change counter the same write already bumped
+     */
+    Uni<Void> recordDividends(String ticker, int delta);
+
+    /**
+     * Returns {@code [ticker, changeCount, lastModified]} of every ticker with a dividend, read from the change
+     * counters without touching the transactions
+     */
+    Uni<List<Object[]>> findDividendTickers();
+
+    Uni<Boolean> deleteById(UUID id);
+
+    /**
+     * Compare-and-set on the row version; returns the number of rows updated
+     */
+    Uni<Integer> updateIfVersionMatches(TransactionEntity entity, Long expectedVersion);
+}
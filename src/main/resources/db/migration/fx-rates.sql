@@ -0,0 +1,10 @@
+-- Daily exchange rates: one unit of base_currency buys rate units of quote_currency
+-- The whole table is loaded into memory by the application and reloaded periodically
+
+CREATE TABLE fx_rates (
+    base_currency currency_type NOT NULL,
+    quote_currency currency_type NOT NULL,
+    rate_date DATE NOT NULL,
+    rate DECIMAL(18,8) NOT NULL,
+    PRIMARY KEY (base_currency, quote_currency, rate_date)
+);
@@ -0,0 +1,5 @@
+-- Idempotency keys are claimed before the transaction is created, and completed with the response once it is saved
+-- A claimed key has no response yet, and concurrent requests with the same key wait on its row instead of failing
+
+ALTER TABLE idempotency_keys ALTER COLUMN transaction_id DROP NOT NULL;
+ALTER TABLE idempotency_keys ALTER COLUMN response_payload DROP NOT NULL;
@@ -0,0 +1,14 @@
+-- Idempotency keys for transaction creation
+-- Each key remembers the response of the first request so that client retries do not create duplicates
+
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    request_fingerprint VARCHAR(64) NOT NULL,
+    transaction_id UUID NOT NULL,
+    response_payload TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- Expired keys are purged periodically by the application
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
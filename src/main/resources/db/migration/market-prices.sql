@@ -0,0 +1,9 @@
+-- Latest market price of each ticker
+-- Prices are upserted as they arrive and reloaded into the stock-prices cache on startup and on every refresh
+
+CREATE TABLE market_prices (
+    ticker VARCHAR(20) PRIMARY KEY,
+    price DECIMAL(18,4) NOT NULL,
+    currency currency_type NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,12 @@
+-- Shard holding the transactions of each portfolio, 0 being this database
+-- Portfolios are assigned by hash when they first write and keep their shard afterwards, so adding shards never
+-- moves existing portfolios; the ones that already hold transactions stay here
+CREATE TABLE portfolio_shards (
+    portfolio_id VARCHAR(64) PRIMARY KEY,
+    shard SMALLINT NOT NULL
+);
+
+INSERT INTO portfolio_shards (portfolio_id, shard)
+SELECT DISTINCT portfolio_id, 0 FROM transactions
+UNION
+SELECT 'default', 0;
@@ -0,0 +1,26 @@
+-- Every transaction belongs to a portfolio; rows written before portfolios existed belong to the default one
+ALTER TABLE transactions ADD COLUMN portfolio_id VARCHAR(64) NOT NULL DEFAULT 'default';
+
+-- The portfolio leads every index, so each portfolio's rows are found without touching any other portfolio's
+-- and the table can later be sharded by portfolio without changing the access paths
+DROP INDEX IF EXISTS idx_transactions_ticker;
+DROP INDEX IF EXISTS idx_transactions_date;
+DROP INDEX IF EXISTS idx_transactions_ticker_date;
+DROP INDEX IF EXISTS idx_transactions_date_id;
+CREATE INDEX idx_transactions_portfolio_ticker_date ON transactions(portfolio_id, ticker, transaction_date);
+CREATE INDEX idx_transactions_portfolio_date_id ON transactions(portfolio_id, transaction_date DESC, id DESC);
+
+-- Idempotency keys are stored prefixed with their portfolio
+ALTER TABLE idempotency_keys ALTER COLUMN idempotency_key TYPE VARCHAR(320);
+UPDATE idempotency_keys SET idempotency_key = 'default/' || idempotency_key;
+
+-- Position checkpoints are taken per portfolio
+ALTER TABLE position_checkpoint_entries DROP CONSTRAINT position_checkpoint_entries_as_of_fkey;
+ALTER TABLE position_checkpoint_entries DROP CONSTRAINT position_checkpoint_entries_pkey;
+ALTER TABLE position_checkpoints DROP CONSTRAINT position_checkpoints_pkey;
+ALTER TABLE position_checkpoints ADD COLUMN portfolio_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE position_checkpoint_entries ADD COLUMN portfolio_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE position_checkpoints ADD PRIMARY KEY (portfolio_id, as_of);
+ALTER TABLE position_checkpoint_entries ADD PRIMARY KEY (portfolio_id, as_of, ticker, currency);
+ALTER TABLE position_checkpoint_entries ADD FOREIGN KEY (portfolio_id, as_of)
+    REFERENCES position_checkpoints(portfolio_id, as_of) ON DELETE CASCADE;
@@ -0,0 +1,17 @@
+-- Periodic checkpoints of the open positions, taken at month ends
+-- Positions as of any day are resumed from the nearest checkpoint and only the later transactions are replayed
+
+CREATE TABLE position_checkpoints (
+    as_of DATE PRIMARY KEY,
+    change_marker VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE position_checkpoint_entries (
+    as_of DATE NOT NULL REFERENCES position_checkpoints(as_of) ON DELETE CASCADE,
+    ticker VARCHAR(20) NOT NULL,
+    currency currency_type NOT NULL,
+    shares DECIMAL(24, 8) NOT NULL,
+    cost_basis DECIMAL(24, 8) NOT NULL,
+    PRIMARY KEY (as_of, ticker, currency)
+);
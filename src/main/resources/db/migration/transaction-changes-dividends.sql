@@ -0,0 +1,16 @@
+-- Dividend rows per ticker, kept by the writes next to the change counters
+-- Dividend reads list the tickers that paid dividends from here instead of grouping the transactions
+
+ALTER TABLE transaction_changes ADD COLUMN dividend_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE transaction_changes c
+SET dividend_count = d.dividends
+FROM (
+    SELECT portfolio_id, ticker, count(*) AS dividends
+    FROM transactions
+    WHERE transaction_type = 'DIVIDEND'
+    GROUP BY portfolio_id, ticker
+) d
+WHERE c.portfolio_id = d.portfolio_id AND c.ticker = d.ticker;
+
+CREATE INDEX idx_transaction_changes_dividends ON transaction_changes (portfolio_id) WHERE dividend_count > 0;
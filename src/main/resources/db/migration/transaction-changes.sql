@@ -0,0 +1,21 @@
+-- Write-driven change counters, the validators of collection reads
+-- Every write bumps the row of its portfolio (empty ticker) and of each ticker it touches, in its own database transaction
+
+CREATE TABLE transaction_changes (
+    portfolio_id VARCHAR(64) NOT NULL,
+    ticker VARCHAR(20) NOT NULL,
+    change_count BIGINT NOT NULL,
+    last_modified TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (portfolio_id, ticker)
+);
+
+-- Start from the existing transactions so current validators keep changing from here on
+INSERT INTO transaction_changes (portfolio_id, ticker, change_count, last_modified)
+SELECT portfolio_id, ticker, count(*) + sum(version), coalesce(max(updated_at), CURRENT_TIMESTAMP)
+FROM transactions
+GROUP BY portfolio_id, ticker;
+
+INSERT INTO transaction_changes (portfolio_id, ticker, change_count, last_modified)
+SELECT portfolio_id, '', count(*) + sum(version), coalesce(max(updated_at), CURRENT_TIMESTAMP)
+FROM transactions
+GROUP BY portfolio_id;
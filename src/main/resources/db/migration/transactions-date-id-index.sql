@@ -0,0 +1,2 @@
+-- Keyset pagination of searches: newest first, ties on the same date broken by id
+CREATE INDEX idx_transactions_date_id ON transactions(transaction_date DESC, id DESC);
@@ -0,0 +1,2 @@
+-- Ticker counts match tickers trimmed and upper-cased, whatever case they were written in
+CREATE INDEX idx_transactions_portfolio_normalized_ticker ON transactions(portfolio_id, upper(trim(ticker)));
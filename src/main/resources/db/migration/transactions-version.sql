@@ -0,0 +1,2 @@
+-- Row version used for optimistic concurrency (ETag / If-Match on transaction updates)
+ALTER TABLE transactions ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
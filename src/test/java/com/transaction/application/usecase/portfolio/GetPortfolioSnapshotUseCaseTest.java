@@ -0,0 +1,140 @@
+package com.transaction.application.usecase.portfolio;
+
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.model.ChangeMarker;
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.PortfolioSnapshot;
+import com.transaction.domain.model.PositionCheckpoint;
+import com.transaction.domain.model.PositionSnapshot;
+import com.transaction.domain.model.Transaction;
+import com.transaction.domain.model.TransactionType;
+import com.transaction.domain.port.input.GetPortfolioSnapshotUseCase.Result;
+import com.transaction.domain.port.output.PositionCheckpointRepository;
+import com.transaction.domain.port.output.TransactionRepository;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class GetPortfolioSnapshotUseCaseTest {
+    private static final LocalDate JANUARY_END = LocalDate.parse("2024-01-31");
+
+    private TransactionRepository transactionRepository;
+    private PositionCheckpointRepository checkpointRepository;
+    private GetPortfolioSnapshotService useCase;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository = mock(TransactionRepository.class);
+        checkpointRepository = mock(PositionCheckpointRepository.class);
+        when(checkpointRepository.findLatestOnOrBefore(any())).thenReturn(Uni.createFrom().nullItem());
+        when(checkpointRepository.save(any())).thenReturn(Uni.createFrom().voidItem());
+        when(checkpointRepository.deleteFrom(any())).thenReturn(Uni.createFrom().voidItem());
+        when(transactionRepository.findChangeMarker()).thenReturn(Uni.createFrom().item(new ChangeMarker("m1", null)));
+        useCase = new GetPortfolioSnapshotService();
+        useCase.transactionRepository = transactionRepository;
+        useCase.checkpointRepository = checkpointRepository;
+    }
+
+    @Test
+    void testResumesFromCheckpointAndReplaysOnlyLaterTransactions() {
+        doReturn(Uni.createFrom().item(checkpoint("m1"))).when(checkpointRepository).findLatestOnOrBefore(LocalDate.parse("2024-02-15"));
+        when(transactionRepository.searchTransactions(null, null, LocalDate.parse("2024-02-01"), LocalDate.parse("2024-02-15")))
+                .thenReturn(Uni.createFrom().item(List.of(transaction(TransactionType.BUY, "5", "120", "2024-02-10"))));
+
+        PortfolioSnapshot snapshot = success(LocalDate.parse("2024-02-15"));
+
+        PositionSnapshot position = snapshot.positions().getFirst();
+        assertEquals(0, new BigDecimal("15").compareTo(position.shares()));
+        assertEquals(0, new BigDecimal("1600").compareTo(position.costBasis()));
+        assertEquals(JANUARY_END, snapshot.checkpointDate());
+        assertEquals(1, snapshot.replayedTransactions());
+        verify(checkpointRepository, never()).save(any());
+        verify(checkpointRepository, never()).deleteFrom(any());
+        verify(transactionRepository, never()).findChangeMarker();
+    }
+
+    @Test
+    void testCheckpointTakenOnAFullReplayCarriesThePortfolioMarker() {
+        when(transactionRepository.searchTransactions(null, null, null, LocalDate.parse("2024-02-15")))
+                .thenReturn(Uni.createFrom().item(List.of(
+                        transaction(TransactionType.BUY, "5", "120", "2024-02-10"),
+                        transaction(TransactionType.BUY, "20", "100", "2024-01-05"))));
+
+        PortfolioSnapshot snapshot = success(LocalDate.parse("2024-02-15"));
+
+        assertNull(snapshot.checkpointDate());
+        assertEquals(0, new BigDecimal("25").compareTo(snapshot.positions().getFirst().shares()));
+        PositionCheckpoint saved = savedCheckpoint();
+        assertEquals(JANUARY_END, saved.asOf());
+        assertEquals("m1", saved.changeMarker());
+        assertEquals(0, new BigDecimal("20").compareTo(saved.positions().getFirst().shares()));
+    }
+
+    @Test
+    void testCheckpointIsTakenAtTheLastMonthEndCrossed() {
+        when(transactionRepository.searchTransactions(null, null, null, LocalDate.parse("2024-03-10")))
+                .thenReturn(Uni.createFrom().item(List.of(
+                        transaction(TransactionType.SELL, "10", "150", "2024-03-01"),
+                        transaction(TransactionType.BUY, "10", "100", "2024-01-05"),
+                        transaction(TransactionType.SPLIT, "2", "1", "2024-02-20"))));
+
+        PortfolioSnapshot snapshot = success(LocalDate.parse("2024-03-10"));
+
+        assertEquals(0, new BigDecimal("10").compareTo(snapshot.positions().getFirst().shares()));
+        assertEquals(0, new BigDecimal("500").compareTo(snapshot.positions().getFirst().costBasis()));
+        PositionCheckpoint saved = savedCheckpoint();
+        assertEquals(LocalDate.parse("2024-02-29"), saved.asOf());
+        assertEquals(0, new BigDecimal("20").compareTo(saved.positions().getFirst().shares()));
+        verify(transactionRepository).findChangeMarker();
+    }
+
+    @Test
+    void testFailedCheckpointSaveStillAnswers() {
+        when(transactionRepository.searchTransactions(null, null, null, LocalDate.parse("2024-03-10")))
+                .thenReturn(Uni.createFrom().item(List.of(transaction(TransactionType.BUY, "10", "100", "2024-01-05"))));
+        doReturn(Uni.createFrom().failure(new RuntimeException("db down"))).when(checkpointRepository).save(any());
+
+        assertEquals(1, success(LocalDate.parse("2024-03-10")).positions().size());
+    }
+
+    @Test
+    void testMissingDayIsRejected() {
+        Result result = useCase.execute(null).await().indefinitely();
+
+        Result.Error error = assertInstanceOf(Result.Error.class, result);
+        assertEquals(Errors.PortfolioSnapshotErrors.INVALID_INPUT, error.error());
+        verifyNoInteractions(transactionRepository, checkpointRepository);
+    }
+
+    private PortfolioSnapshot success(LocalDate asOf) {
+        Result result = useCase.execute(asOf).subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+        return assertInstanceOf(Result.Success.class, result).snapshot();
+    }
+
+    private PositionCheckpoint savedCheckpoint() {
+        ArgumentCaptor<PositionCheckpoint> captor = ArgumentCaptor.forClass(PositionCheckpoint.class);
+        verify(checkpointRepository).save(captor.capture());
+        return captor.getValue();
+    }
+
+    private static PositionCheckpoint checkpoint(String marker) {
+        return new PositionCheckpoint(JANUARY_END, marker, List.of(
+                new PositionSnapshot("AAPL", Currency.USD, new BigDecimal("10"), new BigDecimal("1000"))));
+    }
+
+    private static Transaction transaction(TransactionType type, String quantity, String price, String date) {
+        return new Transaction("AAPL", type, new BigDecimal(quantity), new BigDecimal(price), BigDecimal.ZERO,
+                Currency.USD, LocalDate.parse(date), null, true, false, BigDecimal.ONE, Currency.USD, null, null, null);
+    }
+}
@@ -0,0 +1,72 @@
+package com.transaction.application.usecase.portfolio;
+
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.exception.ServiceException;
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.MarketPrice;
+import com.transaction.domain.port.input.UpdateMarketPriceUseCase.Result;
+import com.transaction.domain.port.output.MarketPriceRepository;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UpdateMarketPriceUseCaseTest {
+    private MarketPriceRepository marketPriceRepository;
+    private UpdateMarketPriceService useCase;
+
+    @BeforeEach
+    void setUp() {
+        marketPriceRepository = mock(MarketPriceRepository.class);
+        useCase = new UpdateMarketPriceService();
+        useCase.marketPriceRepository = marketPriceRepository;
+    }
+
+    @Test
+    void testUpdateStoresNormalizedTicker() {
+        when(marketPriceRepository.save(any())).thenAnswer(invocation -> Uni.createFrom().item((MarketPrice) invocation.getArgument(0)));
+
+        Result result = execute(" aapl ", new BigDecimal("155.75"), Currency.USD);
+
+        assertInstanceOf(Result.Success.class, result);
+        ArgumentCaptor<MarketPrice> captor = ArgumentCaptor.forClass(MarketPrice.class);
+        verify(marketPriceRepository).save(captor.capture());
+        assertEquals("AAPL", captor.getValue().ticker());
+        assertEquals(new BigDecimal("155.75"), captor.getValue().price());
+        assertNotNull(captor.getValue().updatedAt());
+    }
+
+    @Test
+    void testInvalidInput() {
+        assertInvalid(execute(" ", BigDecimal.TEN, Currency.USD));
+        assertInvalid(execute("AAPL", BigDecimal.ZERO, Currency.USD));
+        assertInvalid(execute("AAPL", BigDecimal.TEN, null));
+        verifyNoInteractions(marketPriceRepository);
+    }
+
+    @Test
+    void testPersistenceFailure() {
+        when(marketPriceRepository.save(any())).thenReturn(Uni.createFrom().failure(
+                new ServiceException(Errors.MarketDataErrors.PERSISTENCE_ERROR, new RuntimeException("db down"))));
+
+        Result result = execute("AAPL", BigDecimal.TEN, Currency.USD);
+
+        assertEquals(Errors.MarketDataErrors.PERSISTENCE_ERROR, assertInstanceOf(Result.Error.class, result).error());
+    }
+
+    private static void assertInvalid(Result result) {
+        assertEquals(Errors.MarketDataErrors.INVALID_INPUT, assertInstanceOf(Result.Error.class, result).error());
+    }
+
+    private Result execute(String ticker, BigDecimal price, Currency currency) {
+        return useCase.execute(ticker, price, currency).subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+    }
+}
@@ -0,0 +1,169 @@
+package com.transaction.application.usecase.portfolio;
+
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.FxRate;
+import com.transaction.domain.model.FxRateTable;
+import com.transaction.domain.model.MarketPrice;
+import com.transaction.domain.model.PortfolioValuation;
+import com.transaction.domain.model.PositionValuation;
+import com.transaction.domain.model.Transaction;
+import com.transaction.domain.model.TransactionType;
+import com.transaction.domain.port.input.ValuePortfolioUseCase.Result;
+import com.transaction.domain.port.output.FxRateRepository;
+import com.transaction.domain.port.output.MarketPriceRepository;
+import com.transaction.domain.port.output.TransactionRepository;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ValuePortfolioUseCaseTest {
+    private static final Instant PRICED_AT = Instant.parse("2024-06-01T12:00:00Z");
+
+    private TransactionRepository transactionRepository;
+    private MarketPriceRepository marketPriceRepository;
+    private FxRateRepository fxRateRepository;
+    private ValuePortfolioService useCase;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository = mock(TransactionRepository.class);
+        marketPriceRepository = mock(MarketPriceRepository.class);
+        fxRateRepository = mock(FxRateRepository.class);
+        when(fxRateRepository.table()).thenReturn(Uni.createFrom().item(FxRateTable.empty()));
+        useCase = new ValuePortfolioService();
+        useCase.transactionRepository = transactionRepository;
+        useCase.marketPriceRepository = marketPriceRepository;
+        useCase.fxRateRepository = fxRateRepository;
+    }
+
+    @Test
+    void testValuationAtAverageCost() {
+        when(transactionRepository.findAll()).thenReturn(Uni.createFrom().item(List.of(
+                transaction("AAPL", TransactionType.SELL, "5", "200", "2024-03-01"),
+                transaction("AAPL", TransactionType.BUY, "10", "100", "2024-01-01"),
+                transaction("AAPL", TransactionType.BUY, "10", "200", "2024-02-01"),
+                transaction("AAPL", TransactionType.DIVIDEND, "1", "3", "2024-02-15"))));
+        when(marketPriceRepository.findCached(Set.of("AAPL"))).thenReturn(Uni.createFrom().item(Map.of(
+                "AAPL", new MarketPrice("AAPL", new BigDecimal("180"), Currency.USD, PRICED_AT))));
+
+        PortfolioValuation valuation = success();
+
+        PositionValuation position = valuation.positions().getFirst();
+        assertEquals(0, new BigDecimal("15").compareTo(position.shares()));
+        assertEquals(0, new BigDecimal("2250").compareTo(position.costBasis()));
+        assertEquals(0, new BigDecimal("2700").compareTo(position.marketValue()));
+        assertEquals(0, new BigDecimal("450").compareTo(position.unrealizedGain()));
+        assertEquals(new BigDecimal("20.00"), position.unrealizedGainPercent());
+        assertEquals(PRICED_AT, position.priceUpdatedAt());
+        assertEquals(0, new BigDecimal("2700").compareTo(valuation.totals().getFirst().marketValue()));
+        assertTrue(valuation.unpricedTickers().isEmpty());
+        assertNull(valuation.baseTotal());
+    }
+
+    @Test
+    void testFractionalSharesAndClosedPositions() {
+        Transaction fractional = new Transaction("msft", TransactionType.BUY, new BigDecimal("4"), new BigDecimal("10"),
+                BigDecimal.ZERO, Currency.USD, LocalDate.parse("2024-01-01"), null, true, true, new BigDecimal("0.25"),
+                Currency.USD, null, null, null);
+        when(transactionRepository.findAll()).thenReturn(Uni.createFrom().item(List.of(
+                fractional,
+                transaction("TSLA", TransactionType.BUY, "2", "100", "2024-01-01"),
+                transaction("TSLA", TransactionType.SELL, "2", "150", "2024-01-02"))));
+        when(marketPriceRepository.findCached(any())).thenReturn(Uni.createFrom().item(Map.of(
+                "MSFT", new MarketPrice("MSFT", new BigDecimal("50"), Currency.USD, PRICED_AT))));
+
+        PortfolioValuation valuation = success();
+
+        assertEquals(1, valuation.positions().size());
+        PositionValuation position = valuation.positions().getFirst();
+        assertEquals("MSFT", position.ticker());
+        assertEquals(0, BigDecimal.ONE.compareTo(position.shares()));
+        assertEquals(0, new BigDecimal("50").compareTo(position.marketValue()));
+        verify(marketPriceRepository).findCached(Set.of("MSFT"));
+    }
+
+    @Test
+    void testPositionsWithoutUsablePriceAreUnpriced() {
+        when(transactionRepository.findAll()).thenReturn(Uni.createFrom().item(List.of(
+                transaction("AAPL", TransactionType.BUY, "1", "100", "2024-01-01"),
+                new Transaction("SAP", TransactionType.BUY, BigDecimal.ONE, new BigDecimal("100"), BigDecimal.ZERO,
+                        Currency.EUR, LocalDate.parse("2024-01-01"), null, true, false, BigDecimal.ONE,
+                        Currency.EUR, null, null, null))));
+        when(marketPriceRepository.findCached(any())).thenReturn(Uni.createFrom().item(Map.of(
+                "SAP", new MarketPrice("SAP", new BigDecimal("120"), Currency.USD, PRICED_AT))));
+
+        PortfolioValuation valuation = success();
+
+        assertEquals(List.of("AAPL", "SAP"), valuation.unpricedTickers());
+        assertTrue(valuation.totals().isEmpty());
+        assertTrue(valuation.positions().stream().noneMatch(PositionValuation::isPriced));
+    }
+
+    @Test
+    void testBaseCurrencyTotalsUseRatesOfPurchaseDates() {
+        when(fxRateRepository.table()).thenReturn(Uni.createFrom().item(FxRateTable.of(List.of(
+                new FxRate(Currency.EUR, Currency.USD, LocalDate.parse("2024-01-01"), new BigDecimal("1.25")),
+                new FxRate(Currency.EUR, Currency.USD, LocalDate.parse("2024-02-01"), new BigDecimal("1.00")),
+                new FxRate(Currency.EUR, Currency.USD, LocalDate.now(ZoneOffset.UTC), new BigDecimal("1.00"))), 7)));
+        Transaction withEuroFees = new Transaction("AAPL", TransactionType.BUY, new BigDecimal("10"), new BigDecimal("100"),
+                new BigDecimal("8"), Currency.USD, LocalDate.parse("2024-01-01"), null, true, false, BigDecimal.ONE,
+                Currency.EUR, null, null, null);
+        when(transactionRepository.findAll()).thenReturn(Uni.createFrom().item(List.of(
+                withEuroFees,
+                transaction("JPM", TransactionType.BUY, "1", "100", "2024-01-01"))));
+        when(marketPriceRepository.findCached(any())).thenReturn(Uni.createFrom().item(Map.of(
+                "AAPL", new MarketPrice("AAPL", new BigDecimal("100"), Currency.EUR, PRICED_AT))));
+
+        PortfolioValuation valuation = assertInstanceOf(Result.Success.class,
+                useCase.execute(Currency.EUR).await().indefinitely()).valuation();
+
+        PositionValuation position = valuation.positions().getFirst();
+        assertEquals(new BigDecimal("1010.0000"), position.costBasis());
+        assertEquals(0, new BigDecimal("1000").compareTo(position.marketValue()));
+        PortfolioValuation.Total baseTotal = valuation.baseTotal();
+        assertEquals(Currency.EUR, baseTotal.currency());
+        assertEquals(0, new BigDecimal("808").compareTo(baseTotal.costBasis()));
+        assertEquals(0, new BigDecimal("1000").compareTo(baseTotal.marketValue()));
+        assertEquals(List.of("JPM"), valuation.unpricedTickers());
+        assertTrue(valuation.unconvertedTickers().isEmpty());
+    }
+
+    @Test
+    void testRepositoryFailure() {
+        when(transactionRepository.findAll()).thenReturn(Uni.createFrom().failure(new RuntimeException("db down")));
+
+        Result result = execute();
+
+        Result.Error error = assertInstanceOf(Result.Error.class, result);
+        assertEquals(Errors.MarketDataErrors.VALUATION_ERROR, error.error());
+        verifyNoInteractions(marketPriceRepository);
+    }
+
+    private PortfolioValuation success() {
+        return assertInstanceOf(Result.Success.class, execute()).valuation();
+    }
+
+    private Result execute() {
+        return useCase.execute().subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+    }
+
+    private static Transaction transaction(String ticker, TransactionType type, String quantity, String price, String date) {
+        return new Transaction(ticker, type, new BigDecimal(quantity), new BigDecimal(price), BigDecimal.ZERO,
+                Currency.USD, LocalDate.parse(date), null, true, false, BigDecimal.ONE, Currency.USD, null, null, null);
+    }
+}
@@ -0,0 +1,263 @@
+package com.transaction.application.usecase.transaction;
+
+import com.transaction.application.command.CreateTransactionCommand;
+import com.transaction.application.command.UpdateTransactionCommand;
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.Transaction;
+import com.transaction.domain.model.TransactionType;
+import com.transaction.domain.port.input.BatchTransactionsUseCase.Operation;
+import com.transaction.domain.port.input.BatchTransactionsUseCase.Outcome;
+import com.transaction.domain.port.input.BatchTransactionsUseCase.Result;
+import com.transaction.domain.port.input.CreateTransactionUseCase;
+import com.transaction.domain.port.input.DeleteTransactionUseCase;
+import com.transaction.domain.port.input.UpdateTransactionUseCase;
+import com.transaction.domain.port.output.DomainEventPublisher;
+import com.transaction.domain.port.output.TransactionRepository;
+import com.transaction.domain.port.output.UnitOfWork;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BatchTransactionsUseCaseTest {
+    private CreateTransactionUseCase createTransactionUseCase;
+    private UpdateTransactionUseCase updateTransactionUseCase;
+    private DeleteTransactionUseCase deleteTransactionUseCase;
+    private BatchTransactionsService useCase;
+
+    @BeforeEach
+    void setUp() {
+        createTransactionUseCase = mock(CreateTransactionUseCase.class);
+        updateTransactionUseCase = mock(UpdateTransactionUseCase.class);
+        deleteTransactionUseCase = mock(DeleteTransactionUseCase.class);
+
+        useCase = spy(new BatchTransactionsService());
+        useCase.createTransactionUseCase = createTransactionUseCase;
+        useCase.updateTransactionUseCase = updateTransactionUseCase;
+        useCase.deleteTransactionUseCase = deleteTransactionUseCase;
+        useCase.maxOperations = 10;
+        useCase.chunkSize = 2;
+        useCase.unitOfWork = mock(UnitOfWork.class);
+        when(useCase.unitOfWork.transactional(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+    }
+
+    @Test
+    void testExecuteRunsOperationsInOrderAndReportsEachOutcome() {
+        CreateTransactionCommand createCommand = mock(CreateTransactionCommand.class);
+        UpdateTransactionCommand updateCommand = mock(UpdateTransactionCommand.class);
+        UUID deletedId = UUID.randomUUID();
+        Transaction transaction = mock(Transaction.class);
+        when(createTransactionUseCase.execute(createCommand, "key-1"))
+                .thenReturn(Uni.createFrom().item(new CreateTransactionUseCase.Result.Success(transaction)));
+        when(updateTransactionUseCase.execute(updateCommand, 3L))
+                .thenReturn(Uni.createFrom().item(new UpdateTransactionUseCase.Result.VersionConflict()));
+        when(deleteTransactionUseCase.execute(deletedId))
+                .thenReturn(Uni.createFrom().item(new DeleteTransactionUseCase.Result.NotFound(deletedId)));
+
+        Result result = execute(List.of(
+                new Operation.Create(createCommand, "key-1"),
+                new Operation.Update(updateCommand, 3L),
+                new Operation.Delete(deletedId)));
+
+        Result.Success success = assertInstanceOf(Result.Success.class, result);
+        assertEquals(List.of(
+                new Outcome.Created(new CreateTransactionUseCase.Result.Success(transaction)),
+                new Outcome.Updated(new UpdateTransactionUseCase.Result.VersionConflict()),
+                new Outcome.Deleted(new DeleteTransactionUseCase.Result.NotFound(deletedId))), success.outcomes());
+        InOrder inOrder = inOrder(createTransactionUseCase, updateTransactionUseCase, deleteTransactionUseCase);
+        inOrder.verify(createTransactionUseCase).execute(createCommand, "key-1");
+        inOrder.verify(updateTransactionUseCase).execute(updateCommand, 3L);
+        inOrder.verify(deleteTransactionUseCase).execute(deletedId);
+    }
+
+    @Test
+    void testExecuteSplitsOperationsIntoChunks() {
+        when(deleteTransactionUseCase.execute(any()))
+                .thenAnswer(invocation -> Uni.createFrom().item(new DeleteTransactionUseCase.Result.Success(invocation.getArgument(0))));
+
+        Result result = execute(deletes(5));
+
+        assertEquals(5, assertInstanceOf(Result.Success.class, result).outcomes().size());
+        verify(useCase, times(3)).applyChunk(any());
+    }
+
+    @Test
+    void testFailedChunkMarksOnlyItsOperations() {
+        List<Operation> operations = deletes(4);
+        RuntimeException commitFailure = new RuntimeException("commit failed");
+        when(deleteTransactionUseCase.execute(any()))
+                .thenAnswer(invocation -> Uni.createFrom().item(new DeleteTransactionUseCase.Result.Success(invocation.getArgument(0))));
+        doReturn(Uni.createFrom().failure(commitFailure)).when(useCase).applyChunk(operations.subList(0, 2));
+
+        Result result = execute(operations);
+
+        List<Outcome> outcomes = assertInstanceOf(Result.Success.class, result).outcomes();
+        assertEquals(new Outcome.Failed(operations.get(0), commitFailure), outcomes.get(0));
+        assertEquals(new Outcome.Failed(operations.get(1), commitFailure), outcomes.get(1));
+        assertInstanceOf(Outcome.Deleted.class, outcomes.get(2));
+        assertInstanceOf(Outcome.Deleted.class, outcomes.get(3));
+    }
+
+    @Test
+    void testFailedOperationRollsBackAloneAndEventsWaitForTheChunkToCommit() {
+        RecordingUnitOfWork unitOfWork = new RecordingUnitOfWork();
+        TransactionRepository transactionRepository = mock(TransactionRepository.class);
+        DomainEventPublisher eventPublisher = mock(DomainEventPublisher.class);
+        DeleteTransactionService deleteService = new DeleteTransactionService();
+        deleteService.transactionRepository = transactionRepository;
+        deleteService.eventPublisher = eventPublisher;
+        deleteService.unitOfWork = unitOfWork;
+        useCase.deleteTransactionUseCase = deleteService;
+        useCase.unitOfWork = unitOfWork;
+
+        List<Operation> operations = deletes(2);
+        UUID deleted = ((Operation.Delete) operations.get(0)).id();
+        UUID failing = ((Operation.Delete) operations.get(1)).id();
+        when(transactionRepository.findById(any())).thenAnswer(invocation -> Uni.createFrom().item(mock(Transaction.class)));
+        when(transactionRepository.deleteById(deleted)).thenReturn(Uni.createFrom().item(true));
+        when(transactionRepository.deleteById(failing)).thenReturn(Uni.createFrom().failure(new RuntimeException("deadlock detected")));
+        List<List<String>> logWhenPublished = new ArrayList<>();
+        when(eventPublisher.publish(any())).thenAnswer(invocation -> {
+            logWhenPublished.add(List.copyOf(unitOfWork.log));
+            return Uni.createFrom().voidItem();
+        });
+
+        Result result = execute(operations);
+
+        List<Outcome> outcomes = assertInstanceOf(Result.Success.class, result).outcomes();
+        assertEquals(new Outcome.Deleted(new DeleteTransactionUseCase.Result.Success(deleted)), outcomes.get(0));
+        Outcome.Deleted rejected = assertInstanceOf(Outcome.Deleted.class, outcomes.get(1));
+        assertInstanceOf(DeleteTransactionUseCase.Result.Error.class, rejected.result());
+        assertEquals(List.of("release", "rollback to savepoint", "commit"), unitOfWork.log);
+        assertEquals(List.of(List.of("release", "rollback to savepoint", "commit")), logWhenPublished);
+    }
+
+    @Test
+    void testSecondUpdateOfTheSameTransactionReadsTheVersionTheFirstWrote() {
+        RecordingUnitOfWork unitOfWork = new RecordingUnitOfWork();
+        TransactionRepository transactionRepository = mock(TransactionRepository.class);
+        DomainEventPublisher eventPublisher = mock(DomainEventPublisher.class);
+        when(eventPublisher.publish(any())).thenReturn(Uni.createFrom().voidItem());
+        UpdateTransactionService updateService = new UpdateTransactionService();
+        updateService.transactionRepository = transactionRepository;
+        updateService.eventPublisher = eventPublisher;
+        updateService.unitOfWork = unitOfWork;
+        useCase.updateTransactionUseCase = updateService;
+        useCase.unitOfWork = unitOfWork;
+
+        UUID id = UUID.randomUUID();
+        AtomicLong version = new AtomicLong(4L);
+        when(transactionRepository.findById(id)).thenAnswer(invocation -> Uni.createFrom().item(() -> stored(id, version.get())));
+        when(transactionRepository.update(any(Transaction.class), any())).thenAnswer(invocation -> Uni.createFrom().item(() ->
+                version.compareAndSet(invocation.getArgument(1), version.get() + 1) ? invocation.<Transaction>getArgument(0) : null));
+
+        Result result = execute(List.of(
+                new Operation.Update(correction(id, "10"), null),
+                new Operation.Update(correction(id, "12"), null)));
+
+        List<Outcome> outcomes = assertInstanceOf(Result.Success.class, result).outcomes();
+        assertInstanceOf(UpdateTransactionUseCase.Result.Success.class, ((Outcome.Updated) outcomes.get(0)).result());
+        assertInstanceOf(UpdateTransactionUseCase.Result.Success.class, ((Outcome.Updated) outcomes.get(1)).result());
+        assertEquals(6L, version.get());
+        verify(transactionRepository).update(any(Transaction.class), eq(4L));
+        verify(transactionRepository).update(any(Transaction.class), eq(5L));
+    }
+
+    @Test
+    void testExecuteRejectsEmptyBatch() {
+        Result.Error error = assertInstanceOf(Result.Error.class, execute(List.of()));
+
+        assertEquals(Errors.BatchTransactionsErrors.INVALID_INPUT, error.error());
+    }
+
+    @Test
+    void testExecuteRejectsOversizedBatch() {
+        Result.Error error = assertInstanceOf(Result.Error.class, execute(deletes(11)));
+
+        assertEquals(Errors.BatchTransactionsErrors.INVALID_INPUT, error.error());
+        verifyNoInteractions(deleteTransactionUseCase);
+    }
+
+    private Result execute(List<Operation> operations) {
+        return useCase.execute(operations).subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .assertCompleted()
+                .getItem();
+    }
+
+    private static Transaction stored(UUID id, long version) {
+        return new Transaction(id, "AAPL", TransactionType.BUY, new BigDecimal("10"), new BigDecimal("150.50"),
+                BigDecimal.ZERO, Currency.USD, LocalDate.of(2024, 1, 15), null, true, false, BigDecimal.ONE, Currency.USD,
+                "NYSE", "USA", "Apple Inc.", version, new ArrayList<>());
+    }
+
+    private static UpdateTransactionCommand correction(UUID id, String quantity) {
+        return new UpdateTransactionCommand(id, "AAPL", TransactionType.BUY, new BigDecimal(quantity), new BigDecimal("150.50"),
+                BigDecimal.ZERO, Currency.USD, LocalDate.of(2024, 1, 15), null, false, BigDecimal.ONE, Currency.USD,
+                "NYSE", "USA", "Apple Inc.");
+    }
+
+    private static List<Operation> deletes(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(ignored -> (Operation) new Operation.Delete(UUID.randomUUID()))
+                .toList();
+    }
+
+    /**
+     * Unit of work that records what the database adapter would do: nested work is released or rolled back to its
+     * savepoint, and after-commit actions run once the outermost work commits.
+     */
+    private static class RecordingUnitOfWork implements UnitOfWork {
+        private final List<String> log = new ArrayList<>();
+        private List<Supplier<Uni<Void>>> open;
+
+        @Override
+        public <T> Uni<T> transactional(Supplier<Uni<T>> work) {
+            return Uni.createFrom().deferred(() -> {
+                List<Supplier<Uni<Void>>> enclosing = open;
+                List<Supplier<Uni<Void>>> actions = new ArrayList<>();
+                open = actions;
+                return work.get()
+                        .eventually(() -> open = enclosing)
+                        .onFailure().invoke(() -> log.add(enclosing != null ? "rollback to savepoint" : "rollback"))
+                        .call(() -> {
+                            if (enclosing != null) {
+                                log.add("release");
+                                enclosing.addAll(actions);
+                                return Uni.createFrom().voidItem();
+                            }
+                            log.add("commit");
+                            return Multi.createFrom().iterable(actions)
+                                    .onItem().transformToUniAndConcatenate(Supplier::get)
+                                    .collect().last();
+                        });
+            });
+        }
+
+        @Override
+        public Uni<Void> afterCommit(Supplier<Uni<Void>> action) {
+            if (open == null) {
+                return action.get();
+            }
+            open.add(action);
+            return Uni.createFrom().voidItem();
+        }
+    }
+}
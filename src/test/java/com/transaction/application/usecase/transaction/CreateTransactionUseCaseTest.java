@@ -6,27 +6,39 @@ import com.transaction.domain.event.TransactionCreatedEvent;
 import com.transaction.domain.exception.Errors;
 import com.transaction.domain.exception.ServiceException;
 import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.IdempotencyRecord;
 import com.transaction.domain.model.Transaction;
 import com.transaction.domain.model.TransactionType;
 import com.transaction.domain.port.input.CreateTransactionUseCase;
 import com.transaction.domain.port.output.DomainEventPublisher;
+import com.transaction.domain.port.output.IdempotencyRepository;
 import com.transaction.domain.port.output.TransactionRepository;
+import com.transaction.domain.port.output.UnitOfWork;
 import io.smallrye.mutiny.Uni;
 import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class CreateTransactionUseCaseTest {
     private TransactionRepository transactionRepository;
     private DomainEventPublisher eventPublisher;
+    private IdempotencyRepository idempotencyRepository;
+    private UnitOfWork unitOfWork;
     private CreateTransactionService useCase;
 
     @BeforeEach
@@ -36,6 +48,13 @@ class CreateTransactionUseCaseTest {
         useCase = new CreateTransactionService();
         useCase.transactionRepository = transactionRepository;
         useCase.eventPublisher = eventPublisher;
+        idempotencyRepository = mock(IdempotencyRepository.class);
+        useCase.idempotencyRepository = idempotencyRepository;
+        useCase.idempotencyTtl = Duration.ofHours(24);
+        unitOfWork = mock(UnitOfWork.class);
+        when(unitOfWork.transactional(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        when(unitOfWork.afterCommit(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        useCase.unitOfWork = unitOfWork;
     }
 
     @Test
@@ -281,6 +300,236 @@ class CreateTransactionUseCaseTest {
         verify(eventPublisher).publish(any(TransactionCreatedEvent.class));
     }
 
+    @Test
+    void testExecuteWithNewIdempotencyKeyStoresOutcome() {
+        // Given
+        CreateTransactionCommand command = createValidCommand();
+        UUID transactionId = UUID.randomUUID();
+
+        when(idempotencyRepository.find("key-1")).thenReturn(Uni.createFrom().nullItem());
+        when(idempotencyRepository.claim(eq("key-1"), any(), any())).thenReturn(Uni.createFrom().item(true));
+        when(idempotencyRepository.save(any(IdempotencyRecord.class))).thenReturn(Uni.createFrom().voidItem());
+        when(transactionRepository.save(any(Transaction.class)))
+                .thenAnswer(invocation -> Uni.createFrom().item(withId(invocation.getArgument(0), transactionId)));
+        when(eventPublisher.publish(any(DomainEvent.class)))
+                .thenReturn(Uni.createFrom().voidItem());
+
+        // When
+        CreateTransactionUseCase.Result actualResult = useCase.execute(command, "key-1").subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .assertCompleted()
+                .getItem();
+
+        // Then
+        assertInstanceOf(CreateTransactionUseCase.Result.Success.class, actualResult);
+
+        ArgumentCaptor<IdempotencyRecord> captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRepository).save(captor.capture());
+        IdempotencyRecord stored = captor.getValue();
+        assertEquals("key-1", stored.key());
+        assertEquals(transactionId, stored.transaction().getId());
+        assertTrue(stored.expiresAt().isAfter(Instant.now().plus(Duration.ofHours(23))));
+        verify(eventPublisher).publish(any(TransactionCreatedEvent.class));
+    }
+
+    @Test
+    void testExecuteWithKnownIdempotencyKeyReplaysStoredTransaction() {
+        // Given
+        CreateTransactionCommand command = createValidCommand();
+        UUID transactionId = UUID.randomUUID();
+        ArgumentCaptor<IdempotencyRecord> captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+
+        when(idempotencyRepository.find("key-1")).thenReturn(Uni.createFrom().nullItem());
+        when(idempotencyRepository.claim(eq("key-1"), any(), any())).thenReturn(Uni.createFrom().item(true));
+        when(idempotencyRepository.save(captor.capture())).thenReturn(Uni.createFrom().voidItem());
+        when(transactionRepository.save(any(Transaction.class)))
+                .thenAnswer(invocation -> Uni.createFrom().item(withId(invocation.getArgument(0), transactionId)));
+        when(eventPublisher.publish(any(DomainEvent.class)))
+                .thenReturn(Uni.createFrom().voidItem());
+        useCase.execute(command, "key-1").await().indefinitely();
+
+        when(idempotencyRepository.find("key-1")).thenReturn(Uni.createFrom().item(captor.getValue()));
+
+        // When
+        CreateTransactionUseCase.Result actualResult = useCase.execute(command, "key-1").subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .assertCompleted()
+                .getItem();
+
+        // Then
+        assertInstanceOf(CreateTransactionUseCase.Result.Replayed.class, actualResult);
+        assertEquals(transactionId, ((CreateTransactionUseCase.Result.Replayed) actualResult).transaction().getId());
+        verify(transactionRepository, times(1)).save(any(Transaction.class));
+        verify(eventPublisher, times(1)).publish(any(DomainEvent.class));
+    }
+
+    @Test
+    void testExecuteWithReusedIdempotencyKeyAndDifferentRequest() {
+        // Given
+        CreateTransactionCommand command = createValidCommand();
+        IdempotencyRecord stored = new IdempotencyRecord("key-1", "other-fingerprint",
+                withId(command.toTransaction(), UUID.randomUUID()), Instant.now().plusSeconds(60));
+
+        when(idempotencyRepository.find("key-1")).thenReturn(Uni.createFrom().item(stored));
+
+        // When
+        CreateTransactionUseCase.Result actualResult = useCase.execute(command, "key-1").subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .assertCompleted()
+                .getItem();
+
+        // Then
+        assertInstanceOf(CreateTransactionUseCase.Result.Error.class, actualResult);
+        assertEquals(Errors.CreateTransactionsErrors.IDEMPOTENCY_KEY_REUSED,
+                ((CreateTransactionUseCase.Result.Error) actualResult).error());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(eventPublisher, never()).publish(any(DomainEvent.class));
+    }
+
+    @Test
+    void testExecuteWithEquivalentAmountsReplaysStoredTransaction() {
+        // Given
+        CreateTransactionCommand command = createValidCommand();
+        ArgumentCaptor<String> fingerprint = ArgumentCaptor.forClass(String.class);
+        when(idempotencyRepository.find("key-1")).thenReturn(Uni.createFrom().nullItem());
+        when(idempotencyRepository.claim(eq("key-1"), fingerprint.capture(), any())).thenReturn(Uni.createFrom().item(true));
+        when(idempotencyRepository.save(any(IdempotencyRecord.class))).thenReturn(Uni.createFrom().voidItem());
+        when(transactionRepository.save(any(Transaction.class)))
+                .thenAnswer(invocation -> Uni.createFrom().item(withId(invocation.getArgument(0), UUID.randomUUID())));
+        when(eventPublisher.publish(any(DomainEvent.class)))
+                .thenReturn(Uni.createFrom().voidItem());
+        useCase.execute(command, "key-1").await().indefinitely();
+
+        CreateTransactionCommand sameAmounts = new CreateTransactionCommand(command.ticker(), command.transactionType(),
+                new BigDecimal("10.0"), new BigDecimal("150.5000"), new BigDecimal("0.00"), command.currency(),
+                command.transactionDate(), command.notes(), command.isFractional(), new BigDecimal("1.0"),
+                command.commissionCurrency(), command.exchange(), command.country(), command.companyName());
+        Transaction stored = withId(command.toTransaction(), UUID.randomUUID());
+        when(idempotencyRepository.find("key-1")).thenReturn(Uni.createFrom().item(
+                new IdempotencyRecord("key-1", fingerprint.getValue(), stored, Instant.now().plusSeconds(60))));
+
+        // When
+        CreateTransactionUseCase.Result actualResult = useCase.execute(sameAmounts, "key-1").subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .assertCompleted()
+                .getItem();
+
+        // Then
+        assertInstanceOf(CreateTransactionUseCase.Result.Replayed.class, actualResult);
+    }
+
+    @Test
+    void testExecuteLosingConcurrentClaimReplaysWinnerOutcome() {
+        // Given
+        CreateTransactionCommand command = createValidCommand();
+        ArgumentCaptor<String> fingerprint = ArgumentCaptor.forClass(String.class);
+        Transaction winner = withId(command.toTransaction(), UUID.randomUUID());
+        when(idempotencyRepository.claim(eq("key-1"), fingerprint.capture(), any())).thenReturn(Uni.createFrom().item(false));
+        when(idempotencyRepository.find("key-1"))
+                .thenReturn(Uni.createFrom().nullItem())
+                .thenAnswer(invocation -> Uni.createFrom().item(
+                        new IdempotencyRecord("key-1", fingerprint.getValue(), winner, Instant.now().plusSeconds(60))));
+
+        // When
+        CreateTransactionUseCase.Result actualResult = useCase.execute(command, "key-1").subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .assertCompleted()
+                .getItem();
+
+        // Then
+        CreateTransactionUseCase.Result.Replayed replayed = assertInstanceOf(CreateTransactionUseCase.Result.Replayed.class, actualResult);
+        assertSame(winner, replayed.transaction());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(eventPublisher, never()).publish(any(DomainEvent.class));
+    }
+
+    @Test
+    void testExecuteLosingClaimWithoutVisibleOutcomeReportsKeyInUse() {
+        // Given
+        CreateTransactionCommand command = createValidCommand();
+        when(idempotencyRepository.find("key-1")).thenReturn(Uni.createFrom().nullItem());
+        when(idempotencyRepository.claim(eq("key-1"), any(), any())).thenReturn(Uni.createFrom().item(false));
+
+        // When
+        CreateTransactionUseCase.Result actualResult = useCase.execute(command, "key-1").subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .assertCompleted()
+                .getItem();
+
+        // Then
+        assertEquals(Errors.CreateTransactionsErrors.IDEMPOTENCY_KEY_IN_USE,
+                assertInstanceOf(CreateTransactionUseCase.Result.Error.class, actualResult).error());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(idempotencyRepository, never()).save(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void testExecuteFailureAfterClaimFailsTheUnitOfWork() {
+        // Given
+        CreateTransactionCommand command = createValidCommand();
+        when(idempotencyRepository.find("key-1")).thenReturn(Uni.createFrom().nullItem());
+        when(idempotencyRepository.claim(eq("key-1"), any(), any())).thenReturn(Uni.createFrom().item(true));
+        when(transactionRepository.save(any(Transaction.class)))
+                .thenReturn(Uni.createFrom().failure(new ServiceException(Errors.CreateTransactionsErrors.PERSISTENCE_ERROR, "down")));
+        when(eventPublisher.publish(any(DomainEvent.class))).thenReturn(Uni.createFrom().voidItem());
+        List<Uni<?>> units = new ArrayList<>();
+        doAnswer(invocation -> {
+            Uni<?> unit = ((Supplier<Uni<?>>) invocation.getArgument(0)).get();
+            units.add(unit);
+            return unit;
+        }).when(unitOfWork).transactional(any());
+
+        // When
+        CreateTransactionUseCase.Result actualResult = useCase.execute(command, "key-1").await().indefinitely();
+
+        // Then
+        assertEquals(Errors.CreateTransactionsErrors.PERSISTENCE_ERROR,
+                assertInstanceOf(CreateTransactionUseCase.Result.Error.class, actualResult).error());
+        units.getFirst().subscribe().withSubscriber(UniAssertSubscriber.create()).assertFailedWith(ServiceException.class);
+    }
+
+    @Test
+    void testExecuteWithBlankIdempotencyKeySkipsLookup() {
+        // Given
+        CreateTransactionCommand command = createValidCommand();
+
+        when(transactionRepository.save(any(Transaction.class)))
+                .thenAnswer(invocation -> Uni.createFrom().item(withId(invocation.getArgument(0), UUID.randomUUID())));
+        when(eventPublisher.publish(any(DomainEvent.class)))
+                .thenReturn(Uni.createFrom().voidItem());
+
+        // When
+        CreateTransactionUseCase.Result actualResult = useCase.execute(command, " ").subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .assertCompleted()
+                .getItem();
+
+        // Then
+        assertInstanceOf(CreateTransactionUseCase.Result.Success.class, actualResult);
+        verifyNoInteractions(idempotencyRepository);
+    }
+
+    private static Transaction withId(Transaction transaction, UUID id) {
+        return Transaction.create(
+                id,
+                transaction.getTicker(),
+                transaction.getTransactionType(),
+                transaction.getQuantity(),
+                transaction.getPrice(),
+                transaction.getFees(),
+                transaction.getCurrency(),
+                transaction.getTransactionDate(),
+                transaction.getNotes(),
+                transaction.getIsActive(),
+                transaction.getIsFractional(),
+                transaction.getFractionalMultiplier(),
+                transaction.getCommissionCurrency(),
+                transaction.getExchange(),
+                transaction.getCountry(),
+                transaction.getCompanyName()
+        );
+    }
+
     private CreateTransactionCommand createValidCommand() {
         return new CreateTransactionCommand(
                 "AAPL",
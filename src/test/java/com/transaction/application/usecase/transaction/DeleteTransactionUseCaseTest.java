@@ -8,6 +8,7 @@ import com.transaction.domain.model.TransactionType;
 import com.transaction.domain.port.input.DeleteTransactionUseCase;
 import com.transaction.domain.port.output.DomainEventPublisher;
 import com.transaction.domain.port.output.TransactionRepository;
+import com.transaction.domain.port.output.UnitOfWork;
 import io.smallrye.mutiny.Uni;
 import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,7 +16,11 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
@@ -34,6 +39,9 @@ class DeleteTransactionUseCaseTest {
         useCase = new DeleteTransactionService();
         useCase.transactionRepository = transactionRepository;
         useCase.eventPublisher = eventPublisher;
+        useCase.unitOfWork = mock(UnitOfWork.class);
+        when(useCase.unitOfWork.transactional(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        when(useCase.unitOfWork.afterCommit(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
     }
 
     @Test
@@ -61,6 +69,31 @@ class DeleteTransactionUseCaseTest {
         verify(eventPublisher, atLeastOnce()).publish(any(DomainEvent.class));
     }
 
+    @Test
+    void testEventsArePublishedOnceTheUnitOfWorkCompletes() {
+        UUID transactionId = UUID.randomUUID();
+        AtomicBoolean committed = new AtomicBoolean();
+        List<Boolean> committedWhenPublished = new ArrayList<>();
+        doAnswer(invocation -> ((Supplier<Uni<?>>) invocation.getArgument(0)).get().invoke(() -> committed.set(true)))
+                .when(useCase.unitOfWork).transactional(any());
+        when(transactionRepository.findById(transactionId))
+                .thenReturn(Uni.createFrom().item(createTransaction(transactionId)));
+        when(transactionRepository.deleteById(transactionId))
+                .thenReturn(Uni.createFrom().item(true));
+        when(eventPublisher.publish(any(DomainEvent.class))).thenAnswer(invocation -> {
+            committedWhenPublished.add(committed.get());
+            return Uni.createFrom().voidItem();
+        });
+
+        DeleteTransactionUseCase.Result actual = useCase.execute(transactionId).subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .assertCompleted()
+                .getItem();
+
+        assertInstanceOf(DeleteTransactionUseCase.Result.Success.class, actual);
+        assertEquals(List.of(true), committedWhenPublished);
+    }
+
     @Test
     void testExecuteTransactionNotFound() {
         UUID transactionId = UUID.randomUUID();
@@ -2,6 +2,8 @@ package com.transaction.application.usecase.transaction;
 
 import com.transaction.domain.model.Currency;
 import com.transaction.domain.model.Transaction;
+import com.transaction.domain.model.TransactionPage;
+import com.transaction.domain.model.TransactionPageCursor;
 import com.transaction.domain.model.TransactionType;
 import com.transaction.domain.port.output.TransactionRepository;
 import io.smallrye.mutiny.Multi;
@@ -456,6 +458,54 @@ class GetTransactionUseCaseTest {
         );
     }
 
+    @Test
+    void testSearchTransactionsPageHasNextCursorWhenMoreRowsFollow() {
+        // Given
+        Transaction first = createTransaction(UUID.randomUUID(), "AAPL");
+        Transaction second = createTransaction(UUID.randomUUID(), "AAPL");
+        Transaction third = createTransaction(UUID.randomUUID(), "AAPL");
+        when(transactionRepository.searchTransactions("AAPL", null, null, null, null, 3))
+                .thenReturn(Uni.createFrom().item(List.of(first, second, third)));
+
+        // When
+        TransactionPage page = useCase.searchTransactions("AAPL", null, null, null, null, 2)
+                .subscribe().withSubscriber(UniAssertSubscriber.create())
+                .assertCompleted()
+                .getItem();
+
+        // Then
+        assertEquals(List.of(first, second), page.transactions());
+        assertEquals(TransactionPageCursor.after(second), TransactionPageCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void testSearchTransactionsPageContinuesAfterCursor() {
+        // Given
+        Transaction last = createTransaction(UUID.randomUUID(), "AAPL");
+        TransactionPageCursor cursor = new TransactionPageCursor(LocalDate.of(2024, 1, 15), UUID.randomUUID());
+        when(transactionRepository.searchTransactions(null, null, null, null, cursor, 3))
+                .thenReturn(Uni.createFrom().item(List.of(last)));
+
+        // When
+        TransactionPage page = useCase.searchTransactions(null, null, null, null, cursor.encode(), 2)
+                .subscribe().withSubscriber(UniAssertSubscriber.create())
+                .assertCompleted()
+                .getItem();
+
+        // Then
+        assertEquals(List.of(last), page.transactions());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    void testSearchTransactionsPageWithMalformedCursor() {
+        useCase.searchTransactions(null, null, null, null, "not-a-cursor", 2)
+                .subscribe().withSubscriber(UniAssertSubscriber.create())
+                .assertFailedWith(IllegalArgumentException.class);
+
+        verifyNoInteractions(transactionRepository);
+    }
+
     private Transaction createActiveTransaction(UUID id, String ticker) {
         Transaction base = createTransaction(id, ticker);
         return Transaction.create(base.getId(), base.getTicker(), base.getTransactionType(), base.getQuantity(),
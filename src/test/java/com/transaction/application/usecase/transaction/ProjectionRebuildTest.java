@@ -0,0 +1,178 @@
+package com.transaction.application.usecase.transaction;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transaction.domain.model.ProjectionReplay;
+import com.transaction.domain.model.TransactionChange;
+import com.transaction.domain.port.input.ReplayTransactionChangesUseCase.Result;
+import com.transaction.domain.port.output.ProjectionCheckpointRepository;
+import com.transaction.domain.port.output.TransactionChangeStream;
+import com.transaction.infrastructure.outgoing.messaging.TickerTransactionsProjection;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.datasource.keys.ReactiveKeyCommands;
+import io.quarkus.redis.datasource.set.ReactiveSetCommands;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Rebuilds the ticker transactions projection from a change stream, with its Redis sets and the checkpoints kept in memory.
+ */
+class ProjectionRebuildTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Set<String>> redisSets = new ConcurrentHashMap<>();
+    private final Map<String, String> checkpoints = new ConcurrentHashMap<>();
+    private final Map<String, ProjectionReplay> storedReplays = new ConcurrentHashMap<>();
+    private final List<TransactionChange> changes = new ArrayList<>();
+    private TickerTransactionsProjection projection;
+    private ReplayTransactionChangesService useCase;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReactiveSetCommands<String, String> setCommands = mock(ReactiveSetCommands.class);
+        when(setCommands.sadd(anyString(), any(String[].class))).thenAnswer(invocation -> Uni.createFrom().item(() -> {
+            Set<String> members = redisSets.computeIfAbsent(invocation.getArgument(0), ignored -> ConcurrentHashMap.newKeySet());
+            return (int) Arrays.stream(members(invocation.getRawArguments())).filter(members::add).count();
+        }));
+        when(setCommands.srem(anyString(), any(String[].class))).thenAnswer(invocation -> Uni.createFrom().item(() -> {
+            Set<String> members = redisSets.getOrDefault((String) invocation.getArgument(0), Set.of());
+            return (int) Arrays.stream(members(invocation.getRawArguments())).filter(members::remove).count();
+        }));
+        when(setCommands.smembers(anyString())).thenAnswer(invocation -> Uni.createFrom().item(() ->
+                Set.copyOf(redisSets.getOrDefault((String) invocation.getArgument(0), Set.of()))));
+        ReactiveKeyCommands<String> keyCommands = mock(ReactiveKeyCommands.class);
+        when(keyCommands.del(any(String[].class))).thenAnswer(invocation -> Uni.createFrom().item(() ->
+                (int) Arrays.stream(members(invocation.getRawArguments())).filter(key -> redisSets.remove(key) != null).count()));
+        ReactiveRedisDataSource redisDataSource = mock(ReactiveRedisDataSource.class);
+        when(redisDataSource.set(String.class)).thenReturn(setCommands);
+        when(redisDataSource.key()).thenReturn(keyCommands);
+        projection = new TickerTransactionsProjection(redisDataSource, objectMapper);
+
+        TransactionChangeStream transactionChangeStream = mock(TransactionChangeStream.class);
+        when(transactionChangeStream.replay(any())).thenAnswer(invocation -> {
+            String after = invocation.getArgument(0);
+            int from = after == null ? 0 : Integer.parseInt(after);
+            return Multi.createFrom().iterable(List.copyOf(changes.subList(from, changes.size())));
+        });
+
+        useCase = new ReplayTransactionChangesService();
+        useCase.transactionChangeStream = transactionChangeStream;
+        useCase.checkpointRepository = new InMemoryCheckpoints();
+        useCase.projections = List.of(projection);
+        useCase.batchSize = 2;
+        useCase.parallelism = 4;
+    }
+
+    @Test
+    void testReplayBuildsTheProjectionAndResetRebuildsItFromScratch() {
+        created("t1", "default", "AAPL");
+        created("t2", "default", "AAPL");
+        created("t3", "default", "MSFT");
+        moved("t2", "default", "AAPL", "NVDA");
+        deleted("t1", "default", "AAPL");
+        created("t4", "income", "aapl");
+
+        assertInstanceOf(Result.Started.class, replay(false));
+
+        assertProjected();
+        assertEquals("6", checkpoints.get(TickerTransactionsProjection.NAME));
+        ProjectionReplay stored = storedReplays.get(TickerTransactionsProjection.NAME);
+        assertFalse(stored.isRunning());
+        assertEquals(6, stored.applied());
+
+        projection.apply(change("stray", "TransactionCreated", "default", "MSFT", null)).await().indefinitely();
+        created("t5", "default", "TSLA");
+
+        replay(false);
+
+        assertEquals(Set.of("t3", "stray"), ids("default", "MSFT"));
+        assertEquals(Set.of("t5"), ids("default", "TSLA"));
+        assertEquals(1, storedReplays.get(TickerTransactionsProjection.NAME).applied());
+
+        replay(true);
+
+        assertProjected();
+        assertEquals(Set.of("t5"), ids("default", "TSLA"));
+        assertEquals("7", checkpoints.get(TickerTransactionsProjection.NAME));
+        assertEquals(7, storedReplays.get(TickerTransactionsProjection.NAME).applied());
+        assertNull(storedReplays.get(TickerTransactionsProjection.NAME).fromCursor());
+    }
+
+    private void assertProjected() {
+        assertEquals(Set.of(), ids("default", "AAPL"));
+        assertEquals(Set.of("t2"), ids("default", "NVDA"));
+        assertEquals(Set.of("t3"), ids("default", "MSFT"));
+        assertEquals(Set.of("t4"), ids("income", "AAPL"));
+    }
+
+    private Result replay(boolean reset) {
+        return useCase.replay(TickerTransactionsProjection.NAME, null, null, reset).await().indefinitely();
+    }
+
+    private Set<String> ids(String portfolioId, String ticker) {
+        return projection.transactionIds(portfolioId, ticker).await().indefinitely();
+    }
+
+    private void created(String id, String portfolioId, String ticker) {
+        changes.add(change(id, "TransactionCreated", portfolioId, ticker, null));
+    }
+
+    private void moved(String id, String portfolioId, String fromTicker, String toTicker) {
+        changes.add(change(id, "TransactionUpdated", portfolioId, toTicker, fromTicker));
+    }
+
+    private void deleted(String id, String portfolioId, String ticker) {
+        changes.add(change(id, "TransactionDeleted", portfolioId, ticker, null));
+    }
+
+    private TransactionChange change(String id, String eventType, String portfolioId, String ticker, String previousTicker) {
+        String payload = objectMapper.createObjectNode()
+                .put("eventType", eventType)
+                .set("payload", objectMapper.createObjectNode().put("id", id))
+                .toString();
+        return new TransactionChange(Integer.toString(changes.size() + 1), eventType, portfolioId, ticker, previousTicker, payload);
+    }
+
+    private static String[] members(Object[] rawArguments) {
+        return (String[]) rawArguments[rawArguments.length - 1];
+    }
+
+    private class InMemoryCheckpoints implements ProjectionCheckpointRepository {
+
+        @Override
+        public Uni<String> find(String projection) {
+            return Uni.createFrom().item(checkpoints.get(projection));
+        }
+
+        @Override
+        public Uni<Void> save(String projection, String cursor) {
+            checkpoints.put(projection, cursor);
+            return Uni.createFrom().voidItem();
+        }
+
+        @Override
+        public Uni<ProjectionReplay> findReplay(String projection) {
+            return Uni.createFrom().item(storedReplays.get(projection));
+        }
+
+        @Override
+        public Uni<Void> saveReplay(ProjectionReplay replay) {
+            storedReplays.put(replay.projection(), replay);
+            return Uni.createFrom().voidItem();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.transaction.application.usecase.transaction;
+
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.model.ProjectionReplay;
+import com.transaction.domain.model.TransactionChange;
+import com.transaction.domain.port.input.ReplayTransactionChangesUseCase.Result;
+import com.transaction.domain.port.output.ProjectionCheckpointRepository;
+import com.transaction.domain.port.output.TransactionChangeStream;
+import com.transaction.domain.port.output.TransactionProjection;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReplayTransactionChangesUseCaseTest {
+    private TransactionChangeStream transactionChangeStream;
+    private ProjectionCheckpointRepository checkpointRepository;
+    private RecordingProjection projection;
+    private ReplayTransactionChangesService useCase;
+
+    @BeforeEach
+    void setUp() {
+        transactionChangeStream = mock(TransactionChangeStream.class);
+        checkpointRepository = mock(ProjectionCheckpointRepository.class);
+        projection = new RecordingProjection();
+        when(checkpointRepository.find(anyString())).thenReturn(Uni.createFrom().nullItem());
+        when(checkpointRepository.save(anyString(), anyString())).thenReturn(Uni.createFrom().voidItem());
+        when(checkpointRepository.findReplay(anyString())).thenReturn(Uni.createFrom().nullItem());
+        when(checkpointRepository.saveReplay(any())).thenReturn(Uni.createFrom().voidItem());
+
+        useCase = new ReplayTransactionChangesService();
+        useCase.transactionChangeStream = transactionChangeStream;
+        useCase.checkpointRepository = checkpointRepository;
+        useCase.projections = List.of(projection);
+        useCase.batchSize = 2;
+        useCase.parallelism = 4;
+    }
+
+    @Test
+    void testReplayAppliesChangesAndCheckpointsEveryBatch() {
+        when(transactionChangeStream.replay(null)).thenReturn(Multi.createFrom().items(
+                change("1", "AAPL"), change("2", "MSFT"), change("3", "AAPL")));
+
+        Result result = replay(null, null, false);
+
+        assertInstanceOf(Result.Started.class, result);
+        assertEquals(List.of("1", "3"), projection.applied("AAPL"));
+        assertEquals(List.of("2"), projection.applied("MSFT"));
+        InOrder inOrder = inOrder(checkpointRepository);
+        inOrder.verify(checkpointRepository).save("positions", "2");
+        inOrder.verify(checkpointRepository).save("positions", "3");
+
+        ProjectionReplay status = useCase.status().await().indefinitely().getFirst();
+        assertFalse(status.isRunning());
+        assertEquals(3, status.applied());
+        assertNull(status.failure());
+    }
+
+    @Test
+    void testReplayStoresItsProgressWithEveryCheckpoint() {
+        when(transactionChangeStream.replay(null)).thenReturn(Multi.createFrom().items(
+                change("1", "AAPL"), change("2", "MSFT"), change("3", "AAPL")));
+        List<ProjectionReplay> stored = new CopyOnWriteArrayList<>();
+        when(checkpointRepository.saveReplay(any())).thenAnswer(invocation -> {
+            stored.add(invocation.getArgument(0));
+            return Uni.createFrom().voidItem();
+        });
+
+        replay(null, null, false);
+
+        assertEquals(List.of(0L, 2L, 3L, 3L), stored.stream().map(ProjectionReplay::applied).toList());
+        assertEquals(List.of(true, true, true, false), stored.stream().map(ProjectionReplay::isRunning).toList());
+    }
+
+    @Test
+    void testStatusAfterRestartComesFromTheStoredReplay() {
+        ProjectionReplay stored = new ProjectionReplay("positions", null, null, 12,
+                Instant.parse("2024-01-01T00:00:00Z"), Instant.parse("2024-01-01T00:01:00Z"), "redis down");
+        when(checkpointRepository.findReplay("positions")).thenReturn(Uni.createFrom().item(stored));
+        when(checkpointRepository.find("positions")).thenReturn(Uni.createFrom().item("12"));
+
+        ProjectionReplay status = useCase.status().await().indefinitely().getFirst();
+
+        assertEquals(stored.withCheckpoint("12"), status);
+    }
+
+    @Test
+    void testUpdateMovingATickerIsOrderedAgainstBothTickers() {
+        useCase.batchSize = 10;
+        when(transactionChangeStream.replay(null)).thenReturn(Multi.createFrom().items(
+                change("1", "AAPL"),
+                new TransactionChange("2", "TransactionUpdated", "default", "NVDA", "AAPL", "{}"),
+                change("3", "AAPL")));
+
+        replay(null, null, false);
+
+        assertEquals(List.of("1", "2", "3"), projection.applied.stream().map(TransactionChange::cursor).toList());
+    }
+
+    @Test
+    void testReplayResumesFromCheckpoint() {
+        when(checkpointRepository.find("positions")).thenReturn(Uni.createFrom().item("7"));
+        when(transactionChangeStream.replay("7")).thenReturn(Multi.createFrom().empty());
+
+        replay(null, null, false);
+
+        verify(transactionChangeStream).replay("7");
+    }
+
+    @Test
+    void testReplayFromTimestampWithReset() {
+        Instant since = Instant.parse("2024-01-01T00:00:00Z");
+        when(transactionChangeStream.cursorAt(since)).thenReturn("at");
+        when(transactionChangeStream.replay("at")).thenReturn(Multi.createFrom().empty());
+
+        replay(null, since, true);
+
+        assertTrue(projection.reset);
+        verify(checkpointRepository, never()).find(anyString());
+    }
+
+    @Test
+    void testReplayOfUnknownProjection() {
+        Result result = useCase.replay("unknown", null, null, false).await().indefinitely();
+
+        assertEquals(new Result.NotFound("unknown"), result);
+        verifyNoInteractions(transactionChangeStream);
+    }
+
+    @Test
+    void testReplayWithUnreadableCursor() {
+        when(transactionChangeStream.replay("bad")).thenThrow(new IllegalArgumentException("Malformed stream cursor: bad"));
+
+        Result result = replay("bad", null, false);
+
+        Result.Error error = assertInstanceOf(Result.Error.class, result);
+        assertEquals(Errors.ReplayTransactionsErrors.INVALID_INPUT, error.error());
+    }
+
+    @Test
+    void testSecondReplayWhileRunningIsRejected() {
+        when(transactionChangeStream.replay(null)).thenReturn(Multi.createFrom().nothing());
+
+        assertInstanceOf(Result.Started.class, replay(null, null, false));
+        assertInstanceOf(Result.AlreadyRunning.class, replay(null, null, false));
+    }
+
+    @Test
+    void testFailedReplayKeepsLastCheckpoint() {
+        when(transactionChangeStream.replay(null)).thenReturn(Multi.createBy().concatenating().streams(
+                Multi.createFrom().items(change("1", "AAPL"), change("2", "AAPL")),
+                Multi.createFrom().failure(new RuntimeException("redis down"))));
+
+        replay(null, null, false);
+
+        verify(checkpointRepository).save("positions", "2");
+        verify(checkpointRepository, times(1)).save(anyString(), any());
+        ProjectionReplay status = useCase.status().await().indefinitely().getFirst();
+        assertEquals("redis down", status.failure());
+    }
+
+    private Result replay(String from, Instant since, boolean reset) {
+        return useCase.replay("positions", from, since, reset).subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+    }
+
+    private static TransactionChange change(String cursor, String ticker) {
+        return new TransactionChange(cursor, "TransactionCreated", "default", ticker, null, "{}");
+    }
+
+    private static class RecordingProjection implements TransactionProjection {
+        private final List<TransactionChange> applied = new CopyOnWriteArrayList<>();
+        private boolean reset;
+
+        @Override
+        public String name() {
+            return "positions";
+        }
+
+        @Override
+        public Uni<Void> reset() {
+            reset = true;
+            return Uni.createFrom().voidItem();
+        }
+
+        @Override
+        public Uni<Void> apply(TransactionChange change) {
+            applied.add(change);
+            return Uni.createFrom().voidItem();
+        }
+
+        List<String> applied(String ticker) {
+            return applied.stream().filter(change -> change.ticker().equals(ticker)).map(TransactionChange::cursor).toList();
+        }
+    }
+}
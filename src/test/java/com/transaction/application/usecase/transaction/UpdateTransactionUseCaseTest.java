@@ -2,8 +2,7 @@ package com.transaction.application.usecase.transaction;
 
 import com.transaction.application.command.UpdateTransactionCommand;
 import com.transaction.domain.event.DomainEvent;
-import com.transaction.domain.event.TransactionCreatedEvent;
-import com.transaction.domain.event.TransactionDeletedEvent;
+import com.transaction.domain.event.TransactionUpdatedEvent;
 import com.transaction.domain.exception.Errors;
 import com.transaction.domain.model.Currency;
 import com.transaction.domain.model.Transaction;
@@ -11,6 +10,7 @@ import com.transaction.domain.model.TransactionType;
 import com.transaction.domain.port.input.UpdateTransactionUseCase;
 import com.transaction.domain.port.output.DomainEventPublisher;
 import com.transaction.domain.port.output.TransactionRepository;
+import com.transaction.domain.port.output.UnitOfWork;
 import io.smallrye.mutiny.Uni;
 import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,10 +19,15 @@ import org.mockito.ArgumentCaptor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class UpdateTransactionUseCaseTest {
@@ -37,6 +42,9 @@ class UpdateTransactionUseCaseTest {
         useCase = new UpdateTransactionService();
         useCase.transactionRepository = transactionRepository;
         useCase.eventPublisher = eventPublisher;
+        useCase.unitOfWork = mock(UnitOfWork.class);
+        when(useCase.unitOfWork.transactional(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        when(useCase.unitOfWork.afterCommit(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
     }
 
     @Test
@@ -47,13 +55,8 @@ class UpdateTransactionUseCaseTest {
 
         when(transactionRepository.findById(transactionId))
                 .thenReturn(Uni.createFrom().item(existingTransaction));
-        when(transactionRepository.deleteById(transactionId))
-                .thenReturn(Uni.createFrom().item(true));
-        when(transactionRepository.save(any(Transaction.class)))
-                .thenAnswer(invocation -> {
-                    Transaction newTransaction = createNewTransaction(UUID.randomUUID(), command.ticker(), command.transactionType(), command.quantity(), command.price(), command.fees(), command.currency(), command.transactionDate(), command.notes(), command.isFractional(), command.isFractional(), command.fractionalMultiplier(), command.commissionCurrency(), command.exchange(), command.country());
-                    return Uni.createFrom().item(newTransaction);
-                });
+        when(transactionRepository.update(any(Transaction.class), eq(2L)))
+                .thenAnswer(invocation -> Uni.createFrom().item((Transaction) invocation.getArgument(0)));
         when(eventPublisher.publish(any(DomainEvent.class)))
                 .thenReturn(Uni.createFrom().voidItem());
 
@@ -65,25 +68,53 @@ class UpdateTransactionUseCaseTest {
                 .getItem();
 
         assertInstanceOf(UpdateTransactionUseCase.Result.Success.class, actual);
-        Transaction newTransaction = ((UpdateTransactionUseCase.Result.Success) actual).transaction();
-
-        assertNotNull(newTransaction);
-        assertNotEquals(transactionId, newTransaction.getId()); // New transaction has different ID
-        assertEquals(command.ticker(), newTransaction.getTicker());
-        assertEquals(command.transactionType(), newTransaction.getTransactionType());
-        assertEquals(command.quantity(), newTransaction.getQuantity());
-        assertEquals(command.price(), newTransaction.getPrice());
-        assertEquals(command.currency(), newTransaction.getCurrency());
-        assertEquals(command.transactionDate(), newTransaction.getTransactionDate());
-        assertEquals(command.notes(), newTransaction.getNotes());
-        assertEquals(command.isFractional(), newTransaction.getIsFractional());
-        assertEquals(command.fractionalMultiplier(), newTransaction.getFractionalMultiplier());
-        assertEquals(command.commissionCurrency(), newTransaction.getCommissionCurrency());
+        Transaction updatedTransaction = ((UpdateTransactionUseCase.Result.Success) actual).transaction();
+
+        assertNotNull(updatedTransaction);
+        assertEquals(transactionId, updatedTransaction.getId()); // Updated in place
+        assertEquals(3L, updatedTransaction.getVersion());
+        assertEquals(command.ticker(), updatedTransaction.getTicker());
+        assertEquals(command.transactionType(), updatedTransaction.getTransactionType());
+        assertEquals(command.quantity(), updatedTransaction.getQuantity());
+        assertEquals(command.price(), updatedTransaction.getPrice());
+        assertEquals(command.currency(), updatedTransaction.getCurrency());
+        assertEquals(command.transactionDate(), updatedTransaction.getTransactionDate());
+        assertEquals(command.notes(), updatedTransaction.getNotes());
+        assertEquals(command.isFractional(), updatedTransaction.getIsFractional());
+        assertEquals(command.fractionalMultiplier(), updatedTransaction.getFractionalMultiplier());
+        assertEquals(command.commissionCurrency(), updatedTransaction.getCommissionCurrency());
 
         verify(transactionRepository).findById(transactionId);
-        verify(transactionRepository).deleteById(transactionId);
-        verify(transactionRepository).save(any(Transaction.class));
-        verify(eventPublisher, times(2)).publish(any(DomainEvent.class));
+        verify(transactionRepository).update(existingTransaction, 2L);
+        verify(transactionRepository, never()).deleteById(any());
+        verify(transactionRepository, never()).save(any());
+        verify(eventPublisher, times(1)).publish(any(TransactionUpdatedEvent.class));
+    }
+
+    @Test
+    void testEventsArePublishedOnceTheUnitOfWorkCompletes() {
+        UUID transactionId = UUID.randomUUID();
+        AtomicBoolean committed = new AtomicBoolean();
+        List<Boolean> committedWhenPublished = new ArrayList<>();
+        doAnswer(invocation -> ((Supplier<Uni<?>>) invocation.getArgument(0)).get().invoke(() -> committed.set(true)))
+                .when(useCase.unitOfWork).transactional(any());
+        when(transactionRepository.findById(transactionId))
+                .thenReturn(Uni.createFrom().item(createExistingTransaction(transactionId)));
+        when(transactionRepository.update(any(Transaction.class), eq(2L)))
+                .thenAnswer(invocation -> Uni.createFrom().item((Transaction) invocation.getArgument(0)));
+        when(eventPublisher.publish(any(DomainEvent.class))).thenAnswer(invocation -> {
+            committedWhenPublished.add(committed.get());
+            return Uni.createFrom().voidItem();
+        });
+
+        UpdateTransactionUseCase.Result actual = useCase.execute(createUpdateCommand(transactionId)).subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .assertCompleted()
+                .getItem();
+
+        assertInstanceOf(UpdateTransactionUseCase.Result.Success.class, actual);
+        assertFalse(committedWhenPublished.isEmpty());
+        assertFalse(committedWhenPublished.contains(false));
     }
 
     @Test
@@ -103,8 +134,7 @@ class UpdateTransactionUseCaseTest {
 
         assertInstanceOf(UpdateTransactionUseCase.Result.NotFound.class, actual);
         verify(transactionRepository).findById(transactionId);
-        verify(transactionRepository, never()).deleteById(any());
-        verify(transactionRepository, never()).save(any());
+        verify(transactionRepository, never()).update(any(), any());
         verifyNoInteractions(eventPublisher);
     }
 
@@ -115,7 +145,7 @@ class UpdateTransactionUseCaseTest {
         UpdateTransactionCommand partialCommand = new UpdateTransactionCommand(
                 transactionId,
                 "GOOGL",
-                null, null, null, null, null, null, null, null, null, null,
+                null, null, null, null, null, null, " ", null, null, null,
                 null,
                 null,
                 null
@@ -123,13 +153,8 @@ class UpdateTransactionUseCaseTest {
 
         when(transactionRepository.findById(transactionId))
                 .thenReturn(Uni.createFrom().item(existingTransaction));
-        when(transactionRepository.deleteById(transactionId))
-                .thenReturn(Uni.createFrom().item(true));
-        when(transactionRepository.save(any(Transaction.class)))
-                .thenAnswer(invocation -> {
-                    Transaction newTransaction = invocation.getArgument(0);
-                    return Uni.createFrom().item(newTransaction);
-                });
+        when(transactionRepository.update(any(Transaction.class), eq(2L)))
+                .thenAnswer(invocation -> Uni.createFrom().item((Transaction) invocation.getArgument(0)));
         when(eventPublisher.publish(any(DomainEvent.class)))
                 .thenReturn(Uni.createFrom().voidItem());
 
@@ -141,12 +166,13 @@ class UpdateTransactionUseCaseTest {
                 .getItem();
 
         assertInstanceOf(UpdateTransactionUseCase.Result.Success.class, actual);
-        Transaction newTransaction = ((UpdateTransactionUseCase.Result.Success) actual).transaction();
-        assertNotEquals(transactionId, newTransaction.getId()); // New transaction has different ID
-        assertEquals("GOOGL", newTransaction.getTicker());
-        assertEquals(existingTransaction.getTransactionType(), newTransaction.getTransactionType());
-        assertEquals(existingTransaction.getQuantity(), newTransaction.getQuantity());
-        assertEquals(existingTransaction.getPrice(), newTransaction.getPrice());
+        Transaction updatedTransaction = ((UpdateTransactionUseCase.Result.Success) actual).transaction();
+        assertEquals(transactionId, updatedTransaction.getId());
+        assertEquals("GOOGL", updatedTransaction.getTicker());
+        assertEquals(TransactionType.BUY, updatedTransaction.getTransactionType());
+        assertEquals(new BigDecimal("10"), updatedTransaction.getQuantity());
+        assertEquals(new BigDecimal("150.50"), updatedTransaction.getPrice());
+        assertEquals("Original notes", updatedTransaction.getNotes()); // Blank notes keep the stored value
         verify(eventPublisher, atLeastOnce()).publish(any(DomainEvent.class));
     }
 
@@ -171,26 +197,23 @@ class UpdateTransactionUseCaseTest {
         assertEquals(Errors.UpdateTransactionsErrors.PERSISTENCE_ERROR, error.error());
         assertEquals(command, error.command());
         verify(transactionRepository).findById(transactionId);
-        verify(transactionRepository, never()).deleteById(any());
-        verify(transactionRepository, never()).save(any());
+        verify(transactionRepository, never()).update(any(), any());
         verifyNoInteractions(eventPublisher);
     }
 
     @Test
-    void testExecuteDeleteFailure() {
+    void testUpdateFailure() {
         UUID transactionId = UUID.randomUUID();
         Transaction existingTransaction = createExistingTransaction(transactionId);
         UpdateTransactionCommand command = createUpdateCommand(transactionId);
-        RuntimeException exception = new RuntimeException("Delete failed");
+        RuntimeException exception = new RuntimeException("Update failed");
 
         when(transactionRepository.findById(transactionId))
                 .thenReturn(Uni.createFrom().item(existingTransaction));
-        when(transactionRepository.deleteById(transactionId))
+        when(transactionRepository.update(any(Transaction.class), eq(2L)))
                 .thenReturn(Uni.createFrom().failure(exception));
 
-        Uni<UpdateTransactionUseCase.Result> result = useCase.execute(command);
-
-        UpdateTransactionUseCase.Result actual = result.subscribe()
+        UpdateTransactionUseCase.Result actual = useCase.execute(command).subscribe()
                 .withSubscriber(UniAssertSubscriber.create())
                 .assertCompleted()
                 .getItem();
@@ -199,137 +222,120 @@ class UpdateTransactionUseCaseTest {
         UpdateTransactionUseCase.Result.Error error = (UpdateTransactionUseCase.Result.Error) actual;
         assertEquals(Errors.UpdateTransactionsErrors.PERSISTENCE_ERROR, error.error());
         assertEquals(command, error.command());
-        verify(transactionRepository).findById(transactionId);
-        verify(transactionRepository).deleteById(transactionId);
-        verify(transactionRepository, never()).save(any());
+        verify(transactionRepository).update(any(Transaction.class), eq(2L));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
-    void testSaveFailure() {
+    void testUpdatedEventPublishingFailureReturnsPublishError() {
         UUID transactionId = UUID.randomUUID();
         Transaction existingTransaction = createExistingTransaction(transactionId);
         UpdateTransactionCommand command = createUpdateCommand(transactionId);
-        RuntimeException exception = new RuntimeException("Save failed");
 
         when(transactionRepository.findById(transactionId))
                 .thenReturn(Uni.createFrom().item(existingTransaction));
-        when(transactionRepository.deleteById(transactionId))
-                .thenReturn(Uni.createFrom().item(true));
-        when(transactionRepository.save(any(Transaction.class)))
-                .thenReturn(Uni.createFrom().failure(exception));
-        when(eventPublisher.publish(any(DomainEvent.class)))
-                .thenReturn(Uni.createFrom().voidItem());
+        when(transactionRepository.update(any(Transaction.class), eq(2L)))
+                .thenAnswer(invocation -> Uni.createFrom().item((Transaction) invocation.getArgument(0)));
+        when(eventPublisher.publish(any(TransactionUpdatedEvent.class)))
+                .thenReturn(Uni.createFrom().failure(new RuntimeException("publish failed")));
 
         UpdateTransactionUseCase.Result actual = useCase.execute(command).subscribe()
                 .withSubscriber(UniAssertSubscriber.create())
                 .assertCompleted()
                 .getItem();
 
-        assertInstanceOf(UpdateTransactionUseCase.Result.Error.class, actual);
-        UpdateTransactionUseCase.Result.Error error = (UpdateTransactionUseCase.Result.Error) actual;
-        assertEquals(Errors.UpdateTransactionsErrors.PERSISTENCE_ERROR, error.error());
-        assertEquals(command, error.command());
-        verify(transactionRepository).findById(transactionId);
-        verify(transactionRepository).deleteById(transactionId);
-        verify(transactionRepository).save(any(Transaction.class));
+        assertInstanceOf(UpdateTransactionUseCase.Result.PublishError.class, actual);
+        verify(transactionRepository).update(any(Transaction.class), eq(2L));
+        verify(eventPublisher).publish(any(TransactionUpdatedEvent.class));
     }
 
     @Test
-    void testCreatedEventPublishingFailureReturnsPublishError() {
+    void testUpdatedEventCarriesPreviousAndNewState() {
         UUID transactionId = UUID.randomUUID();
         Transaction existingTransaction = createExistingTransaction(transactionId);
         UpdateTransactionCommand command = createUpdateCommand(transactionId);
 
         when(transactionRepository.findById(transactionId))
                 .thenReturn(Uni.createFrom().item(existingTransaction));
-        when(transactionRepository.deleteById(transactionId))
-                .thenReturn(Uni.createFrom().item(true));
-        when(transactionRepository.save(any(Transaction.class)))
-                .thenAnswer(invocation -> {
-                    Transaction newTransaction = createNewTransaction(UUID.randomUUID(), command.ticker(), command.transactionType(), command.quantity(), command.price(), command.fees(), command.currency(), command.transactionDate(), command.notes(), command.isFractional(), command.isFractional(), command.fractionalMultiplier(), command.commissionCurrency(), command.exchange(), command.country());
-                    return Uni.createFrom().item(newTransaction);
-                });
-        // Delete event succeeds, created event fails
-        when(eventPublisher.publish(any(TransactionDeletedEvent.class)))
+        when(transactionRepository.update(any(Transaction.class), eq(2L)))
+                .thenAnswer(invocation -> Uni.createFrom().item((Transaction) invocation.getArgument(0)));
+        when(eventPublisher.publish(any(DomainEvent.class)))
                 .thenReturn(Uni.createFrom().voidItem());
-        when(eventPublisher.publish(any(TransactionCreatedEvent.class)))
-                .thenReturn(Uni.createFrom().failure(new RuntimeException("publish failed")));
 
-        UpdateTransactionUseCase.Result actual = useCase.execute(command).subscribe()
+        useCase.execute(command).subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .assertCompleted();
+
+        ArgumentCaptor<TransactionUpdatedEvent> updatedEventCaptor = ArgumentCaptor.forClass(TransactionUpdatedEvent.class);
+        verify(eventPublisher).publish(updatedEventCaptor.capture());
+        TransactionUpdatedEvent updatedEvent = updatedEventCaptor.getValue();
+        assertEquals(transactionId, updatedEvent.getData().previousTransaction().getId());
+        assertEquals("AAPL", updatedEvent.getData().previousTransaction().getTicker());
+        assertEquals(2L, updatedEvent.getData().previousTransaction().getVersion());
+        assertEquals(transactionId, updatedEvent.getData().newTransaction().getId());
+        assertEquals("MSFT", updatedEvent.getData().newTransaction().getTicker());
+        assertEquals(3L, updatedEvent.getData().newTransaction().getVersion());
+    }
+
+    @Test
+    void testStaleExpectedVersionReturnsVersionConflict() {
+        UUID transactionId = UUID.randomUUID();
+        Transaction existingTransaction = createExistingTransaction(transactionId);
+        UpdateTransactionCommand command = createUpdateCommand(transactionId);
+
+        when(transactionRepository.findById(transactionId))
+                .thenReturn(Uni.createFrom().item(existingTransaction));
+
+        UpdateTransactionUseCase.Result actual = useCase.execute(command, 1L).subscribe()
                 .withSubscriber(UniAssertSubscriber.create())
                 .assertCompleted()
                 .getItem();
 
-        assertInstanceOf(UpdateTransactionUseCase.Result.PublishError.class, actual);
-        verify(transactionRepository).findById(transactionId);
-        verify(transactionRepository).deleteById(transactionId);
-        verify(transactionRepository).save(any(Transaction.class));
-        verify(eventPublisher).publish(any(TransactionDeletedEvent.class));
-        verify(eventPublisher).publish(any(TransactionCreatedEvent.class));
+        assertInstanceOf(UpdateTransactionUseCase.Result.VersionConflict.class, actual);
+        verify(transactionRepository, never()).update(any(), any());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
-    void testBothEventsArePublished() {
+    void testMatchingExpectedVersionUpdates() {
         UUID transactionId = UUID.randomUUID();
         Transaction existingTransaction = createExistingTransaction(transactionId);
         UpdateTransactionCommand command = createUpdateCommand(transactionId);
 
         when(transactionRepository.findById(transactionId))
                 .thenReturn(Uni.createFrom().item(existingTransaction));
-        when(transactionRepository.deleteById(transactionId))
-                .thenReturn(Uni.createFrom().item(true));
-        when(transactionRepository.save(any(Transaction.class)))
-                .thenAnswer(invocation -> {
-                    Transaction newTransaction = createNewTransaction(UUID.randomUUID(), command.ticker(), command.transactionType(), command.quantity(), command.price(), command.fees(), command.currency(), command.transactionDate(), command.notes(), command.isFractional(), command.isFractional(), command.fractionalMultiplier(), command.commissionCurrency(), command.exchange(), command.country());
-                    return Uni.createFrom().item(newTransaction);
-                });
+        when(transactionRepository.update(any(Transaction.class), eq(2L)))
+                .thenAnswer(invocation -> Uni.createFrom().item((Transaction) invocation.getArgument(0)));
         when(eventPublisher.publish(any(DomainEvent.class)))
                 .thenReturn(Uni.createFrom().voidItem());
 
-        UpdateTransactionUseCase.Result actual = useCase.execute(command).subscribe()
+        UpdateTransactionUseCase.Result actual = useCase.execute(command, 2L).subscribe()
                 .withSubscriber(UniAssertSubscriber.create())
                 .assertCompleted()
                 .getItem();
 
         assertInstanceOf(UpdateTransactionUseCase.Result.Success.class, actual);
+        assertEquals(3L, ((UpdateTransactionUseCase.Result.Success) actual).transaction().getVersion());
+    }
 
-        // Verify that a TransactionDeletedEvent was published for the old transaction
-        ArgumentCaptor<TransactionDeletedEvent> deletedEventCaptor = ArgumentCaptor.forClass(TransactionDeletedEvent.class);
-        verify(eventPublisher).publish(deletedEventCaptor.capture());
-        TransactionDeletedEvent deletedEvent = deletedEventCaptor.getValue();
-        assertEquals(transactionId, deletedEvent.getData().getId(), "TransactionDeletedEvent should contain the old transaction ID");
+    @Test
+    void testConcurrentUpdateReturnsVersionConflict() {
+        UUID transactionId = UUID.randomUUID();
+        Transaction existingTransaction = createExistingTransaction(transactionId);
+        UpdateTransactionCommand command = createUpdateCommand(transactionId);
 
-        // Verify that a TransactionCreatedEvent was published for the new transaction
-        ArgumentCaptor<TransactionCreatedEvent> createdEventCaptor = ArgumentCaptor.forClass(TransactionCreatedEvent.class);
-        verify(eventPublisher).publish(createdEventCaptor.capture());
-        TransactionCreatedEvent createdEvent = createdEventCaptor.getValue();
-        assertNotEquals(transactionId, createdEvent.getData().getId(), "TransactionCreatedEvent should contain a new transaction ID");
+        when(transactionRepository.findById(transactionId))
+                .thenReturn(Uni.createFrom().item(existingTransaction));
+        when(transactionRepository.update(any(Transaction.class), eq(2L)))
+                .thenReturn(Uni.createFrom().nullItem());
 
-        // Verify repository operations
-        verify(transactionRepository).findById(transactionId);
-        verify(transactionRepository).deleteById(transactionId);
-        verify(transactionRepository).save(any(Transaction.class));
-    }
+        UpdateTransactionUseCase.Result actual = useCase.execute(command).subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .assertCompleted()
+                .getItem();
 
-    private Transaction createNewTransaction(UUID id, String ticker, TransactionType transactionType, BigDecimal quantity, BigDecimal price, BigDecimal commission, Currency currency, LocalDate transactionDate, String notes, boolean isFractional, boolean fractionalMultiplier, BigDecimal fractionalMultiplierValue, Currency fractionalMultiplierCurrency, String exchange, String country) {
-        return Transaction.create(
-                id,
-                ticker,
-                transactionType,
-                quantity,
-                price,
-                commission,
-                currency,
-                transactionDate,
-                notes,
-                isFractional,
-                fractionalMultiplier,
-                fractionalMultiplierValue,
-                fractionalMultiplierCurrency,
-                exchange,
-                country,
-                "Test Company"
-        );
+        assertInstanceOf(UpdateTransactionUseCase.Result.VersionConflict.class, actual);
+        verifyNoInteractions(eventPublisher);
     }
 
     private Transaction createExistingTransaction(UUID id) {
@@ -350,6 +356,7 @@ class UpdateTransactionUseCaseTest {
                 "NYSE",
                 "USA",
                 "Apple Inc.",
+                2L,
                 new java.util.ArrayList<>()
         );
     }
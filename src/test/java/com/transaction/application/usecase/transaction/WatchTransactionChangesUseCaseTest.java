@@ -0,0 +1,90 @@
+package com.transaction.application.usecase.transaction;
+
+import com.transaction.domain.model.TransactionChange;
+import com.transaction.domain.port.output.PortfolioContext;
+import com.transaction.domain.port.output.TransactionChangeStream;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class WatchTransactionChangesUseCaseTest {
+    private TransactionChangeStream transactionChangeStream;
+    private WatchTransactionChangesService useCase;
+
+    @BeforeEach
+    void setUp() {
+        transactionChangeStream = mock(TransactionChangeStream.class);
+        useCase = new WatchTransactionChangesService();
+        useCase.transactionChangeStream = transactionChangeStream;
+        useCase.portfolioContext = mock(PortfolioContext.class);
+        when(useCase.portfolioContext.current()).thenReturn("default");
+    }
+
+    @Test
+    void testWatchWithoutTickerPassesEverything() {
+        TransactionChange apple = change("1", "AAPL", null);
+        TransactionChange microsoft = change("2", "MSFT", null);
+        when(transactionChangeStream.follow("cursor")).thenReturn(Multi.createFrom().items(apple, microsoft));
+
+        List<TransactionChange> changes = useCase.watch(null, "cursor").subscribe()
+                .withSubscriber(AssertSubscriber.create(10)).assertCompleted().getItems();
+
+        assertEquals(List.of(apple, microsoft), changes);
+    }
+
+    @Test
+    void testWatchFiltersByTickerIgnoringCase() {
+        TransactionChange apple = change("1", "AAPL", null);
+        TransactionChange microsoft = change("2", "MSFT", null);
+        when(transactionChangeStream.follow(null)).thenReturn(Multi.createFrom().items(apple, microsoft));
+
+        List<TransactionChange> changes = useCase.watch("aapl", null).subscribe()
+                .withSubscriber(AssertSubscriber.create(10)).assertCompleted().getItems();
+
+        assertEquals(List.of(apple), changes);
+    }
+
+    @Test
+    void testWatchKeepsUpdatesMovedAwayFromTicker() {
+        TransactionChange moved = change("1", "MSFT", "AAPL");
+        when(transactionChangeStream.follow(null)).thenReturn(Multi.createFrom().items(moved));
+
+        List<TransactionChange> changes = useCase.watch("AAPL", null).subscribe()
+                .withSubscriber(AssertSubscriber.create(10)).assertCompleted().getItems();
+
+        assertEquals(List.of(moved), changes);
+    }
+
+    @Test
+    void testWatchNeverFiltersResyncMarkers() {
+        TransactionChange resync = TransactionChange.resyncRequired("1-0,0-0,0-0");
+        when(transactionChangeStream.follow("stale")).thenReturn(Multi.createFrom().items(resync, change("2", "MSFT", null)));
+
+        List<TransactionChange> changes = useCase.watch("AAPL", "stale").subscribe()
+                .withSubscriber(AssertSubscriber.create(10)).assertCompleted().getItems();
+
+        assertEquals(List.of(resync), changes);
+    }
+
+    @Test
+    void testWatchOnlyPassesChangesOfTheCallersPortfolio() {
+        TransactionChange own = change("1", "AAPL", null);
+        TransactionChange other = new TransactionChange("2", "TransactionUpdated", "other", "AAPL", null, "{}");
+        when(transactionChangeStream.follow(null)).thenReturn(Multi.createFrom().items(own, other));
+
+        List<TransactionChange> changes = useCase.watch(null, null).subscribe()
+                .withSubscriber(AssertSubscriber.create(10)).assertCompleted().getItems();
+
+        assertEquals(List.of(own), changes);
+    }
+
+    private static TransactionChange change(String cursor, String ticker, String previousTicker) {
+        return new TransactionChange(cursor, "TransactionUpdated", "default", ticker, previousTicker, "{}");
+    }
+}
@@ -0,0 +1,84 @@
+package com.transaction.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DividendLedgerTest {
+
+    private static final LocalDate AS_OF = LocalDate.parse("2024-06-30");
+
+    @Test
+    void testQuarterlyPayerSummary() {
+        List<DividendLedger> ledgers = DividendLedger.of("KO", List.of(
+                transaction(TransactionType.BUY, "100", "50", "2023-01-10", Currency.USD),
+                dividend("100", "0.46", "2023-04-01"),
+                dividend("100", "0.46", "2023-07-01"),
+                dividend("100", "0.46", "2023-10-01"),
+                dividend("100", "0.46", "2024-01-02"),
+                dividend("100", "0.485", "2024-04-01")));
+
+        DividendSummary summary = ledgers.getFirst().summarize(AS_OF);
+
+        assertEquals(1, ledgers.size());
+        assertEquals(new BigDecimal("186.5000"), summary.trailingTwelveMonths());
+        assertEquals(new BigDecimal("3.73"), summary.yieldOnCost());
+        assertEquals(4, summary.paymentsPerYear());
+        assertEquals(new BigDecimal("194.0000"), summary.forwardAnnual());
+        assertEquals(LocalDate.parse("2024-04-01"), summary.lastPaymentDate());
+        assertEquals(LocalDate.parse("2024-07-01"), summary.nextPaymentDate());
+        assertEquals(new BigDecimal("232.5000"), summary.totalReceived());
+    }
+
+    @Test
+    void testClosedPositionProjectsNothing() {
+        List<DividendLedger> ledgers = DividendLedger.of("T", List.of(
+                transaction(TransactionType.BUY, "10", "20", "2024-01-01", Currency.USD),
+                dividend("10", "0.25", "2024-02-01"),
+                transaction(TransactionType.SELL, "10", "25", "2024-03-01", Currency.USD)));
+
+        DividendSummary summary = ledgers.getFirst().summarize(AS_OF);
+
+        assertEquals(new BigDecimal("2.5000"), summary.trailingTwelveMonths());
+        assertNull(summary.yieldOnCost());
+        assertEquals(new BigDecimal("0.0000"), summary.forwardAnnual());
+        assertNull(summary.nextPaymentDate());
+    }
+
+    @Test
+    void testSplitRestatesPaymentsPerNewShare() {
+        List<DividendLedger> ledgers = DividendLedger.of("KO", List.of(
+                transaction(TransactionType.BUY, "100", "50", "2023-01-10", Currency.USD),
+                dividend("100", "0.46", "2023-07-01"),
+                dividend("100", "0.46", "2023-10-01"),
+                dividend("100", "0.46", "2024-01-02"),
+                dividend("100", "0.485", "2024-04-01"),
+                transaction(TransactionType.SPLIT, "2", "1", "2024-05-01", Currency.USD)));
+
+        DividendSummary summary = ledgers.getFirst().summarize(AS_OF);
+
+        assertEquals(0, new BigDecimal("200").compareTo(summary.shares()));
+        assertEquals(new BigDecimal("0.24250000"), ledgers.getFirst().getPayments().getLast().perShare());
+        assertEquals(new BigDecimal("194.0000"), summary.forwardAnnual());
+        assertEquals(new BigDecimal("186.5000"), summary.trailingTwelveMonths());
+    }
+
+    @Test
+    void testTickersWithoutDividendsHaveNoLedger() {
+        assertTrue(DividendLedger.of("AAPL", List.of(
+                transaction(TransactionType.BUY, "1", "100", "2024-01-01", Currency.USD))).isEmpty());
+    }
+
+    private static Transaction dividend(String shares, String perShare, String date) {
+        return transaction(TransactionType.DIVIDEND, shares, perShare, date, Currency.USD);
+    }
+
+    private static Transaction transaction(TransactionType type, String quantity, String price, String date, Currency currency) {
+        return new Transaction("KO", type, new BigDecimal(quantity), new BigDecimal(price), BigDecimal.ZERO, currency,
+                LocalDate.parse(date), null, true, false, BigDecimal.ONE, currency, null, null, null);
+    }
+}
@@ -0,0 +1,78 @@
+package com.transaction.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FxRateTableTest {
+
+    private static final LocalDate MONDAY = LocalDate.parse("2024-06-03");
+
+    @Test
+    void testGapsCarryThePreviousRateForward() {
+        FxRateTable table = FxRateTable.of(List.of(
+                rate(Currency.EUR, Currency.USD, MONDAY.plusDays(4), "1.10"),
+                rate(Currency.EUR, Currency.USD, MONDAY, "1.08")), 7);
+
+        assertTrue(Double.isNaN(table.rate(Currency.EUR, Currency.USD, MONDAY.minusDays(1))));
+        assertEquals(1.08, table.rate(Currency.EUR, Currency.USD, MONDAY.plusDays(3)));
+        assertEquals(1.10, table.rate(Currency.EUR, Currency.USD, MONDAY.plusDays(4)));
+        assertEquals(1.10, table.rate(Currency.EUR, Currency.USD, MONDAY.plusDays(11)));
+    }
+
+    @Test
+    void testRatesAreNotCarriedForwardPastTheLimit() {
+        FxRateTable table = FxRateTable.of(List.of(
+                rate(Currency.EUR, Currency.USD, MONDAY, "1.08"),
+                rate(Currency.EUR, Currency.USD, MONDAY.plusDays(30), "1.12"),
+                rate(Currency.GBP, Currency.USD, MONDAY, "1.25")), 7);
+
+        assertEquals(1.08, table.rate(Currency.EUR, Currency.USD, MONDAY.plusDays(7)));
+        assertTrue(Double.isNaN(table.rate(Currency.EUR, Currency.USD, MONDAY.plusDays(8))));
+        assertEquals(1.12, table.rate(Currency.EUR, Currency.USD, MONDAY.plusDays(31)));
+        assertTrue(Double.isNaN(table.rate(Currency.EUR, Currency.USD, MONDAY.plusDays(38))));
+        assertTrue(Double.isNaN(table.rate(Currency.USD, Currency.EUR, MONDAY.plusDays(38))));
+        assertTrue(Double.isNaN(table.rate(Currency.GBP, Currency.EUR, MONDAY.plusDays(8))));
+        assertNull(table.convert(BigDecimal.ONE, Currency.USD, Currency.EUR, MONDAY.plusDays(20)));
+    }
+
+    @Test
+    void testInverseAndCrossRates() {
+        FxRateTable table = FxRateTable.of(List.of(
+                rate(Currency.EUR, Currency.USD, MONDAY, "1.25"),
+                rate(Currency.GBP, Currency.USD, MONDAY, "1.50")), 7);
+
+        assertEquals(1.0, table.rate(Currency.USD, Currency.USD, MONDAY));
+        assertEquals(0.8, table.rate(Currency.USD, Currency.EUR, MONDAY), 1e-12);
+        assertEquals(1.2, table.rate(Currency.GBP, Currency.EUR, MONDAY), 1e-12);
+        assertTrue(Double.isNaN(table.rate(Currency.JPY, Currency.USD, MONDAY)));
+        assertEquals(new BigDecimal("80.0000"), table.convert(new BigDecimal("100"), Currency.USD, Currency.EUR, MONDAY));
+        assertNull(table.convert(BigDecimal.ONE, Currency.JPY, Currency.USD, MONDAY));
+    }
+
+    @Test
+    void testWithAddsRatesWithoutChangingTheOriginal() {
+        FxRateTable original = FxRateTable.of(List.of(rate(Currency.EUR, Currency.USD, MONDAY, "1.08")), 30);
+
+        FxRateTable updated = original
+                .with(rate(Currency.EUR, Currency.USD, MONDAY.plusDays(7), "1.12"))
+                .with(rate(Currency.EUR, Currency.USD, MONDAY.plusDays(3), "1.09"))
+                .with(rate(Currency.EUR, Currency.USD, MONDAY.minusDays(3), "1.05"));
+
+        assertEquals(1.05, updated.rate(Currency.EUR, Currency.USD, MONDAY.minusDays(1)));
+        assertEquals(1.08, updated.rate(Currency.EUR, Currency.USD, MONDAY.plusDays(2)));
+        assertEquals(1.09, updated.rate(Currency.EUR, Currency.USD, MONDAY.plusDays(6)));
+        assertEquals(1.12, updated.rate(Currency.EUR, Currency.USD, MONDAY.plusDays(8)));
+        assertEquals(1.08, original.rate(Currency.EUR, Currency.USD, MONDAY.plusDays(8)));
+        assertTrue(FxRateTable.empty().isEmpty());
+        assertFalse(updated.isEmpty());
+    }
+
+    private static FxRate rate(Currency base, Currency quote, LocalDate date, String rate) {
+        return new FxRate(base, quote, date, new BigDecimal(rate));
+    }
+}
@@ -0,0 +1,66 @@
+package com.transaction.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SplitFactorsTest {
+
+    private static final SplitFactors FACTORS = SplitFactors.of(List.of(
+            split("4", "1", "2020-08-31"),
+            transaction(TransactionType.BUY, "1", "100", "2021-01-04"),
+            split("1", "10", "2022-06-01"),
+            split("3", "1", "2024-06-10")));
+
+    @Test
+    void testFactorMultipliesEverySplitOnOrAfterTheDate() {
+        assertEquals(0, new BigDecimal("1.2").compareTo(FACTORS.factorAt(LocalDate.parse("2019-12-31"))));
+        assertEquals(0, new BigDecimal("1.2").compareTo(FACTORS.factorAt(LocalDate.parse("2020-08-31"))));
+        assertEquals(0, new BigDecimal("0.3").compareTo(FACTORS.factorAt(LocalDate.parse("2020-09-01"))));
+        assertEquals(0, new BigDecimal("3").compareTo(FACTORS.factorAt(LocalDate.parse("2023-01-01"))));
+        assertEquals(BigDecimal.ONE, FACTORS.factorAt(LocalDate.parse("2024-06-11")));
+    }
+
+    @Test
+    void testAdjustRestatesQuantityAndPriceKeepingTheTotal() {
+        Transaction buy = transaction(TransactionType.BUY, "10", "120", "2023-01-01");
+
+        Transaction adjusted = FACTORS.adjust(buy);
+
+        assertEquals(0, new BigDecimal("30").compareTo(adjusted.getQuantity()));
+        assertEquals(0, new BigDecimal("40").compareTo(adjusted.getPrice()));
+        assertEquals(0, buy.getTotalValue().compareTo(adjusted.getTotalValue()));
+        assertEquals(buy.getId(), adjusted.getId());
+        assertEquals(0, new BigDecimal("10").compareTo(buy.getQuantity()));
+    }
+
+    @Test
+    void testSplitsAndUnsplitTickersAreLeftAsTheyAre() {
+        Transaction split = split("3", "1", "2024-06-10");
+        Transaction buy = transaction(TransactionType.BUY, "10", "120", "2023-01-01");
+
+        assertSame(split, FACTORS.adjust(split));
+        assertSame(buy, SplitFactors.of(List.of(buy)).adjust(buy));
+        assertTrue(SplitFactors.of(List.of()).isEmpty());
+    }
+
+    @Test
+    void testSplitRatio() {
+        assertEquals(0, new BigDecimal("4").compareTo(split("4", "1", "2020-08-31").getSplitRatio()));
+        assertEquals(0, new BigDecimal("0.1").compareTo(split("1", "10", "2022-06-01").getSplitRatio()));
+        assertNull(transaction(TransactionType.BUY, "1", "100", "2021-01-04").getSplitRatio());
+    }
+
+    private static Transaction split(String newShares, String oldShares, String date) {
+        return transaction(TransactionType.SPLIT, newShares, oldShares, date);
+    }
+
+    private static Transaction transaction(TransactionType type, String quantity, String price, String date) {
+        return new Transaction("AAPL", type, new BigDecimal(quantity), new BigDecimal(price), BigDecimal.ZERO, Currency.USD,
+                LocalDate.parse(date), null, true, false, BigDecimal.ONE, Currency.USD, null, null, null);
+    }
+}
@@ -0,0 +1,29 @@
+package com.transaction.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionPageCursorTest {
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        TransactionPageCursor cursor = new TransactionPageCursor(LocalDate.of(2024, 5, 17), UUID.randomUUID());
+
+        assertEquals(cursor, TransactionPageCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void testBlankCursorMeansFirstPage() {
+        assertNull(TransactionPageCursor.decode(null));
+        assertNull(TransactionPageCursor.decode(" "));
+    }
+
+    @Test
+    void testMalformedCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> TransactionPageCursor.decode("not-a-cursor"));
+    }
+}
@@ -227,6 +227,24 @@ class TransactionTest {
         assertEquals(newCompanyName, transaction.getCompanyName());
     }
 
+    @Test
+    void testUpdateEventCarriesOnlyChangedFields() {
+        // Given
+        Transaction transaction = createBasicTransaction(UUID.randomUUID());
+        transaction.popEvents();
+
+        // When - quantity resent with another scale, notes changed
+        transaction.update(
+                null, null, transaction.getQuantity().setScale(6), null, null, null, null, "New notes",
+                null, null, null, null, null, null
+        );
+
+        // Then
+        TransactionUpdatedEvent event = (TransactionUpdatedEvent) transaction.popEvents().getFirst();
+        assertEquals(List.of("notes"), List.copyOf(event.getData().changes().keySet()));
+        assertEquals("New notes", event.getData().changes().get("notes").current());
+    }
+
     // ==================== Calculation Tests ====================
 
     @Test
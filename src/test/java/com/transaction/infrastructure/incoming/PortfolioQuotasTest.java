@@ -0,0 +1,150 @@
+package com.transaction.infrastructure.incoming;
+
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.exception.ServiceException;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioQuotasTest {
+
+    private final PortfolioQuotas quotas = new PortfolioQuotas(2, 2, Duration.ofMinutes(10), Set.of());
+
+    @Test
+    void testRequestsBeyondTheQuotaWaitForARelease() {
+        PortfolioQuotas.Permit first = acquired("bulk");
+        acquired("bulk");
+        UniAssertSubscriber<PortfolioQuotas.Permit> third = quotas.acquire("bulk").subscribe()
+                .withSubscriber(UniAssertSubscriber.create());
+
+        third.assertNotTerminated();
+        first.release();
+        third.assertCompleted();
+    }
+
+    @Test
+    void testOtherPortfoliosAreNotHeldBackByAFullQuota() {
+        acquired("bulk");
+        acquired("bulk");
+
+        assertNotNull(acquired("family"));
+    }
+
+    @Test
+    void testWaitersAreAdmittedInArrivalOrder() {
+        PortfolioQuotas.Permit first = acquired("bulk");
+        PortfolioQuotas.Permit second = acquired("bulk");
+        List<String> admitted = new ArrayList<>();
+        quotas.acquire("bulk").subscribe().with(permit -> admitted.add("third"));
+        quotas.acquire("bulk").subscribe().with(permit -> admitted.add("fourth"));
+
+        first.release();
+        assertEquals(List.of("third"), admitted);
+        second.release();
+        assertEquals(List.of("third", "fourth"), admitted);
+    }
+
+    @Test
+    void testReleasingTwiceFreesOneSlot() {
+        PortfolioQuotas.Permit first = acquired("bulk");
+        acquired("bulk");
+
+        first.release();
+        first.release();
+
+        acquired("bulk");
+        quotas.acquire("bulk").subscribe().withSubscriber(UniAssertSubscriber.create()).assertNotTerminated();
+    }
+
+    @Test
+    void testCancelledWaiterDoesNotTakeAPermit() {
+        PortfolioQuotas.Permit first = acquired("bulk");
+        acquired("bulk");
+        UniAssertSubscriber<PortfolioQuotas.Permit> cancelled = quotas.acquire("bulk").subscribe()
+                .withSubscriber(UniAssertSubscriber.create());
+        cancelled.cancel();
+
+        first.release();
+
+        assertNotNull(acquired("bulk"));
+    }
+
+    @Test
+    void testLimitReleasesThePermitWhenTheWorkFails() {
+        quotas.limit("bulk", () -> Uni.createFrom().failure(new RuntimeException("db down"))).subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertFailedWith(RuntimeException.class);
+        quotas.limit("bulk", () -> Uni.createFrom().failure(new RuntimeException("db down"))).subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertFailedWith(RuntimeException.class);
+
+        acquired("bulk");
+        acquired("bulk");
+    }
+
+    @Test
+    void testRequestsBeyondTheQueueAreTurnedAway() {
+        acquired("bulk");
+        acquired("bulk");
+        quotas.acquire("bulk").subscribe().withSubscriber(UniAssertSubscriber.create()).assertNotTerminated();
+        quotas.acquire("bulk").subscribe().withSubscriber(UniAssertSubscriber.create()).assertNotTerminated();
+
+        Throwable failure = quotas.acquire("bulk").subscribe().withSubscriber(UniAssertSubscriber.create())
+                .assertFailedWith(ServiceException.class).getFailure();
+
+        assertTrue(PortfolioQuotas.isBusy(failure));
+        assertEquals(Errors.PortfolioErrors.PORTFOLIO_BUSY, ((ServiceException) failure).error());
+    }
+
+    @Test
+    void testIdleQuotaIsDroppedButABusyOneIsKept() throws InterruptedException {
+        PortfolioQuotas shortLived = new PortfolioQuotas(1, 2, Duration.ofMillis(20), Set.of());
+        PortfolioQuotas.Permit running = shortLived.acquire("bulk").subscribe().withSubscriber(UniAssertSubscriber.create())
+                .assertCompleted().getItem();
+        shortLived.acquire("idle").subscribe().withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem().release();
+
+        Thread.sleep(100);
+
+        shortLived.acquire("bulk").subscribe().withSubscriber(UniAssertSubscriber.create()).assertNotTerminated();
+        running.release();
+        shortLived.acquire("idle").subscribe().withSubscriber(UniAssertSubscriber.create()).assertCompleted();
+    }
+
+    @Test
+    void testQueuedRequestsKeepTheQuotaPastTheIdleTimeout() throws InterruptedException {
+        PortfolioQuotas shortLived = new PortfolioQuotas(1, 2, Duration.ofMillis(20), Set.of());
+        PortfolioQuotas.Permit running = shortLived.acquire("bulk").subscribe().withSubscriber(UniAssertSubscriber.create())
+                .assertCompleted().getItem();
+        UniAssertSubscriber<PortfolioQuotas.Permit> queued = shortLived.acquire("bulk").subscribe()
+                .withSubscriber(UniAssertSubscriber.create());
+
+        Thread.sleep(100);
+        running.release();
+        Thread.sleep(100);
+
+        queued.assertCompleted();
+        shortLived.acquire("bulk").subscribe().withSubscriber(UniAssertSubscriber.create()).assertNotTerminated();
+        queued.getItem().release();
+    }
+
+    @Test
+    void testOnlyAllowedPortfoliosAreAdmitted() {
+        PortfolioQuotas allowList = new PortfolioQuotas(2, 2, Duration.ofMinutes(10), Set.of("default", "family"));
+
+        assertEquals("family", allowList.portfolioId(" family "));
+        assertEquals("default", allowList.portfolioId(null));
+        assertThrows(IllegalArgumentException.class, () -> allowList.portfolioId("stranger"));
+        assertThrows(IllegalArgumentException.class, () -> quotas.portfolioId("../etc"));
+        assertEquals("stranger", quotas.portfolioId("stranger"));
+    }
+
+    private PortfolioQuotas.Permit acquired(String portfolioId) {
+        return quotas.acquire(portfolioId).subscribe().withSubscriber(UniAssertSubscriber.create())
+                .assertCompleted().getItem();
+    }
+}
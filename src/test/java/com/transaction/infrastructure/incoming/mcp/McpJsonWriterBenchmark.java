@@ -0,0 +1,81 @@
+package com.transaction.infrastructure.incoming.mcp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.TransactionType;
+import com.transaction.infrastructure.incoming.mcp.dto.SearchTransactionsResponseDto;
+import com.transaction.infrastructure.incoming.mcp.dto.TransactionDto;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Micro-benchmark of the bytes allocated to serialize a full page of transactions, comparing
+ * {@link ObjectMapper#writeValueAsString(Object)} with the pooled buffer of {@link McpJsonWriter}. Both build the final
+ * string; the difference is what they allocate on the way. Excluded from the regular test run; start it with
+ * {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+class McpJsonWriterBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final int CALLS_PER_ROUND = 1_000;
+    private static final int TRANSACTIONS_PER_PAGE = 500;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final McpJsonWriter jsonWriter = new McpJsonWriter(objectMapper);
+
+    @Test
+    void compareWriteValueAsStringWithPooledBuffer() {
+        SearchTransactionsResponseDto.Success page = new SearchTransactionsResponseDto.Success(
+                IntStream.range(0, TRANSACTIONS_PER_PAGE).mapToObj(index -> transaction("Company " + index)).toList(), null);
+
+        double string = bytesPerCall(() -> objectMapper.writeValueAsString(page));
+        double pooled = bytesPerCall(() -> jsonWriter.write(page));
+
+        System.out.printf("writeValueAsString: %.0f bytes allocated per page of %d transactions%n", string, TRANSACTIONS_PER_PAGE);
+        System.out.printf("Pooled buffer:      %.0f bytes allocated per page of %d transactions%n", pooled, TRANSACTIONS_PER_PAGE);
+    }
+
+    private static double bytesPerCall(Serialization serialization) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long best = Long.MAX_VALUE;
+        int length = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long start = threads.getThreadAllocatedBytes(threadId);
+            for (int call = 0; call < CALLS_PER_ROUND; call++) {
+                try {
+                    length += serialization.serialize().length();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            long allocated = threads.getThreadAllocatedBytes(threadId) - start;
+            if (round >= WARMUP_ROUNDS) {
+                best = Math.min(best, allocated);
+            }
+        }
+        if (length == 0) {
+            throw new IllegalStateException("Serialization returned nothing");
+        }
+        return (double) best / CALLS_PER_ROUND;
+    }
+
+    private static TransactionDto transaction(String companyName) {
+        return new TransactionDto(UUID.randomUUID(), "GLE", TransactionType.BUY, new BigDecimal("10"),
+                new BigDecimal("35.20"), new BigDecimal("1.00"), Currency.EUR, LocalDate.of(2024, 3, 1), null,
+                true, false, BigDecimal.ONE, Currency.EUR, "EPA", "FR", companyName, 0L);
+    }
+
+    @FunctionalInterface
+    private interface Serialization {
+        String serialize() throws Exception;
+    }
+}
@@ -0,0 +1,84 @@
+package com.transaction.infrastructure.incoming.mcp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.TransactionType;
+import com.transaction.infrastructure.incoming.mcp.dto.SearchTransactionsResponseDto;
+import com.transaction.infrastructure.incoming.mcp.dto.TransactionDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class McpJsonWriterTest {
+
+    private ObjectMapper objectMapper;
+    private McpJsonWriter jsonWriter;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        jsonWriter = new McpJsonWriter(objectMapper);
+    }
+
+    @Test
+    void testWriteMatchesObjectMapper() throws Exception {
+        SearchTransactionsResponseDto.Success response = new SearchTransactionsResponseDto.Success(
+                List.of(transaction("Société Générale – 株式")), "next");
+
+        assertEquals(objectMapper.writeValueAsString(response), jsonWriter.write(response));
+    }
+
+    @Test
+    void testWriteResultLargerThanInitialBuffer() throws Exception {
+        SearchTransactionsResponseDto.Success response = new SearchTransactionsResponseDto.Success(
+                IntStream.range(0, 500).mapToObj(index -> transaction("Company " + index)).toList(), null);
+
+        String json = jsonWriter.write(response);
+
+        assertTrue(json.length() > 4096);
+        assertEquals(objectMapper.writeValueAsString(response), json);
+    }
+
+    @Test
+    void testWritePageMatchesSuccessRecordWhenItFits() throws Exception {
+        List<TransactionDto> transactions = List.of(transaction("Société Générale – 株式"), transaction("Apple"));
+
+        assertEquals(objectMapper.writeValueAsString(new SearchTransactionsResponseDto.Success(transactions, "next")),
+                jsonWriter.writePage(transactions, 1_000_000, kept -> "cut", "next"));
+        assertEquals(objectMapper.writeValueAsString(new SearchTransactionsResponseDto.Success(transactions, null)),
+                jsonWriter.writePage(transactions, 1_000_000, kept -> "cut", null));
+    }
+
+    @Test
+    void testWritePageCutsAtTheByteBudget() throws Exception {
+        List<TransactionDto> transactions = IntStream.range(0, 10).mapToObj(index -> transaction("Société " + index)).toList();
+        int itemBytes = objectMapper.writeValueAsString(transactions.getFirst()).getBytes(StandardCharsets.UTF_8).length;
+
+        String json = jsonWriter.writePage(transactions, 3L * (itemBytes + 1), kept -> "after-" + kept, null);
+
+        assertEquals(objectMapper.writeValueAsString(new SearchTransactionsResponseDto.Success(transactions.subList(0, 3), "after-3")),
+                json);
+    }
+
+    @Test
+    void testWritePageKeepsAtLeastOneItem() throws Exception {
+        List<TransactionDto> transactions = List.of(transaction("Apple"), transaction("Microsoft"));
+
+        assertEquals(objectMapper.writeValueAsString(new SearchTransactionsResponseDto.Success(transactions.subList(0, 1), "after-1")),
+                jsonWriter.writePage(transactions, 1, kept -> "after-" + kept, "next"));
+    }
+
+    private static TransactionDto transaction(String companyName) {
+        return new TransactionDto(UUID.randomUUID(), "GLE", TransactionType.BUY, new BigDecimal("10"),
+                new BigDecimal("35.20"), new BigDecimal("1.00"), Currency.EUR, LocalDate.of(2024, 3, 1), null,
+                true, false, BigDecimal.ONE, Currency.EUR, "EPA", "FR", companyName, 0L);
+    }
+}
@@ -0,0 +1,87 @@
+package com.transaction.infrastructure.incoming.mcp.converter;
+
+import jakarta.enterprise.inject.Instance;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Micro-benchmark of converting the eight createTransaction parameters, comparing the previous linear scan over
+ * the converters with the lookup table. Excluded from the regular test run; start it with {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+class ParameterConversionServiceBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final int CALLS_PER_ROUND = 1_000_000;
+
+    private static final String[] PARAMETERS = {
+            "type", "quantity", "price", "fees", "fractionalMultiplier", "commissionCurrency", "currency", "date"
+    };
+    private static final Object[] VALUES = {
+            "BUY", "10", new BigDecimal("150.25"), "1.50", "1.0", "USD", "USD", "2024-01-15"
+    };
+
+    private final List<ParameterConverter<?>> converters = List.of(
+            new BigDecimalParameterConverter(),
+            new CurrencyParameterConverter(),
+            new LocalDateParameterConverter(),
+            new TransactionTypeParameterConverter());
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void compareLinearScanWithLookupTable() {
+        Instance<ParameterConverter<?>> instance = mock(Instance.class);
+        when(instance.stream()).thenAnswer(invocation -> converters.stream());
+        ParameterConversionService service = new ParameterConversionService(instance);
+
+        double linear = nanosPerCall(this::linearScan);
+        double table = nanosPerCall((parameterName, value) -> service.convert(value, parameterName));
+
+        System.out.printf("Linear scan:  %.1f ns per createTransaction conversion (%d parameters)%n", linear, PARAMETERS.length);
+        System.out.printf("Lookup table: %.1f ns per createTransaction conversion (%d parameters)%n", table, PARAMETERS.length);
+    }
+
+    /**
+     * The lookup the service did before: ask every converter in order until one matches.
+     */
+    private Object linearScan(String parameterName, Object value) {
+        return converters.stream()
+                .filter(converter -> converter.matches(parameterName))
+                .findFirst()
+                .map(converter -> (Object) converter.convert(value, parameterName))
+                .orElse(value);
+    }
+
+    private static double nanosPerCall(Conversion conversion) {
+        long best = Long.MAX_VALUE;
+        Object sink = null;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int call = 0; call < CALLS_PER_ROUND; call++) {
+                for (int index = 0; index < PARAMETERS.length; index++) {
+                    sink = conversion.convert(PARAMETERS[index], VALUES[index]);
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            if (round >= WARMUP_ROUNDS) {
+                best = Math.min(best, elapsed);
+            }
+        }
+        if (sink == null) {
+            throw new IllegalStateException("Conversion returned nothing");
+        }
+        return (double) best / CALLS_PER_ROUND;
+    }
+
+    @FunctionalInterface
+    private interface Conversion {
+        Object convert(String parameterName, Object value);
+    }
+}
@@ -1,5 +1,6 @@
 package com.transaction.infrastructure.incoming.mcp.converter;
 
+import io.quarkiverse.mcp.server.ToolCallException;
 import jakarta.enterprise.inject.Instance;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -9,6 +10,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -18,27 +20,30 @@ import static org.mockito.Mockito.*;
 class ParameterConversionServiceTest {
 
     @Mock
-    private Instance<ParameterConverter> converterInstances;
+    private Instance<ParameterConverter<?>> converterInstances;
 
     @Mock
-    private ParameterConverter mockConverter1;
+    private ParameterConverter<String> mockConverter1;
 
     @Mock
-    private ParameterConverter mockConverter2;
+    private ParameterConverter<Integer> mockConverter2;
 
     @Mock
-    private ParameterConverter mockConverter3;
+    private ParameterConverter<Boolean> mockConverter3;
 
     private ParameterConversionService parameterConversionService;
 
     @BeforeEach
     void setUp() {
-        // Set up mock converters with required method stubs for constructor logging
-        doReturn(String.class).when(mockConverter1).getTargetType();
-        doReturn(Integer.class).when(mockConverter2).getTargetType();
-        doReturn(Boolean.class).when(mockConverter3).getTargetType();
-
-        List<ParameterConverter> converters = List.of(mockConverter1, mockConverter2, mockConverter3);
+        // Set up mock converters with the declarations read by the constructor
+        lenient().doReturn(String.class).when(mockConverter1).getTargetType();
+        lenient().doReturn(Integer.class).when(mockConverter2).getTargetType();
+        lenient().doReturn(Boolean.class).when(mockConverter3).getTargetType();
+        doReturn(Set.of("param1", "shared")).when(mockConverter1).supportedParameters();
+        doReturn(Set.of("param2", "shared")).when(mockConverter2).supportedParameters();
+        doReturn(Set.of("param3")).when(mockConverter3).supportedParameters();
+
+        List<ParameterConverter<?>> converters = List.of(mockConverter1, mockConverter2, mockConverter3);
         when(converterInstances.stream()).thenReturn(converters.stream());
 
         parameterConversionService = new ParameterConversionService(converterInstances);
@@ -48,108 +53,81 @@ class ParameterConversionServiceTest {
     @DisplayName("Should return null when input value is null")
     void shouldReturnNullWhenInputValueIsNull() {
         // When
-        Object result = parameterConversionService.convert(null, "anyParameter");
+        Object result = parameterConversionService.convert(null, "param1");
 
         // Then
         assertNull(result);
-
-        // Verify no converters were called since input was null
-        verify(mockConverter1, never()).matches(anyString());
-        verify(mockConverter2, never()).matches(anyString());
-        verify(mockConverter3, never()).matches(anyString());
+        verify(mockConverter1, never()).convert(any(), anyString());
     }
 
     @Test
-    @DisplayName("Should select first matching converter and delegate conversion")
-    void shouldSelectFirstMatchingConverterAndDelegateConversion() {
+    @DisplayName("Should delegate to the converter declaring the parameter name")
+    void shouldDelegateToConverterDeclaringParameter() {
         // Given
         Object inputValue = "test-value";
-        Object expectedResult = "converted-value";
-        String parameterName = "testParameter";
-
-        when(mockConverter1.matches(parameterName)).thenReturn(false);
-        when(mockConverter2.matches(parameterName)).thenReturn(true);
-        when(mockConverter2.convert(inputValue, parameterName)).thenReturn(expectedResult);
+        when(mockConverter2.convert(inputValue, "param2")).thenReturn(42);
 
         // When
-        Object result = parameterConversionService.convert(inputValue, parameterName);
+        Object result = parameterConversionService.convert(inputValue, "param2");
 
         // Then
-        assertSame(expectedResult, result);
-
-        // Verify the service checked converters in order and stopped at first match
-        verify(mockConverter1).matches(parameterName);
-        verify(mockConverter2).matches(parameterName);
-        verify(mockConverter3, never()).matches(parameterName); // Should not check third since second matched
-
-        // Verify conversion was delegated to the matching converter
-        verify(mockConverter2).convert(inputValue, parameterName);
+        assertEquals(42, result);
         verify(mockConverter1, never()).convert(any(), anyString());
         verify(mockConverter3, never()).convert(any(), anyString());
     }
 
+    @Test
+    @DisplayName("Should look converters up without asking them to match")
+    void shouldNotCallMatchesPerConversion() {
+        // Given
+        when(mockConverter3.convert("true", "param3")).thenReturn(true);
+
+        // When
+        parameterConversionService.convert("true", "param3");
+        parameterConversionService.convert("true", "param3");
+
+        // Then
+        verify(mockConverter1, never()).matches(anyString());
+        verify(mockConverter2, never()).matches(anyString());
+        verify(mockConverter3, never()).matches(anyString());
+        verify(mockConverter3, times(1)).supportedParameters();
+    }
+
     @Test
     @DisplayName("Should return original value when no converter matches")
     void shouldReturnOriginalValueWhenNoConverterMatches() {
         // Given
         Object inputValue = "unmatched-value";
-        String parameterName = "unmatchedParameter";
-
-        when(mockConverter1.matches(parameterName)).thenReturn(false);
-        when(mockConverter2.matches(parameterName)).thenReturn(false);
-        when(mockConverter3.matches(parameterName)).thenReturn(false);
 
         // When
-        Object result = parameterConversionService.convert(inputValue, parameterName);
+        Object result = parameterConversionService.convert(inputValue, "unmatchedParameter");
 
         // Then
         assertSame(inputValue, result);
-
-        // Verify all converters were checked
-        verify(mockConverter1).matches(parameterName);
-        verify(mockConverter2).matches(parameterName);
-        verify(mockConverter3).matches(parameterName);
-
-        // Verify no conversion was attempted
         verify(mockConverter1, never()).convert(any(), anyString());
         verify(mockConverter2, never()).convert(any(), anyString());
         verify(mockConverter3, never()).convert(any(), anyString());
     }
 
     @Test
-    @DisplayName("Should stop at first matching converter even if later converters would also match")
-    void shouldStopAtFirstMatchingConverter() {
+    @DisplayName("Should use the first registered converter when several declare the same name")
+    void shouldUseFirstRegisteredConverterForSharedName() {
         // Given
-        Object inputValue = "test-value";
-        Object expectedResult = "first-converter-result";
-        String parameterName = "testParameter";
-
-        when(mockConverter1.matches(parameterName)).thenReturn(true);
-        when(mockConverter1.convert(inputValue, parameterName)).thenReturn(expectedResult);
-        // Note: Not stubbing mockConverter2 and mockConverter3.matches() since they shouldn't be called
+        when(mockConverter1.convert("value", "shared")).thenReturn("first-converter-result");
 
         // When
-        Object result = parameterConversionService.convert(inputValue, parameterName);
+        Object result = parameterConversionService.convert("value", "shared");
 
         // Then
-        assertSame(expectedResult, result);
-
-        // Verify only first converter was checked and used
-        verify(mockConverter1).matches(parameterName);
-        verify(mockConverter1).convert(inputValue, parameterName);
-
-        // Verify later converters were never checked
-        verify(mockConverter2, never()).matches(parameterName);
-        verify(mockConverter3, never()).matches(parameterName);
+        assertEquals("first-converter-result", result);
         verify(mockConverter2, never()).convert(any(), anyString());
-        verify(mockConverter3, never()).convert(any(), anyString());
     }
 
     @Test
     @DisplayName("Should handle empty converter list gracefully")
     void shouldHandleEmptyConverterListGracefully() {
         // Given
-        when(converterInstances.stream()).thenReturn(List.<ParameterConverter>of().stream());
+        when(converterInstances.stream()).thenReturn(List.<ParameterConverter<?>>of().stream());
         ParameterConversionService emptyService = new ParameterConversionService(converterInstances);
         Object inputValue = "test-value";
 
@@ -161,30 +139,30 @@ class ParameterConversionServiceTest {
     }
 
     @Test
-    @DisplayName("Should handle different parameter names independently")
-    void shouldHandleDifferentParameterNamesIndependently() {
+    @DisplayName("Should return the converted value typed when the target type matches")
+    void shouldConvertTyped() {
         // Given
-        Object inputValue = "test-value";
-
-        // Set up stubs for param1 scenario
-        when(mockConverter1.matches("param1")).thenReturn(true);
-        when(mockConverter1.convert(inputValue, "param1")).thenReturn("result1");
-
-        // Set up stubs for param2 scenario
-        when(mockConverter1.matches("param2")).thenReturn(false);
-        when(mockConverter2.matches("param2")).thenReturn(true);
-        when(mockConverter2.convert(inputValue, "param2")).thenReturn("result2");
+        when(mockConverter2.convert("42", "param2")).thenReturn(42);
 
         // When
-        Object result1 = parameterConversionService.convert(inputValue, "param1");
-        Object result2 = parameterConversionService.convert(inputValue, "param2");
+        Integer result = parameterConversionService.convert("42", "param2", Integer.class);
 
         // Then
-        assertEquals("result1", result1);
-        assertEquals("result2", result2);
+        assertEquals(42, result);
+    }
 
-        // Verify correct converters were used for each parameter
-        verify(mockConverter1).convert(inputValue, "param1");
-        verify(mockConverter2).convert(inputValue, "param2");
+    @Test
+    @DisplayName("Should reject a typed conversion to a type the converter does not produce")
+    void shouldRejectTypedConversionToOtherType() {
+        assertThrows(IllegalStateException.class,
+                () -> parameterConversionService.convert("42", "param2", String.class));
+        verify(mockConverter2, never()).convert(any(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should reject a typed conversion of an unknown parameter")
+    void shouldRejectTypedConversionOfUnknownParameter() {
+        assertThrows(ToolCallException.class,
+                () -> parameterConversionService.convert("42", "unmatchedParameter", Integer.class));
     }
 }
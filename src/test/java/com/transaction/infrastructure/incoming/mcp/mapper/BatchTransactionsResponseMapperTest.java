@@ -0,0 +1,74 @@
+package com.transaction.infrastructure.incoming.mcp.mapper;
+
+import com.transaction.domain.exception.Errors;
+import com.transaction.domain.port.input.BatchTransactionsUseCase;
+import com.transaction.domain.port.input.DeleteTransactionUseCase;
+import com.transaction.domain.port.input.UpdateTransactionUseCase;
+import com.transaction.infrastructure.incoming.mcp.dto.BatchTransactionsResponseDto;
+import com.transaction.infrastructure.incoming.mcp.dto.DeleteTransactionResponseDto;
+import com.transaction.infrastructure.incoming.mcp.dto.UpdateTransactionResponseDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchTransactionsResponseMapperTest {
+
+    @Mock
+    private CreateTransactionResponseMapper createTransactionResponseMapper;
+
+    @Mock
+    private UpdateTransactionResponseMapper updateTransactionResponseMapper;
+
+    @Mock
+    private DeleteTransactionResponseMapper deleteTransactionResponseMapper;
+
+    @InjectMocks
+    private BatchTransactionsResponseMapperImpl mapper;
+
+    @Test
+    void toSuccessDto_mapsOutcomesInOrder() {
+        // Given
+        UUID id = UUID.randomUUID();
+        DeleteTransactionUseCase.Result.Success deleted = new DeleteTransactionUseCase.Result.Success(id);
+        UpdateTransactionUseCase.Result.NotFound notFound = new UpdateTransactionUseCase.Result.NotFound();
+        when(deleteTransactionResponseMapper.toSuccessDto(deleted)).thenReturn(new DeleteTransactionResponseDto.Success(id));
+        when(updateTransactionResponseMapper.toNotFoundDto(notFound)).thenReturn(new UpdateTransactionResponseDto.NotFound());
+        BatchTransactionsUseCase.Result.Success success = new BatchTransactionsUseCase.Result.Success(List.of(
+                new BatchTransactionsUseCase.Outcome.Deleted(deleted),
+                new BatchTransactionsUseCase.Outcome.Updated(notFound),
+                new BatchTransactionsUseCase.Outcome.Failed(new BatchTransactionsUseCase.Operation.Delete(id),
+                        new RuntimeException("commit failed"))));
+
+        // When
+        BatchTransactionsResponseDto.Success result = mapper.toSuccessDto(success);
+
+        // Then
+        assertEquals(List.of(
+                new BatchTransactionsResponseDto.OperationResult(0, "DELETE", new DeleteTransactionResponseDto.Success(id)),
+                new BatchTransactionsResponseDto.OperationResult(1, "UPDATE", new UpdateTransactionResponseDto.NotFound()),
+                new BatchTransactionsResponseDto.OperationResult(2, "DELETE", new BatchTransactionsResponseDto.Error("commit failed"))),
+                result.results());
+    }
+
+    @Test
+    void toErrorDto_includesErrorCodeAndMessage() {
+        // Given
+        BatchTransactionsUseCase.Result.Error error = new BatchTransactionsUseCase.Result.Error(
+                Errors.BatchTransactionsErrors.INVALID_INPUT, new IllegalArgumentException("too many operations"));
+
+        // When
+        BatchTransactionsResponseDto.Error result = mapper.toErrorDto(error);
+
+        // Then
+        assertEquals("Error code: 1101 - too many operations", result.error());
+    }
+}
@@ -25,7 +25,8 @@ public class TransactionDtoTestHelper {
                 transaction.getCommissionCurrency(),
                 transaction.getExchange(),
                 transaction.getCountry(),
-                transaction.getCompanyName()
+                transaction.getCompanyName(),
+                transaction.getVersion()
         );
     }
 }
@@ -0,0 +1,123 @@
+package com.transaction.infrastructure.outgoing.messaging;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transaction.domain.event.TransactionCreatedEvent;
+import com.transaction.domain.event.TransactionDeletedEvent;
+import com.transaction.domain.model.Transaction;
+import com.transaction.infrastructure.outgoing.messaging.codec.EventCodecs;
+import com.transaction.infrastructure.outgoing.messaging.mapper.TransactionMessageMapper;
+import com.transaction.infrastructure.outgoing.messaging.message.Message;
+import com.transaction.infrastructure.outgoing.messaging.message.TransactionCreatedData;
+import com.transaction.infrastructure.outgoing.messaging.message.TransactionDeletedData;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.MutinyEmitter;
+import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
+import io.smallrye.reactive.messaging.kafka.companion.KafkaCompanion;
+import io.strimzi.test.container.StrimziKafkaContainer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.testcontainers.DockerClientFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Publishes through {@link KafkaProducer} to a real broker and reads the topic back with the Kafka companion.
+ * The emitter hands each message to the broker as the Kafka connector would, taking key and headers from its
+ * {@link OutgoingKafkaRecordMetadata}. Skipped when Docker is not available.
+ */
+@EnabledIf("dockerAvailable")
+class KafkaProducerBrokerTest {
+
+    private static final String TOPIC = "transactions";
+
+    private static StrimziKafkaContainer kafka;
+    private static KafkaCompanion companion;
+
+    static boolean dockerAvailable() {
+        return DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    @BeforeAll
+    static void startKafka() {
+        kafka = new StrimziKafkaContainer().withKraft();
+        kafka.start();
+        companion = new KafkaCompanion(kafka.getBootstrapServers());
+    }
+
+    @AfterAll
+    static void stopKafka() {
+        if (companion != null) {
+            companion.close();
+        }
+        if (kafka != null) {
+            kafka.stop();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEventsOfATickerReachTheTopicInOrderWithTheirHeaders() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        TransactionMessageMapper mapper = mock(TransactionMessageMapper.class);
+        MutinyEmitter<byte[]> emitter = (MutinyEmitter<byte[]>) mock(MutinyEmitter.class);
+        when(emitter.sendMessage(any())).thenAnswer(invocation -> Uni.createFrom().item(() -> {
+            toBroker(invocation.getArgument(0));
+            return null;
+        }).replaceWithVoid());
+        KafkaProducer producer = new KafkaProducer(emitter, mapper, new EventCodecs(objectMapper, "json", "json", "cbor"), false);
+
+        Transaction transaction = mock(Transaction.class);
+        when(transaction.getTicker()).thenReturn("AAPL");
+        TransactionCreatedEvent created = new TransactionCreatedEvent(transaction);
+        TransactionDeletedEvent deleted = new TransactionDeletedEvent(transaction);
+        Message<TransactionCreatedData> createdMessage = message("TransactionCreated");
+        Message<TransactionDeletedData> deletedMessage = message("TransactionDeleted");
+        when(mapper.toTransactionCreated(created)).thenReturn(createdMessage);
+        when(mapper.toTransactionDeleted(deleted)).thenReturn(deletedMessage);
+
+        producer.publish(created).await().atMost(Duration.ofSeconds(30));
+        producer.publish(deleted).await().atMost(Duration.ofSeconds(30));
+
+        List<ConsumerRecord<String, byte[]>> records = companion.consume(String.class, byte[].class)
+                .fromTopics(TOPIC, 2)
+                .awaitCompletion(Duration.ofSeconds(30))
+                .getRecords();
+
+        assertEquals(2, records.size());
+        assertEquals(records.get(0).partition(), records.get(1).partition());
+        assertEquals(List.of("AAPL", "AAPL"), records.stream().map(ConsumerRecord::key).toList());
+        assertEquals(List.of("TransactionCreated", "TransactionDeleted"), records.stream()
+                .map(record -> KafkaCompanion.getHeader(record.headers(), KafkaProducer.EVENT_TYPE_HEADER))
+                .toList());
+        assertEquals(List.of("application/json", "application/cbor"), records.stream()
+                .map(record -> KafkaCompanion.getHeader(record.headers(), KafkaProducer.CONTENT_TYPE_HEADER))
+                .toList());
+
+        JsonNode payload = objectMapper.readTree(records.get(0).value());
+        assertEquals(createdMessage.eventId().toString(), payload.get("eventId").asText());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void toBroker(org.eclipse.microprofile.reactive.messaging.Message<byte[]> message) {
+        OutgoingKafkaRecordMetadata<String> metadata = message.getMetadata(OutgoingKafkaRecordMetadata.class).orElseThrow();
+        companion.produce(String.class, byte[].class)
+                .fromRecords(new ProducerRecord<>(TOPIC, null, metadata.getKey(), message.getPayload(), metadata.getHeaders()))
+                .awaitCompletion(Duration.ofSeconds(30));
+    }
+
+    private static <T> Message<T> message(String eventType) {
+        return new Message<>(UUID.randomUUID(), Instant.now(), Instant.now(), eventType, null);
+    }
+}
@@ -0,0 +1,127 @@
+package com.transaction.infrastructure.outgoing.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transaction.domain.event.TransactionCreatedEvent;
+import com.transaction.domain.event.TransactionUpdatedEvent;
+import com.transaction.domain.event.TransactionCreationErrorEvent;
+import com.transaction.domain.exception.ServiceException;
+import com.transaction.domain.model.Transaction;
+import com.transaction.domain.model.TransactionUpdateData;
+import com.transaction.infrastructure.outgoing.messaging.codec.EventCodecs;
+import com.transaction.infrastructure.outgoing.messaging.mapper.TransactionMessageMapper;
+import com.transaction.infrastructure.outgoing.messaging.message.Message;
+import com.transaction.infrastructure.outgoing.messaging.message.TransactionCreatedData;
+import com.transaction.infrastructure.outgoing.messaging.message.TransactionUpdatedData;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import io.smallrye.reactive.messaging.MutinyEmitter;
+import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class KafkaProducerTest {
+
+    private MutinyEmitter<byte[]> emitter;
+    private TransactionMessageMapper mapper;
+    private ObjectMapper objectMapper;
+    private KafkaProducer kafkaProducer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        emitter = (MutinyEmitter<byte[]>) mock(MutinyEmitter.class);
+        mapper = mock(TransactionMessageMapper.class);
+        objectMapper = mock(ObjectMapper.class);
+        kafkaProducer = new KafkaProducer(emitter, mapper, new EventCodecs(objectMapper, "json", "json", "json"), false);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPublishTransactionCreatedKeyedByTicker() throws JsonProcessingException {
+        TransactionCreatedEvent event = new TransactionCreatedEvent(transaction("AAPL"));
+        Message<TransactionCreatedData> message = message("TransactionCreated");
+        byte[] serialized = "serialized-message".getBytes(StandardCharsets.UTF_8);
+        when(mapper.toTransactionCreated(event)).thenReturn(message);
+        when(objectMapper.writeValueAsBytes(message)).thenReturn(serialized);
+        when(emitter.sendMessage(any())).thenReturn(Uni.createFrom().voidItem());
+
+        kafkaProducer.publish(event).subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .assertCompleted();
+
+        ArgumentCaptor<org.eclipse.microprofile.reactive.messaging.Message<byte[]>> captor =
+                ArgumentCaptor.forClass(org.eclipse.microprofile.reactive.messaging.Message.class);
+        verify(emitter).sendMessage(captor.capture());
+        assertArrayEquals(serialized, captor.getValue().getPayload());
+        OutgoingKafkaRecordMetadata<String> metadata = captor.getValue()
+                .getMetadata(OutgoingKafkaRecordMetadata.class).orElseThrow();
+        assertEquals("AAPL", metadata.getKey());
+        assertArrayEquals("TransactionCreated".getBytes(StandardCharsets.UTF_8),
+                metadata.getHeaders().lastHeader(KafkaProducer.EVENT_TYPE_HEADER).value());
+        assertArrayEquals("application/json".getBytes(StandardCharsets.UTF_8),
+                metadata.getHeaders().lastHeader(KafkaProducer.CONTENT_TYPE_HEADER).value());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPublishTransactionUpdatedKeyedByNewTicker() throws JsonProcessingException {
+        TransactionUpdatedEvent event = new TransactionUpdatedEvent(
+                new TransactionUpdateData(transaction("AAPL"), transaction("MSFT")));
+        Message<TransactionUpdatedData> message = message("TransactionUpdated");
+        when(mapper.toTransactionUpdatedDelta(event)).thenReturn(message);
+        when(objectMapper.writeValueAsBytes(message)).thenReturn("serialized-message".getBytes(StandardCharsets.UTF_8));
+        when(emitter.sendMessage(any())).thenReturn(Uni.createFrom().voidItem());
+
+        kafkaProducer.publish(event).subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .assertCompleted();
+
+        ArgumentCaptor<org.eclipse.microprofile.reactive.messaging.Message<byte[]>> captor =
+                ArgumentCaptor.forClass(org.eclipse.microprofile.reactive.messaging.Message.class);
+        verify(emitter).sendMessage(captor.capture());
+        assertEquals("MSFT", captor.getValue().getMetadata(OutgoingKafkaRecordMetadata.class).orElseThrow().getKey());
+        verify(mapper, never()).toTransactionUpdated(any());
+    }
+
+    @Test
+    void testPublishBrokerFailureIsWrapped() throws JsonProcessingException {
+        TransactionCreatedEvent event = new TransactionCreatedEvent(transaction("AAPL"));
+        Message<TransactionCreatedData> message = message("TransactionCreated");
+        when(mapper.toTransactionCreated(event)).thenReturn(message);
+        when(objectMapper.writeValueAsBytes(message)).thenReturn("serialized-message".getBytes(StandardCharsets.UTF_8));
+        when(emitter.sendMessage(any())).thenReturn(Uni.createFrom().failure(new RuntimeException("broker unavailable")));
+
+        kafkaProducer.publish(event).subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .assertFailedWith(ServiceException.class);
+    }
+
+    @Test
+    void testPublishUnsupportedEventType() {
+        kafkaProducer.publish(mock(TransactionCreationErrorEvent.class)).subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .assertFailedWith(ServiceException.class);
+
+        verifyNoInteractions(emitter, mapper);
+    }
+
+    private static Transaction transaction(String ticker) {
+        Transaction transaction = mock(Transaction.class);
+        when(transaction.getTicker()).thenReturn(ticker);
+        return transaction;
+    }
+
+    private static <T> Message<T> message(String eventType) {
+        return new Message<>(UUID.randomUUID(), Instant.now(), Instant.now(), eventType, null);
+    }
+}
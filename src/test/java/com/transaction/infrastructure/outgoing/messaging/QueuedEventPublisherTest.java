@@ -0,0 +1,284 @@
+package com.transaction.infrastructure.outgoing.messaging;
+
+import com.transaction.domain.event.DomainEvent;
+import com.transaction.domain.event.TransactionCreatedEvent;
+import com.transaction.domain.event.TransactionDeletedEvent;
+import com.transaction.domain.event.TransactionUpdatedEvent;
+import com.transaction.domain.exception.ServiceException;
+import com.transaction.domain.model.Transaction;
+import com.transaction.domain.model.TransactionUpdateData;
+import com.transaction.domain.port.output.DomainEventPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class QueuedEventPublisherTest {
+
+    private DomainEventPublisher delegate;
+    private MeterRegistry meterRegistry;
+    private List<DomainEvent<?>> published;
+    private QueuedEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(DomainEventPublisher.class);
+        meterRegistry = new SimpleMeterRegistry();
+        published = new CopyOnWriteArrayList<>();
+        when(delegate.publish(any())).thenAnswer(invocation -> {
+            published.add(invocation.getArgument(0));
+            return Uni.createFrom().voidItem();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (publisher != null) {
+            publisher.onStop(null);
+        }
+    }
+
+    @Test
+    void testSyncModePublishesInline() {
+        publisher = publisher(QueuedEventPublisher.Mode.SYNC, 1, QueuedEventPublisher.OverflowPolicy.BLOCK);
+        TransactionCreatedEvent event = event("AAPL");
+
+        publisher.publish(event).subscribe().withSubscriber(UniAssertSubscriber.create()).assertCompleted();
+
+        assertEquals(List.of(event), published);
+    }
+
+    @Test
+    void testAsyncModeKeepsPerTransactionOrderAcrossTickerChanges() {
+        publisher = publisher(QueuedEventPublisher.Mode.ASYNC, 100, QueuedEventPublisher.OverflowPolicy.BLOCK);
+        List<List<DomainEvent<?>>> byTransaction = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            UUID id = UUID.randomUUID();
+            Transaction created = transaction(id, "AAPL");
+            Transaction renamed = transaction(id, "NVDA");
+            byTransaction.add(List.of(
+                    new TransactionCreatedEvent(created),
+                    new TransactionUpdatedEvent(new TransactionUpdateData(created, renamed)),
+                    new TransactionDeletedEvent(renamed)));
+        }
+        for (int step = 0; step < 3; step++) {
+            for (List<DomainEvent<?>> events : byTransaction) {
+                publisher.publish(events.get(step)).await().indefinitely();
+            }
+        }
+
+        publisher.onStop(null);
+
+        for (List<DomainEvent<?>> events : byTransaction) {
+            assertEquals(events, published.stream().filter(events::contains).toList());
+        }
+    }
+
+    @Test
+    void testAsyncModeKeepsPerTickerOrderAcrossTransactions() {
+        publisher = publisher(QueuedEventPublisher.Mode.ASYNC, 100, QueuedEventPublisher.OverflowPolicy.BLOCK);
+        List<DomainEvent<?>> events = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String ticker = i % 3 == 0 ? "NVDA" : i % 3 == 1 ? "AAPL" : " aapl ";
+            events.add(i % 2 == 0
+                    ? new TransactionCreatedEvent(transaction(UUID.randomUUID(), ticker))
+                    : new TransactionDeletedEvent(transaction(UUID.randomUUID(), ticker)));
+        }
+        for (DomainEvent<?> event : events) {
+            publisher.publish(event).await().indefinitely();
+        }
+
+        publisher.onStop(null);
+
+        for (String ticker : List.of("AAPL", "NVDA")) {
+            List<DomainEvent<?>> ofTicker = events.stream()
+                    .filter(event -> ((Transaction) event.getData()).getTicker().trim().equalsIgnoreCase(ticker))
+                    .toList();
+            assertEquals(ofTicker, published.stream().filter(ofTicker::contains).toList());
+        }
+    }
+
+    @Test
+    void testEventsOfTheNewTickerWaitForAnUpdateMovingATransactionToIt() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        UUID id = UUID.randomUUID();
+        TransactionUpdatedEvent moved = new TransactionUpdatedEvent(
+                new TransactionUpdateData(transaction(id, "AAPL"), transaction(id, "NVDA")));
+        TransactionCreatedEvent created = new TransactionCreatedEvent(transaction(UUID.randomUUID(), "NVDA"));
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0) == moved) {
+                release.await();
+            }
+            published.add(invocation.getArgument(0));
+            return Uni.createFrom().voidItem();
+        }).when(delegate).publish(any());
+        publisher = publisher(QueuedEventPublisher.Mode.ASYNC, 10, QueuedEventPublisher.OverflowPolicy.BLOCK);
+
+        publisher.publish(moved).await().indefinitely();
+        publisher.publish(created).await().indefinitely();
+        Thread.sleep(200);
+        assertEquals(List.of(), published);
+        release.countDown();
+        publisher.onStop(null);
+
+        assertEquals(List.of(moved, created), published);
+    }
+
+    @Test
+    void testDropPolicyCountsDiscardedEvents() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch delivering = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            delivering.countDown();
+            release.await();
+            published.add(invocation.getArgument(0));
+            return Uni.createFrom().voidItem();
+        }).when(delegate).publish(any());
+        publisher = publisher(QueuedEventPublisher.Mode.ASYNC, 1, QueuedEventPublisher.OverflowPolicy.DROP);
+
+        publisher.publish(event("AAPL")).await().indefinitely();
+        assertTrue(delivering.await(5, TimeUnit.SECONDS));
+        publisher.publish(event("AAPL")).await().indefinitely();
+        publisher.publish(event("AAPL")).await().indefinitely();
+        release.countDown();
+        publisher.onStop(null);
+
+        assertEquals(1.0, meterRegistry.get("events.publisher.dropped").counter().count());
+        assertEquals(2, published.size());
+    }
+
+    @Test
+    void testBlockPolicyFailsWhenLaneStaysFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch delivering = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            delivering.countDown();
+            release.await();
+            return Uni.createFrom().voidItem();
+        }).when(delegate).publish(any());
+        publisher = publisher(QueuedEventPublisher.Mode.ASYNC, 1, QueuedEventPublisher.OverflowPolicy.BLOCK);
+
+        publisher.publish(event("AAPL")).await().indefinitely();
+        assertTrue(delivering.await(5, TimeUnit.SECONDS));
+        publisher.publish(event("AAPL")).await().indefinitely();
+
+        publisher.publish(event("AAPL")).subscribe().withSubscriber(UniAssertSubscriber.create())
+                .awaitFailure(Duration.ofSeconds(5))
+                .assertFailedWith(ServiceException.class);
+        release.countDown();
+    }
+
+    @Test
+    void testFailedDeliveryIsCountedAfterRetries() {
+        doReturn(Uni.createFrom().failure(new RuntimeException("redis down"))).when(delegate).publish(any());
+        publisher = publisher(QueuedEventPublisher.Mode.ASYNC, 10, QueuedEventPublisher.OverflowPolicy.BLOCK);
+
+        publisher.publish(event("AAPL")).await().indefinitely();
+        publisher.onStop(null);
+
+        assertEquals(1.0, meterRegistry.get("events.publisher.failed").counter().count());
+    }
+
+    @Test
+    void testPublishAfterShutdownGoesStraightToDelegate() {
+        publisher = publisher(QueuedEventPublisher.Mode.ASYNC, 10, QueuedEventPublisher.OverflowPolicy.BLOCK);
+        publisher.onStop(null);
+        TransactionCreatedEvent event = event("AAPL");
+
+        publisher.publish(event).subscribe().withSubscriber(UniAssertSubscriber.create()).assertCompleted();
+
+        assertEquals(List.of(event), published);
+    }
+
+    @Test
+    void testCoalescesConsecutiveUpdatesOfSameTransaction() {
+        publisher = publisher(QueuedEventPublisher.OverflowPolicy.BLOCK, Duration.ofSeconds(5));
+        UUID id = UUID.randomUUID();
+        Transaction first = transaction(id, "AAPL");
+        Transaction second = transaction(id, "AAPL");
+        Transaction third = transaction(id, "AAPL");
+
+        publisher.publish(new TransactionUpdatedEvent(new TransactionUpdateData(first, second))).await().indefinitely();
+        publisher.publish(new TransactionUpdatedEvent(new TransactionUpdateData(second, third))).await().indefinitely();
+        publisher.onStop(null);
+
+        assertEquals(1, published.size());
+        TransactionUpdateData merged = ((TransactionUpdatedEvent) published.getFirst()).getData();
+        assertSame(first, merged.previousTransaction());
+        assertSame(third, merged.newTransaction());
+        assertEquals(1.0, meterRegistry.get("events.publisher.coalesced").counter().count());
+    }
+
+    @Test
+    void testCoalescingKeepsOrderAgainstOtherEvents() {
+        publisher = publisher(QueuedEventPublisher.OverflowPolicy.BLOCK, Duration.ofSeconds(5));
+        UUID id = UUID.randomUUID();
+        Transaction first = transaction(id, "AAPL");
+        Transaction second = transaction(id, "AAPL");
+        TransactionUpdatedEvent update = new TransactionUpdatedEvent(new TransactionUpdateData(first, second));
+        TransactionDeletedEvent delete = new TransactionDeletedEvent(second);
+        UUID otherId = UUID.randomUUID();
+        TransactionUpdatedEvent otherUpdate = new TransactionUpdatedEvent(
+                new TransactionUpdateData(transaction(otherId, "AAPL"), transaction(otherId, "AAPL")));
+
+        publisher.publish(update).await().indefinitely();
+        publisher.publish(delete).await().indefinitely();
+        publisher.publish(otherUpdate).await().indefinitely();
+        publisher.onStop(null);
+
+        assertEquals(List.of(update, delete, otherUpdate), published);
+        assertEquals(0.0, meterRegistry.get("events.publisher.coalesced").counter().count());
+    }
+
+    @Test
+    void testHeldUpdateIsPublishedWhenWindowCloses() {
+        publisher = publisher(QueuedEventPublisher.OverflowPolicy.BLOCK, Duration.ofMillis(50));
+        TransactionUpdatedEvent update = new TransactionUpdatedEvent(
+                new TransactionUpdateData(transaction(UUID.randomUUID(), "AAPL"), transaction(UUID.randomUUID(), "AAPL")));
+
+        publisher.publish(update).await().indefinitely();
+
+        verify(delegate, timeout(5000)).publish(update);
+    }
+
+    private QueuedEventPublisher publisher(QueuedEventPublisher.Mode mode, int capacity, QueuedEventPublisher.OverflowPolicy overflow) {
+        return new QueuedEventPublisher(delegate, meterRegistry, mode, 2, capacity, overflow,
+                Duration.ofMillis(50), Duration.ofSeconds(5), 2, Duration.ofSeconds(5), Duration.ZERO);
+    }
+
+    private QueuedEventPublisher publisher(QueuedEventPublisher.OverflowPolicy overflow, Duration coalesceWindow) {
+        return new QueuedEventPublisher(delegate, meterRegistry, QueuedEventPublisher.Mode.ASYNC, 2, 100, overflow,
+                Duration.ofMillis(50), Duration.ofSeconds(5), 2, Duration.ofSeconds(5), coalesceWindow);
+    }
+
+    /**
+     * Of the two lanes, AAPL is routed to the first and NVDA to the second
+     */
+    private static Transaction transaction(UUID id, String ticker) {
+        Transaction transaction = mock(Transaction.class);
+        when(transaction.getId()).thenReturn(id);
+        when(transaction.getTicker()).thenReturn(ticker);
+        return transaction;
+    }
+
+    private static TransactionCreatedEvent event(String ticker) {
+        Transaction transaction = mock(Transaction.class);
+        when(transaction.getTicker()).thenReturn(ticker);
+        return new TransactionCreatedEvent(transaction);
+    }
+}
@@ -0,0 +1,208 @@
+package com.transaction.infrastructure.outgoing.messaging;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.transaction.domain.model.TransactionChange;
+import com.transaction.infrastructure.outgoing.messaging.codec.CborEventCodec;
+import com.transaction.infrastructure.outgoing.messaging.codec.EventCodecs;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.datasource.stream.ReactiveStreamCommands;
+import io.quarkus.redis.datasource.stream.StreamMessage;
+import io.quarkus.redis.datasource.stream.StreamRange;
+import io.quarkus.redis.datasource.stream.XReadArgs;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RedisChangeStreamTest {
+
+    private static final String CREATED = RedisPublisher.TRANSACTION_CREATED_STREAM;
+    private static final String UPDATED = RedisPublisher.TRANSACTION_UPDATED_STREAM;
+    private static final String DELETED = RedisPublisher.TRANSACTION_DELETED_STREAM;
+
+    private ReactiveStreamCommands<String, String, byte[]> streamCommands;
+    private ReactiveRedisDataSource redisDataSource;
+    private EventCodecs codecs;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisDataSource = mock(ReactiveRedisDataSource.class);
+        codecs = new EventCodecs(new ObjectMapper(), "json", "json", "json");
+        streamCommands = (ReactiveStreamCommands<String, String, byte[]>) mock(ReactiveStreamCommands.class);
+        when(redisDataSource.stream(String.class, String.class, byte[].class)).thenReturn(streamCommands);
+
+        when(streamCommands.xrevrange(anyString(), any(StreamRange.class), anyInt())).thenReturn(Uni.createFrom().item(List.of()));
+        when(streamCommands.xrange(anyString(), any(StreamRange.class), anyInt())).thenReturn(Uni.createFrom().item(List.of()));
+        when(streamCommands.xread(anyMap(), any(XReadArgs.class))).thenReturn(Uni.createFrom().nothing());
+    }
+
+    @Test
+    void testFollowWithoutCursorStreamsLiveEntries() {
+        when(streamCommands.xread(anyMap(), any(XReadArgs.class)))
+                .thenReturn(Uni.createFrom().item(List.of(message("5-0", "AAPL"))))
+                .thenReturn(Uni.createFrom().nothing());
+
+        List<TransactionChange> changes = changeStream(100).follow(null).subscribe()
+                .withSubscriber(AssertSubscriber.create(10))
+                .awaitItems(1).getItems();
+
+        TransactionChange change = changes.getFirst();
+        assertEquals("5-0,0-0,0-0", change.cursor());
+        assertEquals("TransactionCreated", change.eventType());
+        assertEquals("AAPL", change.ticker());
+        assertEquals("{\"ticker\":\"AAPL\"}", change.payload());
+    }
+
+    @Test
+    void testFollowKeepsOrderAcrossStreamsWhenReadsAreFull() {
+        when(streamCommands.xread(anyMap(), any(XReadArgs.class)))
+                .thenReturn(Uni.createFrom().item(List.of(
+                        message("1-0", "AAPL"), message("2-0", "AAPL"), message(DELETED, "3-0", "AAPL"))))
+                .thenReturn(Uni.createFrom().item(List.of(message("2-5", "MSFT"), message(DELETED, "3-0", "AAPL"))))
+                .thenReturn(Uni.createFrom().nothing());
+
+        List<TransactionChange> changes = new RedisChangeStream(redisDataSource, codecs, Duration.ofSeconds(1), 2, 100, 100)
+                .follow(null).subscribe()
+                .withSubscriber(AssertSubscriber.create(10))
+                .awaitItems(4).getItems();
+
+        assertEquals(List.of("1-0,0-0,0-0", "2-0,0-0,0-0", "2-5,0-0,0-0", "2-5,0-0,3-0"),
+                changes.stream().map(TransactionChange::cursor).toList());
+        assertEquals("TransactionDeleted", changes.getLast().eventType());
+    }
+
+    @Test
+    void testFollowWithCursorReplaysMissedEntries() {
+        when(streamCommands.xrange(eq(CREATED), any(StreamRange.class), anyInt()))
+                .thenReturn(Uni.createFrom().item(List.of(message("2-0", "AAPL"), message("3-0", "MSFT"))))
+                .thenReturn(Uni.createFrom().item(List.of()));
+
+        List<TransactionChange> changes = changeStream(100).follow("1-0,0-0,0-0").subscribe()
+                .withSubscriber(AssertSubscriber.create(10))
+                .awaitItems(2).getItems();
+
+        assertEquals(List.of("2-0,0-0,0-0", "3-0,0-0,0-0"), changes.stream().map(TransactionChange::cursor).toList());
+        assertEquals(List.of("AAPL", "MSFT"), changes.stream().map(TransactionChange::ticker).toList());
+    }
+
+    @Test
+    void testFollowRequiresResyncWhenGapExceedsBackfillLimit() {
+        when(streamCommands.xrange(eq(CREATED), any(StreamRange.class), anyInt()))
+                .thenReturn(Uni.createFrom().item(List.of(message("2-0", "AAPL"), message("3-0", "MSFT"))))
+                .thenReturn(Uni.createFrom().item(List.of()));
+        when(streamCommands.xrevrange(eq(CREATED), any(StreamRange.class), anyInt()))
+                .thenReturn(Uni.createFrom().item(List.of(message("9-0", "TSLA"))));
+
+        List<TransactionChange> changes = changeStream(1).follow("1-0,0-0,0-0").subscribe()
+                .withSubscriber(AssertSubscriber.create(10))
+                .awaitItems(2).getItems();
+
+        assertEquals("2-0,0-0,0-0", changes.get(0).cursor());
+        assertTrue(changes.get(1).isResyncRequired());
+        assertEquals("9-0,0-0,0-0", changes.get(1).cursor());
+    }
+
+    @Test
+    void testFollowWithUnreadableCursorRequiresResync() {
+        List<TransactionChange> changes = changeStream(100).follow("not-a-cursor").subscribe()
+                .withSubscriber(AssertSubscriber.create(10))
+                .awaitItems(1).getItems();
+
+        assertTrue(changes.getFirst().isResyncRequired());
+        assertEquals("0-0,0-0,0-0", changes.getFirst().cursor());
+        verify(streamCommands, never()).xrange(anyString(), any(StreamRange.class), anyInt());
+    }
+
+    @Test
+    void testFollowTranscodesBinaryPayloadsToJson() throws Exception {
+        byte[] payload = new CborEventCodec(new ObjectMapper()).encode(Map.of("ticker", "AAPL", "quantity", new BigDecimal("1.50")));
+        StreamMessage<String, String, byte[]> message = new StreamMessage<>(CREATED, "5-0", Map.of(
+                RedisPublisher.PAYLOAD_FIELD, payload,
+                RedisPublisher.CONTENT_TYPE_FIELD, CborEventCodec.CONTENT_TYPE.getBytes(StandardCharsets.UTF_8),
+                RedisPublisher.TICKER_FIELD, "AAPL".getBytes(StandardCharsets.UTF_8)));
+        when(streamCommands.xread(anyMap(), any(XReadArgs.class)))
+                .thenReturn(Uni.createFrom().item(List.of(message)))
+                .thenReturn(Uni.createFrom().nothing());
+
+        TransactionChange change = changeStream(100).follow(null).subscribe()
+                .withSubscriber(AssertSubscriber.create(10))
+                .awaitItems(1).getItems().getFirst();
+
+        JsonNode json = new ObjectMapper().readTree(change.payload());
+        assertEquals("AAPL", json.get("ticker").asText());
+        assertEquals(0, new BigDecimal("1.50").compareTo(json.get("quantity").decimalValue()));
+    }
+
+    @Test
+    void testReplayCompletesAtTheEndOfTheStreams() {
+        when(streamCommands.xrevrange(eq(CREATED), any(StreamRange.class), anyInt()))
+                .thenReturn(Uni.createFrom().item(List.of(message("3-0", "MSFT"))));
+        when(streamCommands.xrange(eq(CREATED), any(StreamRange.class), anyInt()))
+                .thenReturn(Uni.createFrom().item(List.of(message("2-0", "AAPL"), message("3-0", "MSFT"))))
+                .thenReturn(Uni.createFrom().item(List.of()));
+
+        List<TransactionChange> changes = changeStream(100).replay("1-0,0-0,0-0").subscribe()
+                .withSubscriber(AssertSubscriber.create(10))
+                .awaitCompletion().getItems();
+
+        assertEquals(List.of("2-0,0-0,0-0", "3-0,0-0,0-0"), changes.stream().map(TransactionChange::cursor).toList());
+        verify(streamCommands, never()).xread(anyMap(), any(XReadArgs.class));
+    }
+
+    @Test
+    void testReplayKeepsOrderAcrossStreamsWhenPagesAreFull() {
+        when(streamCommands.xrange(eq(CREATED), any(StreamRange.class), anyInt()))
+                .thenReturn(Uni.createFrom().item(List.of(message("1-0", "AAPL"), message("2-0", "AAPL"))))
+                .thenReturn(Uni.createFrom().item(List.of(message("4-0", "AAPL"))))
+                .thenReturn(Uni.createFrom().item(List.of()));
+        when(streamCommands.xrange(eq(UPDATED), any(StreamRange.class), anyInt()))
+                .thenReturn(Uni.createFrom().item(List.of(message(UPDATED, "5-0", "AAPL"))))
+                .thenReturn(Uni.createFrom().item(List.of(message(UPDATED, "5-0", "AAPL"))))
+                .thenReturn(Uni.createFrom().item(List.of()));
+
+        List<TransactionChange> changes = new RedisChangeStream(redisDataSource, codecs, Duration.ofSeconds(1), 2, 100, 100)
+                .replay(null).subscribe()
+                .withSubscriber(AssertSubscriber.create(10))
+                .awaitCompletion().getItems();
+
+        assertEquals(List.of("1-0,0-0,0-0", "2-0,0-0,0-0", "4-0,0-0,0-0", "4-0,5-0,0-0"),
+                changes.stream().map(TransactionChange::cursor).toList());
+    }
+
+    @Test
+    void testReplayRejectsUnreadableCursor() {
+        RedisChangeStream changeStream = changeStream(100);
+
+        assertThrows(IllegalArgumentException.class, () -> changeStream.replay("not-a-cursor"));
+    }
+
+    private RedisChangeStream changeStream(int maxBackfill) {
+        return new RedisChangeStream(redisDataSource, codecs, Duration.ofSeconds(1), 100, 100, maxBackfill);
+    }
+
+    private static StreamMessage<String, String, byte[]> message(String id, String ticker) {
+        return message(CREATED, id, ticker);
+    }
+
+    private static StreamMessage<String, String, byte[]> message(String stream, String id, String ticker) {
+        return new StreamMessage<>(stream, id, Map.of(
+                RedisPublisher.PAYLOAD_FIELD, "{\"ticker\":\"%s\"}".formatted(ticker).getBytes(StandardCharsets.UTF_8),
+                RedisPublisher.TICKER_FIELD, ticker.getBytes(StandardCharsets.UTF_8)));
+    }
+}
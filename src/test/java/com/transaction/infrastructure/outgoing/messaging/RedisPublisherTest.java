@@ -10,6 +10,7 @@ import com.transaction.domain.exception.ServiceException;
 import com.transaction.domain.model.Currency;
 import com.transaction.domain.model.Transaction;
 import com.transaction.domain.model.TransactionType;
+import com.transaction.infrastructure.outgoing.messaging.codec.EventCodecs;
 import com.transaction.infrastructure.outgoing.messaging.mapper.TransactionMessageMapper;
 import com.transaction.infrastructure.outgoing.messaging.message.Message;
 import com.transaction.infrastructure.outgoing.messaging.message.TransactionCreatedData;
@@ -17,6 +18,7 @@ import com.transaction.infrastructure.outgoing.messaging.message.TransactionDele
 import com.transaction.infrastructure.outgoing.messaging.message.TransactionUpdatedData;
 import io.quarkus.redis.datasource.ReactiveRedisDataSource;
 import io.quarkus.redis.datasource.stream.ReactiveStreamCommands;
+import io.quarkus.redis.datasource.stream.XAddArgs;
 import io.smallrye.mutiny.Uni;
 import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,22 +26,32 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class RedisPublisherTest {
 
-    private ReactiveStreamCommands<String, String, String> streamCommands;
+    private ReactiveStreamCommands<String, String, byte[]> streamCommands;
     private TransactionMessageMapper mapper;
     private ObjectMapper objectMapper;
+    private StreamRetention retention;
+    private SpillLog spillLog;
     private RedisPublisher redisPublisher;
+    private ReactiveRedisDataSource redisDataSource;
 
     private static final String TRANSACTION_CREATED_STREAM = "transaction:created";
     private static final String TRANSACTION_UPDATED_STREAM = "transaction:updated";
@@ -48,14 +60,16 @@ class RedisPublisherTest {
     @BeforeEach
     @SuppressWarnings("unchecked")
     void setUp() {
-        ReactiveRedisDataSource redisDataSource = mock(ReactiveRedisDataSource.class);
-        streamCommands = (ReactiveStreamCommands<String, String, String>) mock(ReactiveStreamCommands.class);
+        redisDataSource = mock(ReactiveRedisDataSource.class);
+        streamCommands = (ReactiveStreamCommands<String, String, byte[]>) mock(ReactiveStreamCommands.class);
         mapper = mock(TransactionMessageMapper.class);
         objectMapper = mock(ObjectMapper.class);
 
-        when(redisDataSource.stream(String.class, String.class, String.class)).thenReturn(streamCommands);
+        when(redisDataSource.stream(String.class, String.class, byte[].class)).thenReturn(streamCommands);
 
-        redisPublisher = new RedisPublisher(redisDataSource, mapper, objectMapper);
+        retention = new StreamRetention(Optional.of(1000L), Optional.empty());
+        spillLog = mock(SpillLog.class);
+        redisPublisher = new RedisPublisher(redisDataSource, mapper, new EventCodecs(objectMapper, "json", "json", "json"), retention, spillLog, false);
     }
 
     @Test
@@ -64,12 +78,12 @@ class RedisPublisherTest {
         Transaction transaction = createTransaction();
         TransactionCreatedEvent event = new TransactionCreatedEvent(transaction);
         Message<TransactionCreatedData> message = createMessageTransactionCreated(transaction);
-        String serializedMessage = "serialized-message";
+        byte[] serializedMessage = "serialized-message".getBytes(StandardCharsets.UTF_8);
 
         when(mapper.toTransactionCreated(event)).thenReturn(message);
-        when(objectMapper.writeValueAsString(message)).thenReturn(serializedMessage);
+        when(objectMapper.writeValueAsBytes(message)).thenReturn(serializedMessage);
         doReturn(Uni.createFrom().item("stream-message-id"))
-                .when(streamCommands).xadd(eq(TRANSACTION_CREATED_STREAM), any(Map.class));
+                .when(streamCommands).xadd(eq(TRANSACTION_CREATED_STREAM), any(XAddArgs.class), any(Map.class));
 
         // When
         Uni<Void> result = redisPublisher.publish(event);
@@ -80,14 +94,17 @@ class RedisPublisherTest {
                 .assertCompleted();
 
         verify(mapper).toTransactionCreated(event);
-        verify(objectMapper).writeValueAsString(message);
+        verify(objectMapper).writeValueAsBytes(message);
 
         // Verify stream data structure
-        ArgumentCaptor<Map<String, String>> streamDataCaptor = ArgumentCaptor.forClass(Map.class);
-        verify(streamCommands).xadd(eq(TRANSACTION_CREATED_STREAM), streamDataCaptor.capture());
-
-        Map<String, String> capturedData = streamDataCaptor.getValue();
-        assertEquals(serializedMessage, capturedData.get("payload"));
+        ArgumentCaptor<Map<String, byte[]>> streamDataCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(streamCommands).xadd(eq(TRANSACTION_CREATED_STREAM), any(XAddArgs.class), streamDataCaptor.capture());
+
+        Map<String, byte[]> capturedData = streamDataCaptor.getValue();
+        assertArrayEquals(serializedMessage, capturedData.get("payload"));
+        assertEquals("AAPL", new String(capturedData.get("ticker"), StandardCharsets.UTF_8));
+        assertEquals("application/json", new String(capturedData.get("contentType"), StandardCharsets.UTF_8));
+        assertFalse(capturedData.containsKey("previousTicker"));
     }
 
     @Test
@@ -99,13 +116,13 @@ class RedisPublisherTest {
             new com.transaction.domain.model.TransactionUpdateData(previousTransaction, newTransaction);
         TransactionUpdatedEvent event = new TransactionUpdatedEvent(updateData);
         Message<TransactionUpdatedData> message = createMessageForTransactionUpdated(previousTransaction, newTransaction);
-        String serializedMessage = "serialized-message";
+        byte[] serializedMessage = "serialized-message".getBytes(StandardCharsets.UTF_8);
 
         ArgumentCaptor<TransactionUpdatedEvent> eventCaptor = ArgumentCaptor.forClass(TransactionUpdatedEvent.class);
-        when(mapper.toTransactionUpdated(eventCaptor.capture())).thenReturn(message);
-        when(objectMapper.writeValueAsString(message)).thenReturn(serializedMessage);
+        when(mapper.toTransactionUpdatedDelta(eventCaptor.capture())).thenReturn(message);
+        when(objectMapper.writeValueAsBytes(message)).thenReturn(serializedMessage);
         doReturn(Uni.createFrom().item("stream-message-id"))
-                .when(streamCommands).xadd(eq(TRANSACTION_UPDATED_STREAM), any(Map.class));
+                .when(streamCommands).xadd(eq(TRANSACTION_UPDATED_STREAM), any(XAddArgs.class), any(Map.class));
 
         // When
         Uni<Void> result = redisPublisher.publish(event);
@@ -119,14 +136,40 @@ class RedisPublisherTest {
         TransactionUpdatedEvent capturedEvent = eventCaptor.getValue();
         assertEquals(updateData, capturedEvent.getData());
 
-        verify(objectMapper).writeValueAsString(message);
+        verify(objectMapper).writeValueAsBytes(message);
 
         // Verify stream data structure for updated event
-        ArgumentCaptor<Map<String, String>> streamDataCaptor = ArgumentCaptor.forClass(Map.class);
-        verify(streamCommands).xadd(eq(TRANSACTION_UPDATED_STREAM), streamDataCaptor.capture());
+        ArgumentCaptor<Map<String, byte[]>> streamDataCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(streamCommands).xadd(eq(TRANSACTION_UPDATED_STREAM), any(XAddArgs.class), streamDataCaptor.capture());
+
+        Map<String, byte[]> capturedData = streamDataCaptor.getValue();
+        assertArrayEquals(serializedMessage, capturedData.get("payload"));
+    }
+
+    @Test
+    void testPublishTransactionUpdatedEventWithFullSnapshots() throws JsonProcessingException {
+        // Given
+        RedisPublisher fullSnapshotPublisher = new RedisPublisher(redisDataSource, mapper,
+                new EventCodecs(objectMapper, "json", "json", "json"), retention, spillLog, true);
+        Transaction previousTransaction = createTransaction();
+        Transaction newTransaction = createTransaction();
+        TransactionUpdatedEvent event = new TransactionUpdatedEvent(
+                new com.transaction.domain.model.TransactionUpdateData(previousTransaction, newTransaction));
+        Message<TransactionUpdatedData> message = createMessageForTransactionUpdated(previousTransaction, newTransaction);
+
+        when(mapper.toTransactionUpdated(event)).thenReturn(message);
+        when(objectMapper.writeValueAsBytes(message)).thenReturn("serialized-message".getBytes(StandardCharsets.UTF_8));
+        doReturn(Uni.createFrom().item("stream-message-id"))
+                .when(streamCommands).xadd(eq(TRANSACTION_UPDATED_STREAM), any(XAddArgs.class), any(Map.class));
+
+        // When
+        fullSnapshotPublisher.publish(event).subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .assertCompleted();
 
-        Map<String, String> capturedData = streamDataCaptor.getValue();
-        assertEquals(serializedMessage, capturedData.get("payload"));
+        // Then
+        verify(mapper).toTransactionUpdated(event);
+        verify(mapper, never()).toTransactionUpdatedDelta(any());
     }
 
     @Test
@@ -135,13 +178,13 @@ class RedisPublisherTest {
         Transaction transaction = createTransaction();
         TransactionDeletedEvent event = new TransactionDeletedEvent(transaction);
         Message<TransactionDeletedData> message = createMessageForTransactionDeleted(transaction);
-        String serializedMessage = "serialized-message";
+        byte[] serializedMessage = "serialized-message".getBytes(StandardCharsets.UTF_8);
 
         ArgumentCaptor<TransactionDeletedEvent> eventCaptor = ArgumentCaptor.forClass(TransactionDeletedEvent.class);
         when(mapper.toTransactionDeleted(eventCaptor.capture())).thenReturn(message);
-        when(objectMapper.writeValueAsString(message)).thenReturn(serializedMessage);
+        when(objectMapper.writeValueAsBytes(message)).thenReturn(serializedMessage);
         doReturn(Uni.createFrom().item("stream-message-id"))
-                .when(streamCommands).xadd(eq(TRANSACTION_UPDATED_STREAM), any(Map.class));
+                .when(streamCommands).xadd(eq(TRANSACTION_DELETED_STREAM), any(XAddArgs.class), any(Map.class));
 
         // When
         Uni<Void> result = redisPublisher.publish(event);
@@ -155,19 +198,71 @@ class RedisPublisherTest {
         TransactionDeletedEvent capturedEvent = eventCaptor.getValue();
         assertEquals(transaction, capturedEvent.getData());
 
-        verify(objectMapper).writeValueAsString(message);
+        verify(objectMapper).writeValueAsBytes(message);
 
         // Verify stream data structure for updated event
-        ArgumentCaptor<Map<String, String>> streamDataCaptor = ArgumentCaptor.forClass(Map.class);
-        verify(streamCommands).xadd(eq(TRANSACTION_DELETED_STREAM), streamDataCaptor.capture());
+        ArgumentCaptor<Map<String, byte[]>> streamDataCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(streamCommands).xadd(eq(TRANSACTION_DELETED_STREAM), any(XAddArgs.class), streamDataCaptor.capture());
 
-        Map<String, String> capturedData = streamDataCaptor.getValue();
+        Map<String, byte[]> capturedData = streamDataCaptor.getValue();
         assertNotNull(capturedData.get("payload"));
-        assertEquals(serializedMessage, capturedData.get("payload"));
+        assertArrayEquals(serializedMessage, capturedData.get("payload"));
+    }
+
+    @Test
+    void testPublishTransactionDeletedEventUsesTheDeletedStreamCodec() throws JsonProcessingException {
+        // Given
+        RedisPublisher mixedCodecPublisher = new RedisPublisher(redisDataSource, mapper,
+                new EventCodecs(objectMapper, "json", "cbor", "json"), retention, spillLog, false);
+        Transaction transaction = createTransaction();
+        TransactionDeletedEvent event = new TransactionDeletedEvent(transaction);
+        Message<TransactionDeletedData> message = createMessageForTransactionDeleted(transaction);
+        byte[] serializedMessage = "serialized-message".getBytes(StandardCharsets.UTF_8);
+
+        when(mapper.toTransactionDeleted(event)).thenReturn(message);
+        when(objectMapper.writeValueAsBytes(message)).thenReturn(serializedMessage);
+        doReturn(Uni.createFrom().item("stream-message-id"))
+                .when(streamCommands).xadd(eq(TRANSACTION_DELETED_STREAM), any(XAddArgs.class), any(Map.class));
+
+        // When
+        mixedCodecPublisher.publish(event).subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .assertCompleted();
+
+        // Then
+        ArgumentCaptor<Map<String, byte[]>> streamDataCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(streamCommands).xadd(eq(TRANSACTION_DELETED_STREAM), any(XAddArgs.class), streamDataCaptor.capture());
+
+        Map<String, byte[]> capturedData = streamDataCaptor.getValue();
+        assertEquals("application/json", new String(capturedData.get("contentType"), StandardCharsets.UTF_8));
+        assertArrayEquals(serializedMessage, capturedData.get("payload"));
     }
 
     @Test
-    void testPublishUnsupportedEventType() {
+    void testPublishTrimsStreamApproximately() throws JsonProcessingException {
+        // Given
+        Transaction transaction = createTransaction();
+        TransactionCreatedEvent event = new TransactionCreatedEvent(transaction);
+        Message<TransactionCreatedData> message = createMessageTransactionCreated(transaction);
+
+        when(mapper.toTransactionCreated(event)).thenReturn(message);
+        when(objectMapper.writeValueAsBytes(message)).thenReturn("serialized-message".getBytes(StandardCharsets.UTF_8));
+        doReturn(Uni.createFrom().item("stream-message-id"))
+                .when(streamCommands).xadd(eq(TRANSACTION_CREATED_STREAM), any(XAddArgs.class), any(Map.class));
+
+        // When
+        redisPublisher.publish(event).subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .assertCompleted();
+
+        // Then
+        ArgumentCaptor<XAddArgs> argsCaptor = ArgumentCaptor.forClass(XAddArgs.class);
+        verify(streamCommands).xadd(eq(TRANSACTION_CREATED_STREAM), argsCaptor.capture(), any(Map.class));
+        assertEquals(List.of("MAXLEN", "~", "1000", "*"), argsCaptor.getValue().toArgs());
+    }
+
+    @Test
+    void testPublishUnsupportedEventType() throws JsonProcessingException {
         // Given
         DomainEvent<Transaction> unsupportedEvent = new UnsupportedDomainEvent(createTransaction());
 
@@ -179,7 +274,8 @@ class RedisPublisherTest {
                 .withSubscriber(UniAssertSubscriber.create())
                 .assertFailedWith(ServiceException.class);
 
-        verifyNoInteractions(mapper, objectMapper, streamCommands);
+        verifyNoInteractions(mapper, streamCommands);
+        verify(objectMapper, never()).writeValueAsBytes(any());
     }
 
     @Test
@@ -192,7 +288,7 @@ class RedisPublisherTest {
         };
 
         when(mapper.toTransactionCreated(event)).thenReturn(message);
-        when(objectMapper.writeValueAsString(message)).thenThrow(jsonException);
+        when(objectMapper.writeValueAsBytes(message)).thenThrow(jsonException);
 
         // When
         Uni<Void> result = redisPublisher.publish(event);
@@ -203,7 +299,7 @@ class RedisPublisherTest {
                 .assertFailedWith(ServiceException.class);
 
         verify(mapper).toTransactionCreated(event);
-        verify(objectMapper).writeValueAsString(message);
+        verify(objectMapper).writeValueAsBytes(message);
         verifyNoInteractions(streamCommands);
     }
 
@@ -213,13 +309,13 @@ class RedisPublisherTest {
         Transaction transaction = createTransaction();
         TransactionCreatedEvent event = new TransactionCreatedEvent(transaction);
         Message<TransactionCreatedData> message = createMessageTransactionCreated(transaction);
-        String serializedMessage = "serialized-message";
+        byte[] serializedMessage = "serialized-message".getBytes(StandardCharsets.UTF_8);
         RuntimeException redisException = new RuntimeException("Redis connection failed");
 
         when(mapper.toTransactionCreated(event)).thenReturn(message);
-        when(objectMapper.writeValueAsString(message)).thenReturn(serializedMessage);
+        when(objectMapper.writeValueAsBytes(message)).thenReturn(serializedMessage);
         doReturn(Uni.createFrom().failure(redisException))
-                .when(streamCommands).xadd(eq(TRANSACTION_CREATED_STREAM), any(Map.class));
+                .when(streamCommands).xadd(eq(TRANSACTION_CREATED_STREAM), any(XAddArgs.class), any(Map.class));
 
         // When
         Uni<Void> result = redisPublisher.publish(event);
@@ -230,8 +326,64 @@ class RedisPublisherTest {
                 .assertFailedWith(ServiceException.class);
 
         verify(mapper).toTransactionCreated(event);
-        verify(objectMapper).writeValueAsString(message);
-        verify(streamCommands).xadd(eq(TRANSACTION_CREATED_STREAM), any(Map.class));
+        verify(objectMapper).writeValueAsBytes(message);
+        verify(streamCommands).xadd(eq(TRANSACTION_CREATED_STREAM), any(XAddArgs.class), any(Map.class));
+    }
+
+    @Test
+    void testPublishSpillsWhenRedisFails() throws Exception {
+        // Given
+        Transaction transaction = createTransaction();
+        TransactionCreatedEvent event = new TransactionCreatedEvent(transaction);
+        Message<TransactionCreatedData> message = createMessageTransactionCreated(transaction);
+        byte[] serializedMessage = "serialized-message".getBytes(StandardCharsets.UTF_8);
+
+        when(spillLog.isEnabled()).thenReturn(true);
+        when(mapper.toTransactionCreated(event)).thenReturn(message);
+        when(objectMapper.writeValueAsBytes(message)).thenReturn(serializedMessage);
+        doReturn(Uni.createFrom().failure(new RuntimeException("Redis connection failed")))
+                .when(streamCommands).xadd(eq(TRANSACTION_CREATED_STREAM), any(XAddArgs.class), any(Map.class));
+        List<Thread> appendedOn = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> appendedOn.add(Thread.currentThread())).when(spillLog).append(any(byte[].class));
+
+        // When
+        redisPublisher.publish(event).subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .awaitItem()
+                .assertCompleted();
+
+        // Then
+        assertEquals(1, appendedOn.size());
+        assertNotSame(Thread.currentThread(), appendedOn.getFirst());
+        ArgumentCaptor<byte[]> recordCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(spillLog).append(recordCaptor.capture());
+        SpilledEntry spilled = SpilledEntry.fromBytes(recordCaptor.getValue());
+        assertEquals(TRANSACTION_CREATED_STREAM, spilled.stream());
+        assertArrayEquals(serializedMessage, spilled.fields().get("payload"));
+        assertArrayEquals("AAPL".getBytes(StandardCharsets.UTF_8), spilled.fields().get("ticker"));
+    }
+
+    @Test
+    void testPublishSpillsBehindPendingEntriesWithoutTryingRedis() throws JsonProcessingException {
+        // Given
+        Transaction transaction = createTransaction();
+        TransactionCreatedEvent event = new TransactionCreatedEvent(transaction);
+        Message<TransactionCreatedData> message = createMessageTransactionCreated(transaction);
+
+        when(spillLog.isEnabled()).thenReturn(true);
+        when(spillLog.hasPending()).thenReturn(true);
+        when(mapper.toTransactionCreated(event)).thenReturn(message);
+        when(objectMapper.writeValueAsBytes(message)).thenReturn("serialized-message".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        redisPublisher.publish(event).subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .awaitItem()
+                .assertCompleted();
+
+        // Then
+        verify(spillLog).append(any(byte[].class));
+        verifyNoInteractions(streamCommands);
     }
 
     private Transaction createTransaction() {
@@ -258,6 +410,7 @@ class RedisPublisherTest {
     private Message<TransactionCreatedData> createMessageTransactionCreated(Transaction transaction) {
         TransactionCreatedData payload = new TransactionCreatedData(
                 transaction.getId(),
+                transaction.getPortfolioId(),
                 transaction.getTicker(),
                 transaction.getTransactionType(),
                 transaction.getQuantity(),
@@ -320,7 +473,8 @@ class RedisPublisherTest {
                 newTransaction.getCompanyName()
         );
 
-        TransactionUpdatedData payload = new TransactionUpdatedData(previousSnapshot, newSnapshot);
+        TransactionUpdatedData payload = new TransactionUpdatedData(newTransaction.getId(), newTransaction.getPortfolioId(), newTransaction.getTicker(), null,
+                Map.of(), previousSnapshot, newSnapshot);
 
         return new Message<>(
                 UUID.randomUUID(),
@@ -334,6 +488,7 @@ class RedisPublisherTest {
     private Message<TransactionDeletedData> createMessageForTransactionDeleted(Transaction transaction) {
         TransactionDeletedData payload = new TransactionDeletedData(
                 transaction.getId(),
+                transaction.getPortfolioId(),
                 transaction.getTicker(),
                 transaction.getTransactionType(),
                 transaction.getQuantity(),
@@ -0,0 +1,111 @@
+package com.transaction.infrastructure.outgoing.messaging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.datasource.stream.ReactiveStreamCommands;
+import io.quarkus.redis.datasource.stream.XTrimArgs;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import io.vertx.mutiny.redis.client.Response;
+import io.vertx.redis.client.ResponseType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RedisStreamMaintenanceTest {
+
+    private static final String CREATED = RedisPublisher.TRANSACTION_CREATED_STREAM;
+
+    private ReactiveRedisDataSource redisDataSource;
+    private ReactiveStreamCommands<String, String, String> streamCommands;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisDataSource = mock(ReactiveRedisDataSource.class);
+        streamCommands = (ReactiveStreamCommands<String, String, String>) mock(ReactiveStreamCommands.class);
+        when(redisDataSource.stream(String.class, String.class, String.class)).thenReturn(streamCommands);
+        meterRegistry = new SimpleMeterRegistry();
+
+        when(streamCommands.xtrim(anyString(), any(XTrimArgs.class))).thenReturn(Uni.createFrom().item(0L));
+        when(streamCommands.xlen(anyString())).thenReturn(Uni.createFrom().item(0L));
+    }
+
+    @Test
+    void testMaintainTrimsEveryStreamByAge() {
+        maintenance(Optional.of(Duration.ofDays(7))).maintain().subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted();
+
+        ArgumentCaptor<XTrimArgs> argsCaptor = ArgumentCaptor.forClass(XTrimArgs.class);
+        for (String stream : StreamCursor.STREAMS) {
+            verify(streamCommands).xtrim(eq(stream), argsCaptor.capture());
+        }
+        List<Object> args = argsCaptor.getValue().toArgs();
+        assertTrue(args.contains("MINID"));
+        assertTrue(args.contains("~"));
+    }
+
+    @Test
+    void testMaintainWithoutMaxAgeOnlySamples() {
+        maintenance(Optional.empty()).maintain().subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted();
+
+        verify(streamCommands, never()).xtrim(anyString(), any(XTrimArgs.class));
+        verify(streamCommands, times(StreamCursor.STREAMS.size())).xlen(anyString());
+    }
+
+    @Test
+    void testMaintainRecordsLengthMemoryAndLag() {
+        Response memory = mock(Response.class);
+        when(memory.toLong()).thenReturn(4096L);
+        Response name = mock(Response.class);
+        when(name.toString()).thenReturn("positions");
+        Response lag = mock(Response.class);
+        when(lag.type()).thenReturn(ResponseType.NUMBER);
+        when(lag.toLong()).thenReturn(7L);
+        Response group = mock(Response.class);
+        when(group.get("name")).thenReturn(name);
+        when(group.get("lag")).thenReturn(lag);
+        Response groups = mock(Response.class);
+        when(groups.iterator()).thenReturn(List.of(group).iterator());
+
+        when(streamCommands.xlen(CREATED)).thenReturn(Uni.createFrom().item(42L));
+        when(redisDataSource.execute("MEMORY", "USAGE", CREATED)).thenReturn(Uni.createFrom().item(memory));
+        when(redisDataSource.execute("XINFO", "GROUPS", CREATED)).thenReturn(Uni.createFrom().item(groups));
+
+        maintenance(Optional.empty()).maintain().subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted();
+
+        assertEquals(42.0, meterRegistry.get(RedisStreamMaintenance.LENGTH_METRIC).tag("stream", CREATED).gauge().value());
+        assertEquals(4096.0, meterRegistry.get(RedisStreamMaintenance.MEMORY_METRIC).tag("stream", CREATED).gauge().value());
+        assertEquals(7.0, meterRegistry.get(RedisStreamMaintenance.LAG_METRIC)
+                .tags("stream", CREATED, "group", "positions").gauge().value());
+    }
+
+    @Test
+    void testMaintainContinuesAfterStreamFailure() {
+        when(streamCommands.xlen(CREATED)).thenReturn(Uni.createFrom().failure(new RuntimeException("redis down")));
+
+        maintenance(Optional.empty()).maintain().subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted();
+
+        verify(streamCommands, times(StreamCursor.STREAMS.size())).xlen(anyString());
+    }
+
+    private RedisStreamMaintenance maintenance(Optional<Duration> maxAge) {
+        return new RedisStreamMaintenance(redisDataSource, new StreamRetention(Optional.empty(), maxAge), meterRegistry);
+    }
+}
@@ -0,0 +1,128 @@
+package com.transaction.infrastructure.outgoing.messaging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpillLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRecordsAreReadInAppendOrder() {
+        SpillLog log = open(4096);
+        log.append(bytes("first"));
+        log.append(bytes("second"));
+
+        assertEquals(2, log.pending());
+        assertEquals("first", text(log.peek()));
+        assertEquals("first", text(log.peek()));
+        log.remove();
+        assertEquals("second", text(log.peek()));
+        log.remove();
+
+        assertFalse(log.hasPending());
+        assertTrue(log.peek().isEmpty());
+    }
+
+    @Test
+    void testPendingRecordsSurviveReopening() {
+        SpillLog log = open(4096);
+        log.append(bytes("first"));
+        log.append(bytes("second"));
+        log.append(bytes("third"));
+        log.remove();
+
+        SpillLog reopened = open(4096);
+
+        assertEquals(2, reopened.pending());
+        assertEquals(List.of("second", "third"), drain(reopened));
+    }
+
+    @Test
+    void testRollsSegmentsAndDeletesConsumedOnes() throws IOException {
+        SpillLog log = open(64);
+        for (int i = 0; i < 10; i++) {
+            log.append(bytes("record-" + i));
+        }
+        assertTrue(segmentFiles() > 1);
+
+        List<String> drained = drain(log);
+
+        assertEquals(10, drained.size());
+        assertEquals("record-0", drained.getFirst());
+        assertEquals("record-9", drained.getLast());
+        assertEquals(1, segmentFiles());
+    }
+
+    @Test
+    void testTornRecordIsIgnoredOnRecovery() throws IOException {
+        SpillLog log = open(4096);
+        log.append(bytes("complete"));
+        log.append(bytes("torn"));
+
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        int tornPayload = Long.BYTES + 2 * Integer.BYTES + "complete".length() + 2 * Integer.BYTES;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), tornPayload);
+        }
+
+        SpillLog reopened = open(4096);
+
+        assertEquals(List.of("complete"), drain(reopened));
+        reopened.append(bytes("after"));
+        assertEquals(List.of("after"), drain(reopened));
+    }
+
+    @Test
+    void testRejectsRecordLargerThanSegment() {
+        SpillLog log = open(64);
+
+        assertThrows(IllegalArgumentException.class, () -> log.append(new byte[128]));
+    }
+
+    private SpillLog open(int segmentSize) {
+        return new SpillLog(true, directory.toString(), segmentSize, new SimpleMeterRegistry());
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static List<String> drain(SpillLog log) {
+        List<String> records = new ArrayList<>();
+        for (Optional<byte[]> record = log.peek(); record.isPresent(); record = log.peek()) {
+            records.add(text(record));
+            log.remove();
+        }
+        return records;
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(Optional<byte[]> record) {
+        return new String(record.orElseThrow(), StandardCharsets.UTF_8);
+    }
+}
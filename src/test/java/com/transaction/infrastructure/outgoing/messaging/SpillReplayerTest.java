@@ -0,0 +1,89 @@
+package com.transaction.infrastructure.outgoing.messaging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.quarkus.redis.datasource.stream.ReactiveStreamCommands;
+import io.quarkus.redis.datasource.stream.XAddArgs;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SpillReplayerTest {
+
+    @TempDir
+    Path directory;
+
+    private ReactiveStreamCommands<String, String, byte[]> streamCommands;
+    private SpillLog spillLog;
+    private SpillReplayer replayer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReactiveRedisDataSource redisDataSource = mock(ReactiveRedisDataSource.class);
+        streamCommands = (ReactiveStreamCommands<String, String, byte[]>) mock(ReactiveStreamCommands.class);
+        when(redisDataSource.stream(String.class, String.class, byte[].class)).thenReturn(streamCommands);
+        spillLog = new SpillLog(true, directory.toString(), 4096, new SimpleMeterRegistry());
+        replayer = new SpillReplayer(redisDataSource, spillLog, new StreamRetention(Optional.of(1000L), Optional.empty()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReplaysSpilledEntriesInOrder() {
+        spill(RedisPublisher.TRANSACTION_CREATED_STREAM, "first");
+        spill(RedisPublisher.TRANSACTION_UPDATED_STREAM, "second");
+        doReturn(Uni.createFrom().item("1-0")).when(streamCommands).xadd(any(), any(XAddArgs.class), any(Map.class));
+
+        replayer.replay().subscribe().withSubscriber(UniAssertSubscriber.create()).awaitItem().assertCompleted();
+
+        ArgumentCaptor<String> streams = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Map<String, byte[]>> fields = ArgumentCaptor.forClass(Map.class);
+        verify(streamCommands, times(2)).xadd(streams.capture(), any(XAddArgs.class), fields.capture());
+        assertEquals(List.of(RedisPublisher.TRANSACTION_CREATED_STREAM, RedisPublisher.TRANSACTION_UPDATED_STREAM), streams.getAllValues());
+        assertEquals("first", new String(fields.getAllValues().getFirst().get("payload"), StandardCharsets.UTF_8));
+        assertFalse(spillLog.hasPending());
+    }
+
+    @Test
+    void testStopsAtFirstFailureAndKeepsEntry() {
+        spill(RedisPublisher.TRANSACTION_CREATED_STREAM, "first");
+        spill(RedisPublisher.TRANSACTION_CREATED_STREAM, "second");
+        doReturn(Uni.createFrom().failure(new RuntimeException("Redis connection failed")))
+                .when(streamCommands).xadd(eq(RedisPublisher.TRANSACTION_CREATED_STREAM), any(XAddArgs.class), any(Map.class));
+
+        replayer.replay().subscribe().withSubscriber(UniAssertSubscriber.create()).awaitItem().assertCompleted();
+
+        verify(streamCommands, times(1)).xadd(any(), any(XAddArgs.class), any(Map.class));
+        assertEquals(2, spillLog.pending());
+    }
+
+    @Test
+    void testDiscardsUnreadableEntry() {
+        spillLog.append(new byte[]{1, 2, 3});
+        spill(RedisPublisher.TRANSACTION_CREATED_STREAM, "valid");
+        doReturn(Uni.createFrom().item("1-0")).when(streamCommands).xadd(any(), any(XAddArgs.class), any(Map.class));
+
+        replayer.replay().subscribe().withSubscriber(UniAssertSubscriber.create()).awaitItem().assertCompleted();
+
+        verify(streamCommands, times(1)).xadd(eq(RedisPublisher.TRANSACTION_CREATED_STREAM), any(XAddArgs.class), any(Map.class));
+        assertFalse(spillLog.hasPending());
+    }
+
+    private void spill(String stream, String payload) {
+        spillLog.append(new SpilledEntry(stream, Map.of("payload", payload.getBytes(StandardCharsets.UTF_8))).toBytes());
+    }
+}
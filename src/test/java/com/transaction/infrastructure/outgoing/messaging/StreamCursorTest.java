@@ -0,0 +1,58 @@
+package com.transaction.infrastructure.outgoing.messaging;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamCursorTest {
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        StreamCursor cursor = new StreamCursor("1700000000000-0", "1700000000001-3", "0-0");
+
+        assertEquals(cursor, StreamCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void testDecodeRejectsMalformedValues() {
+        assertThrows(IllegalArgumentException.class, () -> StreamCursor.decode("1-0,2-0"));
+        assertThrows(IllegalArgumentException.class, () -> StreamCursor.decode("1-0,abc,0-0"));
+        assertThrows(IllegalArgumentException.class, () -> StreamCursor.decode("1-0,2-x,0-0"));
+    }
+
+    @Test
+    void testCompareIdsUsesTimeThenSequence() {
+        assertTrue(StreamCursor.compareIds("9-0", "10-0") < 0);
+        assertTrue(StreamCursor.compareIds("10-2", "10-10") < 0);
+        assertEquals(0, StreamCursor.compareIds("10-0", "10"));
+    }
+
+    @Test
+    void testAdvanceAndCovers() {
+        StreamCursor cursor = new StreamCursor("0-0", "0-0", "0-0")
+                .advance(RedisPublisher.TRANSACTION_UPDATED_STREAM, "5-1");
+
+        assertTrue(cursor.covers(RedisPublisher.TRANSACTION_UPDATED_STREAM, "5-1"));
+        assertFalse(cursor.covers(RedisPublisher.TRANSACTION_UPDATED_STREAM, "5-2"));
+        assertFalse(cursor.covers(RedisPublisher.TRANSACTION_CREATED_STREAM, "1-0"));
+    }
+
+    @Test
+    void testMaxTakesFurthestPositionPerStream() {
+        StreamCursor left = new StreamCursor("5-0", "1-0", "3-0");
+        StreamCursor right = new StreamCursor("4-0", "2-0", "3-0");
+
+        assertEquals(new StreamCursor("5-0", "2-0", "3-0"), left.max(right));
+    }
+
+    @Test
+    void testAtPositionsRightBeforeInstant() {
+        StreamCursor cursor = StreamCursor.at(Instant.ofEpochMilli(1_700_000_000_000L));
+
+        assertFalse(cursor.covers(RedisPublisher.TRANSACTION_CREATED_STREAM, "1700000000000-0"));
+        assertTrue(cursor.covers(RedisPublisher.TRANSACTION_CREATED_STREAM, "1699999999999-42"));
+        assertEquals(StreamCursor.ORIGIN, StreamCursor.at(Instant.EPOCH).created());
+    }
+}
@@ -0,0 +1,87 @@
+package com.transaction.infrastructure.outgoing.messaging.codec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.TransactionType;
+import com.transaction.infrastructure.outgoing.messaging.RedisPublisher;
+import com.transaction.infrastructure.outgoing.messaging.message.Message;
+import com.transaction.infrastructure.outgoing.messaging.message.TransactionUpdatedData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCodecsTest {
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Test
+    void testStreamsUseConfiguredCodec() {
+        EventCodecs codecs = new EventCodecs(objectMapper, "json", "CBOR", "json");
+
+        assertEquals(JsonEventCodec.CONTENT_TYPE, codecs.forStream(RedisPublisher.TRANSACTION_CREATED_STREAM).contentType());
+        assertEquals(CborEventCodec.CONTENT_TYPE, codecs.forStream(RedisPublisher.TRANSACTION_UPDATED_STREAM).contentType());
+    }
+
+    @Test
+    void testUnknownCodecIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new EventCodecs(objectMapper, "json", "avro", "json"));
+    }
+
+    @Test
+    void testEntriesWithoutContentTypeAreJson() {
+        EventCodecs codecs = new EventCodecs(objectMapper, "json", "json", "json");
+
+        assertEquals(JsonEventCodec.CONTENT_TYPE, codecs.forContentType(null).contentType());
+        assertThrows(IllegalArgumentException.class, () -> codecs.forContentType("application/x-unknown"));
+    }
+
+    @Test
+    void testCborRoundTripsToSameTreeAsJson() throws Exception {
+        Message<TransactionUpdatedData> message = updatedMessage();
+        JsonEventCodec json = new JsonEventCodec(objectMapper);
+        CborEventCodec cbor = new CborEventCodec(objectMapper);
+
+        byte[] jsonBytes = json.encode(message);
+        byte[] cborBytes = cbor.encode(message);
+        JsonNode fromCbor = cbor.decode(cborBytes);
+
+        assertEquals(json.decode(jsonBytes).get("eventType"), fromCbor.get("eventType"));
+        assertEquals(new BigDecimal("187.1234"), fromCbor.at("/payload/newTransaction/price").decimalValue());
+        assertEquals("2024-05-02", fromCbor.at("/payload/newTransaction/transactionDate").asText());
+        assertTrue(cborBytes.length < jsonBytes.length,
+                "CBOR payload (%d bytes) should be smaller than JSON (%d bytes)".formatted(cborBytes.length, jsonBytes.length));
+    }
+
+    private static Message<TransactionUpdatedData> updatedMessage() {
+        TransactionUpdatedData.TransactionSnapshot previous = snapshot(new BigDecimal("185.50"));
+        TransactionUpdatedData.TransactionSnapshot current = snapshot(new BigDecimal("187.1234"));
+        return new Message<>(UUID.randomUUID(), Instant.now(), Instant.now(), "TransactionUpdated",
+                new TransactionUpdatedData(current.id(), "default", current.ticker(), 2L,
+                        Map.of("price", new TransactionUpdatedData.FieldChange(previous.price(), current.price())),
+                        previous, current));
+    }
+
+    private static TransactionUpdatedData.TransactionSnapshot snapshot(BigDecimal price) {
+        return new TransactionUpdatedData.TransactionSnapshot(
+                UUID.fromString("7b0c2a9e-1f43-4a8e-9d2b-5a7c3e6f1d20"), "AAPL", TransactionType.BUY,
+                new BigDecimal("10"), price, new BigDecimal("1.99"), Currency.USD, LocalDate.of(2024, 5, 2),
+                "Quarterly rebalance", false, BigDecimal.ONE, Currency.USD, "NASDAQ", "USA", "Apple Inc.");
+    }
+}
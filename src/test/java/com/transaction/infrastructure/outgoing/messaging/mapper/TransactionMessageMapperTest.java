@@ -16,7 +16,9 @@ import org.mapstruct.factory.Mappers;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -174,6 +176,48 @@ class TransactionMessageMapperTest {
         assertEquals("USA", newTx.country());
     }
 
+    @Test
+    void toTransactionUpdatedDelta_mapsChangedFieldsOnly() {
+        UUID id = UUID.randomUUID();
+        Transaction tx = new Transaction(id, "MSFT", TransactionType.BUY, new BigDecimal("5"), new BigDecimal("250.00"),
+                new BigDecimal("2.00"), Currency.USD, LocalDate.of(2024, 7, 15), "Initial notes", true, false,
+                BigDecimal.ONE, Currency.USD, "NASDAQ", "USA", "Microsoft Corporation", 3L, new ArrayList<>());
+
+        // price changes, quantity is resent with a different scale only
+        tx.update(null, null, new BigDecimal("5.000"), new BigDecimal("260.00"), null, null, null, null,
+                null, null, null, null, null, null);
+        TransactionUpdatedEvent event = (TransactionUpdatedEvent) tx.popEvents().getFirst();
+
+        Message<TransactionUpdatedData> msg = mapper.toTransactionUpdatedDelta(event);
+
+        assertEquals("TransactionUpdated", msg.eventType());
+        TransactionUpdatedData p = msg.payload();
+        assertEquals(id, p.id());
+        assertEquals("MSFT", p.ticker());
+        assertEquals(4L, p.version());
+        assertEquals(Set.of("price"), p.changes().keySet());
+        assertEquals(new BigDecimal("250.00"), p.changes().get("price").from());
+        assertEquals(new BigDecimal("260.00"), p.changes().get("price").to());
+        assertNull(p.previousTransaction());
+        assertNull(p.newTransaction());
+        assertNull(p.previousTicker());
+    }
+
+    @Test
+    void toTransactionUpdatedDelta_reportsTickerMove() {
+        Transaction tx = new Transaction(UUID.randomUUID(), "MSFT", TransactionType.BUY, BigDecimal.TEN, BigDecimal.TEN,
+                BigDecimal.ZERO, Currency.USD, LocalDate.of(2024, 7, 15), null, true, false,
+                BigDecimal.ONE, Currency.USD, null, null, null, 0L, new ArrayList<>());
+
+        tx.update("AAPL", null, null, null, null, null, null, null, null, null, null, null, null, null);
+        TransactionUpdatedEvent event = (TransactionUpdatedEvent) tx.popEvents().getFirst();
+
+        TransactionUpdatedData p = mapper.toTransactionUpdatedDelta(event).payload();
+
+        assertEquals("AAPL", p.ticker());
+        assertEquals("MSFT", p.previousTicker());
+    }
+
     @Test
     void toTransactionDeleted_mapsIdOnly() {
         UUID id = UUID.randomUUID();
@@ -0,0 +1,149 @@
+package com.transaction.infrastructure.outgoing.persistence.adapter;
+
+import com.transaction.domain.exception.ServiceException;
+import com.transaction.domain.model.ChangeMarker;
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.DividendLedger;
+import com.transaction.domain.model.Transaction;
+import com.transaction.domain.model.TransactionType;
+import com.transaction.domain.port.output.PortfolioContext;
+import com.transaction.domain.port.output.TransactionRepository;
+import com.transaction.infrastructure.persistence.adapter.DividendLedgerRepositoryAdapter;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CaffeineCache;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class DividendLedgerRepositoryAdapterTest {
+    private TransactionRepository transactionRepository;
+    private PortfolioContext portfolioContext;
+    private DividendLedgerRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository = mock(TransactionRepository.class);
+        Map<Object, CompletableFuture<Object>> cached = new ConcurrentHashMap<>();
+        CaffeineCache caffeineCache = mock(CaffeineCache.class);
+        when(caffeineCache.getIfPresent(any())).thenAnswer(invocation -> cached.get(invocation.getArgument(0)));
+        doAnswer(invocation -> cached.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(caffeineCache).put(any(), any());
+        Cache cache = mock(Cache.class);
+        when(cache.as(CaffeineCache.class)).thenReturn(caffeineCache);
+        portfolioContext = mock(PortfolioContext.class);
+        when(portfolioContext.current()).thenReturn("default");
+        when(portfolioContext.scoped(any())).thenCallRealMethod();
+        adapter = new DividendLedgerRepositoryAdapter(transactionRepository, cache, portfolioContext);
+
+        when(transactionRepository.findByTicker("KO")).thenReturn(Uni.createFrom().item(List.of(dividend("KO"))));
+        when(transactionRepository.findByTicker("PEP")).thenReturn(Uni.createFrom().item(List.of(dividend("PEP"))));
+        when(transactionRepository.findChangeMarkerByTicker(any())).thenReturn(Uni.createFrom().item(marker(1)));
+    }
+
+    @Test
+    void testLedgerIsReusedWhileTheTickerIsUnchanged() {
+        findByTicker("KO");
+        List<DividendLedger> ledgers = findByTicker("KO");
+
+        assertEquals("KO", ledgers.getFirst().getTicker());
+        verify(transactionRepository, times(1)).findByTicker("KO");
+    }
+
+    @Test
+    void testLedgerIsRebuiltWhenTheTickerChanges() {
+        findByTicker("KO");
+        doReturn(Uni.createFrom().item(marker(2))).when(transactionRepository).findChangeMarkerByTicker("KO");
+
+        findByTicker("KO");
+
+        verify(transactionRepository, times(2)).findByTicker("KO");
+    }
+
+    @Test
+    void testLedgerIsCachedPerPortfolio() {
+        findByTicker("KO");
+        when(portfolioContext.current()).thenReturn("family");
+
+        findByTicker("KO");
+
+        verify(transactionRepository, times(2)).findByTicker("KO");
+    }
+
+    @Test
+    void testFindAllReadsChangedTickersTogether() {
+        when(transactionRepository.findDividendTickerMarkers())
+                .thenReturn(Uni.createFrom().item(markers(marker(1), marker(1))))
+                .thenReturn(Uni.createFrom().item(markers(marker(1), marker(2))));
+        when(transactionRepository.findByTickers(any())).thenAnswer(invocation -> {
+            List<String> tickers = List.copyOf(invocation.<Collection<String>>getArgument(0));
+            return Uni.createFrom().item(tickers.stream().map(DividendLedgerRepositoryAdapterTest::dividend).toList());
+        });
+        adapter.findAll().await().indefinitely();
+
+        List<DividendLedger> ledgers = adapter.findAll().await().indefinitely();
+
+        assertEquals(List.of("KO", "PEP"), ledgers.stream().map(DividendLedger::getTicker).toList());
+        verify(transactionRepository).findByTickers(List.of("KO", "PEP"));
+        verify(transactionRepository).findByTickers(List.of("PEP"));
+        verify(transactionRepository, never()).findByTicker(any());
+        verify(transactionRepository, never()).findChangeMarkerByTicker(any());
+        verify(transactionRepository, never()).summarizeTransactions(any(), any(), any(), any());
+    }
+
+    @Test
+    void testFindAllSharesLedgersWithFindByTicker() {
+        findByTicker("KO");
+        when(transactionRepository.findDividendTickerMarkers())
+                .thenReturn(Uni.createFrom().item(markers(marker(1), marker(1))));
+        when(transactionRepository.findByTickers(List.of("PEP")))
+                .thenReturn(Uni.createFrom().item(List.of(dividend("PEP"))));
+
+        List<DividendLedger> ledgers = adapter.findAll().await().indefinitely();
+
+        assertEquals(List.of("KO", "PEP"), ledgers.stream().map(DividendLedger::getTicker).toList());
+        verify(transactionRepository).findByTickers(List.of("PEP"));
+    }
+
+    @Test
+    void testFailureIsWrapped() {
+        doReturn(Uni.createFrom().failure(new RuntimeException("db down"))).when(transactionRepository).findByTicker("KO");
+
+        adapter.findByTicker("KO").subscribe().withSubscriber(UniAssertSubscriber.create())
+                .assertFailedWith(ServiceException.class);
+    }
+
+    private List<DividendLedger> findByTicker(String ticker) {
+        return adapter.findByTicker(ticker).subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+    }
+
+    private static ChangeMarker marker(long version) {
+        return ChangeMarker.ofChanges(version, null);
+    }
+
+    private static Map<String, ChangeMarker> markers(ChangeMarker ko, ChangeMarker pep) {
+        Map<String, ChangeMarker> markers = new LinkedHashMap<>();
+        markers.put("KO", ko);
+        markers.put("PEP", pep);
+        return markers;
+    }
+
+    private static Transaction dividend(String ticker) {
+        return new Transaction(ticker, TransactionType.DIVIDEND, BigDecimal.TEN, new BigDecimal("0.5"), BigDecimal.ZERO,
+                Currency.USD, LocalDate.parse("2024-01-01"), null, true, false, BigDecimal.ONE, Currency.USD, null, null, null);
+    }
+}
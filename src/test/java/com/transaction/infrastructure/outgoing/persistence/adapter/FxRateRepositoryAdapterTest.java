@@ -0,0 +1,91 @@
+package com.transaction.infrastructure.outgoing.persistence.adapter;
+
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.FxRate;
+import com.transaction.domain.model.FxRateTable;
+import com.transaction.infrastructure.persistence.adapter.FxRateRepositoryAdapter;
+import com.transaction.infrastructure.persistence.entity.FxRateEntity;
+import com.transaction.infrastructure.persistence.repository.FxRatePanacheRepository;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class FxRateRepositoryAdapterTest {
+    private static final LocalDate DAY = LocalDate.parse("2024-06-03");
+
+    private FxRatePanacheRepository panacheRepository;
+    private List<UniEmitter<? super List<FxRateEntity>>> reloads;
+    private FxRateRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        panacheRepository = mock(FxRatePanacheRepository.class);
+        reloads = new ArrayList<>();
+        when(panacheRepository.findAllRates()).thenAnswer(invocation -> Uni.createFrom().emitter(reloads::add));
+        when(panacheRepository.upsert(any())).thenAnswer(invocation -> Uni.createFrom().item((FxRateEntity) invocation.getArgument(0)));
+        adapter = new FxRateRepositoryAdapter(panacheRepository, 7);
+    }
+
+    @Test
+    void testSaveDuringReloadIsKeptWhenTheReloadMissedIt() {
+        UniAssertSubscriber<FxRateTable> loading = adapter.table().subscribe().withSubscriber(UniAssertSubscriber.create());
+
+        adapter.save(rate("1.10")).subscribe().withSubscriber(UniAssertSubscriber.create()).assertCompleted();
+        reloads.getFirst().complete(List.of());
+
+        assertEquals(1.10, loading.assertCompleted().getItem().rate(Currency.EUR, Currency.USD, DAY));
+        assertEquals(1.10, table().rate(Currency.EUR, Currency.USD, DAY));
+    }
+
+    @Test
+    void testReloadStartedBeforeTheInstalledOneIsDiscarded() {
+        UniAssertSubscriber<FxRateTable> older = adapter.table().subscribe().withSubscriber(UniAssertSubscriber.create());
+        adapter.save(rate("1.10")).subscribe().withSubscriber(UniAssertSubscriber.create()).assertCompleted();
+        UniAssertSubscriber<FxRateTable> newer = adapter.table().subscribe().withSubscriber(UniAssertSubscriber.create());
+
+        reloads.get(1).complete(List.of(entity("1.10")));
+        reloads.get(0).complete(List.of());
+
+        assertEquals(1.10, newer.assertCompleted().getItem().rate(Currency.EUR, Currency.USD, DAY));
+        assertEquals(1.10, older.assertCompleted().getItem().rate(Currency.EUR, Currency.USD, DAY));
+        assertEquals(1.10, table().rate(Currency.EUR, Currency.USD, DAY));
+    }
+
+    @Test
+    void testLoadedRatesAreCarriedForwardForTheConfiguredDays() {
+        UniAssertSubscriber<FxRateTable> loading = adapter.table().subscribe().withSubscriber(UniAssertSubscriber.create());
+        reloads.getFirst().complete(List.of(entity("1.10")));
+
+        FxRateTable table = loading.assertCompleted().getItem();
+        assertEquals(1.10, table.rate(Currency.EUR, Currency.USD, DAY.plusDays(7)));
+        assertTrue(Double.isNaN(table.rate(Currency.EUR, Currency.USD, DAY.plusDays(8))));
+    }
+
+    private FxRateTable table() {
+        return adapter.table().subscribe().withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+    }
+
+    private static FxRate rate(String rate) {
+        return new FxRate(Currency.EUR, Currency.USD, DAY, new BigDecimal(rate));
+    }
+
+    private static FxRateEntity entity(String rate) {
+        FxRateEntity entity = new FxRateEntity();
+        entity.setBaseCurrency(Currency.EUR);
+        entity.setQuoteCurrency(Currency.USD);
+        entity.setRateDate(DAY);
+        entity.setRate(new BigDecimal(rate));
+        return entity;
+    }
+}
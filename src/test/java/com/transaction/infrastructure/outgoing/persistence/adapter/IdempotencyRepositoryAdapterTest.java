@@ -0,0 +1,199 @@
+package com.transaction.infrastructure.outgoing.persistence.adapter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.transaction.domain.exception.ServiceException;
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.IdempotencyRecord;
+import com.transaction.domain.model.Transaction;
+import com.transaction.domain.model.TransactionType;
+import com.transaction.domain.port.output.PortfolioContext;
+import com.transaction.infrastructure.persistence.adapter.IdempotencyRepositoryAdapter;
+import com.transaction.infrastructure.persistence.entity.IdempotencyKeyEntity;
+import com.transaction.infrastructure.persistence.entity.StoredTransactionPayload;
+import com.transaction.infrastructure.persistence.mapper.IdempotencyRecordMapper;
+import com.transaction.infrastructure.persistence.mapper.IdempotencyRecordMapperImpl;
+import com.transaction.infrastructure.persistence.repository.IdempotencyKeyStore;
+import com.transaction.infrastructure.persistence.repository.TransactionShards;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CaffeineCache;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IdempotencyRepositoryAdapterTest {
+    private IdempotencyKeyStore keyStore;
+    private TransactionShards shards;
+    private IdempotencyRecordMapper idempotencyRecordMapper;
+    private CaffeineCache caffeineCache;
+    private IdempotencyRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        keyStore = mock(IdempotencyKeyStore.class);
+        shards = mock(TransactionShards.class);
+        TransactionShards.Shard shard = new TransactionShards.Shard(null, keyStore, null);
+        when(shards.currentShard()).thenReturn(Uni.createFrom().item(shard));
+        when(shards.shardForWrite()).thenReturn(Uni.createFrom().item(shard));
+        idempotencyRecordMapper = mock(IdempotencyRecordMapper.class);
+        caffeineCache = mock(CaffeineCache.class);
+        Cache cache = mock(Cache.class);
+        when(cache.as(CaffeineCache.class)).thenReturn(caffeineCache);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        PortfolioContext portfolioContext = mock(PortfolioContext.class);
+        when(portfolioContext.current()).thenReturn("default");
+        when(portfolioContext.scoped(any())).thenCallRealMethod();
+        adapter = new IdempotencyRepositoryAdapter(shards, idempotencyRecordMapper, objectMapper, cache,
+                portfolioContext);
+    }
+
+    @Test
+    void testReplayedTransactionKeepsItsPortfolio() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        IdempotencyRecordMapper mapper = new IdempotencyRecordMapperImpl();
+        PortfolioContext portfolioContext = mock(PortfolioContext.class);
+        when(portfolioContext.current()).thenReturn("growth");
+        when(portfolioContext.scoped(any())).thenCallRealMethod();
+        Cache cache = mock(Cache.class);
+        when(cache.as(CaffeineCache.class)).thenReturn(caffeineCache);
+        adapter = new IdempotencyRepositoryAdapter(shards, mapper, objectMapper, cache, portfolioContext);
+        Transaction created = new Transaction("AAPL", TransactionType.BUY, BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ZERO,
+                Currency.USD, LocalDate.parse("2024-01-05"), null, true, false, BigDecimal.ONE, Currency.USD, null, null, null);
+        created.setPortfolioId("growth");
+        when(keyStore.complete(any(), any(), any())).thenReturn(Uni.createFrom().item(1));
+        adapter.save(new IdempotencyRecord("key-1", "fp", created, Instant.now().plusSeconds(60))).await().indefinitely();
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(keyStore).complete(eq("growth/key-1"), any(), payload.capture());
+
+        IdempotencyKeyEntity entity = new IdempotencyKeyEntity();
+        entity.setRequestFingerprint("fp");
+        entity.setResponsePayload(payload.getValue());
+        entity.setExpiresAt(OffsetDateTime.now(ZoneOffset.UTC).plusHours(1));
+        when(keyStore.findActive(eq("growth/key-1"), any(OffsetDateTime.class))).thenReturn(Uni.createFrom().item(entity));
+
+        IdempotencyRecord replayed = adapter.find("key-1").subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+
+        assertEquals("growth", replayed.transaction().getPortfolioId());
+        assertEquals("AAPL", replayed.transaction().getTicker());
+    }
+
+    @Test
+    void testFindReturnsCachedRecordWithoutQuery() {
+        IdempotencyRecord stored = new IdempotencyRecord("key-1", "fp", mock(Transaction.class), Instant.now().plusSeconds(60));
+        when(caffeineCache.<IdempotencyRecord>getIfPresent("default/key-1")).thenReturn(CompletableFuture.completedFuture(stored));
+
+        IdempotencyRecord result = adapter.find("key-1").subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+
+        assertSame(stored, result);
+        verifyNoInteractions(keyStore);
+    }
+
+    @Test
+    void testFindIgnoresExpiredCachedRecord() {
+        IdempotencyRecord stored = new IdempotencyRecord("key-1", "fp", mock(Transaction.class), Instant.now().minusSeconds(1));
+        when(caffeineCache.<IdempotencyRecord>getIfPresent("default/key-1")).thenReturn(CompletableFuture.completedFuture(stored));
+
+        IdempotencyRecord result = adapter.find("key-1").subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+
+        assertNull(result);
+    }
+
+    @Test
+    void testFindLoadsFromDatabaseAndPopulatesCache() {
+        Transaction transaction = mock(Transaction.class);
+        IdempotencyKeyEntity entity = new IdempotencyKeyEntity();
+        entity.setIdempotencyKey("default/key-1");
+        entity.setRequestFingerprint("fp");
+        entity.setResponsePayload("{\"ticker\":\"AAPL\"}");
+        entity.setExpiresAt(OffsetDateTime.now(ZoneOffset.UTC).plusHours(1));
+        when(caffeineCache.getIfPresent("default/key-1")).thenReturn(null);
+        when(keyStore.findActive(eq("default/key-1"), any(OffsetDateTime.class))).thenReturn(Uni.createFrom().item(entity));
+        when(idempotencyRecordMapper.toTransaction(any(StoredTransactionPayload.class))).thenReturn(transaction);
+
+        IdempotencyRecord result = adapter.find("key-1").subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+
+        assertEquals("key-1", result.key());
+        assertEquals("fp", result.requestFingerprint());
+        assertSame(transaction, result.transaction());
+        verify(caffeineCache).put(eq("default/key-1"), any(CompletableFuture.class));
+    }
+
+    @Test
+    void testFindMissDoesNotPopulateCache() {
+        when(caffeineCache.getIfPresent("default/key-1")).thenReturn(null);
+        when(keyStore.findActive(eq("default/key-1"), any(OffsetDateTime.class))).thenReturn(Uni.createFrom().nullItem());
+
+        IdempotencyRecord result = adapter.find("key-1").subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+
+        assertNull(result);
+        verify(caffeineCache, never()).put(any(), any());
+    }
+
+    @Test
+    void testFindFailureIsWrapped() {
+        when(caffeineCache.getIfPresent("default/key-1")).thenReturn(null);
+        when(keyStore.findActive(eq("default/key-1"), any(OffsetDateTime.class)))
+                .thenReturn(Uni.createFrom().failure(new RuntimeException("db down")));
+
+        adapter.find("key-1").subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .assertFailedWith(ServiceException.class);
+    }
+
+    @Test
+    void testClaimScopesKeyToPortfolio() {
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        when(keyStore.claim(eq("default/key-1"), eq("fp"), any(OffsetDateTime.class), eq(expiresAt.atOffset(ZoneOffset.UTC))))
+                .thenReturn(Uni.createFrom().item(false));
+
+        Boolean claimed = adapter.claim("key-1", "fp", expiresAt).subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+
+        assertFalse(claimed);
+    }
+
+    @Test
+    void testSaveCompletesClaimedKeyWithoutCaching() {
+        Transaction transaction = mock(Transaction.class);
+        UUID transactionId = UUID.randomUUID();
+        when(transaction.getId()).thenReturn(transactionId);
+        when(idempotencyRecordMapper.toPayload(transaction)).thenReturn(null);
+        when(keyStore.complete("default/key-1", transactionId, "null")).thenReturn(Uni.createFrom().item(1));
+
+        adapter.save(new IdempotencyRecord("key-1", "fp", transaction, Instant.now().plusSeconds(3600))).subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted();
+
+        verify(keyStore).complete("default/key-1", transactionId, "null");
+        verify(caffeineCache, never()).put(any(), any());
+    }
+
+    @Test
+    void testSaveWithoutClaimFails() {
+        Transaction transaction = mock(Transaction.class);
+        when(keyStore.complete(eq("default/key-1"), any(), any())).thenReturn(Uni.createFrom().item(0));
+
+        adapter.save(new IdempotencyRecord("key-1", "fp", transaction, Instant.now().plusSeconds(3600))).subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .assertFailedWith(ServiceException.class);
+    }
+}
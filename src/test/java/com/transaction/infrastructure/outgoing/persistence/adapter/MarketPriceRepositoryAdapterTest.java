@@ -0,0 +1,107 @@
+package com.transaction.infrastructure.outgoing.persistence.adapter;
+
+import com.transaction.domain.exception.ServiceException;
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.MarketPrice;
+import com.transaction.infrastructure.persistence.adapter.MarketPriceRepositoryAdapter;
+import com.transaction.infrastructure.persistence.entity.MarketPriceEntity;
+import com.transaction.infrastructure.persistence.repository.MarketPricePanacheRepository;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CaffeineCache;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MarketPriceRepositoryAdapterTest {
+    private static final Instant UPDATED_AT = Instant.parse("2024-06-01T12:00:00Z");
+
+    private MarketPricePanacheRepository panacheRepository;
+    private Map<Object, CompletableFuture<Object>> cached;
+    private MarketPriceRepositoryAdapter adapter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        panacheRepository = mock(MarketPricePanacheRepository.class);
+        cached = new ConcurrentHashMap<>();
+        CaffeineCache caffeineCache = mock(CaffeineCache.class);
+        when(caffeineCache.getIfPresent(any())).thenAnswer(invocation -> cached.get(invocation.getArgument(0)));
+        doAnswer(invocation -> cached.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(caffeineCache).put(any(), any());
+        Cache cache = mock(Cache.class);
+        when(cache.as(CaffeineCache.class)).thenReturn(caffeineCache);
+        adapter = new MarketPriceRepositoryAdapter(panacheRepository, cache);
+    }
+
+    @Test
+    void testSaveWritesThroughToCache() {
+        when(panacheRepository.upsert(any())).thenAnswer(invocation -> Uni.createFrom().item((MarketPriceEntity) invocation.getArgument(0)));
+
+        adapter.save(price("AAPL")).subscribe().withSubscriber(UniAssertSubscriber.create()).assertCompleted();
+
+        MarketPrice found = adapter.find("AAPL").subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+        assertEquals(price("AAPL"), found);
+        verify(panacheRepository, never()).findByTicker(any());
+    }
+
+    @Test
+    void testSaveFailureIsWrapped() {
+        when(panacheRepository.upsert(any())).thenReturn(Uni.createFrom().failure(new RuntimeException("db down")));
+
+        adapter.save(price("AAPL")).subscribe().withSubscriber(UniAssertSubscriber.create())
+                .assertFailedWith(ServiceException.class);
+
+        assertTrue(cached.isEmpty());
+    }
+
+    @Test
+    void testFindCachedReturnsHitsAndLoadsMissesInTheBackground() {
+        cached.put("AAPL", CompletableFuture.completedFuture(price("AAPL")));
+        when(panacheRepository.findByTickers(List.of("MSFT"))).thenReturn(Uni.createFrom().item(List.of(entity("MSFT"))));
+
+        Map<String, MarketPrice> prices = adapter.findCached(List.of("AAPL", "MSFT")).await().indefinitely();
+
+        assertEquals(Map.of("AAPL", price("AAPL")), prices);
+        verify(panacheRepository).findByTickers(List.of("MSFT"));
+        assertEquals(Map.of("AAPL", price("AAPL"), "MSFT", price("MSFT")),
+                adapter.findCached(List.of("AAPL", "MSFT")).await().indefinitely());
+    }
+
+    @Test
+    void testFindFallsBackToStorage() {
+        when(panacheRepository.findByTicker("AAPL")).thenReturn(Uni.createFrom().item(entity("AAPL")));
+        when(panacheRepository.findByTicker("MSFT")).thenReturn(Uni.createFrom().nullItem());
+
+        assertEquals(price("AAPL"), adapter.find("AAPL").await().indefinitely());
+        assertNull(adapter.find("MSFT").await().indefinitely());
+        assertTrue(cached.containsKey("AAPL"));
+        assertFalse(cached.containsKey("MSFT"));
+    }
+
+    private static MarketPrice price(String ticker) {
+        return new MarketPrice(ticker, new BigDecimal("100.5000"), Currency.USD, UPDATED_AT);
+    }
+
+    private static MarketPriceEntity entity(String ticker) {
+        MarketPriceEntity entity = new MarketPriceEntity();
+        entity.setTicker(ticker);
+        entity.setPrice(new BigDecimal("100.5000"));
+        entity.setCurrency(Currency.USD);
+        entity.setUpdatedAt(UPDATED_AT.atOffset(ZoneOffset.UTC));
+        return entity;
+    }
+}
@@ -1,45 +1,108 @@
 package com.transaction.infrastructure.outgoing.persistence.adapter;
 
 import com.transaction.domain.event.DomainEvent;
+import com.transaction.domain.event.TransactionUpdatedEvent;
+import com.transaction.domain.model.Currency;
 import com.transaction.domain.model.Transaction;
+import com.transaction.domain.model.TransactionPageCursor;
+import com.transaction.domain.model.TransactionSummary;
 import com.transaction.domain.model.TransactionType;
+import com.transaction.domain.model.TransactionUpdateData;
+import com.transaction.domain.port.output.PortfolioContext;
+import com.transaction.domain.port.output.PositionCheckpointRepository;
+import com.transaction.domain.port.output.UnitOfWork;
 import com.transaction.infrastructure.persistence.adapter.TransactionRepositoryAdapter;
 import com.transaction.infrastructure.persistence.entity.TransactionEntity;
 import com.transaction.infrastructure.persistence.mapper.TransactionEntityMapper;
+import com.transaction.infrastructure.persistence.repository.ReadReplica;
+import com.transaction.infrastructure.persistence.repository.ReplicaTransactionRepository;
+import com.transaction.infrastructure.persistence.repository.TransactionCounts;
 import com.transaction.infrastructure.persistence.repository.TransactionPanacheRepository;
+import com.transaction.infrastructure.persistence.repository.TransactionShards;
+import com.transaction.infrastructure.persistence.repository.TransactionStore;
+import com.transaction.domain.model.ChangeMarker;
+import io.quarkus.cache.Cache;
 import io.smallrye.mutiny.Uni;
 import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
-import org.hibernate.reactive.mutiny.Mutiny;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class TransactionRepositoryAdapterTest {
     private TransactionPanacheRepository panacheRepository;
     private TransactionEntityMapper transactionEntityMapper;
+    private Cache validatorCache;
+    private ReplicaTransactionRepository replicaRepository;
+    private ReadReplica readReplica;
+    private TransactionCounts transactionCounts;
+    private PositionCheckpointRepository checkpointRepository;
+    private List<Supplier<Uni<Void>>> afterCommit;
     private TransactionRepositoryAdapter adapter;
 
     @BeforeEach
+    @SuppressWarnings("unchecked")
     void setUp() {
         panacheRepository = mock(TransactionPanacheRepository.class);
         transactionEntityMapper = mock(TransactionEntityMapper.class);
-        adapter = new TransactionRepositoryAdapter(panacheRepository, transactionEntityMapper);
+        validatorCache = mock(Cache.class);
+        when(validatorCache.invalidate(any())).thenReturn(Uni.createFrom().voidItem());
+        when(validatorCache.getAsync(any(), any())).thenAnswer(invocation ->
+                ((Function<Object, Uni<Object>>) invocation.getArgument(1)).apply(invocation.getArgument(0)));
+        replicaRepository = mock(ReplicaTransactionRepository.class);
+        readReplica = mock(ReadReplica.class);
+        when(readReplica.read(any(), any(), any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(2)).get());
+        transactionCounts = mock(TransactionCounts.class);
+        PortfolioContext portfolioContext = mock(PortfolioContext.class);
+        when(portfolioContext.current()).thenReturn("default");
+        when(portfolioContext.scoped(any())).thenCallRealMethod();
+        TransactionShards shards = mock(TransactionShards.class);
+        when(shards.forWrite()).thenReturn(Uni.createFrom().item(panacheRepository));
+        when(shards.run(any())).thenAnswer(invocation ->
+                ((Function<TransactionStore, Uni<?>>) invocation.getArgument(0)).apply(panacheRepository));
+        when(shards.read(any(), any())).thenAnswer(invocation -> readReplica.read("default", invocation.getArgument(0),
+                () -> ((Function<TransactionStore, Uni<Object>>) invocation.getArgument(1)).apply(panacheRepository)));
+        when(panacheRepository.recordChange(any())).thenReturn(Uni.createFrom().voidItem());
+        when(panacheRepository.recordDividends(any(), anyInt())).thenReturn(Uni.createFrom().voidItem());
+        checkpointRepository = mock(PositionCheckpointRepository.class);
+        when(checkpointRepository.deleteFrom(any())).thenReturn(Uni.createFrom().voidItem());
+        afterCommit = new ArrayList<>();
+        UnitOfWork unitOfWork = mock(UnitOfWork.class);
+        when(unitOfWork.afterCommit(any())).thenAnswer(invocation -> {
+            afterCommit.add(invocation.getArgument(0));
+            return Uni.createFrom().voidItem();
+        });
+        adapter = new TransactionRepositoryAdapter(shards, transactionEntityMapper, validatorCache,
+                replicaRepository, readReplica, transactionCounts, portfolioContext, unitOfWork, checkpointRepository);
     }
 
     @Test
     void testSave() {
+        UUID id = UUID.randomUUID();
         Transaction transaction = mock(Transaction.class);
+        when(transaction.getId()).thenReturn(id);
+        when(transaction.getTicker()).thenReturn("AAPL");
         List<DomainEvent<?>> domainEvents = List.of(mock(DomainEvent.class));
         TransactionEntity entity = mock(TransactionEntity.class);
         when(transactionEntityMapper.toEntity(transaction)).thenReturn(entity);
-        when(panacheRepository.persistAndFlush(entity)).thenReturn(Uni.createFrom().item(entity));
+        when(entity.getTicker()).thenReturn("AAPL");
+        when(panacheRepository.insert(entity)).thenReturn(Uni.createFrom().item(entity));
         when(transaction.getDomainEvents()).thenReturn(domainEvents);
         when(transactionEntityMapper.createTransaction(entity)).thenReturn(transaction);
 
@@ -49,6 +112,28 @@ class TransactionRepositoryAdapterTest {
         assertEquals(transaction, result);
         verify(transactionEntityMapper).toEntity(transaction);
         verify(transactionEntityMapper).createTransaction(entity);
+        verify(transaction).setPortfolioId("default");
+        verify(panacheRepository).recordChange(List.of("AAPL"));
+        verify(validatorCache, never()).invalidate(any());
+        commit();
+        verifyInvalidated("default/all", "default/id:" + id, "default/ticker:AAPL");
+        verify(transactionCounts).added("AAPL");
+        verify(panacheRepository, never()).recordDividends(any(), anyInt());
+    }
+
+    @Test
+    void testSaveDividendCountsItForItsTicker() {
+        Transaction transaction = mock(Transaction.class);
+        TransactionEntity entity = mock(TransactionEntity.class);
+        when(transactionEntityMapper.toEntity(transaction)).thenReturn(entity);
+        when(entity.getTicker()).thenReturn("KO");
+        when(entity.getTransactionType()).thenReturn(TransactionType.DIVIDEND);
+        when(panacheRepository.insert(entity)).thenReturn(Uni.createFrom().item(entity));
+        when(transactionEntityMapper.createTransaction(entity)).thenReturn(transaction);
+
+        adapter.save(transaction).subscribe().withSubscriber(UniAssertSubscriber.create()).assertCompleted();
+
+        verify(panacheRepository).recordDividends("KO", 1);
     }
 
     @Test
@@ -132,19 +217,20 @@ class TransactionRepositoryAdapterTest {
 
     @Test
     void testUpdate() {
+        UUID id = UUID.randomUUID();
+        Transaction previous = mock(Transaction.class);
+        when(previous.getTicker()).thenReturn("MSFT");
         Transaction transaction = mock(Transaction.class);
-        List<DomainEvent<?>> domainEvents = Arrays.asList(mock(DomainEvent.class));
+        when(transaction.getId()).thenReturn(id);
+        when(transaction.getTicker()).thenReturn("AAPL");
+        List<DomainEvent<?>> domainEvents = List.of(new TransactionUpdatedEvent(new TransactionUpdateData(previous, transaction)));
+        when(transaction.getDomainEvents()).thenReturn(domainEvents);
         TransactionEntity entity = mock(TransactionEntity.class);
-        TransactionEntity mergedEntity = mock(TransactionEntity.class);
-        Mutiny.Session session = mock(Mutiny.Session.class);
 
         when(transactionEntityMapper.toEntity(transaction)).thenReturn(entity);
-        when(panacheRepository.getSession()).thenReturn(Uni.createFrom().item(session));
-        when(session.merge(entity)).thenReturn(Uni.createFrom().item(mergedEntity));
-        when(panacheRepository.persistAndFlush(mergedEntity)).thenReturn(Uni.createFrom().item(mergedEntity));
-        when(transactionEntityMapper.toDomain(mergedEntity)).thenReturn(transaction);
+        when(panacheRepository.updateIfVersionMatches(entity, 3L)).thenReturn(Uni.createFrom().item(1));
 
-        Uni<Transaction> uni = adapter.update(transaction);
+        Uni<Transaction> uni = adapter.update(transaction, 3L);
         Transaction result = uni.subscribe()
                 .withSubscriber(UniAssertSubscriber.create())
                 .assertCompleted()
@@ -152,19 +238,185 @@ class TransactionRepositoryAdapterTest {
 
         assertEquals(transaction, result);
         verify(transactionEntityMapper).toEntity(transaction);
-        verify(transactionEntityMapper).toDomain(mergedEntity);
-        verify(panacheRepository).persistAndFlush(mergedEntity);
+        verify(panacheRepository).updateIfVersionMatches(entity, 3L);
+        verify(panacheRepository, never()).insert(any());
+        commit();
+        verifyInvalidated("default/all", "default/id:" + id, "default/ticker:MSFT", "default/ticker:AAPL");
+    }
+
+    @Test
+    void testUpdateVersionMismatch() {
+        Transaction transaction = mock(Transaction.class);
+        TransactionEntity entity = mock(TransactionEntity.class);
+
+        when(transactionEntityMapper.toEntity(transaction)).thenReturn(entity);
+        when(panacheRepository.updateIfVersionMatches(entity, 3L)).thenReturn(Uni.createFrom().item(0));
+
+        Transaction result = adapter.update(transaction, 3L).subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .assertCompleted()
+                .getItem();
+
+        assertNull(result);
+        verify(panacheRepository, never()).recordChange(any());
+    }
+
+    @Test
+    void testUpdateMovingTickerMovesCount() {
+        Transaction previous = mock(Transaction.class);
+        Transaction transaction = mock(Transaction.class);
+        TransactionEntity entity = mock(TransactionEntity.class);
+        when(previous.getTicker()).thenReturn("AAPL");
+        when(transaction.getTicker()).thenReturn("MSFT");
+        when(transaction.getDomainEvents()).thenReturn(List.of(
+                new TransactionUpdatedEvent(new TransactionUpdateData(previous, transaction, Map.of()))));
+        when(transactionEntityMapper.toEntity(transaction)).thenReturn(entity);
+        when(panacheRepository.updateIfVersionMatches(entity, 3L)).thenReturn(Uni.createFrom().item(1));
+
+        adapter.update(transaction, 3L).subscribe().withSubscriber(UniAssertSubscriber.create()).assertCompleted();
+
+        verify(transactionCounts, never()).moved(any(), any());
+        commit();
+        verify(transactionCounts).moved("AAPL", "MSFT");
+        verify(panacheRepository).recordChange(Arrays.asList("AAPL", "MSFT"));
+        verify(panacheRepository, never()).recordDividends(any(), anyInt());
+    }
+
+    @Test
+    void testBackdatedUpdateDropsCheckpointsFromItsEarliestDate() {
+        Transaction previous = mock(Transaction.class);
+        Transaction transaction = mock(Transaction.class);
+        TransactionEntity entity = mock(TransactionEntity.class);
+        when(previous.getTicker()).thenReturn("AAPL");
+        when(previous.getTransactionDate()).thenReturn(LocalDate.parse("2024-05-20"));
+        when(transaction.getTicker()).thenReturn("AAPL");
+        when(transaction.getTransactionDate()).thenReturn(LocalDate.parse("2023-11-02"));
+        when(transaction.getDomainEvents()).thenReturn(List.of(
+                new TransactionUpdatedEvent(new TransactionUpdateData(previous, transaction, Map.of()))));
+        when(transactionEntityMapper.toEntity(transaction)).thenReturn(entity);
+        when(panacheRepository.updateIfVersionMatches(entity, 3L)).thenReturn(Uni.createFrom().item(1));
+
+        adapter.update(transaction, 3L).subscribe().withSubscriber(UniAssertSubscriber.create()).assertCompleted();
+
+        verify(checkpointRepository).deleteFrom(LocalDate.parse("2023-11-02"));
+    }
+
+    @Test
+    void testUpdateMovesTheDividendCountWithTheTickerAndType() {
+        Transaction previous = mock(Transaction.class);
+        Transaction transaction = mock(Transaction.class);
+        TransactionEntity entity = mock(TransactionEntity.class);
+        when(previous.getTicker()).thenReturn("KO");
+        when(previous.getTransactionType()).thenReturn(TransactionType.DIVIDEND);
+        when(transaction.getTicker()).thenReturn("PEP");
+        when(transaction.getTransactionType()).thenReturn(TransactionType.DIVIDEND);
+        when(transaction.getDomainEvents()).thenReturn(List.of(
+                new TransactionUpdatedEvent(new TransactionUpdateData(previous, transaction, Map.of()))));
+        when(transactionEntityMapper.toEntity(transaction)).thenReturn(entity);
+        when(panacheRepository.updateIfVersionMatches(entity, 3L)).thenReturn(Uni.createFrom().item(1));
+
+        adapter.update(transaction, 3L).subscribe().withSubscriber(UniAssertSubscriber.create()).assertCompleted();
+        when(transaction.getTicker()).thenReturn("KO");
+        when(transaction.getTransactionType()).thenReturn(TransactionType.BUY);
+        adapter.update(transaction, 3L).subscribe().withSubscriber(UniAssertSubscriber.create()).assertCompleted();
+
+        verify(panacheRepository, times(2)).recordDividends("KO", -1);
+        verify(panacheRepository).recordDividends("PEP", 1);
+        verify(panacheRepository, never()).recordDividends("KO", 1);
+    }
+
+    @Test
+    void testSplitsAreLeftOutOfTheCounts() {
+        Transaction split = mock(Transaction.class);
+        TransactionEntity entity = mock(TransactionEntity.class);
+        when(split.getTicker()).thenReturn("NVDA");
+        when(split.getTransactionType()).thenReturn(TransactionType.SPLIT);
+        when(transactionEntityMapper.toEntity(split)).thenReturn(entity);
+        when(entity.getTicker()).thenReturn("NVDA");
+        when(panacheRepository.insert(entity)).thenReturn(Uni.createFrom().item(entity));
+        when(transactionEntityMapper.createTransaction(entity)).thenReturn(split);
+        adapter.save(split).subscribe().withSubscriber(UniAssertSubscriber.create()).assertCompleted();
+
+        Transaction buy = mock(Transaction.class);
+        when(buy.getTicker()).thenReturn("NVDA");
+        when(buy.getTransactionType()).thenReturn(TransactionType.BUY);
+        when(buy.getDomainEvents()).thenReturn(List.of(
+                new TransactionUpdatedEvent(new TransactionUpdateData(split, buy, Map.of()))));
+        when(transactionEntityMapper.toEntity(buy)).thenReturn(entity);
+        when(panacheRepository.updateIfVersionMatches(entity, 1L)).thenReturn(Uni.createFrom().item(1));
+        adapter.update(buy, 1L).subscribe().withSubscriber(UniAssertSubscriber.create()).assertCompleted();
+
+        UUID id = UUID.randomUUID();
+        when(panacheRepository.findWriteScopeById(id)).thenReturn(Uni.createFrom().item(new Object[]{"NVDA", TransactionType.SPLIT, LocalDate.parse("2024-03-01")}));
+        when(panacheRepository.deleteById(id)).thenReturn(Uni.createFrom().item(true));
+        adapter.deleteById(id).subscribe().withSubscriber(UniAssertSubscriber.create()).assertCompleted();
+        commit();
+
+        verify(transactionCounts, times(1)).added("NVDA");
+        verify(transactionCounts, never()).removed(any());
+        verify(transactionCounts, never()).moved(any(), any());
+    }
+
+    @Test
+    void testDeleteDividendUncountsIt() {
+        UUID id = UUID.randomUUID();
+        when(panacheRepository.findWriteScopeById(id)).thenReturn(Uni.createFrom().item(new Object[]{"KO", TransactionType.DIVIDEND, LocalDate.parse("2024-03-01")}));
+        when(panacheRepository.deleteById(id)).thenReturn(Uni.createFrom().item(true));
+
+        adapter.deleteById(id).subscribe().withSubscriber(UniAssertSubscriber.create()).assertCompleted();
+
+        verify(panacheRepository).recordChange(List.of("KO"));
+        verify(panacheRepository).recordDividends("KO", -1);
+    }
+
+    @Test
+    void testDividendTickerMarkersComeFromTheChangeCounters() {
+        OffsetDateTime modified = OffsetDateTime.of(2024, 6, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        when(panacheRepository.findDividendTickers()).thenReturn(Uni.createFrom().item(List.of(
+                new Object[]{"KO", 4L, modified},
+                new Object[]{"PEP", 2L, modified})));
+
+        Map<String, ChangeMarker> markers = adapter.findDividendTickerMarkers().subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+
+        assertEquals(List.of("KO", "PEP"), List.copyOf(markers.keySet()));
+        assertEquals(ChangeMarker.ofChanges(4L, modified.toInstant()), markers.get("KO"));
+        verify(panacheRepository, never()).summarizeTransactions(any(), any(), any(), any());
     }
 
     @Test
     void testDeleteById() {
         UUID id = UUID.randomUUID();
+        when(panacheRepository.findWriteScopeById(id)).thenReturn(Uni.createFrom().item(new Object[]{"AAPL", TransactionType.BUY, LocalDate.parse("2024-02-10")}));
         when(panacheRepository.deleteById(id)).thenReturn(Uni.createFrom().item(true));
 
         Uni<Boolean> uni = adapter.deleteById(id);
         Boolean result = uni.subscribe().withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
 
         assertTrue(result);
+        verify(panacheRepository).recordChange(List.of("AAPL"));
+        commit();
+        verifyInvalidated("default/all", "default/id:" + id, "default/ticker:AAPL");
+        verify(readReplica).wrote("default");
+        verify(transactionCounts).removed("AAPL");
+        verify(panacheRepository, never()).recordDividends(any(), anyInt());
+        verify(checkpointRepository).deleteFrom(LocalDate.parse("2024-02-10"));
+    }
+
+    @Test
+    void testSearchTransactionsOnReplica() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        TransactionEntity entity = mock(TransactionEntity.class);
+        Transaction transaction = mock(Transaction.class);
+        doAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get()).when(readReplica).read(any(), any(), any());
+        when(replicaRepository.searchTransactions("AAPL", null, from, null)).thenReturn(Uni.createFrom().item(List.of(entity)));
+        when(transactionEntityMapper.toDomain(entity)).thenReturn(transaction);
+
+        List<Transaction> result = adapter.searchTransactions("AAPL", null, from, null).subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+
+        assertEquals(List.of(transaction), result);
+        verify(panacheRepository, never()).searchTransactions(any(), any(), any(), any());
     }
 
     @Test
@@ -192,7 +444,7 @@ class TransactionRepositoryAdapterTest {
 
     @Test
     void testCountAll() {
-        when(panacheRepository.count()).thenReturn(Uni.createFrom().item(42L));
+        when(transactionCounts.total()).thenReturn(Uni.createFrom().item(42L));
 
         Uni<Long> uni = adapter.countAll();
         Long result = uni.subscribe().withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
@@ -203,11 +455,111 @@ class TransactionRepositoryAdapterTest {
     @Test
     void testCountByTicker() {
         String ticker = "AAPL";
-        when(panacheRepository.countByTicker(ticker)).thenReturn(Uni.createFrom().item(7L));
+        when(transactionCounts.byTicker(ticker)).thenReturn(Uni.createFrom().item(7L));
 
         Uni<Long> uni = adapter.countByTicker(ticker);
         Long result = uni.subscribe().withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
 
         assertEquals(7L, result);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testFindChangeMarkerById() {
+        UUID id = UUID.randomUUID();
+        OffsetDateTime updatedAt = OffsetDateTime.of(2024, 5, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+        when(panacheRepository.findVersionAndUpdatedAt(id)).thenReturn(Uni.createFrom().item(new Object[]{4L, updatedAt}));
+
+        ChangeMarker result = adapter.findChangeMarkerById(id).subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+
+        assertEquals("4", result.tag());
+        assertEquals(updatedAt.toInstant(), result.lastModified());
+        verify(validatorCache).getAsync(eq("default/id:" + id), any());
+        verify(panacheRepository, never()).findById(any(UUID.class));
+    }
+
+    @Test
+    void testFindChangeMarkerByIdNotFound() {
+        UUID id = UUID.randomUUID();
+        when(panacheRepository.findVersionAndUpdatedAt(id)).thenReturn(Uni.createFrom().nullItem());
+
+        ChangeMarker result = adapter.findChangeMarkerById(id).subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+
+        assertNull(result);
+    }
+
+    @Test
+    void testFindChangeMarkerByTickerReadsItsChangeCounter() {
+        OffsetDateTime updatedAt = OffsetDateTime.of(2024, 5, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+        when(panacheRepository.findChangeCounter("AAPL"))
+                .thenReturn(Uni.createFrom().item(new Object[]{3L, updatedAt}))
+                .thenReturn(Uni.createFrom().item(new Object[]{4L, updatedAt}));
+
+        ChangeMarker before = adapter.findChangeMarkerByTicker("AAPL").subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+        ChangeMarker afterDelete = adapter.findChangeMarkerByTicker("AAPL").subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+
+        assertNotEquals(before.tag(), afterDelete.tag());
+        assertEquals(updatedAt.toInstant(), before.lastModified());
+        verify(validatorCache, times(2)).getAsync(eq("default/ticker:AAPL"), any());
+        verify(panacheRepository, never()).findByTicker(any());
+    }
+
+    @Test
+    void testFindChangeMarkerOfPortfolioNeverWritten() {
+        when(panacheRepository.findChangeCounter(null)).thenReturn(Uni.createFrom().nullItem());
+
+        ChangeMarker result = adapter.findChangeMarker().subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+
+        assertEquals("0-0", result.tag());
+        assertNull(result.lastModified());
+    }
+
+    @Test
+    void testSearchTransactionsPagePassesCursorPosition() {
+        TransactionPageCursor cursor = new TransactionPageCursor(LocalDate.of(2024, 3, 1), UUID.randomUUID());
+        TransactionEntity entity = mock(TransactionEntity.class);
+        Transaction transaction = mock(Transaction.class);
+        when(panacheRepository.searchTransactionsPage("AAPL", null, null, null, cursor.transactionDate(), cursor.id(), 11))
+                .thenReturn(Uni.createFrom().item(List.of(entity)));
+        when(transactionEntityMapper.toDomain(entity)).thenReturn(transaction);
+
+        List<Transaction> result = adapter.searchTransactions("AAPL", null, null, null, cursor, 11)
+                .subscribe().withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+
+        assertEquals(List.of(transaction), result);
+    }
+
+    @Test
+    void testSummarizeTransactions() {
+        LocalDate first = LocalDate.of(2024, 1, 2);
+        LocalDate last = LocalDate.of(2024, 6, 30);
+        when(panacheRepository.summarizeTransactions("AAPL", null, null, null))
+                .thenReturn(Uni.createFrom().item(List.<Object[]>of(new Object[]{"AAPL", TransactionType.BUY, Currency.USD, 3L,
+                        new BigDecimal("30"), new BigDecimal("4500.00"), new BigDecimal("3.00"), first, last})));
+
+        List<TransactionSummary> result = adapter.summarizeTransactions("AAPL", null, null, null)
+                .subscribe().withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+
+        assertEquals(List.of(new TransactionSummary("AAPL", TransactionType.BUY, Currency.USD, 3,
+                new BigDecimal("30"), new BigDecimal("4500.00"), new BigDecimal("3.00"), first, last)), result);
+    }
+
+    private void commit() {
+        afterCommit.forEach(action -> action.get().await().indefinitely());
+    }
+
+    /**
+     * The write dropped exactly these markers, all of its own portfolio
+     */
+    private void verifyInvalidated(String... keys) {
+        for (String key : keys) {
+            verify(validatorCache).invalidate(key);
+        }
+        verify(validatorCache, times(keys.length)).invalidate(any());
+        verify(validatorCache, never()).invalidateAll();
+    }
+}
@@ -0,0 +1,80 @@
+package com.transaction.infrastructure.persistence.repository;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import io.vertx.mutiny.sqlclient.Pool;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ReadReplicaTest {
+
+    private static final Duration MAX_LAG = Duration.ofSeconds(5);
+    private static final String PORTFOLIO = "growth";
+
+    @Test
+    void testUnreadableUntilLagIsMeasured() {
+        ReadReplica replica = new ReadReplica(mock(Pool.class), true, MAX_LAG, 100);
+
+        assertFalse(replica.isReadable(PORTFOLIO));
+        replica.lagMeasured(0.4);
+        assertTrue(replica.isReadable(PORTFOLIO));
+    }
+
+    @Test
+    void testLaggingReplicaIsSkipped() {
+        ReadReplica replica = new ReadReplica(mock(Pool.class), true, MAX_LAG, 100);
+        replica.lagMeasured(12);
+
+        assertEquals("primary", read(replica, Uni.createFrom().item("replica")));
+    }
+
+    @Test
+    void testReadsStayOnPrimaryAfterAWrite() {
+        ReadReplica replica = new ReadReplica(mock(Pool.class), true, MAX_LAG, 100);
+        replica.lagMeasured(0);
+
+        replica.wrote(PORTFOLIO);
+
+        assertFalse(replica.isReadable(PORTFOLIO));
+    }
+
+    @Test
+    void testAWriteOnlyPinsItsOwnPortfolio() {
+        ReadReplica replica = new ReadReplica(mock(Pool.class), true, MAX_LAG, 100);
+        replica.lagMeasured(0);
+
+        replica.wrote(PORTFOLIO);
+
+        assertEquals("primary", read(replica, Uni.createFrom().item("replica")));
+        assertTrue(replica.isReadable("income"));
+        assertEquals("replica", replica.read("income", () -> Uni.createFrom().item("replica"), () -> Uni.createFrom().item("primary"))
+                .await().indefinitely());
+    }
+
+    @Test
+    void testFailedReplicaReadFallsBackToPrimary() {
+        ReadReplica replica = new ReadReplica(mock(Pool.class), true, MAX_LAG, 100);
+        replica.lagMeasured(0);
+
+        assertEquals("replica", read(replica, Uni.createFrom().item("replica")));
+        assertEquals("primary", read(replica, Uni.createFrom().failure(new RuntimeException("connection refused"))));
+        assertFalse(replica.isReadable(PORTFOLIO));
+    }
+
+    @Test
+    void testDisabledReplicaIsNeverRead() {
+        ReadReplica replica = new ReadReplica(mock(Pool.class), false, MAX_LAG, 100);
+        replica.lagMeasured(0);
+
+        assertFalse(replica.isReadable(PORTFOLIO));
+    }
+
+    private static String read(ReadReplica replica, Uni<String> onReplica) {
+        return replica.read(PORTFOLIO, () -> onReplica, () -> Uni.createFrom().item("primary")).subscribe()
+                .withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+    }
+}
@@ -0,0 +1,195 @@
+package com.transaction.infrastructure.persistence.repository;
+
+import com.transaction.domain.port.output.PortfolioContext;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TransactionCountsTest {
+
+    private TransactionPanacheRepository panacheRepository;
+    private ReplicaTransactionRepository replicaRepository;
+    private ReadReplica readReplica;
+    private PortfolioContext portfolioContext;
+    private TransactionShards shards;
+
+    @BeforeEach
+    void setUp() {
+        panacheRepository = mock(TransactionPanacheRepository.class);
+        replicaRepository = mock(ReplicaTransactionRepository.class);
+        readReplica = mock(ReadReplica.class);
+        when(readReplica.read(any(), any(), any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(2)).get());
+        portfolioContext = mock(PortfolioContext.class);
+        when(portfolioContext.current()).thenReturn("default");
+        when(portfolioContext.within(any(), any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+        shards = new TransactionShards(new TransactionShards.Shard(panacheRepository, null, null),
+                mock(PortfolioShardPanacheRepository.class), portfolioContext,
+                readReplica, List.of());
+    }
+
+    @Test
+    void testCountsAreLoadedOnceAndKeptByWrites() {
+        TransactionCounts counts = new TransactionCounts(panacheRepository, replicaRepository, shards, portfolioContext, false, 100, 100);
+        when(panacheRepository.countInPortfolio()).thenReturn(Uni.createFrom().item(10L));
+        when(panacheRepository.countByTicker("AAPL")).thenReturn(Uni.createFrom().item(4L));
+
+        assertEquals(10L, await(counts.total()));
+        assertEquals(4L, await(counts.byTicker("AAPL")));
+        counts.added("AAPL");
+        counts.added("MSFT");
+        counts.removed("AAPL");
+        counts.moved("MSFT", "AAPL");
+
+        assertEquals(11L, await(counts.total()));
+        assertEquals(5L, await(counts.byTicker("AAPL")));
+        verify(panacheRepository, times(1)).countInPortfolio();
+        verify(panacheRepository, times(1)).countByTicker("AAPL");
+    }
+
+    @Test
+    void testReconcileReplacesLoadedCounts() {
+        TransactionCounts counts = new TransactionCounts(panacheRepository, replicaRepository, shards, portfolioContext, false, 100, 100);
+        when(panacheRepository.countInPortfolio()).thenReturn(Uni.createFrom().item(10L));
+        when(panacheRepository.countByTicker(any())).thenReturn(Uni.createFrom().item(4L));
+        await(counts.total());
+        await(counts.byTicker("AAPL"));
+        await(counts.byTicker("MSFT"));
+        counts.added("AAPL");
+
+        doReturn(Uni.createFrom().item(12L)).when(panacheRepository).countInPortfolio();
+        when(panacheRepository.countByTickers(Set.of("AAPL", "MSFT")))
+                .thenReturn(Uni.createFrom().item(List.<Object[]>of(new Object[]{"AAPL", 7L})));
+        counts.reconcile().await().indefinitely();
+
+        assertEquals(12L, await(counts.total()));
+        assertEquals(7L, await(counts.byTicker("AAPL")));
+        assertEquals(0L, await(counts.byTicker("MSFT")));
+    }
+
+    @Test
+    void testCountsAreKeptPerPortfolio() {
+        TransactionCounts counts = new TransactionCounts(panacheRepository, replicaRepository, shards, portfolioContext, false, 100, 100);
+        when(panacheRepository.countInPortfolio()).thenReturn(Uni.createFrom().item(10L));
+        await(counts.total());
+        when(portfolioContext.current()).thenReturn("family");
+        doReturn(Uni.createFrom().item(2L)).when(panacheRepository).countInPortfolio();
+        await(counts.total());
+
+        counts.added("AAPL");
+
+        assertEquals(3L, await(counts.total()));
+        when(portfolioContext.current()).thenReturn("default");
+        assertEquals(10L, await(counts.total()));
+    }
+
+    @Test
+    void testEstimatedTotal() {
+        TransactionCounts counts = new TransactionCounts(panacheRepository, replicaRepository, shards, portfolioContext, true, 100, 100);
+        when(panacheRepository.estimateCount()).thenReturn(Uni.createFrom().item(1_000_000L));
+
+        assertEquals(1_000_000L, await(counts.total()));
+        verify(panacheRepository, never()).countInPortfolio();
+    }
+
+    @Test
+    void testEstimateFallsBackToCountBeforeAnalyze() {
+        TransactionCounts counts = new TransactionCounts(panacheRepository, replicaRepository, shards, portfolioContext, true, 100, 100);
+        when(panacheRepository.estimateCount()).thenReturn(Uni.createFrom().item(-1L));
+        when(panacheRepository.countInPortfolio()).thenReturn(Uni.createFrom().item(3L));
+
+        assertEquals(3L, await(counts.total()));
+    }
+
+    @Test
+    void testFailedReconcileKeepsCounts() {
+        TransactionCounts counts = new TransactionCounts(panacheRepository, replicaRepository, shards, portfolioContext, false, 100, 100);
+        when(panacheRepository.countInPortfolio()).thenReturn(Uni.createFrom().item(10L));
+        await(counts.total());
+
+        doReturn(Uni.createFrom().failure(new RuntimeException("connection refused"))).when(panacheRepository).countInPortfolio();
+        counts.reconcile().await().indefinitely();
+
+        assertEquals(10L, await(counts.total()));
+    }
+
+    @Test
+    void testTickersAreCountedNormalized() {
+        TransactionCounts counts = new TransactionCounts(panacheRepository, replicaRepository, shards, portfolioContext, false, 100, 100);
+        when(panacheRepository.countByTicker("AAPL")).thenReturn(Uni.createFrom().item(4L));
+
+        assertEquals(4L, await(counts.byTicker(" aapl")));
+        counts.added("Aapl ");
+        counts.moved("AAPL", "aapl");
+
+        assertEquals(5L, await(counts.byTicker("AAPL")));
+        verify(panacheRepository, times(1)).countByTicker(any());
+    }
+
+    @Test
+    void testTickerCountsAreBounded() {
+        TransactionCounts counts = new TransactionCounts(panacheRepository, replicaRepository, shards, portfolioContext, false, 100, 1);
+        when(panacheRepository.countByTicker(any())).thenReturn(Uni.createFrom().item(4L));
+
+        for (int i = 0; i < 50; i++) {
+            await(counts.byTicker("T" + i));
+        }
+        List<Integer> reconciled = new ArrayList<>();
+        when(panacheRepository.countByTickers(any())).thenAnswer(invocation -> {
+            reconciled.add(invocation.<Collection<String>>getArgument(0).size());
+            return Uni.createFrom().item(List.of());
+        });
+        counts.reconcile().await().indefinitely();
+
+        assertEquals(1, reconciled.size());
+        assertTrue(reconciled.getFirst() < 50);
+    }
+
+    @Test
+    void testPortfolioCountsAreBounded() {
+        TransactionCounts counts = new TransactionCounts(panacheRepository, replicaRepository, shards, portfolioContext, false, 1, 100);
+        when(panacheRepository.countInPortfolio()).thenReturn(Uni.createFrom().item(4L));
+
+        for (int i = 0; i < 50; i++) {
+            when(portfolioContext.current()).thenReturn("portfolio-" + i);
+            await(counts.total());
+        }
+        clearInvocations(panacheRepository);
+        counts.reconcile().await().indefinitely();
+
+        verify(panacheRepository, atMost(49)).countInPortfolio();
+    }
+
+    @Test
+    void testReconcileLeavesCountsChangedDuringTheRead() {
+        TransactionCounts counts = new TransactionCounts(panacheRepository, replicaRepository, shards, portfolioContext, false, 100, 100);
+        when(panacheRepository.countInPortfolio()).thenReturn(Uni.createFrom().item(10L));
+        when(panacheRepository.countByTicker("AAPL")).thenReturn(Uni.createFrom().item(4L));
+        await(counts.total());
+        await(counts.byTicker("AAPL"));
+
+        when(panacheRepository.countByTickers(Set.of("AAPL"))).thenAnswer(invocation -> {
+            counts.added("AAPL");
+            return Uni.createFrom().item(List.<Object[]>of(new Object[]{"AAPL", 9L}));
+        });
+        doReturn(Uni.createFrom().item(20L)).when(panacheRepository).countInPortfolio();
+        counts.reconcile().await().indefinitely();
+
+        assertEquals(5L, await(counts.byTicker("AAPL")));
+        assertEquals(11L, await(counts.total()));
+    }
+
+    private static Long await(Uni<Long> count) {
+        return count.subscribe().withSubscriber(UniAssertSubscriber.create()).assertCompleted().getItem();
+    }
+}
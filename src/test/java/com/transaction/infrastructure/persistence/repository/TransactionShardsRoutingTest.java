@@ -0,0 +1,64 @@
+package com.transaction.infrastructure.persistence.repository;
+
+import com.transaction.domain.port.output.PortfolioContext;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Routing of portfolios to shards against mocked stores; the shards themselves are covered by {@link TransactionShardsTest}
+ */
+class TransactionShardsRoutingTest {
+
+    private final TransactionShards.Shard primary = new TransactionShards.Shard(mock(TransactionStore.class), null, null);
+    private final TransactionShards.Shard second = new TransactionShards.Shard(mock(TransactionStore.class), null, null);
+    private PortfolioShardPanacheRepository assignments;
+    private PortfolioContext portfolioContext;
+
+    @BeforeEach
+    void setUp() {
+        assignments = mock(PortfolioShardPanacheRepository.class);
+        when(assignments.assignHeldToPrimary()).thenReturn(Uni.createFrom().item(3));
+        when(assignments.assign(anyString(), anyInt())).thenAnswer(invocation -> Uni.createFrom().item(invocation.<Integer>getArgument(1)));
+        portfolioContext = mock(PortfolioContext.class);
+    }
+
+    @Test
+    void testSingleDatabaseWritesWithoutAssigningAShard() {
+        TransactionShards shards = new TransactionShards(primary, assignments, portfolioContext, mock(ReadReplica.class), List.of());
+        when(portfolioContext.current()).thenReturn("growth");
+
+        assertSame(primary, await(shards.shardForWrite()));
+        assertSame(primary, await(shards.currentShard()));
+        verifyNoInteractions(assignments);
+    }
+
+    @Test
+    void testPortfoliosHeldOnThePrimaryArePinnedBeforeTheFirstAssignment() {
+        TransactionShards shards = new TransactionShards(primary, assignments, portfolioContext, mock(ReadReplica.class), List.of(second));
+
+        when(portfolioContext.current()).thenReturn("growth");
+        await(shards.shardForWrite());
+        when(portfolioContext.current()).thenReturn("income");
+        await(shards.shardForWrite());
+
+        InOrder inOrder = inOrder(assignments);
+        inOrder.verify(assignments).assignHeldToPrimary();
+        inOrder.verify(assignments).assign(eq("growth"), anyInt());
+        inOrder.verify(assignments).assign(eq("income"), anyInt());
+        verify(assignments, times(1)).assignHeldToPrimary();
+    }
+
+    private static <T> T await(Uni<T> uni) {
+        return uni.await().atMost(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,207 @@
+package com.transaction.infrastructure.persistence.repository;
+
+import com.transaction.domain.model.Currency;
+import com.transaction.domain.model.TransactionType;
+import com.transaction.domain.port.output.PortfolioContext;
+import com.transaction.infrastructure.persistence.entity.TransactionEntity;
+import io.smallrye.common.vertx.VertxContext;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Context;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.pgclient.PgBuilder;
+import io.vertx.mutiny.sqlclient.Pool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Spreads portfolios over two real PostgreSQL shards, both migrated with the application changelog, and runs units of
+ * work against them through their {@link ShardTransaction}. The assignments, kept on the primary through Hibernate,
+ * are held in memory. Skipped when Docker is not available.
+ */
+@EnabledIf("dockerAvailable")
+class TransactionShardsTest {
+
+    private static final String CHANGE_LOG = "db/migration/db.changelog-master.yaml";
+
+    private static PostgreSQLContainer<?> first;
+    private static PostgreSQLContainer<?> second;
+    private static Vertx vertx;
+    private static Pool firstPool;
+    private static Pool secondPool;
+
+    private final AtomicReference<String> portfolio = new AtomicReference<>(PortfolioContext.DEFAULT_PORTFOLIO);
+    private final Map<String, Integer> assigned = new ConcurrentHashMap<>();
+    private TransactionShards shards;
+
+    static boolean dockerAvailable() {
+        return DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    @BeforeAll
+    static void startShards() {
+        first = new PostgreSQLContainer<>("postgres:15-alpine");
+        second = new PostgreSQLContainer<>("postgres:15-alpine");
+        first.start();
+        second.start();
+        ShardMigrations.migrate(url(first), CHANGE_LOG);
+        ShardMigrations.migrate(url(second), CHANGE_LOG);
+        vertx = Vertx.vertx();
+        firstPool = PgBuilder.pool().connectingTo(url(first)).using(vertx).build();
+        secondPool = PgBuilder.pool().connectingTo(url(second)).using(vertx).build();
+    }
+
+    @AfterAll
+    static void stopShards() {
+        if (firstPool != null) {
+            firstPool.closeAndAwait();
+            secondPool.closeAndAwait();
+        }
+        if (vertx != null) {
+            vertx.closeAndAwait();
+        }
+        if (first != null) {
+            first.stop();
+        }
+        if (second != null) {
+            second.stop();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        firstPool.query("TRUNCATE transactions, transaction_changes, idempotency_keys, position_checkpoints CASCADE").executeAndAwait();
+        secondPool.query("TRUNCATE transactions, transaction_changes, idempotency_keys, position_checkpoints CASCADE").executeAndAwait();
+        PortfolioContext portfolioContext = mock(PortfolioContext.class);
+        when(portfolioContext.current()).thenAnswer(invocation -> portfolio.get());
+        PortfolioShardPanacheRepository assignments = mock(PortfolioShardPanacheRepository.class);
+        when(assignments.findShard(anyString())).thenAnswer(invocation -> Uni.createFrom().item(assigned.get(invocation.<String>getArgument(0))));
+        when(assignments.assignHeldToPrimary()).thenReturn(Uni.createFrom().item(0));
+        when(assignments.assign(anyString(), anyInt())).thenAnswer(invocation -> Uni.createFrom().item(
+                assigned.computeIfAbsent(invocation.getArgument(0), ignored -> invocation.getArgument(1))));
+        ReadReplica readReplica = mock(ReadReplica.class);
+        when(readReplica.read(any(), any(), any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(2)).get());
+        shards = new TransactionShards(TransactionShards.onPool(firstPool, portfolioContext), assignments, portfolioContext,
+                readReplica, List.of(TransactionShards.onPool(secondPool, portfolioContext)));
+    }
+
+    @Test
+    void testPortfoliosOfBothShardsAreMergedInOrder() {
+        List<String> onFirst = List.of(portfolioOnShard("alpha", 0), portfolioOnShard("delta", 0));
+        List<String> onSecond = List.of(portfolioOnShard("bravo", 1), portfolioOnShard("charlie", 1));
+        for (String portfolioId : List.of(onSecond.get(1), onFirst.get(1), onSecond.get(0), onFirst.get(0))) {
+            portfolio.set(portfolioId);
+            await(shards.forWrite().flatMap(store -> store.insert(transaction(portfolioId, "AAPL"))));
+        }
+
+        assertEquals(onFirst, await(TransactionShards.onPool(firstPool, mock(PortfolioContext.class)).transactions().findPortfolioIds()));
+        assertEquals(onSecond, await(TransactionShards.onPool(secondPool, mock(PortfolioContext.class)).transactions().findPortfolioIds()));
+        assertEquals(List.of(onFirst.get(0), onSecond.get(0), onSecond.get(1), onFirst.get(1)), await(shards.findPortfolioIds()));
+
+        portfolio.set(onSecond.get(0));
+        assertEquals(1L, await(shards.read(() -> Uni.createFrom().item(-1L), TransactionStore::countInPortfolio)));
+    }
+
+    @Test
+    void testFailedUnitOfWorkLeavesNothingOnTheShard() {
+        String portfolioId = portfolioOnShard("growth", 1);
+        portfolio.set(portfolioId);
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+
+        assertThrows(Exception.class, () -> inUnitOfWork(shardTransaction -> shards.shardForWrite()
+                .flatMap(shard -> shard.idempotencyKeys().claim(portfolioId + "/key-1", "fp", now, now.plusHours(1))
+                        .chain(() -> shard.transactions().insert(transaction(portfolioId, "AAPL")))
+                        .chain(inserted -> shard.transactions().recordChange(List.of(inserted.getTicker()))))
+                .chain(() -> Uni.createFrom().failure(new IllegalStateException("publish failed")))));
+
+        assertEquals(0L, await(shards.run(TransactionStore::countInPortfolio)));
+        assertNull(await(shards.run(store -> store.findChangeCounter(null))));
+        Boolean claimedAgain = await(shards.shardForWrite().flatMap(shard -> shard.idempotencyKeys()
+                .claim(portfolioId + "/key-1", "other", now, now.plusHours(1))));
+        assertTrue(claimedAgain);
+    }
+
+    @Test
+    void testRollingBackToASavepointKeepsTheEnclosingWrites() throws Exception {
+        String portfolioId = portfolioOnShard("income", 1);
+        portfolio.set(portfolioId);
+
+        inUnitOfWork(shardTransaction -> shards.forWrite()
+                .flatMap(store -> store.insert(transaction(portfolioId, "AAPL"))
+                        .chain(() -> shardTransaction.savepoint("unit_of_work_1"))
+                        .chain(() -> store.insert(transaction(portfolioId, "MSFT")))
+                        .chain(() -> shardTransaction.rollbackTo("unit_of_work_1"))
+                        .chain(() -> shardTransaction.commit())));
+
+        List<TransactionEntity> saved = await(shards.run(TransactionStore::findAllOrderedByDate));
+        assertEquals(List.of("AAPL"), saved.stream().map(TransactionEntity::getTicker).toList());
+    }
+
+    /**
+     * Runs the work on a duplicated context with a shard transaction open, as the unit of work adapter does, rolling
+     * it back when the work fails
+     */
+    private static <T> T inUnitOfWork(Function<ShardTransaction, Uni<T>> work) throws Exception {
+        Context context = VertxContext.getOrCreateDuplicatedContext(vertx.getDelegate());
+        CompletableFuture<T> result = new CompletableFuture<>();
+        context.runOnContext(ignored -> {
+            ShardTransaction shardTransaction = ShardTransaction.begin();
+            Uni.createFrom().deferred(() -> work.apply(shardTransaction))
+                    .onFailure().call(shardTransaction::rollback)
+                    .eventually(shardTransaction::end)
+                    .subscribe().with(result::complete, result::completeExceptionally);
+        });
+        return result.get(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * A portfolio id the hash spreads to the given one of the two shards
+     */
+    private static String portfolioOnShard(String prefix, int shard) {
+        for (int i = 0; ; i++) {
+            String portfolioId = prefix + "-" + i;
+            if (Math.floorMod(portfolioId.hashCode(), 2) == shard) {
+                return portfolioId;
+            }
+        }
+    }
+
+    private static TransactionEntity transaction(String portfolioId, String ticker) {
+        return new TransactionEntity(null, portfolioId, ticker, TransactionType.BUY, BigDecimal.ONE, BigDecimal.TEN, Currency.USD,
+                LocalDate.of(2024, 1, 15), BigDecimal.ZERO, null, null, null, null, false, false, BigDecimal.ONE, null,
+                null, null, 0L);
+    }
+
+    private static String url(PostgreSQLContainer<?> container) {
+        return "postgresql://%s:%s@%s:%d/%s".formatted(container.getUsername(), container.getPassword(), container.getHost(),
+                container.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT), container.getDatabaseName());
+    }
+
+    private static <T> T await(Uni<T> uni) {
+        return uni.await().atMost(Duration.ofSeconds(30));
+    }
+}